@@ -4,6 +4,8 @@ import android.app.Application;
 import android.content.SharedPreferences;
 import androidx.appcompat.app.AppCompatDelegate;
 import com.roominate.services.SupabaseClient;
+import com.roominate.services.ConnectionWarmer;
+import com.roominate.utils.ImageLoader;
 
 public class RoominateApp extends Application {
     @Override
@@ -11,6 +13,10 @@ public class RoominateApp extends Application {
         super.onCreate();
         // Initialize Supabase client with application context so helpers can access prefs
         SupabaseClient.init(this);
+        // Configure Picasso (shared HTTP client, disk/memory cache budgets) before any screen uses it
+        ImageLoader.init(this);
+        // Resolve and connect to the Supabase host now and after every network switch
+        ConnectionWarmer.getInstance().start(this);
         
         // Set default theme to light mode
         SharedPreferences prefs = getSharedPreferences("roominate_prefs", MODE_PRIVATE);
@@ -21,4 +27,15 @@ public class RoominateApp extends Application {
             AppCompatDelegate.setDefaultNightMode(AppCompatDelegate.MODE_NIGHT_NO);
         }
     }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        if (level == TRIM_MEMORY_UI_HIDDEN) {
+            ImageLoader.logStats();
+            ConnectionWarmer.getInstance().logStats();
+        } else if (level >= TRIM_MEMORY_BACKGROUND) {
+            ImageLoader.trimMemory();
+        }
+    }
 }
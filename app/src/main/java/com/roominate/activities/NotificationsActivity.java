@@ -3,11 +3,14 @@ package com.roominate.activities;
 import android.content.Intent;
 import android.os.Bundle;
 import android.util.Log;
+import android.view.Menu;
+import android.view.MenuItem;
 import android.view.View;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -15,9 +18,11 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.roominate.R;
 import com.roominate.adapters.NotificationAdapter;
+import com.roominate.models.Notification;
+import com.roominate.services.NotificationInbox;
+import com.roominate.services.RealtimeClient;
 import com.roominate.services.SupabaseClient;
 
-import org.json.JSONArray;
 import org.json.JSONObject;
 
 public class NotificationsActivity extends AppCompatActivity {
@@ -28,7 +33,12 @@ public class NotificationsActivity extends AppCompatActivity {
     private ProgressBar progressBar;
     private TextView emptyTextView;
     private NotificationAdapter adapter;
-    private JSONArray notificationsData;
+    private NotificationInbox inbox;
+    private RealtimeClient.Subscription notificationSubscription;
+    private boolean firstResume = true;
+
+    // Start fetching the next page when this many rows remain below the last visible one
+    private static final int LOAD_MORE_THRESHOLD = 5;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -58,74 +68,111 @@ public class NotificationsActivity extends AppCompatActivity {
     }
 
     private void setupRecyclerView() {
-        notificationsData = new JSONArray();
-        adapter = new NotificationAdapter(this, notificationsData, new NotificationAdapter.NotificationClickListener() {
+        inbox = new NotificationInbox(this, new NotificationInbox.Listener() {
             @Override
-            public void onNotificationClick(JSONObject notification) {
-                handleNotificationClick(notification);
+            public void onInboxReset() {
+                progressBar.setVisibility(View.GONE);
+                adapter.notifyDataSetChanged();
+                updateEmptyState();
             }
 
             @Override
-            public void onDeleteClick(String notificationId, int position) {
-                deleteNotification(notificationId, position);
+            public void onPageAppended(int start, int count) {
+                adapter.notifyItemRangeInserted(start, count);
             }
-        });
-        notificationsRecyclerView.setLayoutManager(new LinearLayoutManager(this));
-        notificationsRecyclerView.setAdapter(adapter);
-    }
 
-    private void loadNotifications() {
-        progressBar.setVisibility(View.VISIBLE);
-        emptyTextView.setVisibility(View.GONE);
-        notificationsRecyclerView.setVisibility(View.GONE);
+            @Override
+            public void onItemInserted(int position) {
+                adapter.notifyItemInserted(position);
+                updateEmptyState();
+                // Keep the new row visible if the user is already at the top
+                LinearLayoutManager lm = (LinearLayoutManager) notificationsRecyclerView.getLayoutManager();
+                if (lm != null && lm.findFirstCompletelyVisibleItemPosition() <= 1) {
+                    notificationsRecyclerView.scrollToPosition(0);
+                }
+            }
 
-        SupabaseClient.getInstance().getNotifications(new SupabaseClient.ApiCallback() {
             @Override
-            public void onSuccess(JSONObject response) {
-                runOnUiThread(() -> {
-                    try {
-                        progressBar.setVisibility(View.GONE);
-                        notificationsData = response.getJSONArray("body");
-                        
-                        if (notificationsData.length() == 0) {
-                            emptyTextView.setVisibility(View.VISIBLE);
-                            notificationsRecyclerView.setVisibility(View.GONE);
-                        } else {
-                            emptyTextView.setVisibility(View.GONE);
-                            notificationsRecyclerView.setVisibility(View.VISIBLE);
-                            adapter.updateNotifications(notificationsData);
-                        }
-                    } catch (Exception e) {
-                        Log.e(TAG, "Error parsing notifications", e);
-                        showError("Failed to load notifications");
-                    }
-                });
+            public void onItemChanged(int position) {
+                adapter.notifyItemChanged(position);
             }
 
             @Override
-            public void onError(String error) {
-                runOnUiThread(() -> {
-                    progressBar.setVisibility(View.GONE);
+            public void onItemRemoved(int position) {
+                adapter.notifyItemRemoved(position);
+                updateEmptyState();
+            }
+
+            @Override
+            public void onInboxError(String error) {
+                Log.e(TAG, "Error loading notifications: " + error);
+                if (inbox.isEmpty()) {
                     showError(error);
-                });
+                } else {
+                    progressBar.setVisibility(View.GONE);
+                }
             }
         });
+
+        adapter = new NotificationAdapter(this, inbox.getItems(), new NotificationAdapter.NotificationClickListener() {
+            @Override
+            public void onNotificationClick(Notification notification) {
+                handleNotificationClick(notification);
+            }
+
+            @Override
+            public void onDeleteClick(String notificationId) {
+                deleteNotification(notificationId);
+            }
+        });
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        notificationsRecyclerView.setLayoutManager(layoutManager);
+        notificationsRecyclerView.setAdapter(adapter);
+        notificationsRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                if (dy <= 0) return;
+                int lastVisible = layoutManager.findLastVisibleItemPosition();
+                if (lastVisible >= adapter.getItemCount() - LOAD_MORE_THRESHOLD) {
+                    inbox.loadMore();
+                }
+            }
+        });
+    }
+
+    private void loadNotifications() {
+        // Render the cached first page immediately, then refresh it from the server
+        if (!inbox.restoreCachedPage()) {
+            progressBar.setVisibility(View.VISIBLE);
+            emptyTextView.setVisibility(View.GONE);
+            notificationsRecyclerView.setVisibility(View.GONE);
+        }
+        inbox.refresh();
     }
 
-    private void handleNotificationClick(JSONObject notification) {
+    private void updateEmptyState() {
+        if (inbox.isEmpty()) {
+            emptyTextView.setText("No notifications");
+            emptyTextView.setVisibility(View.VISIBLE);
+            notificationsRecyclerView.setVisibility(View.GONE);
+        } else {
+            emptyTextView.setVisibility(View.GONE);
+            notificationsRecyclerView.setVisibility(View.VISIBLE);
+        }
+    }
+
+    private void handleNotificationClick(Notification notification) {
         try {
-            String notificationId = notification.getString("id");
-            String type = notification.getString("type");
-            String relatedId = notification.optString("related_id", null);
-            boolean isRead = notification.getBoolean("is_read");
+            String type = notification.getType();
+            String relatedId = notification.getRelatedId();
 
             // Mark as read if not already
-            if (!isRead) {
-                markAsRead(notificationId);
+            if (!notification.isRead()) {
+                inbox.markAsRead(notification.getId());
             }
 
             // Navigate based on notification type
-            switch (type) {
+            switch (type != null ? type : "general") {
                 case "booking_update":
                     if (relatedId != null) {
                         // Navigate to booking details
@@ -176,72 +223,57 @@ public class NotificationsActivity extends AppCompatActivity {
         }
     }
 
-    private void markAsRead(String notificationId) {
-        SupabaseClient.getInstance().markNotificationAsRead(notificationId, new SupabaseClient.ApiCallback() {
-            @Override
-            public void onSuccess(JSONObject response) {
-                runOnUiThread(() -> {
-                    // Update the notification in the list
-                    for (int i = 0; i < notificationsData.length(); i++) {
-                        try {
-                            JSONObject notif = notificationsData.getJSONObject(i);
-                            if (notif.getString("id").equals(notificationId)) {
-                                notif.put("is_read", true);
-                                adapter.notifyItemChanged(i);
-                                break;
-                            }
-                        } catch (Exception e) {
-                            Log.e(TAG, "Error updating notification", e);
-                        }
-                    }
-                });
-            }
+    private void deleteNotification(String notificationId) {
+        // Removed immediately; the DELETE is batched with other taps by the inbox
+        inbox.delete(notificationId);
+        Toast.makeText(this, "Notification deleted", Toast.LENGTH_SHORT).show();
+    }
 
-            @Override
-            public void onError(String error) {
-                Log.e(TAG, "Failed to mark notification as read: " + error);
-            }
-        });
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.menu_notifications, menu);
+        return true;
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        int id = item.getItemId();
+        if (id == R.id.action_mark_all_read) {
+            markAllAsRead();
+            return true;
+        } else if (id == R.id.action_clear_all) {
+            confirmClearAll();
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
     }
 
-    private void deleteNotification(String notificationId, int position) {
-        SupabaseClient.getInstance().deleteNotification(notificationId, new SupabaseClient.ApiCallback() {
+    private void markAllAsRead() {
+        if (inbox.isEmpty()) return;
+        inbox.markAllAsRead(new SupabaseClient.ApiCallback() {
             @Override
             public void onSuccess(JSONObject response) {
-                runOnUiThread(() -> {
-                    // Remove from list
-                    JSONArray newArray = new JSONArray();
-                    for (int i = 0; i < notificationsData.length(); i++) {
-                        try {
-                            JSONObject notif = notificationsData.getJSONObject(i);
-                            if (!notif.getString("id").equals(notificationId)) {
-                                newArray.put(notif);
-                            }
-                        } catch (Exception e) {
-                            Log.e(TAG, "Error removing notification", e);
-                        }
-                    }
-                    notificationsData = newArray;
-                    adapter.updateNotifications(notificationsData);
-                    
-                    if (notificationsData.length() == 0) {
-                        emptyTextView.setVisibility(View.VISIBLE);
-                        notificationsRecyclerView.setVisibility(View.GONE);
-                    }
-                    
-                    Toast.makeText(NotificationsActivity.this, "Notification deleted", Toast.LENGTH_SHORT).show();
-                });
+                Log.d(TAG, "Marked " + response.optInt("count") + " notifications as read");
             }
 
             @Override
             public void onError(String error) {
-                runOnUiThread(() -> {
-                    Toast.makeText(NotificationsActivity.this, "Failed to delete notification", Toast.LENGTH_SHORT).show();
-                });
+                Log.e(TAG, "Failed to mark all as read: " + error);
+                Toast.makeText(NotificationsActivity.this, "Failed to mark notifications as read", Toast.LENGTH_SHORT).show();
             }
         });
     }
 
+    private void confirmClearAll() {
+        if (inbox.isEmpty()) return;
+        new AlertDialog.Builder(this)
+                .setTitle("Clear notifications")
+                .setMessage("Delete all notifications?")
+                .setPositiveButton("Clear", (dialog, which) -> inbox.clearAll())
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
     private void showError(String message) {
         progressBar.setVisibility(View.GONE);
         emptyTextView.setVisibility(View.VISIBLE);
@@ -249,10 +281,37 @@ public class NotificationsActivity extends AppCompatActivity {
         Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
     }
 
+    @Override
+    protected void onStart() {
+        super.onStart();
+        // New notifications and changes made elsewhere arrive over the shared Realtime socket
+        notificationSubscription = SupabaseClient.getInstance().subscribeToNotifications(inbox::applyChange);
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        if (notificationSubscription != null) {
+            notificationSubscription.unsubscribe();
+            notificationSubscription = null;
+        }
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        // Don't leave buffered mark-read/delete writes behind when the screen goes away
+        inbox.flushPendingWrites();
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
-        // Reload notifications when returning to the activity
-        loadNotifications();
+        // Refresh the newest page when returning to the activity (onCreate already loaded it)
+        if (firstResume) {
+            firstResume = false;
+            return;
+        }
+        inbox.refresh();
     }
 }
@@ -7,6 +7,8 @@ import android.content.Intent;
 import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.util.Log;
 import android.view.View;
 import android.view.animation.AccelerateDecelerateInterpolator;
@@ -18,13 +20,27 @@ import com.roominate.R;
 import com.roominate.activities.tenant.TenantDashboardActivity;
 import com.roominate.activities.owner.OwnerDashboardActivity;
 import com.roominate.activities.admin.AdminDashboardActivity;
+import com.roominate.services.OwnerStatsStore;
+import com.roominate.services.ConnectionWarmer;
+import com.roominate.services.SupabaseClient;
+import com.roominate.services.UnreadCountStore;
+import org.json.JSONObject;
+import java.util.concurrent.CompletableFuture;
 
 public class SplashActivity extends AppCompatActivity {
     
     private static final String TAG = "SplashActivity";
-    private static final int SPLASH_DELAY = 2500; // 2.5 seconds
+    // Longest we hold the splash for the first page of dashboard data
+    private static final long MAX_WAIT_MS = 1200;
+    // Longest we wait for an expired token to be refreshed before moving on anyway
+    private static final long SESSION_WAIT_MS = 5000;
+    // Tokens this close to expiry are refreshed now rather than failing mid-session
+    private static final long REFRESH_MARGIN_S = 60;
     private ImageView logoImageView;
     private TextView appNameTextView;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private long startedAt;
+    private boolean navigated = false;
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -37,42 +53,116 @@ public class SplashActivity extends AppCompatActivity {
         // Start animations
         startAnimations();
         
-        // Check session and navigate after delay
-        new Handler().postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                checkSessionAndNavigate();
-            }
-        }, SPLASH_DELAY);
+        // Warm up in parallel: connection to the Supabase host, session (refreshing it if
+        // needed), then the role's first page of data. We leave as soon as that is ready.
+        startedAt = SystemClock.elapsedRealtime();
+        ConnectionWarmer.getInstance().warm(false);
+        restoreSession();
+    }
+    
+    @Override
+    protected void onDestroy() {
+        handler.removeCallbacksAndMessages(null);
+        super.onDestroy();
     }
     
-    private void checkSessionAndNavigate() {
+    private void restoreSession() {
         SharedPreferences prefs = getSharedPreferences("roominate_prefs", MODE_PRIVATE);
         boolean isLoggedIn = prefs.getBoolean("is_logged_in", false);
         
-        if (isLoggedIn) {
-            // Check if token is still valid
-            long expiresAt = prefs.getLong("token_expires_at", 0);
-            long currentTime = System.currentTimeMillis() / 1000;
-            
-            if (expiresAt > currentTime) {
-                // Token is still valid, restore session
-                String userRole = prefs.getString("user_role", "tenant");
-                String userEmail = prefs.getString("user_email", "");
-                
-                Log.d(TAG, "Session found for: " + userEmail + " (role: " + userRole + ")");
-                navigateToDashboard(userRole);
-            } else {
-                // Token expired, clear and go to welcome
-                Log.d(TAG, "Session expired, redirecting to welcome");
-                clearSession(prefs);
-                navigateToWelcome();
-            }
-        } else {
+        if (!isLoggedIn) {
             // Not logged in, go to welcome
             Log.d(TAG, "No session found, redirecting to welcome");
             navigateToWelcome();
+            return;
         }
+        
+        String userRole = prefs.getString("user_role", "tenant");
+        Log.d(TAG, "Session found for: " + prefs.getString("user_email", "") + " (role: " + userRole + ")");
+        
+        long expiresAt = prefs.getLong("token_expires_at", 0);
+        long currentTime = System.currentTimeMillis() / 1000;
+        if (expiresAt - REFRESH_MARGIN_S > currentTime) {
+            onSessionReady(userRole);
+            return;
+        }
+        
+        String refreshToken = prefs.getString("refresh_token", null);
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            Log.d(TAG, "Session expired without a refresh token, redirecting to welcome");
+            clearSession(prefs);
+            navigateToWelcome();
+            return;
+        }
+        
+        boolean stillValid = expiresAt > currentTime;
+        if (stillValid) {
+            // About to expire: the current token serves the first requests while it's renewed
+            onSessionReady(userRole);
+        } else {
+            // A slow network shouldn't strand the user here; requests retry the refresh on 401
+            handler.postDelayed(() -> onSessionReady(userRole), SESSION_WAIT_MS);
+        }
+        
+        SupabaseClient.getInstance().refreshSession(refreshToken, new SupabaseClient.ApiCallback() {
+            @Override
+            public void onSuccess(JSONObject response) {
+                Log.d(TAG, "Session refreshed");
+                handler.post(() -> onSessionReady(userRole));
+            }
+
+            @Override
+            public void onError(String error) {
+                Log.w(TAG, "Session refresh failed: " + error);
+                handler.post(() -> {
+                    if (SupabaseClient.isSessionRejected(error)) {
+                        if (!stillValid && !navigated) {
+                            clearSession(prefs);
+                            navigateToWelcome();
+                        }
+                    } else {
+                        // Offline, auth server down or rate limited: keep the session, the
+                        // dashboard's requests retry the refresh on 401
+                        onSessionReady(userRole);
+                    }
+                });
+            }
+        });
+    }
+    
+    /**
+     * Start loading what the role's dashboard shows first, then navigate when it arrives or
+     * when {@link #MAX_WAIT_MS} since launch has passed, whichever is sooner. Prefetches that
+     * are still running when we leave are picked up by the dashboard.
+     */
+    private void onSessionReady(String userRole) {
+        if (navigated) return;
+        
+        CompletableFuture<?> firstPage = null;
+        if (isTenantView(userRole)) {
+            firstPage = SupabaseClient.getInstance().prefetchAvailableListings();
+        } else if ("owner".equalsIgnoreCase(userRole)) {
+            OwnerStatsStore.getInstance().refresh(false);
+        }
+        if (!"admin".equalsIgnoreCase(userRole)) {
+            UnreadCountStore.getInstance().refresh(false);
+        }
+        
+        if (firstPage == null || firstPage.isDone()) {
+            navigateToDashboard(userRole);
+            return;
+        }
+        firstPage.whenComplete((body, error) -> handler.post(() -> navigateToDashboard(userRole)));
+        long remaining = Math.max(0, MAX_WAIT_MS - (SystemClock.elapsedRealtime() - startedAt));
+        handler.postDelayed(() -> navigateToDashboard(userRole), remaining);
+    }
+    
+    private boolean isTenantView(String userRole) {
+        if ("owner".equalsIgnoreCase(userRole)) {
+            SharedPreferences prefs = getSharedPreferences("roominate_prefs", MODE_PRIVATE);
+            return prefs.getBoolean("owner_using_tenant_view", false);
+        }
+        return !"admin".equalsIgnoreCase(userRole);
     }
     
     private void clearSession(SharedPreferences prefs) {
@@ -85,6 +175,8 @@ public class SplashActivity extends AppCompatActivity {
     }
     
     private void navigateToWelcome() {
+        if (navigated) return;
+        navigated = true;
         Intent intent = new Intent(SplashActivity.this, WelcomeActivity.class);
         intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
         startActivity(intent);
@@ -93,6 +185,9 @@ public class SplashActivity extends AppCompatActivity {
     }
     
     private void navigateToDashboard(String userRole) {
+        if (navigated) return;
+        navigated = true;
+        
         // Check if owner is using tenant view
         SharedPreferences prefs = getSharedPreferences("roominate_prefs", MODE_PRIVATE);
         boolean ownerUsingTenantView = prefs.getBoolean("owner_using_tenant_view", false);
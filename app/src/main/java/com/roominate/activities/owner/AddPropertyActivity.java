@@ -31,16 +31,14 @@ import com.google.android.material.chip.ChipGroup;
 import com.roominate.R;
 import com.roominate.adapters.ImagePreviewAdapter;
 import com.roominate.BuildConfig;
+import com.roominate.services.OwnerStatsStore;
+import com.roominate.services.PhotoUploadQueue;
 import com.roominate.services.SupabaseClient;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
 import okhttp3.OkHttpClient;
@@ -423,31 +421,34 @@ public class AddPropertyActivity extends AppCompatActivity {
     }
 
     private void submitProperty() {
-        progressDialog.setMessage("Uploading property...");
+        progressDialog.setMessage("Saving property...");
         progressDialog.show();
         
         new Thread(() -> {
             try {
-                // Step 1: Upload images to Supabase Storage (optional)
-                List<String> imageUrls = uploadImages();
+                // Step 1: Create property record; media rows need its id
+                String propertyId = createPropertyRecord();
+                boolean success = propertyId != null;
                 
-                if (!imageUrls.isEmpty()) {
-                    Log.d(TAG, "Uploaded " + imageUrls.size() + " images successfully");
-                } else {
-                    Log.w(TAG, "No images were uploaded, but continuing with property creation");
+                // Step 2: Hand photos (optional) to the background upload queue. Only the
+                // WebP renditions are prepared here; uploading continues after we leave.
+                int queued = 0;
+                if (success && !selectedImageUris.isEmpty()) {
+                    runOnUiThread(() -> progressDialog.setMessage("Preparing photos..."));
+                    queued = PhotoUploadQueue.getInstance(this).enqueue(propertyId, new ArrayList<>(selectedImageUris), 0);
+                    Log.d(TAG, "Queued " + queued + " of " + selectedImageUris.size() + " photos for upload");
                 }
-                
-                // Step 2: Create property record in database (regardless of image upload status)
-                boolean success = createPropertyRecord(imageUrls);
+                int queuedCount = queued;
                 
                 runOnUiThread(() -> {
                     progressDialog.dismiss();
                     
                     if (success) {
-                        String message = imageUrls.isEmpty() 
+                        String message = queuedCount == 0
                             ? "Property added successfully! (without images)" 
-                            : "Property added successfully!";
+                            : "Property added! Photos are uploading in the background.";
                         Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+                        OwnerStatsStore.getInstance().refresh(true);
                         finish();
                     } else {
                         Toast.makeText(this, "Failed to add property", Toast.LENGTH_SHORT).show();
@@ -464,93 +465,10 @@ public class AddPropertyActivity extends AppCompatActivity {
         }).start();
     }
 
-    private List<String> uploadImages() {
-        List<String> imageUrls = new ArrayList<>();
-        
-        try {
-            for (Uri imageUri : selectedImageUris) {
-                try {
-                    String fileName = "property_" + UUID.randomUUID().toString() + ".jpg";
-                    String storagePath = "properties/" + currentUserId + "/" + fileName;
-                    
-                    // Read image data from content resolver
-                    InputStream inputStream = getContentResolver().openInputStream(imageUri);
-                    if (inputStream == null) {
-                        Log.e(TAG, "Failed to open input stream for URI: " + imageUri);
-                        continue;
-                    }
-                    
-                    File tempFile = File.createTempFile("upload", ".jpg", getCacheDir());
-                    FileOutputStream outputStream = new FileOutputStream(tempFile);
-                    
-                    byte[] buffer = new byte[4096];
-                    int bytesRead;
-                    while ((bytesRead = inputStream.read(buffer)) != -1) {
-                        outputStream.write(buffer, 0, bytesRead);
-                    }
-                    
-                    inputStream.close();
-                    outputStream.close();
-                    
-                    // Read the file into bytes for RequestBody
-                    byte[] fileBytes = new byte[(int) tempFile.length()];
-                    java.io.FileInputStream fis = new java.io.FileInputStream(tempFile);
-                    fis.read(fileBytes);
-                    fis.close();
-                    
-                    // Create RequestBody from bytes with proper media type
-                    RequestBody requestBody = RequestBody.create(
-                        fileBytes, 
-                        MediaType.parse("image/jpeg")
-                    );
-                    
-                    OkHttpClient client = new OkHttpClient.Builder()
-                        .connectTimeout(60, TimeUnit.SECONDS)
-                        .readTimeout(60, TimeUnit.SECONDS)
-                        .writeTimeout(60, TimeUnit.SECONDS)
-                        .build();
-                    
-                    String uploadUrl = BuildConfig.SUPABASE_URL + "/storage/v1/object/property-images/" + storagePath;
-                    Log.d(TAG, "Uploading image to: " + uploadUrl);
-                    Log.d(TAG, "File size: " + fileBytes.length + " bytes");
-                    
-                    Request.Builder reqBuilder = new Request.Builder()
-                        .url(uploadUrl)
-                        .put(requestBody)  // Use PUT instead of POST for Supabase Storage
-                        .addHeader("Content-Type", "image/jpeg");
-
-                    // Centralized header wiring (apikey + Authorization)
-                    reqBuilder = com.roominate.services.SupabaseClient.addAuthHeaders(reqBuilder);
-
-                    Request request = reqBuilder.build();
-                    
-                    Response response = client.newCall(request).execute();
-                    Log.d(TAG, "Upload response code: " + response.code());
-                    
-                    if (response.isSuccessful()) {
-                        String publicUrl = BuildConfig.SUPABASE_URL + "/storage/v1/object/public/property-images/" + storagePath;
-                        imageUrls.add(publicUrl);
-                        Log.d(TAG, "Successfully uploaded image: " + publicUrl);
-                    } else {
-                        String errorBody = response.body() != null ? response.body().string() : "No error body";
-                        Log.e(TAG, "Failed to upload image. Status: " + response.code() + " | Error: " + errorBody);
-                    }
-                    
-                    response.close();
-                    tempFile.delete();
-                    
-                } catch (Exception e) {
-                    Log.e(TAG, "Error uploading individual image", e);
-                }
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "Error uploading images", e);
-        }
-        
-        return imageUrls;
-    }
-
-    private boolean createPropertyRecord(List<String> imageUrls) {
+    /**
+     * @return the new property's id, or null on failure
+     */
+    private String createPropertyRecord() {
         try {
             // Get selected amenities
             List<String> selectedAmenities = new ArrayList<>();
@@ -581,7 +499,7 @@ public class AddPropertyActivity extends AppCompatActivity {
             property.put("internet_included", internetIncludedCheckBox.isChecked());
             property.put("contact_person", contactPersonEditText.getText().toString().trim());
             property.put("contact_phone", contactPhoneEditText.getText().toString().trim());
-            property.put("images", new JSONArray(imageUrls));
+            property.put("images", new JSONArray());
             property.put("amenities", new JSONArray(selectedAmenities));
             property.put("status", "active");
             
@@ -591,11 +509,7 @@ public class AddPropertyActivity extends AppCompatActivity {
                 MediaType.parse("application/json")
             );
             
-            OkHttpClient client = new OkHttpClient.Builder()
-                .connectTimeout(60, TimeUnit.SECONDS)
-                .readTimeout(60, TimeUnit.SECONDS)
-                .writeTimeout(60, TimeUnit.SECONDS)
-                .build();
+            OkHttpClient client = SupabaseClient.getInstance().getHttpClient();
             
             Request.Builder reqBuilder = new Request.Builder()
                 .url(BuildConfig.SUPABASE_URL + "/rest/v1/boarding_houses")
@@ -609,21 +523,22 @@ public class AddPropertyActivity extends AppCompatActivity {
             Request request = reqBuilder.build();
             
             Response response = client.newCall(request).execute();
-            boolean success = response.isSuccessful();
+            String body = response.body() != null ? response.body().string() : "";
+            response.close();
             
-            if (!success) {
-                String errorBody = response.body() != null ? response.body().string() : "Unknown error";
-                Log.e(TAG, "Failed to create property: " + response.code() + " - " + errorBody);
-            } else {
-                Log.d(TAG, "Property created successfully");
+            if (!response.isSuccessful()) {
+                Log.e(TAG, "Failed to create property: " + response.code() + " - " + body);
+                return null;
             }
             
-            response.close();
-            return success;
+            JSONArray created = new JSONArray(body);
+            String propertyId = created.length() > 0 ? created.getJSONObject(0).optString("id", null) : null;
+            Log.d(TAG, "Property created successfully: " + propertyId);
+            return propertyId;
             
         } catch (Exception e) {
             Log.e(TAG, "Error creating property record", e);
-            return false;
+            return null;
         }
     }
 }
@@ -20,9 +20,6 @@ import com.roominate.services.SupabaseClient;
 
 import org.json.JSONObject;
 
-import java.text.SimpleDateFormat;
-import java.util.Locale;
-
 public class BookingDetailsActivity extends AppCompatActivity {
 
     private static final String TAG = "BookingDetailsActivity";
@@ -42,15 +39,12 @@ public class BookingDetailsActivity extends AppCompatActivity {
     
     // Data
     private Booking booking;
-    private SimpleDateFormat displayDateFormat;
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_booking_details);
         
-        displayDateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
-        
         initializeViews();
         loadBookingData();
     }
@@ -637,7 +637,13 @@ public class EditPropertyActivity extends AppCompatActivity {
             progressBar.setProgress(progress);
         });
         
-        supabaseClient.uploadPropertyImage(propertyId, imageUri, isPrimary, new SupabaseClient.ApiCallback() {
+        int count = selectedImageUris.size();
+        supabaseClient.uploadPropertyImage(propertyId, imageUri, isPrimary, (written, length) -> {
+            if (length <= 0) return;
+            // Overall progress: finished images plus the fraction of the current one
+            int progress = (int) ((index + (float) written / length) / count * 100);
+            runOnUiThread(() -> progressBar.setProgress(progress));
+        }, new SupabaseClient.ApiCallback() {
             @Override
             public void onSuccess(JSONObject response) {
                 Log.d(TAG, "Image " + (index + 1) + " uploaded successfully");
@@ -155,6 +155,9 @@ public class MyListingsFragment extends Fragment {
                     JSONArray jsonArray = new JSONArray(responseBody);
                     Log.d(TAG, "Found " + jsonArray.length() + " listings in response");
                     
+                    // Photos live in properties_media (new listings leave the images column empty)
+                    com.roominate.services.SupabaseClient.getInstance().attachPropertyImages(jsonArray);
+                    
                     properties.clear();
                     
                     for (int i = 0; i < jsonArray.length(); i++) {
@@ -184,6 +187,10 @@ public class MyListingsFragment extends Fragment {
                                 property.setImageUrls(imageUrls);
                             }
                         }
+                        JSONArray thumbnailsArray = jsonObject.optJSONArray("thumbnails");
+                        if (thumbnailsArray != null && thumbnailsArray.length() > 0) {
+                            property.setThumbnailUrl(thumbnailsArray.getString(0));
+                        }
                         
                         // Parse amenities JSONB array
                         if (jsonObject.has("amenities") && !jsonObject.isNull("amenities")) {
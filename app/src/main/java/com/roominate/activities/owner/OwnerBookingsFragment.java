@@ -19,15 +19,15 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.roominate.R;
 import com.roominate.adapters.BookingAdapter;
 import com.roominate.models.Booking;
+import com.roominate.services.RealtimeClient;
 import com.roominate.services.SupabaseClient;
+import com.roominate.utils.DateTimeHelper;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 
 public class OwnerBookingsFragment extends Fragment implements BookingAdapter.OnBookingActionListener {
 
@@ -38,8 +38,7 @@ public class OwnerBookingsFragment extends Fragment implements BookingAdapter.On
     private ImageButton menuButton;
     private TextView emptyStateText;
     private BookingAdapter adapter;
-    private SimpleDateFormat dateFormat;
-    private SimpleDateFormat displayDateFormat;
+    private RealtimeClient.Subscription bookingSubscription;
 
     @Nullable
     @Override
@@ -50,9 +49,6 @@ public class OwnerBookingsFragment extends Fragment implements BookingAdapter.On
         emptyStateText = v.findViewById(R.id.emptyStateText);
         recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
         
-        dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-        displayDateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
-        
         // Initialize adapter
         adapter = new BookingAdapter(getContext(), this);
         recyclerView.setAdapter(adapter);
@@ -68,6 +64,25 @@ public class OwnerBookingsFragment extends Fragment implements BookingAdapter.On
 
         return v;
     }
+
+    @Override
+    public void onStart() {
+        super.onStart();
+        // New requests and tenant cancellations/payments show up without leaving the screen.
+        // Rows need the joined property/tenant data, so any change reloads the list.
+        bookingSubscription = SupabaseClient.getInstance().subscribeToOwnerBookings(change -> {
+            if (isAdded()) loadBookings();
+        });
+    }
+
+    @Override
+    public void onStop() {
+        super.onStop();
+        if (bookingSubscription != null) {
+            bookingSubscription.unsubscribe();
+            bookingSubscription = null;
+        }
+    }
     
     private void loadBookings() {
         SupabaseClient.getInstance().getOwnerBookings(new SupabaseClient.ApiCallback() {
@@ -113,70 +128,9 @@ public class OwnerBookingsFragment extends Fragment implements BookingAdapter.On
     
     private Booking parseBooking(JSONObject json) {
         try {
-            Booking booking = new Booking();
-            
-            // Basic fields
-            booking.setId(json.optString("id"));
-            booking.setTenantId(json.optString("tenant_id"));
-            booking.setBoardingHouseId(json.optString("listing_id"));
-            booking.setOwnerId(json.optString("owner_id"));
-            booking.setStatus(json.optString("status", "pending"));
-            booking.setTotalAmount(json.optDouble("total_amount", 0));
-            
-            // Parse dates
-            String startDate = json.optString("start_date");
-            if (startDate != null && !startDate.isEmpty()) {
-                try {
-                    booking.setMoveInDate(dateFormat.parse(startDate));
-                } catch (Exception e) {
-                    Log.e(TAG, "Error parsing start date: " + startDate, e);
-                }
-            }
-            
-            String endDate = json.optString("end_date");
-            if (endDate != null && !endDate.isEmpty()) {
-                try {
-                    booking.setMoveOutDate(dateFormat.parse(endDate));
-                } catch (Exception e) {
-                    Log.e(TAG, "Error parsing end date: " + endDate, e);
-                }
-            }
-            
-            // Parse property details from joined boarding_houses
-            if (json.has("boarding_houses") && !json.isNull("boarding_houses")) {
-                try {
-                    JSONObject property = json.getJSONObject("boarding_houses");
-                    String title = property.optString("title", null);
-                    String address = property.optString("address", null);
-                    
-                    Log.d(TAG, "Property from JSON - title: " + title + ", address: " + address);
-                    
-                    booking.setPropertyName(title != null ? title : "Unknown Property");
-                    booking.setPropertyAddress(address != null ? address : "");
-                } catch (Exception e) {
-                    Log.e(TAG, "Error parsing boarding_houses", e);
-                    booking.setPropertyName("Unknown Property");
-                }
-            } else {
-                Log.d(TAG, "No boarding_houses in JSON");
-                booking.setPropertyName("Unknown Property");
-            }
-            
-            // Set created_at
-            String createdAt = json.optString("created_at");
-            if (createdAt != null && !createdAt.isEmpty()) {
-                try {
-                    SimpleDateFormat isoFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.getDefault());
-                    booking.setCreatedAt(isoFormat.parse(createdAt));
-                } catch (Exception e) {
-                    Log.e(TAG, "Error parsing created_at: " + createdAt, e);
-                }
-            }
-            
+            Booking booking = Booking.fromJson(json);
             Log.d(TAG, "Parsed booking: id=" + booking.getId() + ", propertyName=" + booking.getPropertyName());
-            
             return booking;
-            
         } catch (Exception e) {
             Log.e(TAG, "Error parsing booking JSON", e);
             return null;
@@ -205,14 +159,14 @@ public class OwnerBookingsFragment extends Fragment implements BookingAdapter.On
         intent.putExtra("total_amount", booking.getTotalAmount());
         
         // Format dates for display
-        if (booking.getMoveInDate() != null) {
-            intent.putExtra("move_in_date", displayDateFormat.format(booking.getMoveInDate()));
+        if (booking.getMoveInDate() != 0) {
+            intent.putExtra("move_in_date", DateTimeHelper.formatDisplayDate(booking.getMoveInDate()));
         }
-        if (booking.getMoveOutDate() != null) {
-            intent.putExtra("move_out_date", displayDateFormat.format(booking.getMoveOutDate()));
+        if (booking.getMoveOutDate() != 0) {
+            intent.putExtra("move_out_date", DateTimeHelper.formatDisplayDate(booking.getMoveOutDate()));
         }
-        if (booking.getCreatedAt() != null) {
-            intent.putExtra("created_date", displayDateFormat.format(booking.getCreatedAt()));
+        if (booking.getCreatedAt() != 0) {
+            intent.putExtra("created_date", DateTimeHelper.formatDisplayDate(booking.getCreatedAt()));
         }
         
         startActivityForResult(intent, REQUEST_BOOKING_DETAILS);
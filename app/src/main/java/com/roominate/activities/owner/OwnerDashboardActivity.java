@@ -20,6 +20,9 @@ import com.roominate.R;
 import com.roominate.activities.auth.LoginActivity;
 import com.roominate.activities.tenant.TenantDashboardActivity;
 import com.roominate.services.SupabaseClient;
+import com.roominate.services.OwnerStatsStore;
+import com.roominate.services.TenantBookingCache;
+import com.roominate.services.UnreadCountStore;
 import com.roominate.ui.fragments.ProfileFragment;
 import org.json.JSONObject;
 
@@ -35,6 +38,10 @@ public class OwnerDashboardActivity extends AppCompatActivity implements Navigat
     private TextView profileNameTextView;
     private TextView profileEmailTextView;
     private ImageView profileImageView;
+    private TextView notificationsBadge;
+
+    // Drawer badge follows the shared unread counter (cached with TTL, pushed on change)
+    private final UnreadCountStore.Observer unreadObserver = this::updateNotificationsBadge;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -72,9 +79,24 @@ public class OwnerDashboardActivity extends AppCompatActivity implements Navigat
         profileNameTextView = headerView.findViewById(R.id.profileName);
         profileEmailTextView = headerView.findViewById(R.id.profileEmail);
         
+        MenuItem notificationsItem = navigationView.getMenu().findItem(R.id.nav_notifications);
+        if (notificationsItem != null && notificationsItem.getActionView() != null) {
+            notificationsBadge = notificationsItem.getActionView().findViewById(R.id.navBadgeCounter);
+        }
+        
         // Load user data into header
         loadUserProfile();
     }
+
+    private void updateNotificationsBadge(int count) {
+        if (notificationsBadge == null) return;
+        if (count > 0) {
+            notificationsBadge.setText(count > 99 ? "99+" : String.valueOf(count));
+            notificationsBadge.setVisibility(View.VISIBLE);
+        } else {
+            notificationsBadge.setVisibility(View.GONE);
+        }
+    }
     
     private void loadUserProfile() {
         // Try to get user data from login response stored in SharedPreferences
@@ -209,6 +231,9 @@ public class OwnerDashboardActivity extends AppCompatActivity implements Navigat
         } else if (id == R.id.nav_profile) {
             loadFragment(new ProfileFragment());
             bottomNavigationView.setSelectedItemId(id);
+        } else if (id == R.id.nav_notifications) {
+            Intent intent = new Intent(this, com.roominate.activities.NotificationsActivity.class);
+            startActivity(intent);
         } else if (id == R.id.nav_settings) {
             Intent intent = new Intent(this, com.roominate.activities.tenant.SettingsActivity.class);
             startActivity(intent);
@@ -242,6 +267,10 @@ public class OwnerDashboardActivity extends AppCompatActivity implements Navigat
     }
     
     private void signOut() {
+        UnreadCountStore.getInstance().invalidate();
+        OwnerStatsStore.getInstance().invalidate();
+        TenantBookingCache.getInstance().invalidate();
+
         // Clear Supabase session
         SupabaseClient.getInstance().signOut(new SupabaseClient.ApiCallback() {
             @Override
@@ -291,6 +320,18 @@ public class OwnerDashboardActivity extends AppCompatActivity implements Navigat
         }
     }
     
+    @Override
+    protected void onStart() {
+        super.onStart();
+        UnreadCountStore.getInstance().observe(unreadObserver);
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        UnreadCountStore.getInstance().removeObserver(unreadObserver);
+    }
+    
     @Override
     protected void onResume() {
         super.onResume();
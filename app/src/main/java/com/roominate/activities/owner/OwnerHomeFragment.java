@@ -16,17 +16,25 @@ import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.google.android.material.chip.ChipGroup;
+
 import com.roominate.R;
 import com.roominate.adapters.PropertyAdapter;
 import com.roominate.models.Property;
 import com.roominate.activities.tenant.BoardingHouseDetailsActivity;
+import com.roominate.services.OwnerAnalytics;
+import com.roominate.services.OwnerStatsStore;
 import com.roominate.services.SupabaseClient;
+import com.roominate.ui.TrendChartView;
+import com.roominate.utils.DateTimeHelper;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class OwnerHomeFragment extends Fragment {
 
@@ -42,6 +50,16 @@ public class OwnerHomeFragment extends Fragment {
     private TextView totalBookingsText;
     private TextView pendingBookingsText;
     private TextView totalRevenueText;
+    private TextView occupancyRateText;
+    private final OwnerStatsStore.Observer statsObserver = this::showOwnerStats;
+
+    // Trends: each bucket size covers a fixed history (OwnerAnalytics.rangeMs); downsampling
+    // keeps long ranges cheap
+    private TrendChartView trendChart;
+    private String trendMetric = OwnerAnalytics.METRIC_BOOKINGS;
+    private String trendBucket = OwnerAnalytics.BUCKET_DAY;
+    // Fetched series per bucket size, so switching metric or back to a bucket is instant
+    private final Map<String, OwnerAnalytics.Series> trendSeries = new HashMap<>();
 
     @Nullable
     @Override
@@ -57,6 +75,8 @@ public class OwnerHomeFragment extends Fragment {
         totalBookingsText = v.findViewById(R.id.totalBookings);
         pendingBookingsText = null;  // Not present in layout
         totalRevenueText = null;     // Not present in layout
+        occupancyRateText = v.findViewById(R.id.occupancyRate);
+        setupTrends(v);
         
         menuButton = v.findViewById(R.id.menuButton);
         menuButton.setOnClickListener(view -> {
@@ -75,57 +95,132 @@ public class OwnerHomeFragment extends Fragment {
         
         recyclerView.setAdapter(adapter);
         
-        // Load statistics and properties
-        loadOwnerStats();
+        // Statistics come from the cached store (served at once when fresh)
+        OwnerStatsStore.getInstance().observe(statsObserver);
+        loadTrends();
         loadOwnerProperties();
 
         return v;
     }
     
-    private void loadOwnerStats() {
-        Log.d(TAG, "Loading owner statistics...");
-        
-        SupabaseClient.getInstance().getOwnerStats(new SupabaseClient.ApiCallback() {
+    @Override
+    public void onDestroyView() {
+        OwnerStatsStore.getInstance().removeObserver(statsObserver);
+        super.onDestroyView();
+    }
+
+    private void showOwnerStats(JSONObject stats) {
+        if (!isAdded()) return;
+
+        int propertiesCount = stats.optInt("properties_count", 0);
+        int totalBookings = stats.optInt("total_bookings", 0);
+        int pendingBookings = stats.optInt("pending_bookings", 0);
+        double totalRevenue = stats.optDouble("total_revenue", 0.0);
+        double occupancyRate = stats.optDouble("occupancy_rate", 0.0);
+
+        if (propertiesCountText != null) {
+            propertiesCountText.setText(String.valueOf(propertiesCount));
+        }
+        if (totalBookingsText != null) {
+            totalBookingsText.setText(String.valueOf(totalBookings));
+        }
+        if (pendingBookingsText != null) {
+            pendingBookingsText.setText(String.valueOf(pendingBookings));
+        }
+        if (totalRevenueText != null) {
+            totalRevenueText.setText(String.format("K%.0f", totalRevenue));
+        }
+        if (occupancyRateText != null) {
+            occupancyRateText.setText(String.format("%.0f%%", occupancyRate * 100));
+        }
+
+        Log.d(TAG, "Statistics loaded: " + propertiesCount + " properties, " + totalBookings + " bookings, K" + totalRevenue + " revenue");
+    }
+
+    private void setupTrends(View v) {
+        trendChart = v.findViewById(R.id.trendChart);
+
+        ChipGroup metricGroup = v.findViewById(R.id.trendMetricGroup);
+        metricGroup.setOnCheckedStateChangeListener((group, checkedIds) -> {
+            if (checkedIds.isEmpty()) return;
+            int id = checkedIds.get(0);
+            if (id == R.id.trendMetricRevenue) {
+                trendMetric = OwnerAnalytics.METRIC_REVENUE;
+            } else if (id == R.id.trendMetricOccupancy) {
+                trendMetric = OwnerAnalytics.METRIC_OCCUPANCY;
+            } else {
+                trendMetric = OwnerAnalytics.METRIC_BOOKINGS;
+            }
+            showTrend();
+        });
+
+        ChipGroup bucketGroup = v.findViewById(R.id.trendBucketGroup);
+        bucketGroup.setOnCheckedStateChangeListener((group, checkedIds) -> {
+            if (checkedIds.isEmpty()) return;
+            int id = checkedIds.get(0);
+            if (id == R.id.trendBucketWeek) {
+                trendBucket = OwnerAnalytics.BUCKET_WEEK;
+            } else if (id == R.id.trendBucketMonth) {
+                trendBucket = OwnerAnalytics.BUCKET_MONTH;
+            } else {
+                trendBucket = OwnerAnalytics.BUCKET_DAY;
+            }
+            loadTrends();
+        });
+    }
+
+    private void loadTrends() {
+        if (trendSeries.containsKey(trendBucket)) {
+            showTrend();
+            return;
+        }
+        trendChart.setData(null, null, null);
+        trendChart.setEmptyText("Loading...");
+
+        final String bucket = trendBucket;
+        long range = OwnerAnalytics.rangeMs(bucket);
+        long now = System.currentTimeMillis();
+        SupabaseClient.getInstance().getOwnerTimeSeries(bucket,
+                DateTimeHelper.formatIsoTimestamp(now - range), DateTimeHelper.formatIsoTimestamp(now), null,
+                new SupabaseClient.ApiCallback() {
             @Override
             public void onSuccess(JSONObject response) {
+                // Parsing up to ~700 rows stays on the network thread
+                OwnerAnalytics.Series series = OwnerAnalytics.totals(response.optJSONArray("body"));
                 if (getActivity() == null || !isAdded()) return;
-                
                 getActivity().runOnUiThread(() -> {
-                    try {
-                        int propertiesCount = response.optInt("properties_count", 0);
-                        int totalBookings = response.optInt("total_bookings", 0);
-                        int pendingBookings = response.optInt("pending_bookings", 0);
-                        double totalRevenue = response.optDouble("total_revenue", 0.0);
-                        
-                        // Update UI
-                        if (propertiesCountText != null) {
-                            propertiesCountText.setText(String.valueOf(propertiesCount));
-                        }
-                        if (totalBookingsText != null) {
-                            totalBookingsText.setText(String.valueOf(totalBookings));
-                        }
-                        if (pendingBookingsText != null) {
-                            pendingBookingsText.setText(String.valueOf(pendingBookings));
-                        }
-                        if (totalRevenueText != null) {
-                            totalRevenueText.setText(String.format("K%.0f", totalRevenue));
-                        }
-                        
-                        Log.d(TAG, "Statistics loaded: " + propertiesCount + " properties, " + totalBookings + " bookings, K" + totalRevenue + " revenue");
-                    } catch (Exception e) {
-                        Log.e(TAG, "Error parsing statistics", e);
-                    }
+                    if (!isAdded()) return;
+                    trendSeries.put(bucket, series);
+                    if (bucket.equals(trendBucket)) showTrend();
                 });
             }
 
             @Override
             public void onError(String error) {
-                Log.e(TAG, "Error loading statistics: " + error);
-                // Silently fail - statistics are not critical
+                Log.e(TAG, "Error loading trends: " + error);
+                if (getActivity() == null || !isAdded()) return;
+                getActivity().runOnUiThread(() -> {
+                    if (isAdded() && bucket.equals(trendBucket)) trendChart.setEmptyText("Couldn't load trends");
+                });
             }
         });
     }
 
+    private void showTrend() {
+        OwnerAnalytics.Series series = trendSeries.get(trendBucket);
+        if (series == null) return;
+        TrendChartView.ValueFormatter formatter;
+        if (OwnerAnalytics.METRIC_REVENUE.equals(trendMetric)) {
+            formatter = value -> String.format("K%.0f", value);
+        } else if (OwnerAnalytics.METRIC_OCCUPANCY.equals(trendMetric)) {
+            formatter = value -> String.format("%.0f%%", value * 100);
+        } else {
+            formatter = value -> String.valueOf(Math.round(value));
+        }
+        trendChart.setEmptyText("No data yet");
+        trendChart.setData(series.time, series.values(trendMetric), formatter);
+    }
+
     private void loadOwnerProperties() {
         Log.d(TAG, "Loading properties for current owner...");
         
@@ -15,11 +15,9 @@ import com.google.android.material.button.MaterialButton;
 import com.roominate.R;
 import com.roominate.activities.auth.LoginActivity;
 import com.roominate.services.SupabaseClient;
+import com.roominate.utils.DateTimeHelper;
 import com.squareup.picasso.Picasso;
 import org.json.JSONObject;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
 
 public class OwnerProfileActivity extends AppCompatActivity {
 
@@ -116,15 +114,11 @@ public class OwnerProfileActivity extends AppCompatActivity {
                 
                 String createdAt = userData.optString("created_at", "");
                 if (!createdAt.isEmpty()) {
-                    try {
-                        SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
-                        SimpleDateFormat outputFormat = new SimpleDateFormat("MMMM yyyy", Locale.US);
-                        Date date = inputFormat.parse(createdAt);
-                        if (date != null) {
-                            memberSinceTextView.setText("Member since " + outputFormat.format(date));
-                        }
-                    } catch (Exception e) {
-                        Log.e(TAG, "Error parsing date", e);
+                    long createdAtMillis = DateTimeHelper.parseTimestamp(createdAt);
+                    if (createdAtMillis != 0) {
+                        memberSinceTextView.setText("Member since " + DateTimeHelper.formatMonthYear(createdAtMillis));
+                    } else {
+                        Log.e(TAG, "Error parsing date: " + createdAt);
                     }
                 }
                 
@@ -3,11 +3,13 @@ package com.roominate.activities.tenant;
 import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
+import android.graphics.Rect;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
 import android.util.Log;
 import android.view.View;
+import android.view.ViewTreeObserver;
 import android.widget.Button;
 import android.widget.EditText;
 import android.widget.ImageButton;
@@ -18,6 +20,7 @@ import android.widget.RatingBar;
 import android.widget.TextView;
 import android.widget.Toast;
 import android.view.ViewGroup;
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
@@ -28,19 +31,19 @@ import com.google.android.material.button.MaterialButton;
 import com.google.android.material.chip.ChipGroup;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.android.material.textfield.TextInputEditText;
-import com.roominate.BuildConfig;
 import com.roominate.R;
 import com.roominate.adapters.ReviewsAdapter;
 import com.roominate.models.BoardingHouse;
 import com.roominate.services.PaymentService;
+import com.roominate.services.PaymentStatusTracker;
 import com.roominate.services.SupabaseClient;
-import com.squareup.picasso.Picasso;
+import com.roominate.utils.DateTimeHelper;
+import com.roominate.utils.ImageLoader;
+import com.roominate.utils.MediaUrlResolver;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Locale;
@@ -52,6 +55,8 @@ import android.app.ProgressDialog;
 public class BoardingHouseDetailsActivity extends AppCompatActivity {
     private static final String TAG = "BoardingHouseDetails";
     private static final int REQUEST_CODE_PAYMENT = 1001;
+    private static final int REVIEWS_FIRST_PAGE_SIZE = 5;
+    private static final int REVIEWS_PAGE_SIZE = 10;
 
     private ViewPager2 imagesViewPager;
     private LinearLayout dotsIndicator;
@@ -67,6 +72,7 @@ public class BoardingHouseDetailsActivity extends AppCompatActivity {
     private ChipGroup amenitiesChipGroup;
     private RecyclerView reviewsRecyclerView;
     private MaterialButton writeReviewButton;
+    private MaterialButton showMoreReviewsButton;
     private Button contactOwnerButton;
     private Button bookNowButton;
     private FloatingActionButton favoriteButton;
@@ -78,14 +84,20 @@ public class BoardingHouseDetailsActivity extends AppCompatActivity {
     private boolean isFavorite = false;
     private ReviewsAdapter reviewsAdapter;
     private JSONArray reviewsData;
+    private boolean reviewsRequested;
+    private boolean reviewsLoading;
+    // Keyset cursor: created_at and id of the oldest review loaded so far
+    private String reviewsCursorCreatedAt;
+    private String reviewsCursorId;
+    private final ViewTreeObserver.OnScrollChangedListener reviewsVisibilityListener = this::onReviewsMaybeVisible;
     private String favoriteId = null;
     private OkHttpClient httpClient;
 
     private AlertDialog paymentStatusDialog;
-    private Handler pollingHandler;
-    private Runnable pollingRunnable;
-    private static final int POLLING_INTERVAL_MS = 5000; // 5 seconds
-    private static final int POLLING_TIMEOUT_MS = 120000; // 2 minutes
+    // Payment awaiting a result; kept across recreation so the screen re-attaches to the tracker
+    private Bundle pendingPayment;
+    private final PaymentStatusTracker.Listener paymentListener = this::onPaymentResult;
+    private static final String STATE_PENDING_PAYMENT = "pending_payment";
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -94,6 +106,9 @@ public class BoardingHouseDetailsActivity extends AppCompatActivity {
 
         // Get boarding house ID from intent
         boardingHouseId = getIntent().getStringExtra("boarding_house_id");
+        if (savedInstanceState != null) {
+            pendingPayment = savedInstanceState.getBundle(STATE_PENDING_PAYMENT);
+        }
         
         // Initialize HTTP client
         httpClient = new OkHttpClient();
@@ -106,10 +121,44 @@ public class BoardingHouseDetailsActivity extends AppCompatActivity {
         setupReviewsRecyclerView();
         loadBoardingHouseDetails();
         checkFavoriteStatus();
-        loadReviews();
+        loadReviewsWhenVisible();
         setupListeners();
     }
     
+    @Override
+    protected void onStart() {
+        super.onStart();
+        if (pendingPayment == null) return;
+
+        String reference = pendingPayment.getString("reference");
+        PaymentStatusTracker tracker = PaymentStatusTracker.getInstance();
+        if (!tracker.isTracking(reference)) {
+            // Finished and delivered elsewhere, or the process was killed meanwhile
+            pendingPayment = null;
+            return;
+        }
+        if (paymentStatusDialog == null || !paymentStatusDialog.isShowing()) {
+            showPaymentStatusDialog(reference, pendingPayment.getBoolean("requires_auth"), pendingPayment.getString("message"));
+        }
+        tracker.addListener(reference, paymentListener);
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        if (pendingPayment != null) {
+            PaymentStatusTracker.getInstance().removeListener(pendingPayment.getString("reference"), paymentListener);
+        }
+    }
+
+    @Override
+    protected void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        if (pendingPayment != null) {
+            outState.putBundle(STATE_PENDING_PAYMENT, pendingPayment);
+        }
+    }
+
     private void loadUserId() {
         SharedPreferences prefs = getSharedPreferences("user_session", Context.MODE_PRIVATE);
         userId = prefs.getString("user_id", null);
@@ -136,6 +185,7 @@ public class BoardingHouseDetailsActivity extends AppCompatActivity {
         amenitiesChipGroup = findViewById(R.id.amenitiesChipGroup);
         reviewsRecyclerView = findViewById(R.id.reviewsRecyclerView);
         writeReviewButton = findViewById(R.id.writeReviewButton);
+        showMoreReviewsButton = findViewById(R.id.showMoreReviewsButton);
         contactOwnerButton = findViewById(R.id.contactOwnerButton);
         bookNowButton = findViewById(R.id.bookNowButton);
         favoriteButton = findViewById(R.id.favoriteButton);
@@ -194,6 +244,8 @@ public class BoardingHouseDetailsActivity extends AppCompatActivity {
                     JSONArray jsonArray = new JSONArray(responseBody);
                     
                     if (jsonArray.length() > 0) {
+                        // Photos live in properties_media (new listings leave the images column empty)
+                        com.roominate.services.SupabaseClient.getInstance().attachPropertyImages(jsonArray);
                         JSONObject jsonObject = jsonArray.getJSONObject(0);
                         
                         // Create BoardingHouse object from JSON
@@ -211,6 +263,7 @@ public class BoardingHouseDetailsActivity extends AppCompatActivity {
                         boardingHouse.setTotalRooms(jsonObject.optInt("total_rooms", 0));
                         boardingHouse.setContactPerson(jsonObject.optString("contact_person"));
                         boardingHouse.setContactPhone(jsonObject.optString("contact_phone"));
+                        boardingHouse.setRating(jsonObject.optInt("rating_sum", 0), jsonObject.optInt("rating_count", 0));
                         
                         // Parse images
                         if (jsonObject.has("images") && !jsonObject.isNull("images")) {
@@ -272,8 +325,7 @@ public class BoardingHouseDetailsActivity extends AppCompatActivity {
         addressTextView.setText(boardingHouse.getAddress());
         priceTextView.setText(String.format("K%.2f/month", boardingHouse.getPricePerMonth()));
         descriptionTextView.setText(boardingHouse.getDescription());
-        ratingBar.setRating((float) boardingHouse.getAverageRating());
-        ratingCountTextView.setText(String.format("(%d reviews)", boardingHouse.getTotalReviews()));
+        showRatingSummary();
         availableRoomsTextView.setText(String.format("%d rooms available", boardingHouse.getAvailableRooms()));
 
         // Set up image slider, amenities chips, and reviews list
@@ -365,39 +417,8 @@ public class BoardingHouseDetailsActivity extends AppCompatActivity {
      * Extracts the path from a full URL and re-encodes it correctly.
      */
     private String fixImageUrl(String url) {
-        if (url == null || url.isEmpty() || url.equals("placeholder")) {
-            return url;
-        }
-        
-        try {
-            // Check if this is a full Supabase Storage URL
-            if (url.contains("/storage/v1/object/public/property-images/")) {
-                // Extract the storage path after "property-images/"
-                int pathStartIndex = url.indexOf("/storage/v1/object/public/property-images/") + 
-                                   "/storage/v1/object/public/property-images/".length();
-                String storagePath = url.substring(pathStartIndex);
-                
-                // Re-encode the path properly
-                String[] segments = storagePath.split("/");
-                StringBuilder encodedPath = new StringBuilder();
-                for (int i = 0; i < segments.length; i++) {
-                    if (i > 0) encodedPath.append("/");
-                    encodedPath.append(URLEncoder.encode(segments[i], StandardCharsets.UTF_8.toString())
-                        .replace("+", "%20"));
-                }
-                
-                // Reconstruct the full URL with properly encoded path
-                String fixedUrl = BuildConfig.SUPABASE_URL + "/storage/v1/object/public/property-images/" + encodedPath.toString();
-                Log.d(TAG, "Fixed image URL: " + fixedUrl);
-                return fixedUrl;
-            }
-            
-            // If not a recognized format, return as-is
-            return url;
-        } catch (Exception e) {
-            Log.e(TAG, "Error fixing image URL: " + url, e);
-            return url;
-        }
+        // Re-encodes the storage path of bucket URLs (stored paths may contain spaces)
+        return MediaUrlResolver.publicUrl(url);
     }
 
     private void setupAmenitiesChips() {
@@ -447,10 +468,8 @@ public class BoardingHouseDetailsActivity extends AppCompatActivity {
             } else {
                 // Fix the image URL by properly encoding the storage path
                 String fixedUrl = fixImageUrl(imageUrl);
-                Log.d(TAG, "Using fixed URL: " + fixedUrl);
                 
-                Picasso.get()
-                    .load(fixedUrl)
+                ImageLoader.load(fixedUrl, holder.imageView)
                     .fit()
                     .centerCrop()
                     .placeholder(R.drawable.ic_house_placeholder)
@@ -490,33 +509,62 @@ public class BoardingHouseDetailsActivity extends AppCompatActivity {
         favoriteButton.setOnClickListener(v -> toggleFavorite());
         shareButton.setOnClickListener(v -> shareBoardingHouse());
         writeReviewButton.setOnClickListener(v -> showReviewDialog());
+        showMoreReviewsButton.setOnClickListener(v -> loadReviews());
     }
     
+    /**
+     * The rating summary comes with the listing row; the reviews themselves are only fetched
+     * once the list is scrolled into view.
+     */
+    private void loadReviewsWhenVisible() {
+        reviewsRecyclerView.getViewTreeObserver().addOnScrollChangedListener(reviewsVisibilityListener);
+        // Short pages show the reviews without any scrolling
+        reviewsRecyclerView.post(this::onReviewsMaybeVisible);
+    }
+
+    private void onReviewsMaybeVisible() {
+        if (reviewsRequested || !reviewsRecyclerView.getLocalVisibleRect(new Rect())) return;
+        reviewsRecyclerView.getViewTreeObserver().removeOnScrollChangedListener(reviewsVisibilityListener);
+        loadReviews();
+    }
+
+    /** Load the next page of reviews: a short first page, then {@link #REVIEWS_PAGE_SIZE} per tap */
     private void loadReviews() {
         if (boardingHouseId == null) {
             Log.e(TAG, "Cannot load reviews: boardingHouseId is null");
             return;
         }
-        
-        SupabaseClient.getInstance().getReviews(boardingHouseId, new SupabaseClient.ApiCallback() {
+        if (reviewsLoading) return;
+        reviewsRequested = true;
+        reviewsLoading = true;
+        showMoreReviewsButton.setEnabled(false);
+
+        int pageSize = reviewsCursorId == null ? REVIEWS_FIRST_PAGE_SIZE : REVIEWS_PAGE_SIZE;
+        SupabaseClient.getInstance().getReviews(boardingHouseId, pageSize, reviewsCursorCreatedAt, reviewsCursorId,
+                new SupabaseClient.ApiCallback() {
             @Override
             public void onSuccess(JSONObject response) {
-                try {
-                    JSONArray arr = response.optJSONArray("reviews");
-                    if (arr != null) {
-                        reviewsData = arr;
-                        reviewsAdapter.updateReviews(reviewsData);
-                        calculateAverageRating(reviewsData);
+                JSONArray page = response.optJSONArray("body");
+                boolean hasMore = response.optBoolean("has_more");
+                runOnUiThread(() -> {
+                    reviewsLoading = false;
+                    if (page != null && page.length() > 0) {
+                        JSONObject oldest = page.optJSONObject(page.length() - 1);
+                        reviewsCursorCreatedAt = oldest.optString("created_at");
+                        reviewsCursorId = oldest.optString("id");
+                        reviewsAdapter.appendReviews(page);
                     }
-                } catch (Exception e) {
-                    Log.e(TAG, "Error parsing reviews response", e);
-                }
+                    showMoreReviewsButton.setEnabled(true);
+                    showMoreReviewsButton.setVisibility(hasMore ? View.VISIBLE : View.GONE);
+                });
             }
 
             @Override
             public void onError(String error) {
                 Log.e(TAG, "Error loading reviews: " + error);
                 runOnUiThread(() -> {
+                    reviewsLoading = false;
+                    showMoreReviewsButton.setEnabled(true);
                     Toast.makeText(BoardingHouseDetailsActivity.this, 
                         "Failed to load reviews", Toast.LENGTH_SHORT).show();
                 });
@@ -524,27 +572,15 @@ public class BoardingHouseDetailsActivity extends AppCompatActivity {
         });
     }
     
-    private void calculateAverageRating(JSONArray reviews) {
-        if (reviews == null || reviews.length() == 0) {
+    private void showRatingSummary() {
+        if (boardingHouse == null || boardingHouse.getRatingCount() == 0) {
             ratingBar.setRating(0);
             ratingCountTextView.setText("No reviews yet");
             return;
         }
-        
-        float totalRating = 0;
-        for (int i = 0; i < reviews.length(); i++) {
-            try {
-                JSONObject review = reviews.getJSONObject(i);
-                totalRating += review.getInt("rating");
-            } catch (JSONException e) {
-                Log.e(TAG, "Error parsing review rating", e);
-            }
-        }
-        
-        float averageRating = totalRating / reviews.length();
-        ratingBar.setRating(averageRating);
+        ratingBar.setRating((float) boardingHouse.getAverageRating());
         ratingCountTextView.setText(String.format(Locale.getDefault(), 
-            "%.1f (%d reviews)", averageRating, reviews.length()));
+            "%.1f (%d reviews)", boardingHouse.getAverageRating(), boardingHouse.getRatingCount()));
     }
     
     private void showReviewDialog() {
@@ -580,28 +616,43 @@ public class BoardingHouseDetailsActivity extends AppCompatActivity {
             .show();
     }
     
+    /**
+     * Shows the review at the top of the list and in the rating summary right away; the
+     * saved row replaces it on success, and both are rolled back on failure.
+     */
     private void submitReview(int rating, String comment) {
         if (boardingHouseId == null) {
             Toast.makeText(this, "Error: Property ID not found", Toast.LENGTH_SHORT).show();
             return;
         }
         
-        Log.d(TAG, "submitReview called with boardingHouseId: " + boardingHouseId + ", rating: " + rating + ", comment: " + comment);
+        Log.d(TAG, "submitReview called with boardingHouseId: " + boardingHouseId + ", rating: " + rating);
+
+        String pendingId = "pending-" + java.util.UUID.randomUUID();
+        reviewsAdapter.prependReview(buildPendingReview(pendingId, rating, comment));
+        reviewsRecyclerView.scrollToPosition(0);
+        applyRatingDelta(rating, 1);
         
         SupabaseClient.getInstance().submitReview(boardingHouseId, rating, comment, 
             new SupabaseClient.ApiCallback() {
                 @Override
                 public void onSuccess(JSONObject response) {
+                    JSONArray data = response.optJSONArray("data");
+                    JSONObject saved = data != null ? data.optJSONObject(0) : null;
                     runOnUiThread(() -> {
+                        if (saved != null) {
+                            reviewsAdapter.replaceReview(pendingId, saved);
+                        }
                         Toast.makeText(BoardingHouseDetailsActivity.this, 
                             "Review submitted successfully!", Toast.LENGTH_SHORT).show();
-                        loadReviews(); // Reload reviews to show new review
                     });
                 }
 
                 @Override
                 public void onError(String error) {
                     runOnUiThread(() -> {
+                        reviewsAdapter.removeReview(pendingId);
+                        applyRatingDelta(-rating, -1);
                         Toast.makeText(BoardingHouseDetailsActivity.this, 
                             "Failed to submit review: " + error, Toast.LENGTH_SHORT).show();
                     });
@@ -609,6 +660,33 @@ public class BoardingHouseDetailsActivity extends AppCompatActivity {
             });
     }
 
+    // Shaped like a getReviews row so ReviewsAdapter binds it the same way
+    private JSONObject buildPendingReview(String pendingId, int rating, String comment) {
+        SharedPreferences prefs = getSharedPreferences("roominate_prefs", MODE_PRIVATE);
+        String name = prefs.getString("full_name", "");
+        if (name == null || name.isEmpty()) name = prefs.getString("user_name", "");
+        JSONObject review = new JSONObject();
+        try {
+            review.put("id", pendingId);
+            review.put("rating", rating);
+            review.put("comment", comment);
+            review.put("created_at", DateTimeHelper.nowIsoTimestamp());
+            review.put("users", new JSONObject()
+                    .put("id", userId)
+                    .put("display_name", name == null || name.isEmpty() ? "You" : name));
+        } catch (JSONException e) {
+            Log.e(TAG, "Error building pending review", e);
+        }
+        return review;
+    }
+
+    // Mirrors the reviews trigger's update of rating_sum/rating_count
+    private void applyRatingDelta(int sumDelta, int countDelta) {
+        if (boardingHouse == null) return;
+        boardingHouse.setRating(boardingHouse.getRatingSum() + sumDelta, boardingHouse.getRatingCount() + countDelta);
+        showRatingSummary();
+    }
+
     private void contactOwner() {
         // TODO: Open contact dialog or messaging activity
     }
@@ -806,8 +884,20 @@ public class BoardingHouseDetailsActivity extends AppCompatActivity {
                         
                         Log.d(TAG, "Lenco payment initiated. Reference: " + reference + ", Status: " + paymentStatus + ", Requires Auth: " + requiresAuth);
                         
-                        showPaymentStatusDialog(reference, moveInDate, endDate, duration, totalAmount, requiresAuth, message);
-                        startPollingPaymentStatus(reference, bookingId, moveInDate, endDate, duration, totalAmount);
+                        pendingPayment = new Bundle();
+                        pendingPayment.putString("reference", reference);
+                        pendingPayment.putString("booking_id", bookingId);
+                        pendingPayment.putString("move_in_date", moveInDate);
+                        pendingPayment.putString("end_date", endDate);
+                        pendingPayment.putInt("duration", duration);
+                        pendingPayment.putDouble("total_amount", totalAmount);
+                        pendingPayment.putBoolean("requires_auth", requiresAuth);
+                        pendingPayment.putString("message", message);
+
+                        showPaymentStatusDialog(reference, requiresAuth, message);
+                        PaymentStatusTracker tracker = PaymentStatusTracker.getInstance();
+                        tracker.track(reference, bookingId);
+                        tracker.addListener(reference, paymentListener);
                     } catch (JSONException e) {
                         Log.e(TAG, "Error parsing payment initiation response", e);
                         Toast.makeText(BoardingHouseDetailsActivity.this, "Payment initiation failed.", Toast.LENGTH_SHORT).show();
@@ -826,7 +916,7 @@ public class BoardingHouseDetailsActivity extends AppCompatActivity {
         });
     }
 
-    private void showPaymentStatusDialog(String reference, String moveInDate, String endDate, int duration, double totalAmount, boolean requiresAuth, String message) {
+    private void showPaymentStatusDialog(String reference, boolean requiresAuth, String message) {
         if (paymentStatusDialog != null && paymentStatusDialog.isShowing()) {
             paymentStatusDialog.dismiss();
         }
@@ -848,7 +938,8 @@ public class BoardingHouseDetailsActivity extends AppCompatActivity {
                 .create();
 
         cancelButton.setOnClickListener(v -> {
-            stopPolling();
+            PaymentStatusTracker.getInstance().cancel(reference);
+            pendingPayment = null;
             paymentStatusDialog.dismiss();
             Toast.makeText(this, "Payment cancelled.", Toast.LENGTH_SHORT).show();
         });
@@ -856,89 +947,40 @@ public class BoardingHouseDetailsActivity extends AppCompatActivity {
         paymentStatusDialog.show();
     }
 
-    private void startPollingPaymentStatus(String reference, String bookingId, String moveInDate, String endDate, int duration, double totalAmount) {
-        stopPolling(); // Ensure no other polling is running
-
-        pollingHandler = new Handler(Looper.getMainLooper());
-        final long startTime = System.currentTimeMillis();
-
-        pollingRunnable = new Runnable() {
-            @Override
-            public void run() {
-                if (System.currentTimeMillis() - startTime > POLLING_TIMEOUT_MS) {
-                    Log.w(TAG, "Polling timed out for reference: " + reference);
-                    stopPolling();
-                    runOnUiThread(() -> {
-                        if (paymentStatusDialog != null && paymentStatusDialog.isShowing()) {
-                            paymentStatusDialog.dismiss();
-                        }
-                        Toast.makeText(BoardingHouseDetailsActivity.this, "Payment timed out. Please try again.", Toast.LENGTH_LONG).show();
-                    });
-                    return;
-                }
-
-                Log.d(TAG, "Polling for payment status for reference: " + reference);
-                checkPaymentStatus(reference, bookingId, moveInDate, endDate, duration, totalAmount);
-                pollingHandler.postDelayed(this, POLLING_INTERVAL_MS);
-            }
-        };
-
-        pollingHandler.post(pollingRunnable);
-    }
-
-    private void stopPolling() {
-        if (pollingHandler != null && pollingRunnable != null) {
-            pollingHandler.removeCallbacks(pollingRunnable);
-            pollingHandler = null;
-            pollingRunnable = null;
+    /**
+     * Terminal result from {@link PaymentStatusTracker}, delivered once on the main thread.
+     */
+    private void onPaymentResult(String reference, PaymentStatusTracker.Result result) {
+        Bundle payment = pendingPayment;
+        pendingPayment = null;
+        if (isFinishing() || isDestroyed()) return;
+        if (paymentStatusDialog != null && paymentStatusDialog.isShowing()) {
+            paymentStatusDialog.dismiss();
+        }
+        Log.d(TAG, "Payment " + reference + " finished: " + result);
+
+        switch (result) {
+            case COMPLETED:
+                if (payment == null) return;
+                // The booking status is updated by the webhook, so the receipt can be shown now
+                SharedPreferences prefs = getSharedPreferences("roominate_prefs", Context.MODE_PRIVATE);
+                String phone = prefs.getString("phone", "");
+                showBookingReceiptDialog(payment.getString("booking_id"), payment.getString("move_in_date"),
+                        payment.getString("end_date"), payment.getInt("duration"),
+                        payment.getDouble("total_amount"), "Mobile Money", phone);
+                break;
+            case FAILED:
+                Toast.makeText(this, "Payment failed. Please try again.", Toast.LENGTH_LONG).show();
+                break;
+            case CANCELLED:
+                Toast.makeText(this, "Payment was cancelled.", Toast.LENGTH_LONG).show();
+                break;
+            case TIMED_OUT:
+                Toast.makeText(this, "Payment timed out. Please try again.", Toast.LENGTH_LONG).show();
+                break;
         }
     }
 
-    private void checkPaymentStatus(String reference, String bookingId, String moveInDate, String endDate, int duration, double totalAmount) {
-        PaymentService.getInstance().getPaymentStatus(reference, new SupabaseClient.ApiCallback() {
-            @Override
-            public void onSuccess(JSONObject response) {
-                try {
-                    String status = response.optString("status", "unknown");
-                    Log.d(TAG, "Payment status for " + reference + " is " + status);
-
-                    if ("successful".equalsIgnoreCase(status) || "completed".equalsIgnoreCase(status)) {
-                        stopPolling();
-                        runOnUiThread(() -> {
-                            if (paymentStatusDialog != null && paymentStatusDialog.isShowing()) {
-                                paymentStatusDialog.dismiss();
-                            }
-                            // The booking status is updated by a webhook, but we can show the receipt now.
-                            SharedPreferences prefs = getSharedPreferences("roominate_prefs", Context.MODE_PRIVATE);
-                            String phone = prefs.getString("phone", "");
-                            showBookingReceiptDialog(bookingId, moveInDate, endDate, duration, totalAmount, "Mobile Money", phone);
-                        });
-                    } else if ("failed".equalsIgnoreCase(status)) {
-                        stopPolling();
-                        runOnUiThread(() -> {
-                            if (paymentStatusDialog != null && paymentStatusDialog.isShowing()) {
-                                paymentStatusDialog.dismiss();
-                            }
-                            Toast.makeText(BoardingHouseDetailsActivity.this, "Payment failed. Please try again.", Toast.LENGTH_LONG).show();
-                        });
-                    }
-                    // If status is still 'pending', the poller will just run again.
-
-                } catch (Exception e) {
-                    Log.e(TAG, "Error parsing payment status response", e);
-                    // Continue polling
-                }
-            }
-
-            @Override
-            public void onError(String error) {
-                Log.e(TAG, "Error checking payment status: " + error);
-                // Continue polling, maybe a transient network error
-            }
-        });
-    }
-
-    
     /**
      * Show booking receipt dialog after successful booking
      */
@@ -972,8 +1014,7 @@ public class BoardingHouseDetailsActivity extends AppCompatActivity {
             
             // Load property image
             if (boardingHouse.getImageUrls() != null && !boardingHouse.getImageUrls().isEmpty()) {
-                Picasso.get()
-                    .load(fixImageUrl(boardingHouse.getImageUrls().get(0)))
+                ImageLoader.load(fixImageUrl(boardingHouse.getImageUrls().get(0)), receiptPropertyImage)
                     .fit()
                     .centerCrop()
                     .placeholder(R.drawable.ic_house_placeholder)
@@ -983,15 +1024,10 @@ public class BoardingHouseDetailsActivity extends AppCompatActivity {
         }
         
         // Format dates
-        SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
-        SimpleDateFormat outputFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.US);
-        try {
-            receiptMoveInDate.setText(outputFormat.format(inputFormat.parse(moveInDate)));
-            receiptMoveOutDate.setText(outputFormat.format(inputFormat.parse(endDate)));
-        } catch (Exception e) {
-            receiptMoveInDate.setText(moveInDate);
-            receiptMoveOutDate.setText(endDate);
-        }
+        long moveInMillis = DateTimeHelper.parseDate(moveInDate);
+        long endMillis = DateTimeHelper.parseDate(endDate);
+        receiptMoveInDate.setText(moveInMillis != 0 ? DateTimeHelper.formatDisplayDate(moveInMillis) : moveInDate);
+        receiptMoveOutDate.setText(endMillis != 0 ? DateTimeHelper.formatDisplayDate(endMillis) : endDate);
         
         receiptDuration.setText(String.format(Locale.US, "%d month%s", duration, duration > 1 ? "s" : ""));
         receiptTotalAmount.setText(String.format(Locale.US, "K%.2f", totalAmount));
@@ -28,6 +28,7 @@ import com.roominate.models.BoardingHouse;
 import com.roominate.models.Favorite;
 import com.roominate.models.Property;
 import com.roominate.services.SupabaseClient;
+import com.roominate.utils.ImagePrefetcher;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -44,6 +45,7 @@ public class FavoritesFragment extends Fragment {
     
     private RecyclerView recyclerView;
     private PropertyAdapter adapter;
+    private ImagePrefetcher imagePrefetcher;
     private List<Property> favoriteProperties = new ArrayList<>();
     private ProgressBar progressBar;
     private LinearLayout emptyState;
@@ -91,6 +93,8 @@ public class FavoritesFragment extends Fragment {
             startActivity(intent);
         });
         recyclerView.setAdapter(adapter);
+        imagePrefetcher = new ImagePrefetcher(adapter, R.id.property_thumbnail, 2);
+        imagePrefetcher.attach(recyclerView);
     }
 
     private void loadUserId() {
@@ -118,7 +122,7 @@ public class FavoritesFragment extends Fragment {
                 
                 // Query favorites with boarding house details using proper join
                 // The 'boarding_house_id' field in favorites table references the boarding_houses table
-                String url = supabaseUrl + "/rest/v1/favorites?user_id=eq." + userId + "&select=*,boarding_houses(id,title,address,price_per_month,name)";
+                String url = supabaseUrl + "/rest/v1/favorites?user_id=eq." + userId + "&select=*,boarding_houses(id,title,address,price_per_month,name,rating_sum,rating_count)";
                 
                 Request.Builder reqBuilder = new Request.Builder()
                         .url(url)
@@ -161,6 +165,7 @@ public class FavoritesFragment extends Fragment {
                             property.setName(title);
                             property.setAddress(address);
                             property.setMonthlyRate((int) price);
+                            property.setRating(bhObj.optInt("rating_sum", 0), bhObj.optInt("rating_count", 0));
                             property.setThumbnailUrl(""); // TODO: Get from properties_media
                             properties.add(property);
                             
@@ -259,4 +264,12 @@ public class FavoritesFragment extends Fragment {
         // Reload favorites when fragment becomes visible
         loadFavorites();
     }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (imagePrefetcher != null) {
+            imagePrefetcher.detach();
+        }
+    }
 }
@@ -27,6 +27,7 @@ import com.roominate.R;
 import com.roominate.adapters.PropertyAdapter;
 import com.roominate.models.Property;
 import com.roominate.services.SupabaseClient;
+import com.roominate.utils.ImagePrefetcher;
 import com.roominate.utils.LocationHelper;
 
 import org.json.JSONArray;
@@ -48,6 +49,7 @@ public class HomeFragment extends Fragment {
     private static final String TAG = "HomeFragment";
     private RecyclerView recyclerView;
     private PropertyAdapter adapter;
+    private ImagePrefetcher imagePrefetcher;
     private List<Property> properties = new ArrayList<>();
     private ImageButton menuButton;
     private SwipeRefreshLayout swipeRefreshLayout;
@@ -88,6 +90,9 @@ public class HomeFragment extends Fragment {
             startActivity(i);
         });
         recyclerView.setAdapter(adapter);
+        // Fetch thumbnails for the next rows before they scroll in
+        imagePrefetcher = new ImagePrefetcher(adapter, R.id.property_thumbnail, 2);
+        imagePrefetcher.attach(recyclerView);
         
         // Initialize location helper for nearby properties
         locationHelper = new LocationHelper(getContext());
@@ -257,167 +262,127 @@ public class HomeFragment extends Fragment {
         // Fetch available properties from Supabase in background thread
         new Thread(() -> {
             try {
-                OkHttpClient client = new OkHttpClient.Builder()
-                    .connectTimeout(30, TimeUnit.SECONDS)
-                    .readTimeout(30, TimeUnit.SECONDS)
-                    .build();
-                
                 Log.d(TAG, "Loading available properties for tenant...");
-                
-                // Query boarding_houses where available=true (public listings)
-                // Exclude 'images' column since we fetch images separately from properties_media
-                // Note: Use price_per_month (new column) instead of monthly_rate (old column)
-                String url = BuildConfig.SUPABASE_URL + "/rest/v1/boarding_houses?available=eq.true&status=eq.active&select=id,owner_id,name,description,address,city,province,price_per_month,security_deposit,total_rooms,available_rooms,room_type,furnished,private_bathroom,electricity_included,water_included,internet_included,contact_person,contact_phone,amenities,status,latitude,longitude,created_at,updated_at";
-                Log.d(TAG, "Query URL: " + url);
-                
-                Request.Builder requestBuilder = new Request.Builder()
-                    .url(url)
-                    .get();
-
-                // Centralized header wiring: prefer user access_token when available
-                requestBuilder = com.roominate.services.SupabaseClient.addAuthHeaders(requestBuilder);
-
                 if (accessToken != null && !accessToken.isEmpty()) {
                     Log.d(TAG, "Using authenticated request");
                 } else {
                     Log.d(TAG, "Using anon key");
                 }
 
-                Request request = requestBuilder.build();
-                Response response = client.newCall(request).execute();
+                // Shared client; picks up the splash screen's prefetch when there is one
+                String responseBody = SupabaseClient.getInstance().getAvailableListings();
+                JSONArray jsonArray = new JSONArray(responseBody);
+                Log.d(TAG, "Found " + jsonArray.length() + " available properties");
                 
-                Log.d(TAG, "Response code: " + response.code());
-                
-                if (response.isSuccessful() && response.body() != null) {
-                    String responseBody = response.body().string();
-                    Log.d(TAG, "Properties response: " + responseBody);
-                    
-                    JSONArray jsonArray = new JSONArray(responseBody);
-                    Log.d(TAG, "Found " + jsonArray.length() + " available properties");
-                    
-                    // Fetch images for these properties from properties_media table
-                    SupabaseClient.getInstance().fetchImagesForPropertiesStatic(jsonArray, new SupabaseClient.ApiCallback() {
-                        @Override
-                        public void onSuccess(JSONObject result) {
-                            try {
-                                JSONArray propertiesWithImages = result.optJSONArray("properties_with_images");
+                // Fetch images for these properties from properties_media table
+                SupabaseClient.getInstance().fetchImagesForPropertiesStatic(jsonArray, new SupabaseClient.ApiCallback() {
+                    @Override
+                    public void onSuccess(JSONObject result) {
+                        try {
+                            JSONArray propertiesWithImages = result.optJSONArray("properties_with_images");
+                            
+                            properties.clear();
+                            
+                            for (int i = 0; i < propertiesWithImages.length(); i++) {
+                                JSONObject jsonObject = propertiesWithImages.getJSONObject(i);
                                 
-                                properties.clear();
+                                // Map boarding_houses fields to Property model
+                                Property property = new Property();
+                                property.setId(jsonObject.optString("id"));
+                                property.setOwnerId(jsonObject.optString("owner_id"));
+                                property.setName(jsonObject.optString("name"));
+                                property.setDescription(jsonObject.optString("description"));
+                                property.setAddress(jsonObject.optString("address"));
+                                // Use price_per_month (new column) with fallback to monthly_rate (old column)
+                                property.setMonthlyRate(jsonObject.optDouble("price_per_month", jsonObject.optDouble("monthly_rate", 0.0)));
+                                property.setSecurityDeposit(jsonObject.optDouble("security_deposit", 0.0));
+                                property.setStatus(jsonObject.optString("status", "draft"));
+                                property.setRating(jsonObject.optInt("rating_sum", 0), jsonObject.optInt("rating_count", 0));
                                 
-                                for (int i = 0; i < propertiesWithImages.length(); i++) {
-                                    JSONObject jsonObject = propertiesWithImages.getJSONObject(i);
-                                    
-                                    // Map boarding_houses fields to Property model
-                                    Property property = new Property();
-                                    property.setId(jsonObject.optString("id"));
-                                    property.setOwnerId(jsonObject.optString("owner_id"));
-                                    property.setName(jsonObject.optString("name"));
-                                    property.setDescription(jsonObject.optString("description"));
-                                    property.setAddress(jsonObject.optString("address"));
-                                    // Use price_per_month (new column) with fallback to monthly_rate (old column)
-                                    property.setMonthlyRate(jsonObject.optDouble("price_per_month", jsonObject.optDouble("monthly_rate", 0.0)));
-                                    property.setSecurityDeposit(jsonObject.optDouble("security_deposit", 0.0));
-                                    property.setStatus(jsonObject.optString("status", "draft"));
-                                    
-                                    // Get images from properties_media (now included via fetchImagesForProperties)
-                                    if (jsonObject.has("images") && !jsonObject.isNull("images")) {
-                                        JSONArray imagesArray = jsonObject.optJSONArray("images");
-                                        if (imagesArray != null && imagesArray.length() > 0) {
-                                            List<String> imageUrls = new ArrayList<>();
-                                            for (int j = 0; j < imagesArray.length(); j++) {
-                                                imageUrls.add(imagesArray.getString(j));
-                                            }
-                                            property.setImageUrls(imageUrls);
-                                            // Set first image as thumbnail
-                                            property.setThumbnailUrl(imageUrls.get(0));
-                                            Log.d(TAG, "Property " + property.getName() + " has " + imageUrls.size() + " images");
+                                // Get images from properties_media (now included via fetchImagesForProperties)
+                                if (jsonObject.has("images") && !jsonObject.isNull("images")) {
+                                    JSONArray imagesArray = jsonObject.optJSONArray("images");
+                                    if (imagesArray != null && imagesArray.length() > 0) {
+                                        List<String> imageUrls = new ArrayList<>();
+                                        for (int j = 0; j < imagesArray.length(); j++) {
+                                            imageUrls.add(imagesArray.getString(j));
                                         }
+                                        property.setImageUrls(imageUrls);
+                                        // Grid shows the small rendition of the first image
+                                        JSONArray thumbnails = jsonObject.optJSONArray("thumbnails");
+                                        property.setThumbnailUrl(thumbnails != null && thumbnails.length() > 0
+                                                ? thumbnails.getString(0) : imageUrls.get(0));
+                                        Log.d(TAG, "Property " + property.getName() + " has " + imageUrls.size() + " images");
                                     }
-                                    
-                                    // Parse amenities JSONB array
-                                    if (jsonObject.has("amenities") && !jsonObject.isNull("amenities")) {
-                                        JSONArray amenitiesArray = jsonObject.optJSONArray("amenities");
-                                        if (amenitiesArray != null) {
-                                            List<String> amenities = new ArrayList<>();
-                                            for (int j = 0; j < amenitiesArray.length(); j++) {
-                                                amenities.add(amenitiesArray.getString(j));
-                                            }
-                                            property.setAmenities(amenities);
-                                        }
-                                    }
-                                    
-                                    properties.add(property);
                                 }
                                 
-                                // Update UI on main thread
-                                if (isAdded() && getActivity() != null) {
-                                    getActivity().runOnUiThread(() -> {
-                                        Log.d(TAG, "Updating adapter with " + properties.size() + " properties");
-                                        
-                                        // Hide shimmer skeleton
-                                        if (shimmerLayout != null) {
-                                            shimmerLayout.setVisibility(View.GONE);
-                                        }
-                                        
-                                        if (adapter != null) {
-                                            adapter.notifyDataSetChanged();
-                                            Log.d(TAG, "Called notifyDataSetChanged()");
+                                // Parse amenities JSONB array
+                                if (jsonObject.has("amenities") && !jsonObject.isNull("amenities")) {
+                                    JSONArray amenitiesArray = jsonObject.optJSONArray("amenities");
+                                    if (amenitiesArray != null) {
+                                        List<String> amenities = new ArrayList<>();
+                                        for (int j = 0; j < amenitiesArray.length(); j++) {
+                                            amenities.add(amenitiesArray.getString(j));
                                         }
-                                        
-                                        if (properties.isEmpty()) {
-                                            Toast.makeText(getContext(), "No properties available at the moment", Toast.LENGTH_LONG).show();
-                                        } else {
-                                            Toast.makeText(getContext(), "Found " + properties.size() + " property(s)", Toast.LENGTH_SHORT).show();
-                                        }
-                                    });
-                                }
-                            } catch (Exception e) {
-                                Log.e(TAG, "Error processing properties with images", e);
-                                if (isAdded() && getActivity() != null) {
-                                    getActivity().runOnUiThread(() -> {
-                                        if (shimmerLayout != null) {
-                                            shimmerLayout.setVisibility(View.GONE);
-                                        }
-                                        Toast.makeText(getContext(), "Error processing properties: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                                    });
+                                        property.setAmenities(amenities);
+                                    }
                                 }
+                                
+                                properties.add(property);
                             }
-                        }
-
-                        @Override
-                        public void onError(String error) {
-                            Log.e(TAG, "Error fetching images: " + error);
-                            // Still show properties even if images fail
+                            
+                            // Update UI on main thread
                             if (isAdded() && getActivity() != null) {
                                 getActivity().runOnUiThread(() -> {
+                                    Log.d(TAG, "Updating adapter with " + properties.size() + " properties");
+                                    
+                                    // Hide shimmer skeleton
                                     if (shimmerLayout != null) {
                                         shimmerLayout.setVisibility(View.GONE);
                                     }
+                                    
                                     if (adapter != null) {
                                         adapter.notifyDataSetChanged();
+                                        Log.d(TAG, "Called notifyDataSetChanged()");
+                                    }
+                                    
+                                    if (properties.isEmpty()) {
+                                        Toast.makeText(getContext(), "No properties available at the moment", Toast.LENGTH_LONG).show();
+                                    } else {
+                                        Toast.makeText(getContext(), "Found " + properties.size() + " property(s)", Toast.LENGTH_SHORT).show();
                                     }
                                 });
                             }
-                        }
-                    });
-                } else {
-                    String errorBody = response.body() != null ? response.body().string() : "Unknown error";
-                    Log.e(TAG, "Failed to load properties: " + response.code() + " - " + errorBody);
-                    
-                    if (isAdded() && getActivity() != null) {
-                        getActivity().runOnUiThread(() -> {
-                            // Hide shimmer on error
-                            if (shimmerLayout != null) {
-                                shimmerLayout.setVisibility(View.GONE);
+                        } catch (Exception e) {
+                            Log.e(TAG, "Error processing properties with images", e);
+                            if (isAdded() && getActivity() != null) {
+                                getActivity().runOnUiThread(() -> {
+                                    if (shimmerLayout != null) {
+                                        shimmerLayout.setVisibility(View.GONE);
+                                    }
+                                    Toast.makeText(getContext(), "Error processing properties: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+                                });
                             }
-                            
-                            Toast.makeText(getContext(), "Failed to load properties", Toast.LENGTH_LONG).show();
-                        });
+                        }
                     }
-                }
-                
-                response.close();
-                
+
+                    @Override
+                    public void onError(String error) {
+                        Log.e(TAG, "Error fetching images: " + error);
+                        // Still show properties even if images fail
+                        if (isAdded() && getActivity() != null) {
+                            getActivity().runOnUiThread(() -> {
+                                if (shimmerLayout != null) {
+                                    shimmerLayout.setVisibility(View.GONE);
+                                }
+                                if (adapter != null) {
+                                    adapter.notifyDataSetChanged();
+                                }
+                            });
+                        }
+                    }
+                });
+
             } catch (Exception e) {
                 Log.e(TAG, "Error loading properties", e);
                 if (isAdded() && getActivity() != null) {
@@ -526,6 +491,7 @@ public class HomeFragment extends Fragment {
                         property.setMonthlyRate(jsonObject.optDouble("price_per_month", jsonObject.optDouble("monthly_rate", 0.0)));
                         property.setSecurityDeposit(jsonObject.optDouble("security_deposit", 0.0));
                         property.setStatus(jsonObject.optString("status", "draft"));
+                        property.setRating(jsonObject.optInt("rating_sum", 0), jsonObject.optInt("rating_count", 0));
                         
                         // Parse images JSONB array
                         if (jsonObject.has("images") && !jsonObject.isNull("images")) {
@@ -638,4 +604,12 @@ public class HomeFragment extends Fragment {
         if (locationHelper != null && locationHelper.hasLocationPermission()) {
             startLocationUpdates();
         }
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (imagePrefetcher != null) {
+            imagePrefetcher.detach();
+        }
     }}
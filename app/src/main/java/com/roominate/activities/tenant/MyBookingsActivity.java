@@ -17,10 +17,8 @@ import com.roominate.services.SupabaseClient;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 
 public class MyBookingsActivity extends AppCompatActivity implements BookingAdapter.OnBookingActionListener {
 
@@ -29,15 +27,12 @@ public class MyBookingsActivity extends AppCompatActivity implements BookingAdap
     private TabLayout tabLayout;
     private RecyclerView bookingsRecyclerView;
     private BookingAdapter adapter;
-    private SimpleDateFormat dateFormat;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_my_bookings);
 
-        dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-        
         initializeViews();
         setupTabs();
         loadBookings("all");
@@ -107,62 +102,7 @@ public class MyBookingsActivity extends AppCompatActivity implements BookingAdap
     
     private Booking parseBooking(JSONObject json) {
         try {
-            Booking booking = new Booking();
-            
-            // Basic fields
-            booking.setId(json.optString("id"));
-            booking.setTenantId(json.optString("tenant_id"));
-            booking.setBoardingHouseId(json.optString("listing_id"));
-            booking.setStatus(json.optString("status", "pending"));
-            booking.setTotalAmount(json.optDouble("total_amount", 0));
-            
-            // Parse dates
-            String startDate = json.optString("start_date");
-            if (startDate != null && !startDate.isEmpty()) {
-                try {
-                    booking.setMoveInDate(dateFormat.parse(startDate));
-                } catch (Exception e) {
-                    Log.e(TAG, "Error parsing start date: " + startDate, e);
-                }
-            }
-            
-            String endDate = json.optString("end_date");
-            if (endDate != null && !endDate.isEmpty()) {
-                try {
-                    booking.setMoveOutDate(dateFormat.parse(endDate));
-                } catch (Exception e) {
-                    Log.e(TAG, "Error parsing end date: " + endDate, e);
-                }
-            }
-            
-            // Parse property details from joined boarding_houses
-            if (json.has("boarding_houses") && !json.isNull("boarding_houses")) {
-                try {
-                    JSONObject property = json.getJSONObject("boarding_houses");
-                    String title = property.optString("title", null);
-                    booking.setPropertyName(title != null ? title : "Unknown Property");
-                    booking.setPropertyAddress(property.optString("address", ""));
-                } catch (Exception e) {
-                    Log.e(TAG, "Error parsing boarding_houses", e);
-                    booking.setPropertyName("Unknown Property");
-                }
-            } else {
-                booking.setPropertyName("Unknown Property");
-            }
-            
-            // Set created_at
-            String createdAt = json.optString("created_at");
-            if (createdAt != null && !createdAt.isEmpty()) {
-                try {
-                    SimpleDateFormat isoFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.getDefault());
-                    booking.setCreatedAt(isoFormat.parse(createdAt));
-                } catch (Exception e) {
-                    Log.e(TAG, "Error parsing created_at: " + createdAt, e);
-                }
-            }
-            
-            return booking;
-            
+            return Booking.fromJson(json);
         } catch (Exception e) {
             Log.e(TAG, "Error parsing booking JSON", e);
             return null;
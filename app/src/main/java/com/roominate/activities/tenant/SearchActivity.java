@@ -385,6 +385,7 @@ public class SearchActivity extends AppCompatActivity {
                                 property.setName(propObj.optString("name"));
                                 property.setAddress(propObj.optString("address"));
                                 property.setMonthlyRate((int) propObj.optDouble("price_per_month", 0));
+                                property.setRating(propObj.optInt("rating_sum", 0), propObj.optInt("rating_count", 0));
                                 property.setThumbnailUrl(propObj.optString("thumbnail_url", ""));
                                 searchResults.add(property);
                             }
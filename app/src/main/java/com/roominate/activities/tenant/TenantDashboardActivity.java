@@ -18,6 +18,9 @@ import com.google.android.material.navigation.NavigationView;
 import com.roominate.R;
 import com.roominate.activities.auth.LoginActivity;
 import com.roominate.services.SupabaseClient;
+import com.roominate.services.OwnerStatsStore;
+import com.roominate.services.TenantBookingCache;
+import com.roominate.services.UnreadCountStore;
 import com.roominate.ui.fragments.SearchFragment;
 import com.roominate.ui.fragments.MyBookingsFragment;
 import com.roominate.ui.fragments.ProfileFragment;
@@ -34,6 +37,10 @@ public class TenantDashboardActivity extends AppCompatActivity implements Naviga
     private TextView profileNameTextView;
     private TextView profileEmailTextView;
     private ImageView profileImageView;
+    private TextView notificationsBadge;
+
+    // Drawer badge follows the shared unread counter (cached with TTL, pushed on change)
+    private final UnreadCountStore.Observer unreadObserver = this::updateNotificationsBadge;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -66,9 +73,24 @@ public class TenantDashboardActivity extends AppCompatActivity implements Naviga
         // Check if owner is using tenant view
         checkIfOwnerUsingTenantView();
         
+        MenuItem notificationsItem = navigationView.getMenu().findItem(R.id.nav_notifications);
+        if (notificationsItem != null && notificationsItem.getActionView() != null) {
+            notificationsBadge = notificationsItem.getActionView().findViewById(R.id.navBadgeCounter);
+        }
+        
         // Load user data into header
         loadUserProfile();
     }
+
+    private void updateNotificationsBadge(int count) {
+        if (notificationsBadge == null) return;
+        if (count > 0) {
+            notificationsBadge.setText(count > 99 ? "99+" : String.valueOf(count));
+            notificationsBadge.setVisibility(View.VISIBLE);
+        } else {
+            notificationsBadge.setVisibility(View.GONE);
+        }
+    }
     
     private void checkIfOwnerUsingTenantView() {
         try {
@@ -237,6 +259,9 @@ public class TenantDashboardActivity extends AppCompatActivity implements Naviga
         } else if (id == R.id.nav_profile) {
             loadFragment(new ProfileFragment());
             bottomNavigationView.setSelectedItemId(id);
+        } else if (id == R.id.nav_notifications) {
+            Intent intent = new Intent(this, com.roominate.activities.NotificationsActivity.class);
+            startActivity(intent);
         } else if (id == R.id.nav_settings) {
             Intent intent = new Intent(this, SettingsActivity.class);
             startActivity(intent);
@@ -263,6 +288,10 @@ public class TenantDashboardActivity extends AppCompatActivity implements Naviga
     }
 
     private void signOut() {
+        UnreadCountStore.getInstance().invalidate();
+        TenantBookingCache.getInstance().invalidate();
+        OwnerStatsStore.getInstance().invalidate();
+
         // Clear Supabase session
         SupabaseClient.getInstance().signOut(new SupabaseClient.ApiCallback() {
             @Override
@@ -312,6 +341,18 @@ public class TenantDashboardActivity extends AppCompatActivity implements Naviga
         }
     }
     
+    @Override
+    protected void onStart() {
+        super.onStart();
+        UnreadCountStore.getInstance().observe(unreadObserver);
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        UnreadCountStore.getInstance().removeObserver(unreadObserver);
+    }
+    
     @Override
     protected void onResume() {
         super.onResume();
@@ -14,11 +14,9 @@ import com.google.android.material.button.MaterialButton;
 import com.roominate.R;
 import com.roominate.activities.auth.LoginActivity;
 import com.roominate.services.SupabaseClient;
+import com.roominate.utils.DateTimeHelper;
 import com.squareup.picasso.Picasso;
 import org.json.JSONObject;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
 
 public class TenantProfileActivity extends AppCompatActivity {
 
@@ -124,15 +122,11 @@ public class TenantProfileActivity extends AppCompatActivity {
                 // Get created_at for member since
                 String createdAt = userData.optString("created_at", "");
                 if (!createdAt.isEmpty()) {
-                    try {
-                        SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
-                        SimpleDateFormat outputFormat = new SimpleDateFormat("MMMM yyyy", Locale.US);
-                        Date date = inputFormat.parse(createdAt);
-                        if (date != null) {
-                            memberSinceDisplayTextView.setText(outputFormat.format(date));
-                        }
-                    } catch (Exception e) {
-                        Log.e(TAG, "Error parsing date", e);
+                    long createdAtMillis = DateTimeHelper.parseTimestamp(createdAt);
+                    if (createdAtMillis != 0) {
+                        memberSinceDisplayTextView.setText(DateTimeHelper.formatMonthYear(createdAtMillis));
+                    } else {
+                        Log.e(TAG, "Error parsing date: " + createdAt);
                     }
                 }
                 
@@ -13,17 +13,16 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 import com.roominate.R;
 import com.roominate.models.Booking;
-import java.text.SimpleDateFormat;
+import com.roominate.utils.DateTimeHelper;
+import com.roominate.utils.ImageLoader;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 
 public class BookingAdapter extends RecyclerView.Adapter<BookingAdapter.BookingViewHolder> {
 
     private List<Booking> bookings;
     private Context context;
     private OnBookingActionListener listener;
-    private SimpleDateFormat dateFormat;
 
     public interface OnBookingActionListener {
         void onViewDetails(Booking booking);
@@ -34,7 +33,6 @@ public class BookingAdapter extends RecyclerView.Adapter<BookingAdapter.BookingV
         this.context = context;
         this.bookings = new ArrayList<>();
         this.listener = listener;
-        this.dateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
     }
 
     public void setBookings(List<Booking> bookings) {
@@ -58,8 +56,8 @@ public class BookingAdapter extends RecyclerView.Adapter<BookingAdapter.BookingV
         holder.propertyAddressTextView.setText(booking.getPropertyAddress());
         
         // Set booking details
-        if (booking.getMoveInDate() != null) {
-            holder.moveInDateTextView.setText(dateFormat.format(booking.getMoveInDate()));
+        if (booking.getMoveInDate() != 0) {
+            holder.moveInDateTextView.setText(DateTimeHelper.formatDisplayDate(booking.getMoveInDate()));
         }
         holder.durationTextView.setText(booking.getDurationMonths() + " months");
         holder.totalAmountTextView.setText(String.format("K%.0f", booking.getTotalAmount()));
@@ -78,8 +76,7 @@ public class BookingAdapter extends RecyclerView.Adapter<BookingAdapter.BookingV
         
         // Load property image with Picasso
         if (booking.getPropertyImageUrl() != null && !booking.getPropertyImageUrl().isEmpty()) {
-            com.squareup.picasso.Picasso.get()
-                .load(booking.getPropertyImageUrl())
+            ImageLoader.loadThumbnail(booking.getPropertyImageUrl(), holder.propertyImageView)
                 .placeholder(R.drawable.ic_house_placeholder)
                 .error(R.drawable.ic_house_placeholder)
                 .fit()
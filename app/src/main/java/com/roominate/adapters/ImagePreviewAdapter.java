@@ -10,6 +10,7 @@ import android.widget.ImageView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 import com.roominate.R;
+import com.roominate.utils.ImageLoader;
 import java.util.List;
 
 public class ImagePreviewAdapter extends RecyclerView.Adapter<ImagePreviewAdapter.ImageViewHolder> {
@@ -38,11 +39,17 @@ public class ImagePreviewAdapter extends RecyclerView.Adapter<ImagePreviewAdapte
     @Override
     public void onBindViewHolder(@NonNull ImageViewHolder holder, int position) {
         Uri imageUri = imageUris.get(position);
-        holder.imageView.setImageURI(imageUri);
+        // Full-size camera photos must not be decoded on the main thread
+        ImageLoader.loadPreview(imageUri)
+                .placeholder(R.drawable.ic_house_placeholder)
+                .error(R.drawable.ic_house_placeholder)
+                .into(holder.imageView);
         
         holder.removeButton.setOnClickListener(v -> {
-            if (removeListener != null) {
-                removeListener.onRemove(position);
+            // Bind-time position goes stale after notifyItemRemoved
+            int current = holder.getBindingAdapterPosition();
+            if (removeListener != null && current != RecyclerView.NO_POSITION) {
+                removeListener.onRemove(current);
             }
         });
     }
@@ -12,25 +12,21 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.card.MaterialCardView;
 import com.roominate.R;
+import com.roominate.models.Notification;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
-
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
+import java.util.List;
 
 public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapter.NotificationViewHolder> {
     private Context context;
-    private JSONArray notifications;
+    private List<Notification> notifications;
     private NotificationClickListener listener;
 
     public interface NotificationClickListener {
-        void onNotificationClick(JSONObject notification);
-        void onDeleteClick(String notificationId, int position);
+        void onNotificationClick(Notification notification);
+        void onDeleteClick(String notificationId);
     }
 
-    public NotificationAdapter(Context context, JSONArray notifications, NotificationClickListener listener) {
+    public NotificationAdapter(Context context, List<Notification> notifications, NotificationClickListener listener) {
         this.context = context;
         this.notifications = notifications;
         this.listener = listener;
@@ -45,94 +41,52 @@ public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapte
 
     @Override
     public void onBindViewHolder(@NonNull NotificationViewHolder holder, int position) {
-        try {
-            JSONObject notification = notifications.getJSONObject(position);
-            
-            String title = notification.getString("title");
-            String message = notification.getString("message");
-            String createdAt = notification.getString("created_at");
-            boolean isRead = notification.getBoolean("is_read");
-            String type = notification.getString("type");
-
-            holder.titleTextView.setText(title);
-            holder.messageTextView.setText(message);
-            holder.timeTextView.setText(formatDate(createdAt));
-
-            // Set type icon based on notification type
-            String typeLabel = getTypeLabel(type);
-            holder.typeTextView.setText(typeLabel);
-
-            // Highlight unread notifications
-            if (!isRead) {
-                holder.cardView.setCardBackgroundColor(context.getResources().getColor(R.color.unread_notification_bg, null));
-                holder.titleTextView.setTypeface(null, android.graphics.Typeface.BOLD);
-            } else {
-                holder.cardView.setCardBackgroundColor(context.getResources().getColor(android.R.color.white, null));
-                holder.titleTextView.setTypeface(null, android.graphics.Typeface.NORMAL);
+        Notification notification = notifications.get(position);
+
+        holder.titleTextView.setText(notification.getTitle());
+        holder.messageTextView.setText(notification.getMessage());
+        holder.timeTextView.setText(notification.getTimeAgo());
+
+        // Set type icon based on notification type
+        String typeLabel = getTypeLabel(notification.getType());
+        holder.typeTextView.setText(typeLabel);
+
+        // Highlight unread notifications
+        if (!notification.isRead()) {
+            holder.cardView.setCardBackgroundColor(context.getResources().getColor(R.color.unread_notification_bg, null));
+            holder.titleTextView.setTypeface(null, android.graphics.Typeface.BOLD);
+        } else {
+            holder.cardView.setCardBackgroundColor(context.getResources().getColor(android.R.color.white, null));
+            holder.titleTextView.setTypeface(null, android.graphics.Typeface.NORMAL);
+        }
+
+        // Handle click
+        holder.cardView.setOnClickListener(v -> {
+            if (listener != null) {
+                listener.onNotificationClick(notification);
             }
+        });
 
-            // Handle click
-            holder.cardView.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onNotificationClick(notification);
-                }
-            });
-
-            // Handle delete
-            holder.deleteButton.setOnClickListener(v -> {
-                if (listener != null) {
-                    try {
-                        String notificationId = notification.getString("id");
-                        listener.onDeleteClick(notificationId, position);
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                    }
-                }
-            });
-
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        // Handle delete
+        holder.deleteButton.setOnClickListener(v -> {
+            if (listener != null) {
+                listener.onDeleteClick(notification.getId());
+            }
+        });
     }
 
     @Override
     public int getItemCount() {
-        return notifications.length();
+        return notifications.size();
     }
 
-    public void updateNotifications(JSONArray newNotifications) {
+    public void updateNotifications(List<Notification> newNotifications) {
         this.notifications = newNotifications;
         notifyDataSetChanged();
     }
 
-    private String formatDate(String dateString) {
-        try {
-            SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.getDefault());
-            Date date = inputFormat.parse(dateString);
-            
-            long timeDiff = System.currentTimeMillis() - date.getTime();
-            long minutes = timeDiff / (60 * 1000);
-            long hours = timeDiff / (60 * 60 * 1000);
-            long days = timeDiff / (24 * 60 * 60 * 1000);
-
-            if (minutes < 1) {
-                return "Just now";
-            } else if (minutes < 60) {
-                return minutes + " min ago";
-            } else if (hours < 24) {
-                return hours + " hour" + (hours > 1 ? "s" : "") + " ago";
-            } else if (days < 7) {
-                return days + " day" + (days > 1 ? "s" : "") + " ago";
-            } else {
-                SimpleDateFormat outputFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
-                return outputFormat.format(date);
-            }
-        } catch (Exception e) {
-            return dateString;
-        }
-    }
-
     private String getTypeLabel(String type) {
+        if (type == null) type = "general";
         switch (type) {
             case "booking_update":
                 return "🏠 Booking";
@@ -14,11 +14,13 @@ import com.google.android.material.chip.Chip;
 import com.roominate.R;
 import com.roominate.activities.owner.AddListingActivity;
 import com.roominate.models.Property;
-import com.squareup.picasso.Picasso;
+import com.roominate.utils.ImageLoader;
+import com.roominate.utils.ImagePrefetcher;
 import java.util.ArrayList;
 import java.util.Locale;
 
-public class OwnerListingAdapter extends RecyclerView.Adapter<OwnerListingAdapter.ViewHolder> {
+public class OwnerListingAdapter extends RecyclerView.Adapter<OwnerListingAdapter.ViewHolder>
+        implements ImagePrefetcher.ImageSource {
 
     private Context context;
     private ArrayList<Property> properties;
@@ -45,9 +47,8 @@ public class OwnerListingAdapter extends RecyclerView.Adapter<OwnerListingAdapte
         holder.statusChip.setText(property.getStatus());
 
         // Load image using Picasso
-        if (property.getImageUrls() != null && !property.getImageUrls().isEmpty()) {
-            Picasso.get()
-                    .load(property.getImageUrls().get(0))
+        if (property.getThumbnailUrl() != null && !property.getThumbnailUrl().isEmpty()) {
+            ImageLoader.loadThumbnail(property.getThumbnailUrl(), holder.propertyImageView)
                     .placeholder(R.drawable.ic_house_placeholder)
                     .error(R.drawable.ic_house_placeholder)
                     .fit()
@@ -72,6 +73,11 @@ public class OwnerListingAdapter extends RecyclerView.Adapter<OwnerListingAdapte
         return properties.size();
     }
 
+    @Override
+    public String getImageUrl(int position) {
+        return properties.get(position).getThumbnailUrl();
+    }
+
     public static class ViewHolder extends RecyclerView.ViewHolder {
         ImageView propertyImageView;
         TextView propertyNameTextView, propertyAddressTextView, priceTextView;
@@ -12,11 +12,14 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.roominate.models.Property;
 import com.roominate.R;
-import com.squareup.picasso.Picasso;
+import com.roominate.utils.ImageLoader;
+import com.roominate.utils.ImagePrefetcher;
 
 import java.util.List;
+import java.util.Locale;
 
-public class PropertyAdapter extends RecyclerView.Adapter<PropertyAdapter.ViewHolder> {
+public class PropertyAdapter extends RecyclerView.Adapter<PropertyAdapter.ViewHolder>
+        implements ImagePrefetcher.ImageSource {
     public interface OnItemClickListener {
         void onItemClick(Property property);
     }
@@ -47,14 +50,19 @@ public class PropertyAdapter extends RecyclerView.Adapter<PropertyAdapter.ViewHo
     double rate = p.getMonthlyRate();
     String formattedRate = String.format("%,.0f", rate); // no decimal places
     holder.price.setText("ZK" + formattedRate + "/mo");
+        if (p.getRatingCount() > 0) {
+            holder.rating.setText(String.format(Locale.getDefault(), "%.1f (%d)", p.getAverageRating(), p.getRatingCount()));
+            holder.rating.setVisibility(View.VISIBLE);
+        } else {
+            holder.rating.setVisibility(View.GONE);
+        }
         
         String thumbnailUrl = p.getThumbnailUrl();
         android.util.Log.d("PropertyAdapter", "Property: " + p.getName() + ", Thumbnail URL: " + thumbnailUrl);
         
         if (thumbnailUrl != null && !thumbnailUrl.isEmpty()) {
             android.util.Log.d("PropertyAdapter", "Loading image with Picasso: " + thumbnailUrl);
-            Picasso.get()
-                .load(thumbnailUrl)
+            ImageLoader.loadThumbnail(thumbnailUrl, holder.thumbnail)
                 .placeholder(R.drawable.ic_house_placeholder)
                 .error(R.drawable.ic_house_placeholder)
                 .fit()
@@ -82,6 +90,11 @@ public class PropertyAdapter extends RecyclerView.Adapter<PropertyAdapter.ViewHo
         return properties.size();
     }
 
+    @Override
+    public String getImageUrl(int position) {
+        return properties.get(position).getThumbnailUrl();
+    }
+
     /**
      * Update the adapter's property list and refresh the view
      */
@@ -96,6 +109,7 @@ public class PropertyAdapter extends RecyclerView.Adapter<PropertyAdapter.ViewHo
         TextView title;
         TextView address;
         TextView price;
+        TextView rating;
 
         ViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -103,6 +117,7 @@ public class PropertyAdapter extends RecyclerView.Adapter<PropertyAdapter.ViewHo
             title = itemView.findViewById(R.id.property_title);
             address = itemView.findViewById(R.id.property_address);
             price = itemView.findViewById(R.id.property_price);
+            rating = itemView.findViewById(R.id.property_rating);
         }
     }
 }
@@ -9,22 +9,27 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 import com.roominate.R;
+import com.roominate.utils.DateTimeHelper;
 import org.json.JSONArray;
 import org.json.JSONObject;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reviews newest first. Pages are appended as they are loaded (see
+ * SupabaseClient.getReviews) and a just-submitted review can be shown at the top before the
+ * server confirms it, so items are inserted and removed individually rather than rebinding
+ * the whole list.
+ */
 public class ReviewsAdapter extends RecyclerView.Adapter<ReviewsAdapter.ReviewViewHolder> {
 
     private Context context;
-    private JSONArray reviews;
-    private SimpleDateFormat dateFormat;
+    private final List<JSONObject> reviews = new ArrayList<>();
 
     public ReviewsAdapter(Context context, JSONArray reviews) {
         this.context = context;
-        this.reviews = reviews != null ? reviews : new JSONArray();
-        this.dateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
+        appendReviews(reviews);
     }
 
     @NonNull
@@ -37,7 +42,7 @@ public class ReviewsAdapter extends RecyclerView.Adapter<ReviewsAdapter.ReviewVi
     @Override
     public void onBindViewHolder(@NonNull ReviewViewHolder holder, int position) {
         try {
-            JSONObject review = reviews.getJSONObject(position);
+            JSONObject review = reviews.get(position);
             
             // Get user data from join
             JSONObject user = review.optJSONObject("users");
@@ -59,14 +64,10 @@ public class ReviewsAdapter extends RecyclerView.Adapter<ReviewsAdapter.ReviewVi
             
             // Format date
             if (!createdAt.isEmpty()) {
-                try {
-                    // Parse ISO 8601 date
-                    SimpleDateFormat isoFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.getDefault());
-                    Date date = isoFormat.parse(createdAt);
-                    if (date != null) {
-                        holder.dateText.setText(dateFormat.format(date));
-                    }
-                } catch (Exception e) {
+                long createdAtMillis = DateTimeHelper.parseTimestamp(createdAt);
+                if (createdAtMillis != 0) {
+                    holder.dateText.setText(DateTimeHelper.formatDisplayDate(createdAtMillis));
+                } else {
                     holder.dateText.setText(createdAt.substring(0, Math.min(10, createdAt.length())));
                 }
             }
@@ -85,14 +86,66 @@ public class ReviewsAdapter extends RecyclerView.Adapter<ReviewsAdapter.ReviewVi
 
     @Override
     public int getItemCount() {
-        return reviews.length();
+        return reviews.size();
     }
 
     public void updateReviews(JSONArray newReviews) {
-        this.reviews = newReviews != null ? newReviews : new JSONArray();
+        reviews.clear();
+        appendReviews(newReviews);
         notifyDataSetChanged();
     }
 
+    /**
+     * Add the next (older) page at the bottom. Reviews already shown, e.g. one the user just
+     * submitted, are skipped.
+     */
+    public void appendReviews(JSONArray page) {
+        if (page == null) return;
+        int start = reviews.size();
+        for (int i = 0; i < page.length(); i++) {
+            JSONObject review = page.optJSONObject(i);
+            if (review != null && indexOf(review.optString("id")) == -1) {
+                reviews.add(review);
+            }
+        }
+        if (reviews.size() > start) {
+            notifyItemRangeInserted(start, reviews.size() - start);
+        }
+    }
+
+    public void prependReview(JSONObject review) {
+        reviews.add(0, review);
+        notifyItemInserted(0);
+    }
+
+    /** Swap the review with id {@code id} (e.g. an optimistic placeholder) for {@code review} */
+    public void replaceReview(String id, JSONObject review) {
+        int index = indexOf(id);
+        if (index == -1) return;
+        if (indexOf(review.optString("id")) != -1) {
+            // A page load already brought in the saved row
+            removeReview(id);
+            return;
+        }
+        reviews.set(index, review);
+        notifyItemChanged(index);
+    }
+
+    public void removeReview(String id) {
+        int index = indexOf(id);
+        if (index == -1) return;
+        reviews.remove(index);
+        notifyItemRemoved(index);
+    }
+
+    private int indexOf(String id) {
+        if (id == null || id.isEmpty()) return -1;
+        for (int i = 0; i < reviews.size(); i++) {
+            if (id.equals(reviews.get(i).optString("id"))) return i;
+        }
+        return -1;
+    }
+
     static class ReviewViewHolder extends RecyclerView.ViewHolder {
         TextView reviewerNameText;
         RatingBar ratingBar;
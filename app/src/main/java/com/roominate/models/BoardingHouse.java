@@ -46,9 +46,9 @@ public class BoardingHouse {
     private String verifiedBy; // admin ID
     private Date verifiedAt;
     
-    // Rating and Reviews
-    private double averageRating;
-    private int totalReviews;
+    // Rating and Reviews (rating_sum / rating_count, maintained server-side by a trigger on reviews)
+    private int ratingSum;
+    private int ratingCount;
     
     // Metadata
     private Date createdAt;
@@ -62,8 +62,8 @@ public class BoardingHouse {
         this.imageUrls = new ArrayList<>();
         this.status = "pending";
         this.isVerified = false;
-        this.averageRating = 0.0;
-        this.totalReviews = 0;
+        this.ratingSum = 0;
+        this.ratingCount = 0;
         this.viewCount = 0;
         this.inquiryCount = 0;
         this.createdAt = new Date();
@@ -339,19 +339,24 @@ public class BoardingHouse {
     }
 
     public double getAverageRating() {
-        return averageRating;
+        return ratingCount > 0 ? (double) ratingSum / ratingCount : 0.0;
     }
 
-    public void setAverageRating(double averageRating) {
-        this.averageRating = averageRating;
+    public int getTotalReviews() {
+        return ratingCount;
     }
 
-    public int getTotalReviews() {
-        return totalReviews;
+    public int getRatingSum() {
+        return ratingSum;
+    }
+
+    public int getRatingCount() {
+        return ratingCount;
     }
 
-    public void setTotalReviews(int totalReviews) {
-        this.totalReviews = totalReviews;
+    public void setRating(int ratingSum, int ratingCount) {
+        this.ratingSum = ratingSum;
+        this.ratingCount = ratingCount;
     }
 
     public Date getCreatedAt() {
@@ -404,7 +409,7 @@ public class BoardingHouse {
                 ", availableRooms=" + availableRooms +
                 ", status='" + status + '\'' +
                 ", isVerified=" + isVerified +
-                ", averageRating=" + averageRating +
+                ", averageRating=" + getAverageRating() +
                 '}';
     }
 }
@@ -1,6 +1,8 @@
 package com.roominate.models;
 
-import java.util.Date;
+import com.roominate.utils.DateTimeHelper;
+
+import org.json.JSONObject;
 
 public class Booking {
     private String id;
@@ -13,10 +15,10 @@ public class Booking {
     private String propertyAddress;
     private String propertyImageUrl;
 
-    // Booking Details
-    private Date bookingDate;
-    private Date moveInDate;
-    private Date moveOutDate;
+    // Booking Details (epoch millis, 0 = not set)
+    private long bookingDate;
+    private long moveInDate;
+    private long moveOutDate;
     private int durationMonths;
     
     // Pricing
@@ -33,24 +35,24 @@ public class Booking {
     // Additional Information
     private String notes;
     private String cancellationReason;
-    private Date cancellationDate;
+    private long cancellationDate;
     
-    // Metadata
-    private Date createdAt;
-    private Date updatedAt;
-    private Date confirmedAt;
+    // Metadata (epoch millis, 0 = not set)
+    private long createdAt;
+    private long updatedAt;
+    private long confirmedAt;
 
     // Constructors
     public Booking() {
         this.status = "pending";
         this.paymentStatus = "unpaid";
         this.paidAmount = 0.0;
-        this.createdAt = new Date();
-        this.updatedAt = new Date();
+        this.createdAt = System.currentTimeMillis();
+        this.updatedAt = System.currentTimeMillis();
     }
 
     public Booking(String id, String tenantId, String boardingHouseId, String ownerId, 
-                   Date moveInDate, double monthlyRate) {
+                   long moveInDate, double monthlyRate) {
         this();
         this.id = id;
         this.tenantId = tenantId;
@@ -58,7 +60,57 @@ public class Booking {
         this.ownerId = ownerId;
         this.moveInDate = moveInDate;
         this.monthlyRate = monthlyRate;
-        this.bookingDate = new Date();
+        this.bookingDate = System.currentTimeMillis();
+    }
+
+    /**
+     * Decode a PostgREST bookings row (optionally with an embedded boarding_houses object).
+     * Timestamps are parsed once here via DateTimeHelper so screens only format longs.
+     */
+    public static Booking fromJson(JSONObject json) {
+        Booking booking = new Booking();
+        booking.id = json.optString("id");
+        booking.tenantId = json.optString("tenant_id");
+        booking.boardingHouseId = json.has("listing_id") ? json.optString("listing_id") : json.optString("boarding_house_id");
+        booking.ownerId = json.isNull("owner_id") ? null : json.optString("owner_id");
+        booking.status = json.optString("status", "pending");
+        if (!json.isNull("payment_status")) booking.paymentStatus = json.optString("payment_status");
+        booking.totalAmount = json.optDouble("total_amount", 0.0);
+        booking.cancellationReason = json.isNull("cancellation_reason") ? null : json.optString("cancellation_reason");
+
+        // start_date / end_date are Postgres `date` columns ("2025-11-06")
+        booking.moveInDate = DateTimeHelper.parseDate(json.optString("start_date", null));
+        booking.moveOutDate = DateTimeHelper.parseDate(json.optString("end_date", null));
+
+        // timestamptz columns keep their offsets
+        booking.createdAt = DateTimeHelper.parseTimestamp(json.optString("created_at", null));
+        booking.updatedAt = DateTimeHelper.parseTimestamp(json.optString("updated_at", null));
+        booking.cancellationDate = DateTimeHelper.parseTimestamp(json.optString("cancellation_date", null));
+        booking.bookingDate = booking.createdAt;
+
+        JSONObject property = json.optJSONObject("boarding_houses");
+        if (property != null) {
+            booking.propertyName = property.optString("title", property.optString("name", "Unknown Property"));
+            booking.propertyAddress = property.optString("address", "");
+        } else {
+            booking.propertyName = "Unknown Property";
+        }
+        return booking;
+    }
+
+    /**
+     * Apply the columns present in a raw bookings row (e.g. a Realtime change record, which has
+     * no embedded boarding_houses) on top of this booking, keeping the joined property fields.
+     */
+    public void mergeFrom(JSONObject json) {
+        if (json.has("status")) status = json.optString("status", status);
+        if (json.has("payment_status")) paymentStatus = json.isNull("payment_status") ? null : json.optString("payment_status");
+        if (json.has("total_amount")) totalAmount = json.optDouble("total_amount", totalAmount);
+        if (json.has("cancellation_reason")) cancellationReason = json.isNull("cancellation_reason") ? null : json.optString("cancellation_reason");
+        if (json.has("start_date")) moveInDate = DateTimeHelper.parseDate(json.optString("start_date", null));
+        if (json.has("end_date")) moveOutDate = DateTimeHelper.parseDate(json.optString("end_date", null));
+        if (json.has("updated_at")) updatedAt = DateTimeHelper.parseTimestamp(json.optString("updated_at", null));
+        if (json.has("cancellation_date")) cancellationDate = DateTimeHelper.parseTimestamp(json.optString("cancellation_date", null));
     }
 
     // Getters and Setters
@@ -94,27 +146,27 @@ public class Booking {
         this.ownerId = ownerId;
     }
 
-    public Date getBookingDate() {
+    public long getBookingDate() {
         return bookingDate;
     }
 
-    public void setBookingDate(Date bookingDate) {
+    public void setBookingDate(long bookingDate) {
         this.bookingDate = bookingDate;
     }
 
-    public Date getMoveInDate() {
+    public long getMoveInDate() {
         return moveInDate;
     }
 
-    public void setMoveInDate(Date moveInDate) {
+    public void setMoveInDate(long moveInDate) {
         this.moveInDate = moveInDate;
     }
 
-    public Date getMoveOutDate() {
+    public long getMoveOutDate() {
         return moveOutDate;
     }
 
-    public void setMoveOutDate(Date moveOutDate) {
+    public void setMoveOutDate(long moveOutDate) {
         this.moveOutDate = moveOutDate;
     }
 
@@ -179,9 +231,9 @@ public class Booking {
 
     public void setStatus(String status) {
         this.status = status;
-        this.updatedAt = new Date();
-        if ("confirmed".equals(status) && confirmedAt == null) {
-            this.confirmedAt = new Date();
+        this.updatedAt = System.currentTimeMillis();
+        if ("confirmed".equals(status) && confirmedAt == 0) {
+            this.confirmedAt = System.currentTimeMillis();
         }
     }
 
@@ -219,35 +271,35 @@ public class Booking {
         this.cancellationReason = cancellationReason;
     }
 
-    public Date getCancellationDate() {
+    public long getCancellationDate() {
         return cancellationDate;
     }
 
-    public void setCancellationDate(Date cancellationDate) {
+    public void setCancellationDate(long cancellationDate) {
         this.cancellationDate = cancellationDate;
     }
 
-    public Date getCreatedAt() {
+    public long getCreatedAt() {
         return createdAt;
     }
 
-    public void setCreatedAt(Date createdAt) {
+    public void setCreatedAt(long createdAt) {
         this.createdAt = createdAt;
     }
 
-    public Date getUpdatedAt() {
+    public long getUpdatedAt() {
         return updatedAt;
     }
 
-    public void setUpdatedAt(Date updatedAt) {
+    public void setUpdatedAt(long updatedAt) {
         this.updatedAt = updatedAt;
     }
 
-    public Date getConfirmedAt() {
+    public long getConfirmedAt() {
         return confirmedAt;
     }
 
-    public void setConfirmedAt(Date confirmedAt) {
+    public void setConfirmedAt(long confirmedAt) {
         this.confirmedAt = confirmedAt;
     }
 
@@ -311,7 +363,7 @@ public class Booking {
                 "id='" + id + '\'' +
                 ", tenantId='" + tenantId + '\'' +
                 ", boardingHouseId='" + boardingHouseId + '\'' +
-                ", moveInDate=" + moveInDate +
+                ", moveInDate=" + DateTimeHelper.formatIsoDate(moveInDate) +
                 ", durationMonths=" + durationMonths +
                 ", totalAmount=" + totalAmount +
                 ", status='" + status + '\'' +
@@ -1,6 +1,8 @@
 package com.roominate.models;
 
-import java.util.Date;
+import com.roominate.utils.DateTimeHelper;
+
+import org.json.JSONObject;
 
 public class Notification {
     private String id;
@@ -23,16 +25,16 @@ public class Notification {
     private boolean isDeleted;
     private String priority; // "low", "normal", "high", "urgent"
     
-    // Metadata
-    private Date createdAt;
-    private Date readAt;
+    // Metadata (epoch millis, 0 = not set)
+    private long createdAt;
+    private long readAt;
 
     // Constructors
     public Notification() {
         this.isRead = false;
         this.isDeleted = false;
         this.priority = "normal";
-        this.createdAt = new Date();
+        this.createdAt = System.currentTimeMillis();
     }
 
     public Notification(String id, String userId, String type, String title, String message) {
@@ -44,6 +46,23 @@ public class Notification {
         this.message = message;
     }
 
+    /**
+     * Decode a PostgREST notifications row. created_at is parsed once here so the
+     * adapter only formats a long on bind.
+     */
+    public static Notification fromJson(JSONObject json) {
+        Notification n = new Notification();
+        n.id = json.optString("id");
+        n.userId = json.optString("user_id");
+        n.type = json.optString("type", "general");
+        n.title = json.optString("title", "");
+        n.message = json.optString("message", "");
+        n.relatedId = json.isNull("related_id") ? null : json.optString("related_id", null);
+        n.isRead = json.optBoolean("is_read", false);
+        n.createdAt = DateTimeHelper.parseTimestamp(json.optString("created_at", null));
+        return n;
+    }
+
     // Getters and Setters
     public String getId() {
         return id;
@@ -131,8 +150,8 @@ public class Notification {
 
     public void setRead(boolean read) {
         isRead = read;
-        if (read && readAt == null) {
-            this.readAt = new Date();
+        if (read && readAt == 0) {
+            this.readAt = System.currentTimeMillis();
         }
     }
 
@@ -152,39 +171,25 @@ public class Notification {
         this.priority = priority;
     }
 
-    public Date getCreatedAt() {
+    public long getCreatedAt() {
         return createdAt;
     }
 
-    public void setCreatedAt(Date createdAt) {
+    public void setCreatedAt(long createdAt) {
         this.createdAt = createdAt;
     }
 
-    public Date getReadAt() {
+    public long getReadAt() {
         return readAt;
     }
 
-    public void setReadAt(Date readAt) {
+    public void setReadAt(long readAt) {
         this.readAt = readAt;
     }
 
     // Helper method to get time ago string
     public String getTimeAgo() {
-        long diff = new Date().getTime() - createdAt.getTime();
-        long seconds = diff / 1000;
-        long minutes = seconds / 60;
-        long hours = minutes / 60;
-        long days = hours / 24;
-
-        if (days > 0) {
-            return days + " day" + (days > 1 ? "s" : "") + " ago";
-        } else if (hours > 0) {
-            return hours + " hour" + (hours > 1 ? "s" : "") + " ago";
-        } else if (minutes > 0) {
-            return minutes + " minute" + (minutes > 1 ? "s" : "") + " ago";
-        } else {
-            return "Just now";
-        }
+        return DateTimeHelper.formatRelative(createdAt);
     }
 
     @Override
@@ -196,7 +201,7 @@ public class Notification {
                 ", title='" + title + '\'' +
                 ", isRead=" + isRead +
                 ", priority='" + priority + '\'' +
-                ", createdAt=" + createdAt +
+                ", createdAt=" + DateTimeHelper.formatIsoTimestamp(createdAt) +
                 '}';
     }
 }
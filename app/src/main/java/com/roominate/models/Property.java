@@ -23,6 +23,8 @@ public class Property {
     private double longitude;
     private int availableRooms;
     private float distanceFromUser; // Distance in km for location-based filtering
+    private int ratingSum; // rating_sum / rating_count, maintained server-side by a trigger on reviews
+    private int ratingCount;
 
     // Constructors
     public Property() {
@@ -67,6 +69,10 @@ public class Property {
     public void setAmenities(List<String> amenities) { this.amenities = amenities; }
     
     public String getThumbnailUrl() { 
+        // Prefer the small grid rendition; fall back to the first full-size image
+        if (thumbnailUrl != null && !thumbnailUrl.isEmpty()) {
+            return thumbnailUrl;
+        }
         if (imageUrls != null && !imageUrls.isEmpty()) {
             return imageUrls.get(0);
         }
@@ -86,6 +92,18 @@ public class Property {
     public float getDistanceFromUser() { return distanceFromUser; }
     public void setDistanceFromUser(float distanceFromUser) { this.distanceFromUser = distanceFromUser; }
 
+    public int getRatingSum() { return ratingSum; }
+    public int getRatingCount() { return ratingCount; }
+    public void setRating(int ratingSum, int ratingCount) {
+        this.ratingSum = ratingSum;
+        this.ratingCount = ratingCount;
+    }
+
+    /** 0 when there are no reviews */
+    public double getAverageRating() {
+        return ratingCount > 0 ? (double) ratingSum / ratingCount : 0.0;
+    }
+
 
     // JSON Serialization/Deserialization
     public static Property fromJson(JSONObject jsonObject) throws JSONException {
@@ -102,6 +120,7 @@ public class Property {
         property.setLatitude(jsonObject.optDouble("latitude", 0.0));
         property.setLongitude(jsonObject.optDouble("longitude", 0.0));
         property.setAvailableRooms(jsonObject.optInt("available_rooms", 0));
+        property.setRating(jsonObject.optInt("rating_sum", 0), jsonObject.optInt("rating_count", 0));
 
         // Parse image_urls or images array (support both column names)
         JSONArray imageUrlsJson = jsonObject.optJSONArray("images");
@@ -115,6 +134,11 @@ public class Property {
             }
             property.setImageUrls(urls);
         }
+        // Thumbnail renditions attached by SupabaseClient.fetchImagesForProperties
+        JSONArray thumbnailsJson = jsonObject.optJSONArray("thumbnails");
+        if (thumbnailsJson != null && thumbnailsJson.length() > 0) {
+            property.setThumbnailUrl(thumbnailsJson.getString(0));
+        }
 
         // Parse amenities array
         JSONArray amenitiesJson = jsonObject.optJSONArray("amenities");
@@ -0,0 +1,108 @@
+package com.roominate.services;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Dns;
+
+/**
+ * In-process DNS cache for OkHttp.
+ * A lookup younger than the TTL is answered from memory, so a new connection after idle
+ * doesn't pay a resolver round trip on a slow mobile link. When a fresh lookup fails (flaky
+ * network, captive DNS), an expired answer no older than {@code maxStaleMs} is used instead
+ * of failing the request. {@link #clear()} drops everything, e.g. when the network changes.
+ */
+public class CachingDns implements Dns {
+
+    public interface Clock {
+        long nowMs();
+    }
+
+    private static final class Entry {
+        final List<InetAddress> addresses;
+        final long resolvedAtMs;
+
+        Entry(List<InetAddress> addresses, long resolvedAtMs) {
+            this.addresses = addresses;
+            this.resolvedAtMs = resolvedAtMs;
+        }
+    }
+
+    private final Dns delegate;
+    private final long ttlMs;
+    private final long maxStaleMs;
+    private final Clock clock;
+    private final ConcurrentHashMap<String, Entry> cache = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+
+    public CachingDns(Dns delegate, long ttlMs, long maxStaleMs, Clock clock) {
+        this.delegate = delegate;
+        this.ttlMs = ttlMs;
+        this.maxStaleMs = maxStaleMs;
+        this.clock = clock;
+    }
+
+    @Override
+    public List<InetAddress> lookup(String hostname) throws UnknownHostException {
+        Entry entry = cache.get(hostname);
+        long now = clock.nowMs();
+        if (entry != null && now - entry.resolvedAtMs < ttlMs) {
+            hits.incrementAndGet();
+            return entry.addresses;
+        }
+        misses.incrementAndGet();
+        try {
+            return resolve(hostname);
+        } catch (UnknownHostException e) {
+            if (entry != null && now - entry.resolvedAtMs < ttlMs + maxStaleMs) {
+                staleHits.incrementAndGet();
+                return entry.addresses;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Resolve now and cache the answer, ignoring the TTL. Blocking.
+     * @return false when the lookup failed (the previous answer, if any, is kept)
+     */
+    public boolean prefetch(String hostname) {
+        try {
+            resolve(hostname);
+            return true;
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /** Lookups that failed and were answered with an expired entry */
+    public long getStaleHitCount() {
+        return staleHits.get();
+    }
+
+    private List<InetAddress> resolve(String hostname) throws UnknownHostException {
+        List<InetAddress> addresses = delegate.lookup(hostname);
+        if (!addresses.isEmpty()) {
+            cache.put(hostname, new Entry(addresses, clock.nowMs()));
+        }
+        return addresses;
+    }
+}
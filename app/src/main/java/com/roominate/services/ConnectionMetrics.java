@@ -0,0 +1,142 @@
+package com.roominate.services;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+
+/**
+ * Time-to-first-byte split by whether the call had to open a new connection (DNS, TCP, TLS)
+ * or reused a pooled one, plus the average cost of each setup step. The gap between the
+ * cold and warm averages is what pre-warming saves per call.
+ * Install with {@code OkHttpClient.Builder.eventListenerFactory(metrics)}.
+ */
+public class ConnectionMetrics implements EventListener.Factory {
+
+    private final AtomicLong coldCalls = new AtomicLong();
+    private final AtomicLong coldTtfbNanos = new AtomicLong();
+    private final AtomicLong warmCalls = new AtomicLong();
+    private final AtomicLong warmTtfbNanos = new AtomicLong();
+    private final AtomicLong dnsLookups = new AtomicLong();
+    private final AtomicLong dnsNanos = new AtomicLong();
+    private final AtomicLong connects = new AtomicLong();
+    private final AtomicLong connectNanos = new AtomicLong();
+    private final AtomicLong handshakes = new AtomicLong();
+    private final AtomicLong handshakeNanos = new AtomicLong();
+
+    @Override
+    public EventListener create(Call call) {
+        return new CallListener();
+    }
+
+    /** Calls that opened a new connection and got a response */
+    public long getColdCallCount() {
+        return coldCalls.get();
+    }
+
+    /** Calls served over a pooled connection */
+    public long getWarmCallCount() {
+        return warmCalls.get();
+    }
+
+    public long getColdTtfbAverageMs() {
+        return averageMs(coldTtfbNanos, coldCalls);
+    }
+
+    public long getWarmTtfbAverageMs() {
+        return averageMs(warmTtfbNanos, warmCalls);
+    }
+
+    /**
+     * One-line summary for logs/diagnostics.
+     */
+    public String getStats() {
+        long cold = getColdTtfbAverageMs();
+        long warm = getWarmTtfbAverageMs();
+        StringBuilder sb = new StringBuilder();
+        sb.append("ttfb cold: ").append(cold).append(" ms avg over ").append(coldCalls.get()).append(" calls; ")
+                .append("warm: ").append(warm).append(" ms avg over ").append(warmCalls.get()).append(" calls");
+        if (coldCalls.get() > 0 && warmCalls.get() > 0) {
+            sb.append(" (").append(cold - warm).append(" ms saved per reused connection)");
+        }
+        sb.append("; dns ").append(averageMs(dnsNanos, dnsLookups)).append(" ms avg over ").append(dnsLookups.get())
+                .append(", connect ").append(averageMs(connectNanos, connects)).append(" ms avg over ").append(connects.get())
+                .append(", tls ").append(averageMs(handshakeNanos, handshakes)).append(" ms avg over ").append(handshakes.get());
+        return sb.toString();
+    }
+
+    private static long averageMs(AtomicLong totalNanos, AtomicLong count) {
+        long n = count.get();
+        return n == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos.get() / n);
+    }
+
+    private class CallListener extends EventListener {
+        private long callStartNanos;
+        private long dnsStartNanos;
+        private long connectStartNanos;
+        private long secureConnectStartNanos;
+        private boolean openedConnection;
+        private boolean recorded;
+
+        @Override
+        public void callStart(Call call) {
+            callStartNanos = System.nanoTime();
+        }
+
+        @Override
+        public void dnsStart(Call call, String domainName) {
+            dnsStartNanos = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+            dnsLookups.incrementAndGet();
+            dnsNanos.addAndGet(System.nanoTime() - dnsStartNanos);
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+            openedConnection = true;
+            connectStartNanos = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectStart(Call call) {
+            secureConnectStartNanos = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectEnd(Call call, Handshake handshake) {
+            handshakes.incrementAndGet();
+            handshakeNanos.addAndGet(System.nanoTime() - secureConnectStartNanos);
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+            connects.incrementAndGet();
+            connectNanos.addAndGet(System.nanoTime() - connectStartNanos);
+        }
+
+        @Override
+        public void responseHeadersStart(Call call) {
+            // Redirects and retries see more responses; the first one decides cold/warm
+            if (recorded) return;
+            recorded = true;
+            long ttfb = System.nanoTime() - callStartNanos;
+            if (openedConnection) {
+                coldCalls.incrementAndGet();
+                coldTtfbNanos.addAndGet(ttfb);
+            } else {
+                warmCalls.incrementAndGet();
+                warmTtfbNanos.addAndGet(ttfb);
+            }
+        }
+    }
+}
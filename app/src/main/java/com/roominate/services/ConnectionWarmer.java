@@ -0,0 +1,172 @@
+package com.roominate.services;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.roominate.BuildConfig;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+
+/**
+ * Keeps a connection to the Supabase host ready so the first request after launch, idle or
+ * a network switch doesn't pay DNS, TCP and TLS setup on a slow mobile link.
+ *
+ * - {@link #configure} installs an in-process DNS cache ({@link CachingDns}), a shared TLS
+ *   session cache so new connections resume earlier sessions instead of full handshakes,
+ *   and {@link ConnectionMetrics} on the HTTP client.
+ * - {@link #start} warms up at app start and again whenever the default network changes;
+ *   a change also drops cached DNS answers and pooled connections from the old network.
+ */
+public class ConnectionWarmer {
+    private static final String TAG = "ConnectionWarmer";
+
+    private static final long DNS_TTL_MS = 5 * 60 * 1000L;
+    // Expired answers may still be used for this long when a fresh lookup fails
+    private static final long DNS_MAX_STALE_MS = 60 * 60 * 1000L;
+    private static final int TLS_SESSION_CACHE_SIZE = 32;
+    private static final int TLS_SESSION_TIMEOUT_S = 12 * 60 * 60;
+    // A second warm-up this soon after the previous one is skipped unless forced
+    private static final long REWARM_INTERVAL_MS = 10 * 1000L;
+
+    private static ConnectionWarmer instance;
+
+    private final CachingDns dns = new CachingDns(okhttp3.Dns.SYSTEM, DNS_TTL_MS, DNS_MAX_STALE_MS, SystemClock::elapsedRealtime);
+    private final ConnectionMetrics metrics = new ConnectionMetrics();
+    private final Executor executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "connection-warmer");
+        t.setDaemon(true);
+        return t;
+    });
+    private final String host;
+    private long lastWarmAtMs = 0;
+    private Network currentNetwork;
+    private boolean started = false;
+
+    private ConnectionWarmer() {
+        HttpUrl url = HttpUrl.parse(BuildConfig.SUPABASE_URL);
+        host = url != null ? url.host() : null;
+    }
+
+    public static synchronized ConnectionWarmer getInstance() {
+        if (instance == null) {
+            instance = new ConnectionWarmer();
+        }
+        return instance;
+    }
+
+    /**
+     * Install the DNS cache, TLS session reuse and metrics on a client being built.
+     */
+    public OkHttpClient.Builder configure(OkHttpClient.Builder builder) {
+        builder.dns(dns).eventListenerFactory(metrics);
+        try {
+            TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+            tmf.init((KeyStore) null);
+            X509TrustManager trustManager = null;
+            for (TrustManager tm : tmf.getTrustManagers()) {
+                if (tm instanceof X509TrustManager) trustManager = (X509TrustManager) tm;
+            }
+            if (trustManager == null) throw new GeneralSecurityException("No X509TrustManager");
+
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, new TrustManager[] {trustManager}, null);
+            SSLSessionContext sessions = sslContext.getClientSessionContext();
+            sessions.setSessionCacheSize(TLS_SESSION_CACHE_SIZE);
+            sessions.setSessionTimeout(TLS_SESSION_TIMEOUT_S);
+            builder.sslSocketFactory(sslContext.getSocketFactory(), trustManager);
+        } catch (GeneralSecurityException e) {
+            // The platform default still resumes sessions, just with its own cache limits
+            Log.w(TAG, "TLS session cache not configured", e);
+        }
+        return builder;
+    }
+
+    /**
+     * Warm up now and whenever the default network changes. Call once from
+     * Application.onCreate, after SupabaseClient.init.
+     */
+    public synchronized void start(Context context) {
+        if (started) return;
+        started = true;
+        warm(true);
+
+        ConnectivityManager connectivity = (ConnectivityManager) context.getApplicationContext()
+                .getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (connectivity == null) return;
+        try {
+            connectivity.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+                @Override
+                public void onAvailable(Network network) {
+                    onNetworkAvailable(network);
+                }
+            });
+        } catch (SecurityException e) {
+            Log.w(TAG, "Network changes not observed", e);
+        }
+    }
+
+    /**
+     * Resolve the Supabase host and open a pooled connection to it, off the calling thread.
+     * @param force warm up even if that was just done
+     */
+    public void warm(boolean force) {
+        if (host == null) return;
+        synchronized (this) {
+            long now = SystemClock.elapsedRealtime();
+            if (!force && lastWarmAtMs != 0 && now - lastWarmAtMs < REWARM_INTERVAL_MS) return;
+            lastWarmAtMs = now;
+        }
+        executor.execute(() -> {
+            if (!dns.prefetch(host)) {
+                Log.w(TAG, "Could not resolve " + host);
+                return;
+            }
+            SupabaseClient.getInstance().preconnect();
+        });
+    }
+
+    public ConnectionMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * One-line summary of connection setup costs and DNS cache use for logs/diagnostics.
+     */
+    public String getStats() {
+        return metrics.getStats() + "; dns cache: " + dns.getHitCount() + " hits / " + dns.getMissCount()
+                + " misses, " + dns.getStaleHitCount() + " stale";
+    }
+
+    public void logStats() {
+        Log.i(TAG, getStats());
+    }
+
+    private void onNetworkAvailable(Network network) {
+        boolean changed;
+        synchronized (this) {
+            changed = currentNetwork != null && !currentNetwork.equals(network);
+            currentNetwork = network;
+        }
+        if (!changed) return;
+        // Addresses and sockets from the previous network are likely useless now
+        Log.d(TAG, "Default network changed, re-warming");
+        dns.clear();
+        SupabaseClient.getInstance().getHttpClient().connectionPool().evictAll();
+        warm(true);
+    }
+}
@@ -0,0 +1,117 @@
+package com.roominate.services;
+
+import android.content.ContentResolver;
+import android.content.res.AssetFileDescriptor;
+import android.database.Cursor;
+import android.net.Uri;
+import android.provider.OpenableColumns;
+import android.util.Log;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+/**
+ * Request body that streams a content:// (or file://) URI straight into the OkHttp sink.
+ * Nothing is copied to a temp file or into a byte[] of the whole image; memory use is one
+ * fixed {@link #BUFFER_SIZE} buffer regardless of photo size. The stream is reopened on every
+ * {@link #writeTo} so OkHttp can retry the request.
+ */
+public class ContentUriRequestBody extends RequestBody {
+    private static final String TAG = "ContentUriRequestBody";
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    public interface ProgressListener {
+        /**
+         * Called from the uploading thread as bytes are written.
+         * @param contentLength total size, or -1 if the provider didn't report one
+         */
+        void onProgress(long bytesWritten, long contentLength);
+    }
+
+    private final ContentResolver resolver;
+    private final Uri uri;
+    private final MediaType mediaType;
+    private final long contentLength;
+    private final ProgressListener progressListener;
+
+    public ContentUriRequestBody(ContentResolver resolver, Uri uri, MediaType mediaType, ProgressListener progressListener) {
+        this.resolver = resolver;
+        this.uri = uri;
+        this.mediaType = mediaType;
+        this.progressListener = progressListener;
+        this.contentLength = queryLength(resolver, uri);
+    }
+
+    @Override
+    public MediaType contentType() {
+        return mediaType;
+    }
+
+    /**
+     * Known size lets OkHttp send Content-Length; -1 falls back to chunked transfer.
+     */
+    @Override
+    public long contentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        InputStream in = resolver.openInputStream(uri);
+        if (in == null) {
+            throw new FileNotFoundException("Cannot open " + uri);
+        }
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long written = 0;
+            int lastPercent = -1;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                sink.write(buffer, 0, read);
+                written += read;
+                if (progressListener != null) {
+                    // Report at most once per percent (every buffer when the size is unknown)
+                    int percent = contentLength > 0 ? (int) (written * 100 / contentLength) : -1;
+                    if (percent < 0 || percent != lastPercent) {
+                        lastPercent = percent;
+                        progressListener.onProgress(written, contentLength);
+                    }
+                }
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    private static long queryLength(ContentResolver resolver, Uri uri) {
+        Cursor cursor = null;
+        try {
+            cursor = resolver.query(uri, new String[]{OpenableColumns.SIZE}, null, null, null);
+            if (cursor != null && cursor.moveToFirst() && !cursor.isNull(0)) {
+                long size = cursor.getLong(0);
+                if (size > 0) return size;
+            }
+        } catch (Exception e) {
+            // file:// URIs and some providers don't support the query
+        } finally {
+            if (cursor != null) cursor.close();
+        }
+        try {
+            AssetFileDescriptor afd = resolver.openAssetFileDescriptor(uri, "r");
+            if (afd != null) {
+                long length = afd.getLength();
+                afd.close();
+                if (length > 0) return length;
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "Unknown content length for " + uri);
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,302 @@
+package com.roominate.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Offline lookup of Zambian provinces, districts, towns and compounds (centroid + bounding
+ * box), read straight from the bundled {@link #ASSET_NAME} without parsing it up front. Free of
+ * Android APIs so the backfill tool can share it.
+ *
+ * The asset is built from scripts/gazetteer/zambia_places.csv by build_gazetteer.py, which
+ * documents the binary layout. Entries are sorted by normalized name, so exact and prefix
+ * lookups are binary searches; misspellings fall back to a bounded edit-distance scan over the
+ * ~130 names. Either way a lookup takes microseconds, so district/province level answers never
+ * need a network round trip.
+ */
+public class Gazetteer {
+
+    public static final String ASSET_NAME = "zambia_gazetteer.bin";
+
+    public enum Kind { PROVINCE, DISTRICT, TOWN, COMPOUND }
+
+    public static final class Place {
+        public final String name;
+        public final Kind kind;
+        public final Place parent;
+        public final double latitude;
+        public final double longitude;
+        public final double minLatitude;
+        public final double minLongitude;
+        public final double maxLatitude;
+        public final double maxLongitude;
+
+        Place(String name, Kind kind, Place parent, double[] box) {
+            this.name = name;
+            this.kind = kind;
+            this.parent = parent;
+            this.latitude = box[0];
+            this.longitude = box[1];
+            this.minLatitude = box[2];
+            this.minLongitude = box[3];
+            this.maxLatitude = box[4];
+            this.maxLongitude = box[5];
+        }
+
+        /** e.g. "Kabwata, Lusaka, Lusaka, Zambia" */
+        public String getDisplayName() {
+            StringBuilder sb = new StringBuilder(name);
+            for (Place p = parent; p != null; p = p.parent) {
+                sb.append(", ").append(p.name);
+            }
+            return sb.append(", Zambia").toString();
+        }
+    }
+
+    public static final class Match {
+        public final Place place;
+        /** Every part of the address is a known place consistent with {@link #place} */
+        public final boolean complete;
+
+        Match(Place place, boolean complete) {
+            this.place = place;
+            this.complete = complete;
+        }
+    }
+
+    private static final int MAGIC = 0x5A47415A; // "ZGAZ"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int ENTRY_SIZE = 36;
+    private static final int NO_PARENT = 0xFFFF;
+    private static final int MIN_PREFIX_LENGTH = 4;
+
+    private final ByteBuffer data;
+    private final int count;
+    private final int stringsOffset;
+
+    Gazetteer(ByteBuffer data) throws IOException {
+        this.data = data;
+        if (data.capacity() < HEADER_SIZE || data.getInt(0) != MAGIC || (data.getShort(4) & 0xFFFF) != VERSION) {
+            throw new IOException("Not a version " + VERSION + " gazetteer");
+        }
+        count = data.getShort(6) & 0xFFFF;
+        stringsOffset = data.getInt(8);
+    }
+
+    /**
+     * Memory-map {@code length} bytes of the gazetteer at {@code offset} in a file (the app maps
+     * the uncompressed asset inside the APK, see app/build.gradle). The mapping stays valid
+     * after the channel is closed.
+     */
+    public static Gazetteer map(FileChannel channel, long offset, long length) throws IOException {
+        return new Gazetteer(channel.map(FileChannel.MapMode.READ_ONLY, offset, length));
+    }
+
+    /** Read a gazetteer into memory, e.g. from a compressed asset or a classpath resource */
+    public static Gazetteer read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8 * 1024];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return new Gazetteer(ByteBuffer.wrap(out.toByteArray()));
+    }
+
+    /**
+     * Lower case, accents stripped, punctuation and repeated whitespace folded to one space.
+     * build_gazetteer.py applies the same rules to the stored keys.
+     */
+    public static String normalizeName(String name) {
+        return Normalizer.normalize(name, Normalizer.Form.NFKD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-z0-9+]+", " ")
+                .trim();
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Most specific known place mentioned in a comma-separated address, preferring places
+     * whose parents are also mentioned ("Riverside, Kitwe" over another Riverside).
+     * @return null when no part of the address is a known place
+     */
+    public Match lookup(String address) {
+        List<String> parts = new ArrayList<>();
+        for (String part : address.split(",")) {
+            String key = normalizeName(part);
+            if (!key.isEmpty() && !key.equals("zambia")) parts.add(key);
+        }
+
+        List<List<Integer>> candidates = new ArrayList<>();
+        boolean allMatched = !parts.isEmpty();
+        for (String part : parts) {
+            List<Integer> matches = exact(part);
+            if (matches.isEmpty()) matches = fuzzy(part);
+            if (matches.isEmpty()) allMatched = false;
+            candidates.add(matches);
+        }
+
+        int best = -1;
+        int bestPart = -1;
+        int bestScore = Integer.MIN_VALUE;
+        for (int i = 0; i < candidates.size(); i++) {
+            for (int entry : candidates.get(i)) {
+                // Specific kinds win; each other part naming one of its ancestors outweighs that
+                int score = kindOf(entry) + 10 * supportingParts(entry, i, candidates);
+                if (score > bestScore) {
+                    best = entry;
+                    bestPart = i;
+                    bestScore = score;
+                }
+            }
+        }
+        if (best == -1) return null;
+
+        boolean complete = allMatched && supportingParts(best, bestPart, candidates) == candidates.size() - 1;
+        return new Match(place(best), complete);
+    }
+
+    // ============================================================================
+    // INTERNALS
+    // ============================================================================
+
+    private int supportingParts(int entry, int ownPart, List<List<Integer>> candidates) {
+        int supporting = 0;
+        for (int j = 0; j < candidates.size(); j++) {
+            if (j == ownPart) continue;
+            for (int other : candidates.get(j)) {
+                if (other == entry || isAncestor(other, entry)) {
+                    supporting++;
+                    break;
+                }
+            }
+        }
+        return supporting;
+    }
+
+    private boolean isAncestor(int candidate, int entry) {
+        for (int p = parentOf(entry); p != NO_PARENT; p = parentOf(p)) {
+            if (p == candidate) return true;
+        }
+        return false;
+    }
+
+    private List<Integer> exact(String key) {
+        List<Integer> matches = new ArrayList<>();
+        for (int i = lowerBound(key); i < count && keyOf(i).equals(key); i++) {
+            matches.add(i);
+        }
+        return matches;
+    }
+
+    private List<Integer> fuzzy(String key) {
+        List<Integer> matches = new ArrayList<>();
+        if (key.length() >= MIN_PREFIX_LENGTH) {
+            for (int i = lowerBound(key); i < count && keyOf(i).startsWith(key); i++) {
+                matches.add(i);
+            }
+            if (!matches.isEmpty()) return matches;
+        }
+
+        int maxDistance = key.length() <= 4 ? 0 : key.length() <= 7 ? 1 : 2;
+        int bestDistance = maxDistance;
+        for (int i = 0; i < count; i++) {
+            // Anything above the best distance so far comes back as bestDistance + 1
+            int distance = editDistance(key, keyOf(i), bestDistance + 1);
+            if (distance > bestDistance) continue;
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                matches.clear();
+            }
+            matches.add(i);
+        }
+        return matches;
+    }
+
+    // First entry whose key is >= key
+    private int lowerBound(String key) {
+        int lo = 0;
+        int hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keyOf(mid).compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /** Levenshtein distance, or {@code limit} as soon as it is known to reach it */
+    static int editDistance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) >= limit) return limit;
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) previous[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin >= limit) return limit;
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], limit);
+    }
+
+    private int entryOffset(int index) {
+        return HEADER_SIZE + index * ENTRY_SIZE;
+    }
+
+    private String keyOf(int index) {
+        int entry = entryOffset(index);
+        return string(data.getInt(entry), data.get(entry + 4) & 0xFF);
+    }
+
+    private int kindOf(int index) {
+        return data.get(entryOffset(index) + 6) & 0xFF;
+    }
+
+    private int parentOf(int index) {
+        return data.getShort(entryOffset(index) + 8) & 0xFFFF;
+    }
+
+    private Place place(int index) {
+        int entry = entryOffset(index);
+        int keyLength = data.get(entry + 4) & 0xFF;
+        String name = string(data.getInt(entry) + keyLength, data.get(entry + 5) & 0xFF);
+        double[] box = new double[6];
+        for (int i = 0; i < box.length; i++) {
+            box[i] = data.getInt(entry + 12 + i * 4) / 1_000_000.0;
+        }
+        int parent = parentOf(index);
+        return new Place(name, Kind.values()[kindOf(index)], parent == NO_PARENT ? null : place(parent), box);
+    }
+
+    private String string(int offset, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = data.get(stringsOffset + offset + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,405 @@
+package com.roominate.services;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Address -> coordinates lookups with caching and Nominatim's usage policy built in.
+ *
+ * - Addresses are keyed by a normalized form (case, accents, punctuation and spacing folded),
+ *   so "12 Kabulonga Rd, Lusaka" and "12 kabulonga rd ,  LUSAKA" share one entry.
+ * - Results, including "not found", are kept in an LRU cache that is persisted between runs;
+ *   misses expire sooner than hits so corrected map data is picked up.
+ * - Requests go out one at a time through a token bucket ({@link #NOMINATIM_REQUESTS_PER_SECOND}).
+ * - Concurrent lookups of the same address share one request.
+ * - Addresses made only of known place names ("Kabwata, Lusaka", "Ndola, Copperbelt") are
+ *   answered from the offline {@link Gazetteer}; the network is only used for street-level
+ *   precision. When the full address has no match, or the network is unreachable, the
+ *   gazetteer's best place is used, and only if it knows none of the parts is the
+ *   district/city part searched online.
+ *
+ * Free of Android APIs so tools/geocode-backfill compiles it as-is; the endpoint and storage
+ * are pluggable so tests can run against a local stand-in. The app's instance is built in
+ * SupabaseClient.
+ */
+public class GeocodingService {
+
+    /** Search backend: returns Nominatim-style results ({@code lat}, {@code lon}, {@code display_name}) */
+    public interface Endpoint {
+        JSONArray search(String query) throws IOException;
+    }
+
+    /** Persistence for the cache snapshot (SharedPreferences in the app, a file in the backfill tool) */
+    public interface Store {
+        String load();
+        void save(String snapshot);
+    }
+
+    public interface Callback {
+        void onSuccess(JSONObject result);
+        void onError(String error);
+    }
+
+    public static class NominatimEndpoint implements Endpoint {
+        public static final String DEFAULT_BASE_URL = "https://nominatim.openstreetmap.org";
+
+        private final OkHttpClient client;
+        private final String baseUrl;
+
+        public NominatimEndpoint(OkHttpClient client, String baseUrl) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+        }
+
+        @Override
+        public JSONArray search(String query) throws IOException {
+            String url = baseUrl + "/search?q=" + URLEncoder.encode(query, "UTF-8") + "&format=json&limit=5&countrycodes=zm";
+            Request request = new Request.Builder()
+                    .url(url)
+                    .addHeader("User-Agent", "Roominate-App/1.0")
+                    .get()
+                    .build();
+            try (Response response = client.newCall(request).execute()) {
+                String body = response.body() != null ? response.body().string() : "";
+                if (!response.isSuccessful()) {
+                    throw new IOException("Geocoding service error: " + response.code());
+                }
+                return new JSONArray(body);
+            } catch (JSONException e) {
+                throw new IOException("Failed to parse geocoding response: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Token bucket; {@link #reserve} hands out tokens in call order and says how long the
+     * caller must wait for its one.
+     */
+    static final class TokenBucket {
+        private final double capacity;
+        private final double tokensPerMs;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(double capacity, double tokensPerSecond, long now) {
+            this.capacity = capacity;
+            this.tokensPerMs = tokensPerSecond / 1000.0;
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+
+        /** @return milliseconds to wait before using the reserved token */
+        synchronized long reserve(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerMs);
+            lastRefill = now;
+            tokens -= 1;
+            return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerMs);
+        }
+    }
+
+    public static final double NOMINATIM_REQUESTS_PER_SECOND = 1.0;
+    static final int MAX_ENTRIES = 500;
+    static final long HIT_TTL_MS = 30L * 24 * 60 * 60 * 1000;
+    static final long MISS_TTL_MS = 24L * 60 * 60 * 1000;
+
+    private final Endpoint endpoint;
+    private final Store store;
+    // Null when the service is blocking-only
+    private final Executor executor;
+    private final Gazetteer gazetteer;
+    private final TokenBucket rateLimiter;
+    // Normalized query -> {lat, lon, display_name, at} or {miss: true, at}; guarded by this
+    private final LinkedHashMap<String, JSONObject> cache = new LinkedHashMap<String, JSONObject>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, JSONObject> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    // Normalized address -> callbacks waiting for the lookup in flight; guarded by this
+    private final Map<String, List<Callback>> inFlight = new HashMap<>();
+
+    /**
+     * @param executor  runs {@link #geocode} lookups; must be single-threaded so the rate limit
+     *                  holds. Null for a blocking-only service ({@link #geocodeBlocking})
+     * @param gazetteer offline places, or null to always ask the endpoint
+     */
+    public GeocodingService(Endpoint endpoint, Store store, Executor executor, Gazetteer gazetteer, double requestsPerSecond) {
+        this.endpoint = endpoint;
+        this.store = store;
+        this.executor = executor;
+        this.gazetteer = gazetteer;
+        this.rateLimiter = new TokenBucket(1, requestsPerSecond, System.currentTimeMillis());
+        restore();
+    }
+
+    /**
+     * Geocode an address. Cached answers are delivered on the calling thread, everything else
+     * on the geocoder thread.
+     * @param callback Returns {"latitude": -15.4, "longitude": 28.3, "display_name": "..."} on success
+     */
+    public void geocode(String address, Callback callback) {
+        if (address == null || address.trim().isEmpty()) {
+            callback.onError("Address cannot be empty");
+            return;
+        }
+        if (executor == null) {
+            throw new IllegalStateException("GeocodingService was created without an executor; use geocodeBlocking");
+        }
+        String key = normalizeKey(address);
+
+        synchronized (this) {
+            JSONObject cached = freshEntry(key);
+            if (cached == null) {
+                List<Callback> waiting = inFlight.get(key);
+                if (waiting != null) {
+                    waiting.add(callback);
+                    return;
+                }
+                waiting = new ArrayList<>();
+                waiting.add(callback);
+                inFlight.put(key, waiting);
+            } else {
+                deliver(address, cached, callback);
+                return;
+            }
+        }
+        executor.execute(() -> resolve(key, address));
+    }
+
+    /**
+     * Geocode an address on the calling thread, for batch jobs that run lookups in sequence.
+     * Same cache, rate limit and gazetteer as {@link #geocode}, but no coalescing.
+     * @return {"latitude", "longitude", "display_name"}, or null if the address is not found
+     * @throws IOException on network errors (not cached, so a retry asks again)
+     */
+    public JSONObject geocodeBlocking(String address) throws IOException {
+        if (address == null || address.trim().isEmpty()) return null;
+        String key = normalizeKey(address);
+        JSONObject entry;
+        synchronized (this) {
+            entry = freshEntry(key);
+        }
+        try {
+            if (entry == null) entry = resolveEntry(key, address);
+            return entry.optBoolean("miss") ? null : toResult(entry);
+        } catch (JSONException e) {
+            throw new IOException("Failed to geocode address: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Cache key for an address: lower case, accents stripped, punctuation and repeated
+     * whitespace folded, empty comma-separated parts dropped. Plus-code '+' is kept.
+     */
+    static String normalizeKey(String address) {
+        StringBuilder key = new StringBuilder();
+        for (String part : address.split(",")) {
+            String cleaned = Gazetteer.normalizeName(part);
+            if (cleaned.isEmpty()) continue;
+            if (key.length() > 0) key.append(", ");
+            key.append(cleaned);
+        }
+        return key.toString();
+    }
+
+    /**
+     * "address, city, district, Zambia" -> "district, Zambia"; "city, Zambia" stays.
+     */
+    static String simplify(String address) {
+        String[] parts = address.split(",");
+        if (parts.length >= 3) {
+            return parts[parts.length - 2].trim() + ", Zambia";
+        } else if (parts.length == 2) {
+            return parts[parts.length - 1].trim() + ", Zambia";
+        }
+        return address;
+    }
+
+    // ============================================================================
+    // INTERNALS (geocoder thread)
+    // ============================================================================
+
+    private void resolve(String key, String address) {
+        JSONObject entry;
+        String error = null;
+        try {
+            entry = resolveEntry(key, address);
+        } catch (IOException | JSONException e) {
+            // Transient failures are not cached
+            entry = null;
+            error = "Failed to geocode address: " + e.getMessage();
+        }
+
+        List<Callback> waiting;
+        synchronized (this) {
+            waiting = inFlight.remove(key);
+        }
+        if (waiting == null) return;
+        for (Callback callback : waiting) {
+            if (entry != null) {
+                deliver(address, entry, callback);
+            } else {
+                callback.onError(error);
+            }
+        }
+    }
+
+    private JSONObject resolveEntry(String key, String address) throws IOException, JSONException {
+        Gazetteer.Match local = gazetteer != null ? gazetteer.lookup(address) : null;
+        JSONObject entry;
+        if (local != null && local.complete) {
+            entry = placeEntry(local.place);
+            synchronized (this) {
+                cache.put(key, entry);
+            }
+        } else {
+            try {
+                entry = lookup(address);
+            } catch (IOException e) {
+                if (local == null) throw e;
+                // Offline: the gazetteer's place is better than an error. Not cached, so the
+                // next online attempt can still find the street.
+                return placeEntry(local.place);
+            }
+        }
+        if (entry.optBoolean("miss") && local != null) {
+            // Coarser, but no second round trip
+            entry = placeEntry(local.place);
+            synchronized (this) {
+                cache.put(key, entry);
+            }
+        } else if (entry.optBoolean("miss")) {
+            String simplified = simplify(address);
+            if (!normalizeKey(simplified).equals(key)) {
+                JSONObject fallback = lookup(simplified);
+                if (!fallback.optBoolean("miss")) {
+                    entry = fallback;
+                    // Next time the full address answers from cache directly
+                    synchronized (this) {
+                        cache.put(key, entry);
+                    }
+                }
+            }
+        }
+        persist();
+        return entry;
+    }
+
+    /** One cached or rate-limited search for a single query string */
+    private JSONObject lookup(String query) throws IOException, JSONException {
+        String key = normalizeKey(query);
+        synchronized (this) {
+            JSONObject cached = freshEntry(key);
+            if (cached != null) return cached;
+        }
+
+        long wait = rateLimiter.reserve(System.currentTimeMillis());
+        if (wait > 0) {
+            try {
+                Thread.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while rate limited", e);
+            }
+        }
+
+        JSONArray results = endpoint.search(query);
+        JSONObject entry = new JSONObject();
+        if (results.length() == 0) {
+            entry.put("miss", true);
+        } else {
+            JSONObject best = results.getJSONObject(0);
+            entry.put("lat", best.getDouble("lat"));
+            entry.put("lon", best.getDouble("lon"));
+            entry.put("display_name", best.optString("display_name", ""));
+        }
+        entry.put("at", System.currentTimeMillis());
+        synchronized (this) {
+            cache.put(key, entry);
+        }
+        return entry;
+    }
+
+    private static JSONObject placeEntry(Gazetteer.Place place) throws JSONException {
+        JSONObject entry = new JSONObject();
+        entry.put("lat", place.latitude);
+        entry.put("lon", place.longitude);
+        entry.put("display_name", place.getDisplayName());
+        entry.put("at", System.currentTimeMillis());
+        return entry;
+    }
+
+    // Caller holds the lock
+    private JSONObject freshEntry(String key) {
+        JSONObject entry = cache.get(key);
+        if (entry == null) return null;
+        long ttl = entry.optBoolean("miss") ? MISS_TTL_MS : HIT_TTL_MS;
+        if (System.currentTimeMillis() - entry.optLong("at") > ttl) {
+            cache.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    private static void deliver(String address, JSONObject entry, Callback callback) {
+        if (entry.optBoolean("miss")) {
+            callback.onError("Address '" + address + "' not found. Make sure the city/district name is correct. Examples: 'Ndola, Copperbelt, Zambia' or 'Lusaka, Lusaka, Zambia'");
+            return;
+        }
+        try {
+            callback.onSuccess(toResult(entry));
+        } catch (JSONException e) {
+            callback.onError("Geocoding failed: " + e.getMessage());
+        }
+    }
+
+    private static JSONObject toResult(JSONObject entry) throws JSONException {
+        JSONObject result = new JSONObject();
+        result.put("latitude", entry.getDouble("lat"));
+        result.put("longitude", entry.getDouble("lon"));
+        result.put("display_name", entry.optString("display_name", ""));
+        return result;
+    }
+
+    // Least recently used first, so restoring rebuilds the same order
+    private void persist() {
+        JSONArray snapshot = new JSONArray();
+        synchronized (this) {
+            for (Map.Entry<String, JSONObject> e : cache.entrySet()) {
+                snapshot.put(new JSONArray().put(e.getKey()).put(e.getValue()));
+            }
+        }
+        store.save(snapshot.toString());
+    }
+
+    private void restore() {
+        String stored = store.load();
+        if (stored == null) return;
+        try {
+            JSONArray snapshot = new JSONArray(stored);
+            synchronized (this) {
+                for (int i = 0; i < snapshot.length(); i++) {
+                    JSONArray pair = snapshot.getJSONArray(i);
+                    cache.put(pair.getString(0), pair.getJSONObject(1));
+                }
+            }
+        } catch (JSONException e) {
+            // Corrupt snapshot: start with an empty cache
+            store.save(null);
+        }
+    }
+}
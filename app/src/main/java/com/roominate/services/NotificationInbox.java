@@ -0,0 +1,387 @@
+package com.roominate.services;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.roominate.models.Notification;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Paged, typed notification inbox.
+ * Keeps notifications as {@link Notification} models with an id -> position index so single-row
+ * updates don't scan the list, pages older rows in with keyset pagination on (created_at, id),
+ * and persists the first page so the screen can render instantly before the network answers.
+ * Mark-read/delete are applied optimistically and written through {@link NotificationWriteBuffer}.
+ * All state is mutated on the main thread; listener callbacks are delivered there too.
+ */
+public class NotificationInbox {
+    private static final String TAG = "NotificationInbox";
+    private static final String PREFS_NAME = "roominate_prefs";
+    private static final String KEY_CACHE_PAGE = "notifications_first_page";
+    private static final String KEY_CACHE_USER = "notifications_first_page_user";
+
+    public static final int PAGE_SIZE = 20;
+
+    public interface Listener {
+        /** The whole list was replaced (cache restore or first-page refresh) */
+        void onInboxReset();
+        void onPageAppended(int start, int count);
+        void onItemInserted(int position);
+        void onItemChanged(int position);
+        void onItemRemoved(int position);
+        void onInboxError(String error);
+    }
+
+    private final Context appContext;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<Notification> items = new ArrayList<>();
+    private final Map<String, Integer> positions = new HashMap<>();
+    private final Listener listener;
+    private final NotificationWriteBuffer writeBuffer;
+
+    // Created_at of the newest loaded row (upper bound for "mark all as read")
+    private String newestCreatedAt;
+    // Keyset cursor: raw created_at string + id of the oldest loaded row
+    private String cursorCreatedAt;
+    private String cursorId;
+    private boolean hasMore = true;
+    private boolean loading = false;
+    private int generation = 0;
+
+    public NotificationInbox(Context context, Listener listener) {
+        this.appContext = context.getApplicationContext();
+        this.listener = listener;
+        // A failed batch leaves optimistic UI out of sync with the server: reload the first page
+        this.writeBuffer = new NotificationWriteBuffer(error -> {
+            listener.onInboxError(error);
+            refresh();
+            UnreadCountStore.getInstance().refresh(true);
+        });
+    }
+
+    public List<Notification> getItems() {
+        return Collections.unmodifiableList(items);
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
+    public int indexOf(String notificationId) {
+        Integer pos = positions.get(notificationId);
+        return pos != null ? pos : -1;
+    }
+
+    public Notification get(String notificationId) {
+        int pos = indexOf(notificationId);
+        return pos >= 0 ? items.get(pos) : null;
+    }
+
+    /**
+     * Restore the cached first page for the signed-in user, if any.
+     * @return true when cached rows were shown
+     */
+    public boolean restoreCachedPage() {
+        SharedPreferences prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        String userId = prefs.getString("user_id", null);
+        String cachedUser = prefs.getString(KEY_CACHE_USER, null);
+        String cached = prefs.getString(KEY_CACHE_PAGE, null);
+        if (userId == null || cached == null || !userId.equals(cachedUser)) {
+            return false;
+        }
+        try {
+            JSONArray rows = new JSONArray(cached);
+            replaceWith(rows);
+            listener.onInboxReset();
+            return rows.length() > 0;
+        } catch (Exception e) {
+            Log.e(TAG, "Error restoring cached notifications", e);
+            return false;
+        }
+    }
+
+    /**
+     * Fetch the newest page and replace the list with it. Older pages loaded so far are dropped
+     * and will be paged in again as the user scrolls.
+     */
+    public void refresh() {
+        final int requestGeneration = ++generation;
+        loading = true;
+        SupabaseClient.getInstance().getNotificationsPage(null, null, PAGE_SIZE, new SupabaseClient.ApiCallback() {
+            @Override
+            public void onSuccess(JSONObject response) {
+                JSONArray rows = response.optJSONArray("body");
+                mainHandler.post(() -> {
+                    if (requestGeneration != generation) return;
+                    loading = false;
+                    JSONArray page = rows != null ? rows : new JSONArray();
+                    replaceWith(page);
+                    saveCachedPage(page);
+                    listener.onInboxReset();
+                });
+            }
+
+            @Override
+            public void onError(String error) {
+                mainHandler.post(() -> {
+                    if (requestGeneration != generation) return;
+                    loading = false;
+                    listener.onInboxError(error);
+                });
+            }
+        });
+    }
+
+    /**
+     * Fetch the next page older than the last loaded row. No-op while a request is in flight
+     * or once the end of the inbox has been reached.
+     */
+    public void loadMore() {
+        if (loading || !hasMore || cursorCreatedAt == null) return;
+        final int requestGeneration = generation;
+        loading = true;
+        SupabaseClient.getInstance().getNotificationsPage(cursorCreatedAt, cursorId, PAGE_SIZE, new SupabaseClient.ApiCallback() {
+            @Override
+            public void onSuccess(JSONObject response) {
+                JSONArray rows = response.optJSONArray("body");
+                mainHandler.post(() -> {
+                    if (requestGeneration != generation) return;
+                    loading = false;
+                    int start = items.size();
+                    int added = append(rows != null ? rows : new JSONArray());
+                    if (added > 0) {
+                        listener.onPageAppended(start, added);
+                    }
+                });
+            }
+
+            @Override
+            public void onError(String error) {
+                mainHandler.post(() -> {
+                    if (requestGeneration != generation) return;
+                    loading = false;
+                    listener.onInboxError(error);
+                });
+            }
+        });
+    }
+
+    /**
+     * Mark one notification as read. The row updates immediately; the write is coalesced
+     * with other taps by the write-behind buffer.
+     */
+    public void markAsRead(String notificationId) {
+        int pos = indexOf(notificationId);
+        if (pos < 0 || items.get(pos).isRead()) return;
+        items.get(pos).setRead(true);
+        listener.onItemChanged(pos);
+        UnreadCountStore.getInstance().adjust(-1);
+        writeBuffer.markRead(notificationId);
+    }
+
+    /**
+     * Delete one notification. The row is removed immediately; the write is coalesced
+     * with other deletes by the write-behind buffer.
+     */
+    public void delete(String notificationId) {
+        int pos = indexOf(notificationId);
+        if (pos < 0) return;
+        boolean wasUnread = !items.get(pos).isRead();
+        removeAt(pos);
+        listener.onItemRemoved(pos);
+        if (wasUnread) UnreadCountStore.getInstance().adjust(-1);
+        writeBuffer.delete(notificationId);
+    }
+
+    /**
+     * Delete everything up to the newest notification shown with a single RPC (including
+     * older pages that haven't been loaded yet). Anything that arrives after the newest
+     * shown row is kept.
+     */
+    public void clearAll() {
+        if (newestCreatedAt == null || items.isEmpty()) return;
+        // Drop in-flight page loads and stop paging into rows that are being deleted
+        generation++;
+        loading = false;
+        hasMore = false;
+        cursorCreatedAt = null;
+        cursorId = null;
+        items.clear();
+        positions.clear();
+        clearCachedPage();
+        listener.onInboxReset();
+        UnreadCountStore.getInstance().set(0);
+        SupabaseClient.getInstance().deleteNotificationsBefore(newestCreatedAt, new SupabaseClient.ApiCallback() {
+            @Override
+            public void onSuccess(JSONObject response) {
+                // Anything newer than the bound is still there
+                UnreadCountStore.getInstance().refresh(true);
+            }
+
+            @Override
+            public void onError(String error) {
+                mainHandler.post(() -> {
+                    listener.onInboxError(error);
+                    refresh();
+                    UnreadCountStore.getInstance().refresh(true);
+                });
+            }
+        });
+    }
+
+    /**
+     * Mark everything up to the newest notification shown as read with a single RPC
+     * (including older pages that haven't been loaded yet). Anything that arrives after
+     * the newest shown row stays unread.
+     */
+    public void markAllAsRead(SupabaseClient.ApiCallback callback) {
+        if (newestCreatedAt == null) {
+            callback.onError("Nothing to mark as read");
+            return;
+        }
+        for (int i = 0; i < items.size(); i++) {
+            if (!items.get(i).isRead()) {
+                items.get(i).setRead(true);
+                listener.onItemChanged(i);
+            }
+        }
+        UnreadCountStore.getInstance().set(0);
+        SupabaseClient.getInstance().markAllNotificationsReadBefore(newestCreatedAt, new SupabaseClient.ApiCallback() {
+            @Override
+            public void onSuccess(JSONObject response) {
+                mainHandler.post(() -> callback.onSuccess(response));
+                // Anything newer than the bound is still unread
+                UnreadCountStore.getInstance().refresh(true);
+            }
+
+            @Override
+            public void onError(String error) {
+                mainHandler.post(() -> {
+                    callback.onError(error);
+                    refresh();
+                    UnreadCountStore.getInstance().refresh(true);
+                });
+            }
+        });
+    }
+
+    /**
+     * Apply a Realtime change to the loaded list in place: new notifications go on top,
+     * updates replace their row, deletes remove it.
+     */
+    public void applyChange(RealtimeClient.Change change) {
+        String id = change.getId();
+        if (id == null) return;
+        int pos = indexOf(id);
+
+        if ("INSERT".equals(change.eventType)) {
+            if (pos >= 0 || writeBuffer.isPendingDelete(id)) return;
+            Notification n = Notification.fromJson(change.newRecord);
+            items.add(0, n);
+            for (int i = 0; i < items.size(); i++) {
+                positions.put(items.get(i).getId(), i);
+            }
+            newestCreatedAt = change.newRecord.optString("created_at", newestCreatedAt);
+            listener.onItemInserted(0);
+        } else if ("UPDATE".equals(change.eventType)) {
+            if (pos < 0) return;
+            Notification n = Notification.fromJson(change.newRecord);
+            if (writeBuffer.isPendingRead(id) || items.get(pos).isRead()) n.setRead(true);
+            items.set(pos, n);
+            listener.onItemChanged(pos);
+        } else if ("DELETE".equals(change.eventType)) {
+            if (pos < 0) return;
+            removeAt(pos);
+            listener.onItemRemoved(pos);
+        }
+    }
+
+    /**
+     * Send any buffered mark-read/delete writes now (call when the screen is paused).
+     */
+    public void flushPendingWrites() {
+        writeBuffer.flush();
+    }
+
+    // ============================================================================
+    // INTERNALS
+    // ============================================================================
+
+    private void replaceWith(JSONArray rows) {
+        items.clear();
+        positions.clear();
+        cursorCreatedAt = null;
+        cursorId = null;
+        hasMore = true;
+        JSONObject first = rows.optJSONObject(0);
+        newestCreatedAt = first != null ? first.optString("created_at", null) : null;
+        append(rows);
+    }
+
+    private int append(JSONArray rows) {
+        int added = 0;
+        for (int i = 0; i < rows.length(); i++) {
+            JSONObject row = rows.optJSONObject(i);
+            if (row == null) continue;
+            Notification n = Notification.fromJson(row);
+            // Skip rows already present (e.g. a new notification shifted the page boundary)
+            // and rows whose delete is still sitting in the write-behind buffer
+            if (n.getId() == null || positions.containsKey(n.getId()) || writeBuffer.isPendingDelete(n.getId())) continue;
+            if (writeBuffer.isPendingRead(n.getId())) n.setRead(true);
+            positions.put(n.getId(), items.size());
+            items.add(n);
+            added++;
+        }
+        if (rows.length() > 0) {
+            JSONObject last = rows.optJSONObject(rows.length() - 1);
+            if (last != null) {
+                cursorCreatedAt = last.optString("created_at", null);
+                cursorId = last.optString("id", null);
+            }
+        }
+        hasMore = rows.length() >= PAGE_SIZE;
+        return added;
+    }
+
+    private void removeAt(int pos) {
+        Notification removed = items.remove(pos);
+        positions.remove(removed.getId());
+        for (int i = pos; i < items.size(); i++) {
+            positions.put(items.get(i).getId(), i);
+        }
+    }
+
+    private void clearCachedPage() {
+        appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).edit()
+                .remove(KEY_CACHE_PAGE)
+                .remove(KEY_CACHE_USER)
+                .apply();
+    }
+
+    private void saveCachedPage(JSONArray rows) {
+        SharedPreferences prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        prefs.edit()
+                .putString(KEY_CACHE_PAGE, rows.toString())
+                .putString(KEY_CACHE_USER, prefs.getString("user_id", null))
+                .apply();
+    }
+}
@@ -0,0 +1,132 @@
+package com.roominate.services;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-behind buffer for notification mutations.
+ * Mark-read and delete taps are collected for a short window and then sent as at most one
+ * batched PATCH and one batched DELETE (id=in.(...)) per chunk, so rapid taps or "clear all"
+ * cost a single round trip instead of one request per row. Callers update their UI
+ * optimistically; {@link Listener#onFlushFailed} tells them to resync when a batch fails.
+ * Must be used from the main thread.
+ */
+public class NotificationWriteBuffer {
+    private static final String TAG = "NotificationWriteBuffer";
+
+    public static final long FLUSH_WINDOW_MS = 750;
+    // Keeps id=in.(...) URLs well below common proxy/URL length limits (~37 chars per UUID)
+    private static final int MAX_IDS_PER_REQUEST = 100;
+
+    public interface Listener {
+        void onFlushFailed(String error);
+    }
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Set<String> pendingReads = new LinkedHashSet<>();
+    private final Set<String> pendingDeletes = new LinkedHashSet<>();
+    private final Listener listener;
+    private final Runnable flushRunnable = this::flush;
+
+    public NotificationWriteBuffer(Listener listener) {
+        this.listener = listener;
+    }
+
+    public void markRead(String notificationId) {
+        if (notificationId == null || pendingDeletes.contains(notificationId)) return;
+        pendingReads.add(notificationId);
+        scheduleFlush();
+    }
+
+    public void delete(String notificationId) {
+        if (notificationId == null) return;
+        // A row that is going away doesn't need its read flag written first
+        pendingReads.remove(notificationId);
+        pendingDeletes.add(notificationId);
+        scheduleFlush();
+    }
+
+    public boolean isPendingRead(String notificationId) {
+        return pendingReads.contains(notificationId);
+    }
+
+    public boolean isPendingDelete(String notificationId) {
+        return pendingDeletes.contains(notificationId);
+    }
+
+    public boolean hasPending() {
+        return !pendingReads.isEmpty() || !pendingDeletes.isEmpty();
+    }
+
+    /**
+     * Send everything buffered now. Call from onPause/onStop so nothing is lost when the
+     * screen goes away; requests complete on OkHttp's threads.
+     */
+    public void flush() {
+        flush(null);
+    }
+
+    /**
+     * Flush and run {@code onComplete} on the main thread once every batch has succeeded.
+     */
+    public void flush(Runnable onComplete) {
+        mainHandler.removeCallbacks(flushRunnable);
+        if (!hasPending()) {
+            if (onComplete != null) onComplete.run();
+            return;
+        }
+
+        List<String> reads = new ArrayList<>(pendingReads);
+        List<String> deletes = new ArrayList<>(pendingDeletes);
+        pendingReads.clear();
+        pendingDeletes.clear();
+
+        int batches = (reads.size() + MAX_IDS_PER_REQUEST - 1) / MAX_IDS_PER_REQUEST
+                + (deletes.size() + MAX_IDS_PER_REQUEST - 1) / MAX_IDS_PER_REQUEST;
+        AtomicInteger remaining = new AtomicInteger(batches);
+
+        SupabaseClient supabase = SupabaseClient.getInstance();
+        for (int i = 0; i < reads.size(); i += MAX_IDS_PER_REQUEST) {
+            List<String> chunk = reads.subList(i, Math.min(reads.size(), i + MAX_IDS_PER_REQUEST));
+            supabase.markNotificationsAsRead(chunk, resultCallback("mark read", remaining, onComplete));
+        }
+        for (int i = 0; i < deletes.size(); i += MAX_IDS_PER_REQUEST) {
+            List<String> chunk = deletes.subList(i, Math.min(deletes.size(), i + MAX_IDS_PER_REQUEST));
+            supabase.deleteNotifications(chunk, resultCallback("delete", remaining, onComplete));
+        }
+    }
+
+    private void scheduleFlush() {
+        mainHandler.removeCallbacks(flushRunnable);
+        mainHandler.postDelayed(flushRunnable, FLUSH_WINDOW_MS);
+    }
+
+    private SupabaseClient.ApiCallback resultCallback(String action, AtomicInteger remaining, Runnable onComplete) {
+        return new SupabaseClient.ApiCallback() {
+            @Override
+            public void onSuccess(JSONObject response) {
+                Log.d(TAG, "Batched " + action + " ok: " + response.optInt("count"));
+                if (remaining.decrementAndGet() == 0 && onComplete != null) {
+                    mainHandler.post(onComplete);
+                }
+            }
+
+            @Override
+            public void onError(String error) {
+                Log.e(TAG, "Batched " + action + " failed: " + error);
+                if (listener != null) {
+                    mainHandler.post(() -> listener.onFlushFailed(error));
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,117 @@
+package com.roominate.services;
+
+import com.roominate.utils.DateTimeHelper;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns owner_booking_timeseries rows into chartable series, and fixes how much history each
+ * bucket size covers.
+ */
+public final class OwnerAnalytics {
+
+    public static final String METRIC_BOOKINGS = "bookings";
+    public static final String METRIC_REVENUE = "revenue";
+    public static final String METRIC_OCCUPANCY = "occupancy";
+
+    public static final String BUCKET_DAY = "day";
+    public static final String BUCKET_WEEK = "week";
+    public static final String BUCKET_MONTH = "month";
+
+    /** PostgREST's default max-rows; a longer RPC result is silently cut off */
+    public static final int MAX_ROWS = 1000;
+
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+    private static final long DAILY_RANGE_MS = 2 * 365 * DAY_MS;
+    private static final long WEEKLY_RANGE_MS = 5 * 365 * DAY_MS;
+    private static final long MONTHLY_RANGE_MS = 10 * 365 * DAY_MS;
+
+    /** Per-bucket values, oldest first; all arrays have the same length */
+    public static final class Series {
+        /** Bucket start, epoch millis (local midnight, see DateTimeHelper.parseDate) */
+        public final double[] time;
+        public final double[] bookings;
+        public final double[] revenue;
+        /** Booked share of room-nights, 0..1 */
+        public final double[] occupancy;
+
+        Series(int size) {
+            time = new double[size];
+            bookings = new double[size];
+            revenue = new double[size];
+            occupancy = new double[size];
+        }
+
+        public int size() {
+            return time.length;
+        }
+
+        public double[] values(String metric) {
+            if (METRIC_REVENUE.equals(metric)) return revenue;
+            if (METRIC_OCCUPANCY.equals(metric)) return occupancy;
+            return bookings;
+        }
+    }
+
+    private OwnerAnalytics() {
+    }
+
+    /**
+     * History shown for a bucket size: 2 years of days, 5 of weeks, 10 of months.
+     */
+    public static long rangeMs(String bucket) {
+        if (BUCKET_MONTH.equals(bucket)) return MONTHLY_RANGE_MS;
+        if (BUCKET_WEEK.equals(bucket)) return WEEKLY_RANGE_MS;
+        return DAILY_RANGE_MS;
+    }
+
+    /**
+     * Most buckets (= RPC rows, one per bucket) {@link #rangeMs} can span: the range in the
+     * shortest bucket length, plus the partial buckets at either end.
+     */
+    public static int maxBuckets(String bucket) {
+        long shortest = BUCKET_MONTH.equals(bucket) ? 28 * DAY_MS
+                : BUCKET_WEEK.equals(bucket) ? 7 * DAY_MS : DAY_MS;
+        return (int) (rangeMs(bucket) / shortest) + 2;
+    }
+
+    /**
+     * Sum the rows of each bucket. The RPC already sums the owner's listings, but per-listing
+     * rows (target_listing) add up the same way. Occupancy is recomputed from the summed nights so
+     * large listings weigh more than small ones. Rows must be ordered by bucket_start, as the
+     * RPC returns them.
+     */
+    public static Series totals(JSONArray rows) {
+        List<String> starts = new ArrayList<>();
+        List<double[]> sums = new ArrayList<>();  // bookings, revenue, booked nights, room nights
+        for (int i = 0; rows != null && i < rows.length(); i++) {
+            JSONObject row = rows.optJSONObject(i);
+            if (row == null) continue;
+            String start = row.optString("bucket_start", "");
+            if (DateTimeHelper.parseDate(start) == 0) continue;
+            if (starts.isEmpty() || !start.equals(starts.get(starts.size() - 1))) {
+                starts.add(start);
+                sums.add(new double[4]);
+            }
+            double[] sum = sums.get(sums.size() - 1);
+            sum[0] += row.optDouble("bookings", 0);
+            sum[1] += row.optDouble("revenue", 0);
+            sum[2] += row.optDouble("booked_nights", 0);
+            sum[3] += row.optDouble("room_nights", 0);
+        }
+
+        Series series = new Series(starts.size());
+        for (int i = 0; i < starts.size(); i++) {
+            double[] sum = sums.get(i);
+            series.time[i] = DateTimeHelper.parseDate(starts.get(i));
+            series.bookings[i] = sum[0];
+            series.revenue[i] = sum[1];
+            series.occupancy[i] = sum[3] > 0 ? Math.min(sum[2] / sum[3], 1.0) : 0;
+        }
+        return series;
+    }
+}
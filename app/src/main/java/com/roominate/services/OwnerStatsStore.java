@@ -0,0 +1,154 @@
+package com.roominate.services;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import org.json.JSONObject;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Client-side cache for the owner dashboard statistics.
+ * The server keeps the counters in owner_stats (trigger-maintained), so a fetch returns one
+ * small row; this store additionally caches it for {@link #TTL_MS} so returning to the
+ * dashboard doesn't hit the network each time, coalesces concurrent refreshes into one
+ * request, and pushes every change to registered observers on the main thread.
+ * While observed it listens to Realtime changes on the owner's bookings and refreshes.
+ */
+public class OwnerStatsStore {
+    private static final String TAG = "OwnerStatsStore";
+
+    public static final long TTL_MS = 60 * 1000L;
+
+    public interface Observer {
+        /** @param stats the owner_dashboard_stats row; treat as read-only */
+        void onOwnerStatsChanged(JSONObject stats);
+    }
+
+    private static OwnerStatsStore instance;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final CopyOnWriteArrayList<Observer> observers = new CopyOnWriteArrayList<>();
+
+    // null until the first successful fetch
+    private JSONObject stats;
+    private long fetchedAtMs = 0;
+    private boolean fetching = false;
+    // A forced refresh arrived while fetching; re-fetch when the in-flight request completes
+    private boolean pendingForce = false;
+    // Bumped by invalidate() so a response for the previous user is dropped
+    private int generation = 0;
+    // Live while at least one observer is registered
+    private RealtimeClient.Subscription subscription;
+
+    private OwnerStatsStore() {
+    }
+
+    public static synchronized OwnerStatsStore getInstance() {
+        if (instance == null) {
+            instance = new OwnerStatsStore();
+        }
+        return instance;
+    }
+
+    /**
+     * Register an observer. It immediately receives the cached stats (if any) and a refresh
+     * is started when they are missing or older than the TTL.
+     */
+    public void observe(Observer observer) {
+        if (observer == null || observers.contains(observer)) return;
+        observers.add(observer);
+        if (subscription == null) {
+            // Booking changes move the counters; re-reading them is one row, so just refresh
+            subscription = SupabaseClient.getInstance().subscribeToOwnerBookings(change -> refresh(true));
+        }
+        JSONObject cached = getCachedStats();
+        if (cached != null) {
+            mainHandler.post(() -> {
+                if (observers.contains(observer)) observer.onOwnerStatsChanged(cached);
+            });
+        }
+        refresh(false);
+    }
+
+    public void removeObserver(Observer observer) {
+        observers.remove(observer);
+        if (observers.isEmpty() && subscription != null) {
+            subscription.unsubscribe();
+            subscription = null;
+        }
+    }
+
+    /**
+     * @return last known stats, or null if they haven't been fetched yet
+     */
+    public synchronized JSONObject getCachedStats() {
+        return stats;
+    }
+
+    /**
+     * Fetch the stats from the server unless the cached value is still fresh.
+     * A forced refresh while a fetch is in flight re-fetches once that one completes, since
+     * its answer may predate the change that triggered the force.
+     * @param force ignore the TTL (e.g. after the owner adds a listing)
+     */
+    public synchronized void refresh(boolean force) {
+        if (fetching) {
+            if (force) pendingForce = true;
+            return;
+        }
+        boolean fresh = stats != null && SystemClock.elapsedRealtime() - fetchedAtMs < TTL_MS;
+        if (fresh && !force) return;
+        fetching = true;
+        final int requestGeneration = generation;
+
+        SupabaseClient.getInstance().getOwnerStats(new SupabaseClient.ApiCallback() {
+            @Override
+            public void onSuccess(JSONObject response) {
+                synchronized (OwnerStatsStore.this) {
+                    if (requestGeneration != generation) return;
+                    fetching = false;
+                    if (pendingForce) {
+                        // Possibly stale: drop it and ask again
+                        pendingForce = false;
+                        refresh(true);
+                        return;
+                    }
+                    fetchedAtMs = SystemClock.elapsedRealtime();
+                    stats = response;
+                }
+                mainHandler.post(() -> {
+                    for (Observer observer : observers) {
+                        observer.onOwnerStatsChanged(response);
+                    }
+                });
+            }
+
+            @Override
+            public void onError(String error) {
+                boolean retry;
+                synchronized (OwnerStatsStore.this) {
+                    if (requestGeneration != generation) return;
+                    fetching = false;
+                    retry = pendingForce;
+                    pendingForce = false;
+                }
+                Log.e(TAG, "Failed to refresh owner stats: " + error);
+                if (retry) refresh(true);
+            }
+        });
+    }
+
+    /**
+     * Drop the cached stats so the next observe/refresh goes to the server (e.g. on sign out).
+     */
+    public synchronized void invalidate() {
+        generation++;
+        stats = null;
+        fetchedAtMs = 0;
+        fetching = false;
+        pendingForce = false;
+    }
+}
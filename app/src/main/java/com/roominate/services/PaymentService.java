@@ -5,7 +5,6 @@ import com.roominate.BuildConfig;
 import org.json.JSONObject;
 import okhttp3.Call;
 import okhttp3.Callback;
-import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 import org.json.JSONArray;
@@ -45,56 +44,57 @@ public class PaymentService {
         }
     }
 
+    /**
+     * One-shot lookup of a booking's payment_status by payment reference, on the shared HTTP
+     * client. Screens should use {@link PaymentStatusTracker}, which calls this as its fallback.
+     */
     public void getPaymentStatus(String reference, SupabaseClient.ApiCallback callback) {
-        new Thread(() -> {
-            try {
-                String supabaseUrl = BuildConfig.SUPABASE_URL;
-                String url = supabaseUrl + "/rest/v1/bookings?payment_reference=eq." + reference + "&select=payment_status";
+        try {
+            String supabaseUrl = BuildConfig.SUPABASE_URL;
+            String url = supabaseUrl + "/rest/v1/bookings?payment_reference=eq." + reference + "&select=payment_status";
 
-                Request.Builder requestBuilder = new Request.Builder().url(url).get();
-                requestBuilder = SupabaseClient.addAuthHeaders(requestBuilder);
-                Request request = requestBuilder.build();
+            Request.Builder requestBuilder = new Request.Builder().url(url).get();
+            requestBuilder = SupabaseClient.addAuthHeaders(requestBuilder);
+            Request request = requestBuilder.build();
 
-                OkHttpClient client = new OkHttpClient();
-                client.newCall(request).enqueue(new Callback() {
-                    @Override
-                    public void onFailure(Call call, IOException e) {
-                        Log.e(TAG, "Error checking payment status", e);
-                        callback.onError(e.getMessage());
-                    }
+            SupabaseClient.getInstance().getHttpClient().newCall(request).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    Log.e(TAG, "Error checking payment status", e);
+                    callback.onError(e.getMessage());
+                }
 
-                    @Override
-                    public void onResponse(Call call, Response response) throws IOException {
-                        if (!response.isSuccessful() || response.body() == null) {
-                            callback.onError("Failed to get payment status: " + response.message());
-                            return;
-                        }
-                        
-                        try {
-                            String responseBody = response.body().string();
-                            JSONArray jsonArray = new JSONArray(responseBody);
-                            if (jsonArray.length() > 0) {
-                                JSONObject payment = jsonArray.getJSONObject(0);
-                                String status = payment.optString("payment_status", payment.optString("status", "pending"));
-                                JSONObject wrapper = new JSONObject();
-                                wrapper.put("status", status);
-                                callback.onSuccess(wrapper);
-                            } else {
-                                // Not an error, just not found yet. Return an object indicating pending.
-                                JSONObject pendingStatus = new JSONObject();
-                                pendingStatus.put("status", "pending");
-                                callback.onSuccess(pendingStatus);
-                            }
-                        } catch (Exception e) {
-                            Log.e(TAG, "Error parsing payment status response", e);
-                            callback.onError("Error parsing payment status.");
+                @Override
+                public void onResponse(Call call, Response response) throws IOException {
+                    if (!response.isSuccessful() || response.body() == null) {
+                        callback.onError("Failed to get payment status: " + response.message());
+                        return;
+                    }
+                    
+                    try {
+                        String responseBody = response.body().string();
+                        JSONArray jsonArray = new JSONArray(responseBody);
+                        if (jsonArray.length() > 0) {
+                            JSONObject payment = jsonArray.getJSONObject(0);
+                            String status = payment.optString("payment_status", payment.optString("status", "pending"));
+                            JSONObject wrapper = new JSONObject();
+                            wrapper.put("status", status);
+                            callback.onSuccess(wrapper);
+                        } else {
+                            // Not an error, just not found yet. Return an object indicating pending.
+                            JSONObject pendingStatus = new JSONObject();
+                            pendingStatus.put("status", "pending");
+                            callback.onSuccess(pendingStatus);
                         }
+                    } catch (Exception e) {
+                        Log.e(TAG, "Error parsing payment status response", e);
+                        callback.onError("Error parsing payment status.");
                     }
-                });
-            } catch (Exception e) {
-                Log.e(TAG, "Error building payment status request", e);
-                callback.onError(e.getMessage());
-            }
-        }).start();
+                }
+            });
+        } catch (Exception e) {
+            Log.e(TAG, "Error building payment status request", e);
+            callback.onError(e.getMessage());
+        }
     }
 }
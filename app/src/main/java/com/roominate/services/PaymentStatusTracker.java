@@ -0,0 +1,270 @@
+package com.roominate.services;
+
+import org.json.JSONObject;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks a mobile-money payment until lenco-webhook moves the booking's payment_status to a
+ * terminal value, then delivers exactly one {@link Result}.
+ *
+ * The booking row is watched over Realtime; status polling is only a fallback and backs off
+ * exponentially (faster while the socket is down, slow safety net while it is up). Polling runs
+ * only while a listener is attached, so a paused screen costs nothing, and because the tracker
+ * lives at process level a recreated activity simply re-attaches and receives the result,
+ * including one that arrived while it was gone.
+ *
+ * Free of Android APIs so it can be tested on the JVM with fake status/change sources.
+ */
+public class PaymentStatusTracker {
+
+    public enum Result { COMPLETED, FAILED, CANCELLED, TIMED_OUT }
+
+    public interface Listener {
+        void onPaymentResult(String reference, Result result);
+    }
+
+    /** One-shot status lookup (PaymentService.getPaymentStatus in the app) */
+    public interface StatusSource {
+        void fetchStatus(String reference, SupabaseClient.ApiCallback callback);
+    }
+
+    /** Push channel for booking row changes (Supabase Realtime in the app) */
+    public interface ChangeSource {
+        /** @return action that stops watching */
+        Runnable watchBooking(String bookingId, RealtimeClient.ChangeListener listener);
+        boolean isConnected();
+    }
+
+    public static final long TIMEOUT_MS = 2 * 60 * 1000L;
+    // Poll backoff while push is unavailable, and the slower safety-net interval while it is up
+    static final long[] POLL_BACKOFF_MS = {2_000, 4_000, 8_000, 15_000};
+    static final long CONNECTED_POLL_MS = 30_000;
+
+    private static PaymentStatusTracker instance;
+
+    private class Tracking {
+        final String reference;
+        final String bookingId;
+        final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+        Runnable unwatch;
+        ScheduledFuture<?> nextPoll;
+        ScheduledFuture<?> timeout;
+        int pollAttempt;
+        Result result;
+        boolean delivered;
+
+        Tracking(String reference, String bookingId) {
+            this.reference = reference;
+            this.bookingId = bookingId;
+        }
+    }
+
+    private final StatusSource statusSource;
+    private final ChangeSource changeSource;
+    private final Executor callbackExecutor;
+    private final ScheduledExecutorService scheduler;
+    // Guarded by this
+    private final Map<String, Tracking> trackings = new HashMap<>();
+
+    public PaymentStatusTracker(StatusSource statusSource, ChangeSource changeSource,
+                                Executor callbackExecutor, ScheduledExecutorService scheduler) {
+        this.statusSource = statusSource;
+        this.changeSource = changeSource;
+        this.callbackExecutor = callbackExecutor;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * App-wide tracker: Realtime via SupabaseClient, polling via PaymentService,
+     * callbacks on the main thread.
+     */
+    public static synchronized PaymentStatusTracker getInstance() {
+        if (instance == null) {
+            android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
+            ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "payment-status-tracker");
+                t.setDaemon(true);
+                return t;
+            });
+            instance = new PaymentStatusTracker(
+                    (reference, callback) -> PaymentService.getInstance().getPaymentStatus(reference, callback),
+                    new ChangeSource() {
+                        @Override
+                        public Runnable watchBooking(String bookingId, RealtimeClient.ChangeListener listener) {
+                            return SupabaseClient.getInstance().getRealtime()
+                                    .subscribe("bookings", "id=eq." + bookingId, listener)::unsubscribe;
+                        }
+
+                        @Override
+                        public boolean isConnected() {
+                            return SupabaseClient.getInstance().getRealtime().isConnected();
+                        }
+                    },
+                    mainHandler::post,
+                    scheduler);
+        }
+        return instance;
+    }
+
+    /**
+     * Start tracking a payment (no-op if it is already tracked).
+     */
+    public synchronized void track(String reference, String bookingId) {
+        if (trackings.containsKey(reference)) return;
+        Tracking tracking = new Tracking(reference, bookingId);
+        trackings.put(reference, tracking);
+        tracking.unwatch = changeSource.watchBooking(bookingId, change -> onBookingChange(tracking, change));
+        tracking.timeout = scheduler.schedule(() -> finish(tracking, Result.TIMED_OUT), TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Attach a listener (e.g. in onStart). If the payment already finished, the result is
+     * delivered right away. While at least one listener is attached the fallback poller runs.
+     */
+    public synchronized void addListener(String reference, Listener listener) {
+        Tracking tracking = trackings.get(reference);
+        if (tracking == null) return;
+        tracking.listeners.add(listener);
+        if (tracking.result != null) {
+            deliver(tracking);
+        } else if (tracking.listeners.size() == 1) {
+            // Check straight away: the status may have changed while nobody was watching
+            tracking.pollAttempt = 0;
+            schedulePoll(tracking, 0);
+        }
+    }
+
+    /**
+     * Detach a listener (e.g. in onStop). Tracking continues; polling stops when nobody listens.
+     */
+    public synchronized void removeListener(String reference, Listener listener) {
+        Tracking tracking = trackings.get(reference);
+        if (tracking == null) return;
+        tracking.listeners.remove(listener);
+        if (tracking.listeners.isEmpty()) {
+            cancelPoll(tracking);
+        }
+    }
+
+    /**
+     * Stop tracking without a result (user cancelled the payment dialog).
+     */
+    public synchronized void cancel(String reference) {
+        Tracking tracking = trackings.remove(reference);
+        if (tracking != null) {
+            release(tracking);
+        }
+    }
+
+    public synchronized boolean isTracking(String reference) {
+        return trackings.containsKey(reference);
+    }
+
+    // ============================================================================
+    // INTERNALS
+    // ============================================================================
+
+    private void onBookingChange(Tracking tracking, RealtimeClient.Change change) {
+        Result result = resultFor(change.newRecord.optString("payment_status", null));
+        if (result != null) {
+            finish(tracking, result);
+        }
+    }
+
+    private synchronized void schedulePoll(Tracking tracking, long delayMs) {
+        cancelPoll(tracking);
+        if (tracking.result != null || tracking.listeners.isEmpty()) return;
+        tracking.nextPoll = scheduler.schedule(() -> poll(tracking), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized long nextPollDelay(Tracking tracking) {
+        if (changeSource.isConnected()) {
+            return CONNECTED_POLL_MS;
+        }
+        long delay = POLL_BACKOFF_MS[Math.min(tracking.pollAttempt, POLL_BACKOFF_MS.length - 1)];
+        tracking.pollAttempt++;
+        return delay;
+    }
+
+    private void poll(Tracking tracking) {
+        statusSource.fetchStatus(tracking.reference, new SupabaseClient.ApiCallback() {
+            @Override
+            public void onSuccess(JSONObject response) {
+                Result result = resultFor(response.optString("status", null));
+                if (result != null) {
+                    finish(tracking, result);
+                } else {
+                    schedulePoll(tracking, nextPollDelay(tracking));
+                }
+            }
+
+            @Override
+            public void onError(String error) {
+                // Transient network errors just back off further
+                schedulePoll(tracking, nextPollDelay(tracking));
+            }
+        });
+    }
+
+    private synchronized void finish(Tracking tracking, Result result) {
+        if (tracking.result != null) return;
+        tracking.result = result;
+        release(tracking);
+        if (!tracking.listeners.isEmpty()) {
+            deliver(tracking);
+        }
+    }
+
+    // Only the first attached listener receives the result: one terminal event per payment
+    private void deliver(Tracking tracking) {
+        if (tracking.delivered) return;
+        tracking.delivered = true;
+        trackings.remove(tracking.reference);
+        Listener listener = tracking.listeners.get(0);
+        Result result = tracking.result;
+        callbackExecutor.execute(() -> listener.onPaymentResult(tracking.reference, result));
+    }
+
+    private void release(Tracking tracking) {
+        cancelPoll(tracking);
+        if (tracking.timeout != null) {
+            tracking.timeout.cancel(false);
+            tracking.timeout = null;
+        }
+        if (tracking.unwatch != null) {
+            tracking.unwatch.run();
+            tracking.unwatch = null;
+        }
+    }
+
+    private void cancelPoll(Tracking tracking) {
+        if (tracking.nextPoll != null) {
+            tracking.nextPoll.cancel(false);
+            tracking.nextPoll = null;
+        }
+    }
+
+    /** Map lenco-webhook's payment_status values to a terminal result (null = still pending) */
+    static Result resultFor(String paymentStatus) {
+        if (paymentStatus == null) return null;
+        switch (paymentStatus.toLowerCase(java.util.Locale.US)) {
+            case "completed":
+            case "successful":
+                return Result.COMPLETED;
+            case "failed":
+                return Result.FAILED;
+            case "cancelled":
+                return Result.CANCELLED;
+            default:
+                return null;
+        }
+    }
+}
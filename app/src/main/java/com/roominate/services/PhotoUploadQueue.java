@@ -0,0 +1,337 @@
+package com.roominate.services;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.Uri;
+import android.util.Log;
+
+import com.roominate.utils.ContentHash;
+import com.roominate.utils.ImagePreparer;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import okhttp3.MediaType;
+
+/**
+ * Durable queue for listing photo uploads.
+ *
+ * {@link #enqueue} prepares the WebP renditions straight away (picker URI grants don't survive
+ * the process) into app storage and records one job per photo in a persisted job table, then
+ * hands off to {@link PhotoUploadWorker}. The worker uploads pending renditions with bounded
+ * parallelism, remembers each finished rendition so a retry or a restart after process death
+ * only sends what is missing, and once every photo of a listing is stored inserts all of its
+ * properties_media rows in one batched POST. Objects are keyed by a SHA-256 of the prepared
+ * bytes, so a photo that is already stored costs a single HEAD. Failed runs are retried by
+ * WorkManager with exponential backoff.
+ */
+public class PhotoUploadQueue {
+    private static final String TAG = "PhotoUploadQueue";
+
+    private static final String PREFS_NAME = "photo_upload_queue";
+    private static final String KEY_JOBS = "jobs";
+    private static final String QUEUE_DIR = "pending_uploads";
+    private static final int MAX_PARALLEL_UPLOADS = 3;
+    // Give up on a photo after this many failed runs (e.g. listing deleted meanwhile)
+    private static final int MAX_ATTEMPTS = 8;
+
+    private static PhotoUploadQueue instance;
+
+    private final Context appContext;
+    private final SharedPreferences prefs;
+    private final File queueDir;
+    // Guarded by this; mirrors the persisted job table
+    private final List<JSONObject> jobs = new ArrayList<>();
+
+    private PhotoUploadQueue(Context context) {
+        appContext = context.getApplicationContext();
+        prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        queueDir = new File(appContext.getFilesDir(), QUEUE_DIR);
+        queueDir.mkdirs();
+        try {
+            JSONArray stored = new JSONArray(prefs.getString(KEY_JOBS, "[]"));
+            for (int i = 0; i < stored.length(); i++) {
+                jobs.add(stored.getJSONObject(i));
+            }
+        } catch (JSONException e) {
+            Log.e(TAG, "Corrupt upload queue, starting empty", e);
+        }
+    }
+
+    public static synchronized PhotoUploadQueue getInstance(Context context) {
+        if (instance == null) {
+            instance = new PhotoUploadQueue(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Prepare and queue photos for a listing, then schedule the upload worker.
+     * Blocking (decodes/encodes each photo) - call from a background thread.
+     * @param firstOrdering properties_media.ordering of the first photo (0 = primary)
+     * @return number of photos queued
+     */
+    public int enqueue(String propertyId, List<Uri> imageUris, int firstOrdering) {
+        String userId = appContext.getSharedPreferences("roominate_prefs", Context.MODE_PRIVATE)
+                .getString("user_id", null);
+        if (userId == null) {
+            Log.e(TAG, "Not logged in, dropping " + imageUris.size() + " photos");
+            return 0;
+        }
+
+        List<JSONObject> newJobs = new ArrayList<>();
+        for (int i = 0; i < imageUris.size(); i++) {
+            try {
+                newJobs.add(createJob(propertyId, userId, imageUris.get(i), firstOrdering + i));
+            } catch (Exception e) {
+                Log.e(TAG, "Could not queue photo " + imageUris.get(i), e);
+            }
+        }
+        if (newJobs.isEmpty()) return 0;
+
+        synchronized (this) {
+            jobs.addAll(newJobs);
+            persist();
+        }
+        PhotoUploadWorker.schedule(appContext);
+        return newJobs.size();
+    }
+
+    public synchronized int getPendingCount(String propertyId) {
+        int count = 0;
+        for (JSONObject job : jobs) {
+            if (propertyId.equals(job.optString("property_id"))) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Upload everything pending and record finished listings. Called by the worker.
+     * @return true when the queue is empty afterwards
+     */
+    boolean processPending() {
+        List<JSONObject> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(jobs);
+        }
+        if (snapshot.isEmpty()) return true;
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(MAX_PARALLEL_UPLOADS, snapshot.size()));
+        try {
+            List<Future<?>> uploads = new ArrayList<>();
+            for (JSONObject job : snapshot) {
+                if (!isUploaded(job)) {
+                    uploads.add(pool.submit(() -> uploadJob(job)));
+                }
+            }
+            for (Future<?> upload : uploads) {
+                try {
+                    upload.get();
+                } catch (Exception e) {
+                    Log.e(TAG, "Upload task crashed", e);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        recordFinishedListings(snapshot);
+
+        synchronized (this) {
+            return jobs.isEmpty();
+        }
+    }
+
+    // ============================================================================
+    // INTERNALS
+    // ============================================================================
+
+    private JSONObject createJob(String propertyId, String userId, Uri uri, int ordering) throws IOException, JSONException {
+        String folder = "properties/" + userId + "/";
+
+        JSONObject job = new JSONObject();
+        job.put("id", UUID.randomUUID().toString());
+        job.put("property_id", propertyId);
+        job.put("ordering", ordering);
+        job.put("attempts", 0);
+
+        ImagePreparer.Prepared prepared = null;
+        try {
+            prepared = ImagePreparer.prepare(appContext.getContentResolver(), uri, queueDir);
+        } catch (IOException | OutOfMemoryError e) {
+            Log.w(TAG, "Could not prepare renditions, queueing original: " + e.getMessage());
+        }
+
+        if (prepared != null) {
+            // Content-addressed key: re-queued or retried photos map to the same object
+            String fileName = ContentHash.sha256Hex(prepared.full.file) + ".webp";
+            job.put("filename", fileName);
+            job.put("mime_type", ImagePreparer.MIME_TYPE);
+            job.put("width", prepared.full.width);
+            job.put("height", prepared.full.height);
+            job.put("full_file", prepared.full.file.getAbsolutePath());
+            job.put("full_path", folder + fileName);
+            job.put("thumb_file", prepared.thumbnail.file.getAbsolutePath());
+            job.put("thumb_path", folder + "thumb_" + fileName);
+        } else {
+            // Keep our own copy: the picker's URI grant ends with this process
+            File copy = new File(queueDir, UUID.randomUUID().toString() + ".jpg");
+            String hash;
+            try (InputStream in = appContext.getContentResolver().openInputStream(uri);
+                 OutputStream out = new FileOutputStream(copy)) {
+                if (in == null) throw new IOException("Cannot open " + uri);
+                hash = ContentHash.sha256Hex(in, out);
+            }
+            String fileName = hash + ".jpg";
+            job.put("filename", fileName);
+            job.put("mime_type", "image/jpeg");
+            job.put("full_file", copy.getAbsolutePath());
+            job.put("full_path", folder + fileName);
+        }
+        job.put("full_uploaded", false);
+        job.put("thumb_uploaded", !job.has("thumb_file"));
+        return job;
+    }
+
+    private static boolean isUploaded(JSONObject job) {
+        return job.optBoolean("full_uploaded") && job.optBoolean("thumb_uploaded");
+    }
+
+    private void uploadJob(JSONObject job) {
+        SupabaseClient supabase = SupabaseClient.getInstance();
+        try {
+            // The full-size object goes up last, so if it is already stored (same photo added
+            // before, or a lost response) the thumbnail is too and one HEAD settles the job
+            if (supabase.storageObjectExists(job.getString("full_path"))) {
+                Log.d(TAG, "Already stored, skipping upload: " + job.getString("full_path"));
+                markUploaded(job, "thumb_uploaded");
+                markUploaded(job, "full_uploaded");
+                return;
+            }
+            if (!job.optBoolean("thumb_uploaded")) {
+                uploadFile(supabase, job.getString("thumb_file"), job.getString("thumb_path"), job.getString("mime_type"));
+                markUploaded(job, "thumb_uploaded");
+            }
+            uploadFile(supabase, job.getString("full_file"), job.getString("full_path"), job.getString("mime_type"));
+            markUploaded(job, "full_uploaded");
+        } catch (Exception e) {
+            Log.w(TAG, "Upload failed for " + job.optString("full_path") + ": " + e.getMessage());
+            synchronized (this) {
+                countFailure(job);
+                persist();
+            }
+        }
+    }
+
+    private void uploadFile(SupabaseClient supabase, String localPath, String storagePath, String mimeType) throws IOException {
+        File file = new File(localPath);
+        if (!file.exists()) {
+            throw new IOException("Queued file missing: " + localPath);
+        }
+        supabase.putStorageObject(storagePath,
+                new ContentUriRequestBody(appContext.getContentResolver(), Uri.fromFile(file), MediaType.parse(mimeType), null),
+                mimeType);
+    }
+
+    private synchronized void markUploaded(JSONObject job, String flag) throws JSONException {
+        job.put(flag, true);
+        persist();
+    }
+
+    /**
+     * One properties_media POST per listing whose photos are all in storage.
+     */
+    private void recordFinishedListings(List<JSONObject> snapshot) {
+        Map<String, List<JSONObject>> byListing = new LinkedHashMap<>();
+        synchronized (this) {
+            for (JSONObject job : snapshot) {
+                if (!jobs.contains(job)) continue; // dropped above
+                String propertyId = job.optString("property_id");
+                if (!byListing.containsKey(propertyId)) byListing.put(propertyId, new ArrayList<>());
+                byListing.get(propertyId).add(job);
+            }
+            // Only listings with nothing left to upload (including jobs queued meanwhile)
+            for (JSONObject job : jobs) {
+                if (!isUploaded(job)) byListing.remove(job.optString("property_id"));
+            }
+        }
+
+        for (Map.Entry<String, List<JSONObject>> entry : byListing.entrySet()) {
+            try {
+                JSONArray rows = new JSONArray();
+                for (JSONObject job : entry.getValue()) {
+                    JSONObject row = new JSONObject();
+                    row.put("listing_id", entry.getKey());
+                    row.put("url", job.getString("full_path"));
+                    // Bulk inserts need the same keys on every row
+                    row.put("thumbnail_url", job.has("thumb_path") ? job.getString("thumb_path") : JSONObject.NULL);
+                    row.put("filename", job.getString("filename"));
+                    row.put("mime_type", job.getString("mime_type"));
+                    row.put("width", job.has("width") ? job.getInt("width") : JSONObject.NULL);
+                    row.put("height", job.has("height") ? job.getInt("height") : JSONObject.NULL);
+                    row.put("ordering", job.getInt("ordering"));
+                    rows.put(row);
+                }
+                SupabaseClient.getInstance().insertPropertyMediaSync(rows);
+                Log.d(TAG, "Recorded " + rows.length() + " photos for listing " + entry.getKey());
+
+                synchronized (this) {
+                    for (JSONObject job : entry.getValue()) {
+                        remove(job);
+                    }
+                    persist();
+                }
+            } catch (Exception e) {
+                Log.w(TAG, "Media insert failed for listing " + entry.getKey() + ": " + e.getMessage());
+                synchronized (this) {
+                    for (JSONObject job : entry.getValue()) {
+                        countFailure(job);
+                    }
+                    persist();
+                }
+            }
+        }
+    }
+
+    // Caller holds the lock
+    private void countFailure(JSONObject job) {
+        int attempts = job.optInt("attempts") + 1;
+        try {
+            job.put("attempts", attempts);
+        } catch (JSONException ignored) {
+        }
+        if (attempts >= MAX_ATTEMPTS || !new File(job.optString("full_file")).exists()) {
+            Log.e(TAG, "Giving up on " + job.optString("full_path") + " after " + attempts + " attempts");
+            remove(job);
+        }
+    }
+
+    // Caller holds the lock
+    private void remove(JSONObject job) {
+        jobs.remove(job);
+        new File(job.optString("full_file")).delete();
+        if (job.has("thumb_file")) {
+            new File(job.optString("thumb_file")).delete();
+        }
+    }
+
+    // Caller holds the lock
+    private void persist() {
+        prefs.edit().putString(KEY_JOBS, new JSONArray(jobs).toString()).commit();
+    }
+}
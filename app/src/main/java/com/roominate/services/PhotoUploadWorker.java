@@ -0,0 +1,51 @@
+package com.roominate.services;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains {@link PhotoUploadQueue} in the background; WorkManager re-runs it after process
+ * death and retries with exponential backoff until the queue is empty.
+ */
+public class PhotoUploadWorker extends Worker {
+
+    private static final String UNIQUE_WORK_NAME = "listing_photo_uploads";
+    private static final long INITIAL_BACKOFF_SECONDS = 30;
+
+    public PhotoUploadWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        boolean drained = PhotoUploadQueue.getInstance(getApplicationContext()).processPending();
+        return drained ? Result.success() : Result.retry();
+    }
+
+    /**
+     * Make sure a run is pending. Appends to an in-flight run so photos queued while it
+     * uploads are picked up right after it.
+     */
+    static void schedule(Context context) {
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(PhotoUploadWorker.class)
+                .setConstraints(new Constraints.Builder()
+                        .setRequiredNetworkType(NetworkType.CONNECTED)
+                        .build())
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, INITIAL_BACKOFF_SECONDS, TimeUnit.SECONDS)
+                .build();
+        WorkManager.getInstance(context)
+                .enqueueUniqueWork(UNIQUE_WORK_NAME, ExistingWorkPolicy.APPEND_OR_REPLACE, request);
+    }
+}
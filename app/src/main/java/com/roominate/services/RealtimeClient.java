@@ -0,0 +1,467 @@
+package com.roominate.services;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+
+/**
+ * Minimal Supabase Realtime client (Phoenix channel protocol, vsn 1.0.0) for Postgres changes.
+ * All subscriptions share one websocket: each distinct table+filter becomes one channel and
+ * several listeners on the same channel are multiplexed onto it. The socket is opened on the
+ * first subscription, closed after the last one is removed, sends heartbeats, and reconnects
+ * with capped exponential backoff (rejoining every channel) when it drops.
+ *
+ * Uses only OkHttp and org.json so it can be exercised on the JVM against a local websocket
+ * stand-in such as MockWebServer; {@link SupabaseClient#getRealtime()} wires it to the app.
+ */
+public class RealtimeClient {
+
+    public static final long HEARTBEAT_INTERVAL_MS = 25_000;
+    private static final long[] BACKOFF_MS = {1_000, 2_000, 5_000, 10_000, 30_000};
+    private static final int NORMAL_CLOSURE = 1000;
+
+    /** One Postgres change delivered by Realtime */
+    public static class Change {
+        public final String table;
+        public final String eventType; // INSERT, UPDATE, DELETE
+        public final JSONObject newRecord;
+        public final JSONObject oldRecord;
+        public final String commitTimestamp;
+
+        Change(String table, String eventType, JSONObject newRecord, JSONObject oldRecord, String commitTimestamp) {
+            this.table = table;
+            this.eventType = eventType;
+            this.newRecord = newRecord != null ? newRecord : new JSONObject();
+            this.oldRecord = oldRecord != null ? oldRecord : new JSONObject();
+            this.commitTimestamp = commitTimestamp;
+        }
+
+        /** Id of the affected row (from new record, or old record for deletes) */
+        public String getId() {
+            String id = newRecord.optString("id", null);
+            return id != null ? id : oldRecord.optString("id", null);
+        }
+    }
+
+    public interface ChangeListener {
+        void onChange(Change change);
+    }
+
+    public interface ConnectionListener {
+        void onConnected();
+        void onDisconnected(String reason);
+    }
+
+    /** Supplies the current user JWT (may change after a session refresh) */
+    public interface TokenProvider {
+        String getAccessToken();
+    }
+
+    /** Handle returned by {@link #subscribe}; call {@link #unsubscribe()} when the screen stops */
+    public class Subscription {
+        private final Channel channel;
+        private final ChangeListener listener;
+
+        Subscription(Channel channel, ChangeListener listener) {
+            this.channel = channel;
+            this.listener = listener;
+        }
+
+        public void unsubscribe() {
+            removeListener(channel, listener);
+        }
+    }
+
+    private class Channel {
+        final String topic;
+        final String table;
+        final String filter;
+        final CopyOnWriteArrayList<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+        String joinRef;
+        boolean joined;
+
+        Channel(String table, String filter) {
+            this.table = table;
+            this.filter = filter;
+            this.topic = "realtime:public:" + table + (filter != null ? ":" + filter : "");
+        }
+    }
+
+    private final OkHttpClient httpClient;
+    private final String websocketUrl;
+    private final TokenProvider tokenProvider;
+    private final Executor callbackExecutor;
+    private final ScheduledExecutorService scheduler;
+    private final CopyOnWriteArrayList<ConnectionListener> connectionListeners = new CopyOnWriteArrayList<>();
+
+    // Guarded by this
+    private final Map<String, Channel> channels = new HashMap<>();
+    private WebSocket socket;
+    private boolean connected;
+    private int ref = 0;
+    private int reconnectAttempt = 0;
+    private String pendingHeartbeatRef;
+    private ScheduledFuture<?> heartbeatTask;
+    private ScheduledFuture<?> reconnectTask;
+
+    /**
+     * @param httpClient       shared client; a websocket-friendly copy (no read timeout) is derived
+     * @param realtimeUrl      e.g. "wss://xyz.supabase.co/realtime/v1/websocket"
+     * @param apiKey           project anon key (sent as the apikey query parameter)
+     * @param tokenProvider    current user access token for RLS-filtered changes
+     * @param callbackExecutor where listener callbacks run (main thread in the app)
+     */
+    public RealtimeClient(OkHttpClient httpClient, String realtimeUrl, String apiKey,
+                          TokenProvider tokenProvider, Executor callbackExecutor) {
+        this.httpClient = httpClient.newBuilder()
+                .readTimeout(0, TimeUnit.MILLISECONDS)
+                .build();
+        this.websocketUrl = realtimeUrl + "?apikey=" + apiKey + "&vsn=1.0.0";
+        this.tokenProvider = tokenProvider;
+        this.callbackExecutor = callbackExecutor;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "realtime-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Listen to INSERT/UPDATE/DELETE on public.{table}, optionally filtered
+     * (PostgREST-style, e.g. "user_id=eq.<uuid>"). Listeners for the same table+filter share
+     * a channel.
+     */
+    public synchronized Subscription subscribe(String table, String filter, ChangeListener listener) {
+        String key = table + "|" + filter;
+        Channel channel = channels.get(key);
+        if (channel == null) {
+            channel = new Channel(table, filter);
+            channels.put(key, channel);
+            if (connected) {
+                join(channel);
+            }
+        }
+        channel.listeners.add(listener);
+        ensureConnected();
+        return new Subscription(channel, listener);
+    }
+
+    public void addConnectionListener(ConnectionListener listener) {
+        connectionListeners.add(listener);
+    }
+
+    public void removeConnectionListener(ConnectionListener listener) {
+        connectionListeners.remove(listener);
+    }
+
+    public synchronized boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * Push a refreshed JWT to every joined channel so RLS keeps matching after a session refresh.
+     */
+    public synchronized void updateAccessToken() {
+        if (!connected) return;
+        String token = tokenProvider.getAccessToken();
+        if (token == null) return;
+        for (Channel channel : channels.values()) {
+            if (!channel.joined) continue;
+            JSONObject payload = new JSONObject();
+            try {
+                payload.put("access_token", token);
+            } catch (Exception ignored) {
+            }
+            send(channel.topic, "access_token", payload, channel.joinRef);
+        }
+    }
+
+    /**
+     * Drop every subscription and close the socket (e.g. on sign out).
+     */
+    public synchronized void disconnect() {
+        channels.clear();
+        closeSocket("client disconnect");
+    }
+
+    // ============================================================================
+    // CONNECTION
+    // ============================================================================
+
+    private synchronized void ensureConnected() {
+        if (socket != null || reconnectTask != null || channels.isEmpty()) return;
+        Request request = new Request.Builder().url(websocketUrl).build();
+        socket = httpClient.newWebSocket(request, new SocketListener());
+    }
+
+    private synchronized void closeSocket(String reason) {
+        cancelTimers();
+        if (socket != null) {
+            socket.close(NORMAL_CLOSURE, reason);
+            socket = null;
+        }
+        boolean wasConnected = connected;
+        connected = false;
+        reconnectAttempt = 0;
+        for (Channel channel : channels.values()) {
+            channel.joined = false;
+        }
+        if (wasConnected) {
+            notifyDisconnected(reason);
+        }
+    }
+
+    private void cancelTimers() {
+        if (heartbeatTask != null) {
+            heartbeatTask.cancel(false);
+            heartbeatTask = null;
+        }
+        if (reconnectTask != null) {
+            reconnectTask.cancel(false);
+            reconnectTask = null;
+        }
+        pendingHeartbeatRef = null;
+    }
+
+    private synchronized void onSocketOpen(WebSocket webSocket) {
+        if (webSocket != socket) return;
+        connected = true;
+        reconnectAttempt = 0;
+        for (Channel channel : channels.values()) {
+            join(channel);
+        }
+        heartbeatTask = scheduler.scheduleAtFixedRate(this::heartbeat,
+                HEARTBEAT_INTERVAL_MS, HEARTBEAT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        for (ConnectionListener listener : connectionListeners) {
+            callbackExecutor.execute(listener::onConnected);
+        }
+    }
+
+    private synchronized void onSocketLost(WebSocket webSocket, String reason) {
+        if (webSocket != socket) return;
+        socket = null;
+        boolean wasConnected = connected;
+        connected = false;
+        cancelTimers();
+        for (Channel channel : channels.values()) {
+            channel.joined = false;
+        }
+        if (wasConnected) {
+            notifyDisconnected(reason);
+        }
+        scheduleReconnect();
+    }
+
+    private void scheduleReconnect() {
+        if (channels.isEmpty()) return;
+        long delay = BACKOFF_MS[Math.min(reconnectAttempt, BACKOFF_MS.length - 1)];
+        // Up to 20% jitter so many clients don't reconnect in lockstep after an outage
+        delay += (long) (delay * 0.2 * Math.random());
+        reconnectAttempt++;
+        reconnectTask = scheduler.schedule(() -> {
+            synchronized (RealtimeClient.this) {
+                reconnectTask = null;
+                ensureConnected();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void heartbeat() {
+        if (socket == null) return;
+        if (pendingHeartbeatRef != null) {
+            // Previous heartbeat never answered: treat the connection as dead
+            WebSocket dead = socket;
+            dead.cancel();
+            onSocketLost(dead, "heartbeat timeout");
+            return;
+        }
+        pendingHeartbeatRef = send("phoenix", "heartbeat", new JSONObject(), null);
+    }
+
+    private void notifyDisconnected(String reason) {
+        for (ConnectionListener listener : connectionListeners) {
+            callbackExecutor.execute(() -> listener.onDisconnected(reason));
+        }
+    }
+
+    // ============================================================================
+    // CHANNELS
+    // ============================================================================
+
+    private void join(Channel channel) {
+        try {
+            JSONObject change = new JSONObject()
+                    .put("event", "*")
+                    .put("schema", "public")
+                    .put("table", channel.table);
+            if (channel.filter != null) {
+                change.put("filter", channel.filter);
+            }
+            JSONObject config = new JSONObject()
+                    .put("broadcast", new JSONObject().put("self", false))
+                    .put("presence", new JSONObject().put("key", ""))
+                    .put("postgres_changes", new JSONArray().put(change));
+            JSONObject payload = new JSONObject().put("config", config);
+            String token = tokenProvider.getAccessToken();
+            if (token != null) {
+                payload.put("access_token", token);
+            }
+            channel.joinRef = String.valueOf(++ref);
+            sendWithRef(channel.topic, "phx_join", payload, channel.joinRef, channel.joinRef);
+        } catch (Exception ignored) {
+            // JSONObject.put only throws for non-finite numbers
+        }
+    }
+
+    private synchronized void removeListener(Channel channel, ChangeListener listener) {
+        channel.listeners.remove(listener);
+        String key = channel.table + "|" + channel.filter;
+        // The channel may already be gone (disconnect) or replaced by a newer one
+        if (!channel.listeners.isEmpty() || channels.get(key) != channel) return;
+        channels.remove(key);
+        if (channel.joined && connected) {
+            send(channel.topic, "phx_leave", new JSONObject(), channel.joinRef);
+        }
+        if (channels.isEmpty()) {
+            closeSocket("no subscriptions");
+        }
+    }
+
+    private synchronized void onMessage(WebSocket webSocket, String text) {
+        if (webSocket != socket) return;
+        JSONObject message;
+        try {
+            message = new JSONObject(text);
+        } catch (Exception e) {
+            return;
+        }
+        String topic = message.optString("topic");
+        String event = message.optString("event");
+        JSONObject payload = message.optJSONObject("payload");
+        String msgRef = message.isNull("ref") ? null : message.optString("ref", null);
+
+        if ("phoenix".equals(topic)) {
+            if ("phx_reply".equals(event) && msgRef != null && msgRef.equals(pendingHeartbeatRef)) {
+                pendingHeartbeatRef = null;
+            }
+            return;
+        }
+
+        Channel channel = channelForTopic(topic);
+        if (channel == null) return;
+
+        switch (event) {
+            case "phx_reply":
+                if (msgRef != null && msgRef.equals(channel.joinRef) && payload != null) {
+                    channel.joined = "ok".equals(payload.optString("status"));
+                }
+                break;
+            case "phx_error":
+            case "phx_close":
+                channel.joined = false;
+                break;
+            case "postgres_changes":
+                dispatchChange(channel, payload);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void dispatchChange(Channel channel, JSONObject payload) {
+        if (payload == null) return;
+        JSONObject data = payload.optJSONObject("data");
+        if (data == null) return;
+        Change change = new Change(
+                data.optString("table", channel.table),
+                data.optString("type", data.optString("eventType", "")),
+                data.optJSONObject("record") != null ? data.optJSONObject("record") : data.optJSONObject("new"),
+                data.optJSONObject("old_record") != null ? data.optJSONObject("old_record") : data.optJSONObject("old"),
+                data.optString("commit_timestamp", null));
+        for (ChangeListener listener : channel.listeners) {
+            callbackExecutor.execute(() -> listener.onChange(change));
+        }
+    }
+
+    private Channel channelForTopic(String topic) {
+        for (Channel channel : channels.values()) {
+            if (channel.topic.equals(topic)) return channel;
+        }
+        return null;
+    }
+
+    // ============================================================================
+    // WIRE
+    // ============================================================================
+
+    private String send(String topic, String event, JSONObject payload, String joinRef) {
+        String messageRef = String.valueOf(++ref);
+        sendWithRef(topic, event, payload, messageRef, joinRef);
+        return messageRef;
+    }
+
+    private void sendWithRef(String topic, String event, JSONObject payload, String messageRef, String joinRef) {
+        if (socket == null) return;
+        try {
+            JSONObject message = new JSONObject()
+                    .put("topic", topic)
+                    .put("event", event)
+                    .put("payload", payload)
+                    .put("ref", messageRef);
+            if (joinRef != null) {
+                message.put("join_ref", joinRef);
+            }
+            socket.send(message.toString());
+        } catch (Exception ignored) {
+            // JSONObject.put only throws for non-finite numbers
+        }
+    }
+
+    private class SocketListener extends WebSocketListener {
+        @Override
+        public void onOpen(WebSocket webSocket, Response response) {
+            onSocketOpen(webSocket);
+        }
+
+        @Override
+        public void onMessage(WebSocket webSocket, String text) {
+            RealtimeClient.this.onMessage(webSocket, text);
+        }
+
+        @Override
+        public void onClosing(WebSocket webSocket, int code, String reason) {
+            webSocket.close(NORMAL_CLOSURE, null);
+            onSocketLost(webSocket, "closed by server: " + code);
+        }
+
+        @Override
+        public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+            onSocketLost(webSocket, "failure: " + t.getMessage());
+        }
+    }
+
+    /** Visible for tests: channel topics currently subscribed */
+    synchronized List<String> getTopics() {
+        List<String> topics = new ArrayList<>();
+        for (Channel channel : channels.values()) {
+            topics.add(channel.topic);
+        }
+        return topics;
+    }
+}
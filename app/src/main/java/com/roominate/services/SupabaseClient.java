@@ -3,11 +3,15 @@ package com.roominate.services;
 
 import android.util.Log;
 import com.roominate.   BuildConfig;
+import com.roominate.utils.DateTimeHelper;
+import com.roominate.utils.MediaUrlResolver;
 import okhttp3.*;
 import okhttp3.logging.HttpLoggingInterceptor;
 import org.json.JSONObject;
 import org.json.JSONArray;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import android.content.Context;
@@ -27,15 +31,24 @@ public class SupabaseClient {
     private static android.content.Context appContext = null;
     // Guard for concurrent refresh attempts
     private final AtomicBoolean isRefreshing = new AtomicBoolean(false);
+    // Tenant home listings fetched ahead by the splash screen; see prefetchAvailableListings
+    private static final long LISTINGS_PREFETCH_MAX_AGE_MS = 30 * 1000L;
+    private CompletableFuture<String> listingsPrefetch;
+    private long listingsPrefetchStartedAt = 0;
+    // Lazily created; shares the HTTP client's connection pool and dispatcher
+    private RealtimeClient realtime;
     
     private SupabaseClient() {
-        this.client = new OkHttpClient.Builder()
-                .connectTimeout(60, TimeUnit.SECONDS)
+        // A connect that hasn't finished in 15s is better retried than waited on; slow
+        // responses (uploads, big lists) still get 60s
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectTimeout(15, TimeUnit.SECONDS)
                 .readTimeout(60, TimeUnit.SECONDS)
                 .writeTimeout(60, TimeUnit.SECONDS)
                 .addInterceptor(new HttpLoggingInterceptor()
-                        .setLevel(HttpLoggingInterceptor.Level.BODY))
-                .build();
+                        .setLevel(HttpLoggingInterceptor.Level.BODY));
+        // Cached DNS, TLS session reuse and TTFB metrics
+        this.client = ConnectionWarmer.getInstance().configure(builder).build();
     }
     
     public static synchronized SupabaseClient getInstance() {
@@ -46,51 +59,219 @@ public class SupabaseClient {
     }
 
     /**
-     * Initialize SupabaseClient with application context so helper methods can access
-     * stored session tokens in SharedPreferences.
+     * Shared HTTP client (connection pool, dispatcher, DNS cache, timeouts) so other services and
+     * screens don't build their own OkHttpClient per request.
      */
-    public static void init(android.content.Context context) {
-        appContext = context.getApplicationContext();
+    public OkHttpClient getHttpClient() {
+        return client;
     }
 
     /**
-     * Encode each segment of a storage path (slash-separated) for safe URL construction
+     * Open a connection to the Supabase host ahead of the first real request. DNS lookup and
+     * the TCP/TLS handshakes happen now, and the connection stays in the shared pool so the
+     * session refresh and dashboard queries that follow can reuse it.
      */
-    private String encodeStoragePath(String path) {
-        if (path == null) return null;
-        try {
-            String[] parts = path.split("/");
-            StringBuilder sb = new StringBuilder();
-            for (int i = 0; i < parts.length; i++) {
-                if (i > 0) sb.append("/");
-                String encoded = java.net.URLEncoder.encode(parts[i], "UTF-8");
-                // URLEncoder uses + for spaces; convert to %20 for path segments
-                encoded = encoded.replace("+", "%20");
-                sb.append(encoded);
-            }
-            return sb.toString();
-        } catch (Exception e) {
-            Log.e(TAG, "Failed to encode storage path: " + path, e);
-            return path;
+    public void preconnect() {
+        Request request = new Request.Builder()
+                .url(BuildConfig.SUPABASE_URL + "/auth/v1/health")
+                .get()
+                .addHeader("apikey", BuildConfig.SUPABASE_ANON_KEY)
+                .build();
+        client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                Log.w(TAG, "preconnect failed: " + e.getMessage());
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                response.close();
+            }
+        });
+    }
+
+    /**
+     * Start fetching the tenant home listings (the first page a tenant sees) so HomeFragment
+     * can pick the response up instead of issuing its own request. Repeated calls while a
+     * recent prefetch is pending or done return the same future.
+     * @return future completed with the response body
+     */
+    public synchronized CompletableFuture<String> prefetchAvailableListings() {
+        if (listingsPrefetch != null && !listingsPrefetch.isCompletedExceptionally()
+                && android.os.SystemClock.elapsedRealtime() - listingsPrefetchStartedAt < LISTINGS_PREFETCH_MAX_AGE_MS) {
+            return listingsPrefetch;
+        }
+        CompletableFuture<String> future = new CompletableFuture<>();
+        client.newCall(availableListingsRequest()).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                try {
+                    String body = response.body() != null ? response.body().string() : "";
+                    if (response.isSuccessful()) {
+                        future.complete(body);
+                    } else {
+                        future.completeExceptionally(new IOException("Status=" + response.code() + " body=" + body));
+                    }
+                } finally {
+                    response.close();
+                }
+            }
+        });
+        listingsPrefetch = future;
+        listingsPrefetchStartedAt = android.os.SystemClock.elapsedRealtime();
+        return future;
+    }
+
+    /**
+     * Tenant home listings as a JSON array string. Uses a recent prefetch (waiting for it if
+     * still in flight) once, otherwise queries. Blocking - call from a background thread.
+     */
+    public String getAvailableListings() throws IOException {
+        CompletableFuture<String> prefetched;
+        synchronized (this) {
+            prefetched = listingsPrefetch;
+            boolean fresh = android.os.SystemClock.elapsedRealtime() - listingsPrefetchStartedAt < LISTINGS_PREFETCH_MAX_AGE_MS;
+            listingsPrefetch = null;
+            if (!fresh) prefetched = null;
+        }
+        if (prefetched != null) {
+            try {
+                return prefetched.get();
+            } catch (ExecutionException e) {
+                Log.w(TAG, "Listings prefetch failed, querying again: " + e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted waiting for listings", e);
+            }
+        }
+
+        try (Response response = client.newCall(availableListingsRequest()).execute()) {
+            String body = response.body() != null ? response.body().string() : "";
+            if (!response.isSuccessful()) {
+                throw new IOException("Status=" + response.code() + " body=" + body);
+            }
+            return body;
         }
     }
 
+    private Request availableListingsRequest() {
+        // images are fetched separately from properties_media
+        String url = BuildConfig.SUPABASE_URL + "/rest/v1/boarding_houses?available=eq.true&status=eq.active"
+                + "&select=id,owner_id,name,description,address,city,province,price_per_month,security_deposit,total_rooms,available_rooms,room_type,furnished,private_bathroom,electricity_included,water_included,internet_included,contact_person,contact_phone,amenities,status,latitude,longitude,rating_sum,rating_count,created_at,updated_at";
+        Request.Builder rb = new Request.Builder()
+                .url(url)
+                .get();
+        addAuthHeaders(rb);
+        return rb.build();
+    }
+
+    /**
+     * Initialize SupabaseClient with application context so helper methods can access
+     * stored session tokens in SharedPreferences.
+     */
+    public static void init(android.content.Context context) {
+        appContext = context.getApplicationContext();
+    }
+
     /**
-     * Generate a signed URL for a storage path (works with private buckets)
-     * @param storagePath The path in storage (e.g., "properties/user123/image.jpg")
+     * Signed URL for an object in the property-images bucket (works with private buckets).
+     * Cached until shortly before it expires, so repeated calls cost no request.
+     * Blocking on a cache miss - call from a background thread.
+     * @param storagePath The path in storage (e.g., "properties/user123/image.jpg"); a bucket URL also works
      * @param expiresIn Expiration time in seconds (default: 3600 = 1 hour)
+     * @return the signed URL, or the public URL if signing fails
      */
     public String getSignedUrl(String storagePath, int expiresIn) {
+        String path = MediaUrlResolver.storagePathOf(storagePath);
+        if (path == null) return storagePath;
+        String cached = MediaUrlResolver.cachedSignedUrl(path);
+        if (cached != null) return cached;
+
+        long signedAt = System.currentTimeMillis();
         try {
-            // Use Supabase Storage API to create signed URL
-            String signedUrl = BuildConfig.SUPABASE_URL + "/storage/v1/object/sign/property-images/" + encodeStoragePath(storagePath) + "?expiresIn=" + expiresIn;
-            Log.d(TAG, "Generated signed URL request: " + signedUrl);
-            return signedUrl;
+            JSONObject payload = new JSONObject();
+            payload.put("expiresIn", expiresIn);
+            Request.Builder rb = new Request.Builder()
+                .url(BuildConfig.SUPABASE_URL + "/storage/v1/object/sign/" + MediaUrlResolver.BUCKET + "/" + MediaUrlResolver.encodePath(path))
+                .post(RequestBody.create(payload.toString(), MediaType.parse("application/json")));
+            addAuthHeaders(rb);
+
+            try (Response response = client.newCall(rb.build()).execute()) {
+                String body = response.body() != null ? response.body().string() : "";
+                if (!response.isSuccessful()) {
+                    throw new IOException("Sign failed: " + response.code() + " - " + body);
+                }
+                // signedURL is relative to /storage/v1
+                String signedUrl = BuildConfig.SUPABASE_URL + "/storage/v1" + new JSONObject(body).getString("signedURL");
+                MediaUrlResolver.putSignedUrl(path, signedUrl, expiresIn, signedAt);
+                return signedUrl;
+            }
         } catch (Exception e) {
             Log.e(TAG, "Failed to generate signed URL for: " + storagePath, e);
             // Fallback to public URL
-            return BuildConfig.SUPABASE_URL + "/storage/v1/object/public/property-images/" + encodeStoragePath(storagePath);
+            return MediaUrlResolver.publicUrl(path);
+        }
+    }
+
+    /**
+     * Shared Supabase Realtime connection (one websocket for every subscription).
+     * Listener callbacks are delivered on the main thread.
+     */
+    public synchronized RealtimeClient getRealtime() {
+        if (realtime == null) {
+            String wsUrl = BuildConfig.SUPABASE_URL.replaceFirst("^http", "ws") + "/realtime/v1/websocket";
+            android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
+            realtime = new RealtimeClient(client, wsUrl, BuildConfig.SUPABASE_ANON_KEY, () -> {
+                if (appContext == null) return null;
+                return appContext.getSharedPreferences("roominate_prefs", android.content.Context.MODE_PRIVATE)
+                        .getString("access_token", null);
+            }, mainHandler::post);
         }
+        return realtime;
+    }
+
+    /**
+     * Subscribe to INSERT/UPDATE/DELETE on the signed-in user's notifications.
+     * @return subscription to cancel in onStop, or null when no user is signed in
+     */
+    public RealtimeClient.Subscription subscribeToNotifications(RealtimeClient.ChangeListener listener) {
+        String userId = currentUserId();
+        if (userId == null) return null;
+        return getRealtime().subscribe("notifications", "user_id=eq." + userId, listener);
+    }
+
+    /**
+     * Subscribe to changes on bookings where the signed-in user is the tenant.
+     * @return subscription to cancel in onStop, or null when no user is signed in
+     */
+    public RealtimeClient.Subscription subscribeToTenantBookings(RealtimeClient.ChangeListener listener) {
+        String userId = currentUserId();
+        if (userId == null) return null;
+        return getRealtime().subscribe("bookings", "tenant_id=eq." + userId, listener);
+    }
+
+    /**
+     * Subscribe to changes on bookings for the signed-in owner's properties.
+     * Realtime allows one filter per binding, so tenant and owner views use separate channels
+     * multiplexed on the same socket.
+     * @return subscription to cancel in onStop, or null when no user is signed in
+     */
+    public RealtimeClient.Subscription subscribeToOwnerBookings(RealtimeClient.ChangeListener listener) {
+        String userId = currentUserId();
+        if (userId == null) return null;
+        return getRealtime().subscribe("bookings", "owner_id=eq." + userId, listener);
+    }
+
+    private String currentUserId() {
+        if (appContext == null) return null;
+        String userId = appContext.getSharedPreferences("roominate_prefs", android.content.Context.MODE_PRIVATE)
+                .getString("user_id", null);
+        return userId == null || userId.isEmpty() ? null : userId;
     }
 
     /**
@@ -866,11 +1047,32 @@ public class SupabaseClient {
         }
     }
 
+    /** Prefix of refreshSession errors meaning the refresh token itself was refused */
+    private static final String SESSION_REJECTED_PREFIX = "Session rejected: ";
+
+    /**
+     * Whether a refreshSession error means the refresh token is no longer valid (revoked,
+     * expired or already used) and the user has to sign in again. Network errors, 5xx/429
+     * and unparseable responses are not rejections: the session should be kept and retried.
+     */
+    public static boolean isSessionRejected(String error) {
+        return error != null && error.startsWith(SESSION_REJECTED_PREFIX);
+    }
+
+    // GoTrue answers a bad refresh token with 400/401 and error "invalid_grant"; newer
+    // versions send error_code "refresh_token_not_found" / "refresh_token_already_used"
+    private static boolean isRefreshTokenRejection(int status, JSONObject json) {
+        if (status != 400 && status != 401) return false;
+        return "invalid_grant".equals(json.optString("error"))
+                || json.optString("error_code").startsWith("refresh_token_");
+    }
+
     /**
      * Refresh the Supabase access token using a stored refresh_token.
      * Writes new access_token/refresh_token to SharedPreferences on success and calls the callback.
      * This method prevents duplicate parallel refreshes by returning the refreshed tokens to
      * any callers that arrive while a refresh is already in progress.
+     * Use {@link #isSessionRejected} on the error to tell a refused token from a transient failure.
      */
     public void refreshSession(String refreshToken, ApiCallback callback) {
         if (appContext == null) {
@@ -936,30 +1138,49 @@ public class SupabaseClient {
                 @Override
                 public void onResponse(Call call, Response response) throws IOException {
                     String body = response.body() != null ? response.body().string() : "";
+                    if (!response.isSuccessful()) {
+                        isRefreshing.set(false);
+                        // Gateways answer 5xx/429 with HTML, so the body may not be JSON
+                        org.json.JSONObject json = new org.json.JSONObject();
+                        try {
+                            json = new org.json.JSONObject(body);
+                        } catch (org.json.JSONException ignored) {
+                        }
+                        String err = json.optString("error_description", json.optString("msg", json.optString("error", body)));
+                        if (isRefreshTokenRejection(response.code(), json)) {
+                            callback.onError(SESSION_REJECTED_PREFIX + err);
+                        } else {
+                            callback.onError("Failed to refresh session: Status=" + response.code() + " " + err);
+                        }
+                        return;
+                    }
                     try {
                         org.json.JSONObject json = new org.json.JSONObject(body);
-                        if (response.isSuccessful()) {
-                            // Persist new tokens
-                            android.content.SharedPreferences prefs = appContext.getSharedPreferences("roominate_prefs", Context.MODE_PRIVATE);
-                            android.content.SharedPreferences.Editor editor = prefs.edit();
-                            if (json.has("access_token")) editor.putString("access_token", json.optString("access_token"));
-                            if (json.has("refresh_token")) editor.putString("refresh_token", json.optString("refresh_token"));
-                            // If user object present, persist user id
-                            if (json.has("user")) {
-                                org.json.JSONObject user = json.optJSONObject("user");
-                                if (user != null && user.has("id")) {
-                                    editor.putString("user_id", user.optString("id"));
-                                }
+                        // Persist new tokens
+                        android.content.SharedPreferences prefs = appContext.getSharedPreferences("roominate_prefs", Context.MODE_PRIVATE);
+                        android.content.SharedPreferences.Editor editor = prefs.edit();
+                        if (json.has("access_token")) editor.putString("access_token", json.optString("access_token"));
+                        if (json.has("refresh_token")) editor.putString("refresh_token", json.optString("refresh_token"));
+                        // Keep the stored expiry in step so the splash screen doesn't discard the new token
+                        if (json.has("expires_at")) {
+                            editor.putLong("token_expires_at", json.optLong("expires_at"));
+                        } else if (json.has("expires_in")) {
+                            editor.putLong("token_expires_at", System.currentTimeMillis() / 1000 + json.optLong("expires_in"));
+                        }
+                        // If user object present, persist user id
+                        if (json.has("user")) {
+                            org.json.JSONObject user = json.optJSONObject("user");
+                            if (user != null && user.has("id")) {
+                                editor.putString("user_id", user.optString("id"));
                             }
-                            editor.apply();
+                        }
+                        editor.apply();
 
-                            isRefreshing.set(false);
-                            callback.onSuccess(json);
-                        } else {
-                            isRefreshing.set(false);
-                            String err = json.optString("error_description", json.optString("error", body));
-                            callback.onError("Failed to refresh session: " + err);
+                        isRefreshing.set(false);
+                        synchronized (SupabaseClient.this) {
+                            if (realtime != null) realtime.updateAccessToken();
                         }
+                        callback.onSuccess(json);
                     } catch (Exception e) {
                         isRefreshing.set(false);
                         Log.e(TAG, "refreshSession parse error", e);
@@ -1257,7 +1478,7 @@ public class SupabaseClient {
             
             // Fetch all images for these properties
             String url = BuildConfig.SUPABASE_URL + "/rest/v1/properties_media?listing_id=in.(" 
-                + propertyIds.join(",") + ")&select=listing_id,url&order=ordering";
+                + propertyIds.join(",") + ")&select=listing_id,url,thumbnail_url&order=ordering";
             Log.d(TAG, "Fetching images from: " + url);
             
             Request.Builder rb = new Request.Builder().url(url).get().addHeader("Accept", "application/json");
@@ -1277,43 +1498,38 @@ public class SupabaseClient {
                     try {
                         org.json.JSONArray mediaArray = new org.json.JSONArray(body);
                         
-                        // Group images by listing_id
+                        // Group images (full-size) and grid thumbnails by listing_id
                         java.util.Map<String, org.json.JSONArray> imagesByListing = new java.util.HashMap<>();
+                        java.util.Map<String, org.json.JSONArray> thumbnailsByListing = new java.util.HashMap<>();
                         for (int i = 0; i < mediaArray.length(); i++) {
                             org.json.JSONObject media = mediaArray.getJSONObject(i);
                             String listingId = media.optString("listing_id");
-                            String imageUrl = media.optString("url");
-                            
-                            // Convert storage path to full URL if needed
-                            if (imageUrl != null && !imageUrl.isEmpty()) {
-                                if (imageUrl.startsWith("http://") || imageUrl.startsWith("https://")) {
-                                    // Already a full URL - extract the storage path and re-encode it
-                                    String bucketPrefix = "/storage/v1/object/public/property-images/";
-                                    int pathStart = imageUrl.indexOf(bucketPrefix);
-                                    if (pathStart != -1) {
-                                        String storagePath = imageUrl.substring(pathStart + bucketPrefix.length());
-                                        imageUrl = BuildConfig.SUPABASE_URL + bucketPrefix + encodeStoragePath(storagePath);
-                                        Log.d(TAG, "Re-encoded full URL: " + imageUrl);
-                                    }
-                                } else {
-                                    // It's a storage path, convert to public URL and ensure safe encoding
-                                    imageUrl = BuildConfig.SUPABASE_URL + "/storage/v1/object/public/property-images/" + encodeStoragePath(imageUrl);
-                                    Log.d(TAG, "Converted storage path to URL: " + imageUrl);
-                                }
-                            }
-                            
+                            String imageUrl = resolveMediaUrl(media.optString("url"));
+                            // Legacy rows have no thumbnail rendition
+                            String thumbnailUrl = media.isNull("thumbnail_url") ? imageUrl : resolveMediaUrl(media.optString("thumbnail_url"));
+
                             if (!imagesByListing.containsKey(listingId)) {
                                 imagesByListing.put(listingId, new org.json.JSONArray());
+                                thumbnailsByListing.put(listingId, new org.json.JSONArray());
                             }
                             imagesByListing.get(listingId).put(imageUrl);
+                            thumbnailsByListing.get(listingId).put(thumbnailUrl);
                         }
                         
                         // Attach images to properties
                         for (int i = 0; i < properties.length(); i++) {
                             org.json.JSONObject prop = properties.getJSONObject(i);
                             String propId = prop.optString("id");
-                            org.json.JSONArray images = imagesByListing.getOrDefault(propId, new org.json.JSONArray());
+                            org.json.JSONArray images = imagesByListing.get(propId);
+                            org.json.JSONArray thumbnails = thumbnailsByListing.get(propId);
+                            if (images == null) {
+                                // Listings from before properties_media only have the legacy images column
+                                org.json.JSONArray legacy = prop.optJSONArray("images");
+                                images = legacy != null ? legacy : new org.json.JSONArray();
+                                thumbnails = images;
+                            }
                             prop.put("images", images);
+                            prop.put("thumbnails", thumbnails);
                             Log.d(TAG, "Property " + propId + " has " + images.length() + " images");
                         }
                         
@@ -1340,6 +1556,43 @@ public class SupabaseClient {
         fetchImagesForProperties(properties, callback);
     }
 
+    /**
+     * Blocking variant of {@link #fetchImagesForPropertiesStatic} for screens that load on their
+     * own background thread: attaches "images"/"thumbnails" to each property in place. On failure
+     * the properties are left as they are.
+     */
+    public void attachPropertyImages(JSONArray properties) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        fetchImagesForProperties(properties, new ApiCallback() {
+            @Override
+            public void onSuccess(JSONObject response) {
+                done.complete(null);
+            }
+
+            @Override
+            public void onError(String error) {
+                Log.w(TAG, "attachPropertyImages: " + error);
+                done.complete(null);
+            }
+        });
+        try {
+            done.get(60, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            Log.w(TAG, "attachPropertyImages timed out", e);
+        }
+    }
+
+    /**
+     * Turn a properties_media url/thumbnail_url (storage path, or a full URL from older rows)
+     * into a safely encoded public URL.
+     */
+    private String resolveMediaUrl(String imageUrl) {
+        // Storage path or bucket URL -> canonical public URL with an encoded path
+        return MediaUrlResolver.publicUrl(imageUrl);
+    }
+
     /**
      * Legacy: getPropertyById
      */
@@ -1454,7 +1707,7 @@ public class SupabaseClient {
      */
     public String getPropertyThumbnailSync(String propertyId) {
         try {
-            String url = BuildConfig.SUPABASE_URL + "/rest/v1/properties_media?listing_id=eq." + propertyId + "&order=ordering.asc,created_at.asc&select=url&limit=1";
+            String url = BuildConfig.SUPABASE_URL + "/rest/v1/properties_media?listing_id=eq." + propertyId + "&order=ordering.asc,created_at.asc&select=url,thumbnail_url&limit=1";
             Request.Builder rb = new Request.Builder().url(url).get().addHeader("Accept", "application/json");
             addAuthHeaders(rb);
             Request request = rb.build();
@@ -1467,35 +1720,13 @@ public class SupabaseClient {
                 try {
                     org.json.JSONArray arr = new org.json.JSONArray(body);
                     if (arr.length() > 0) {
-                        String imageUrl = arr.getJSONObject(0).optString("url", null);
+                        org.json.JSONObject media = arr.getJSONObject(0);
+                        // Prefer the small grid rendition; legacy rows only have the original
+                        String imageUrl = media.isNull("thumbnail_url") ? media.optString("url", null) : media.optString("thumbnail_url");
                         Log.d(TAG, "getPropertyThumbnailSync found raw URL/path: " + imageUrl);
                         
                         if (imageUrl != null && !imageUrl.isEmpty()) {
-                            // Check if it's already a full URL
-                            if (imageUrl.startsWith("http://") || imageUrl.startsWith("https://")) {
-                                // Extract the storage path from the full URL and re-encode it
-                                try {
-                                    String storagePrefix = "/storage/v1/object/public/property-images/";
-                                    int pathStartIndex = imageUrl.indexOf(storagePrefix);
-                                    if (pathStartIndex != -1) {
-                                        String storagePath = imageUrl.substring(pathStartIndex + storagePrefix.length());
-                                        String publicUrl = BuildConfig.SUPABASE_URL + storagePrefix + encodeStoragePath(storagePath);
-                                        Log.d(TAG, "Re-encoded existing URL. Original: " + imageUrl + ", New: " + publicUrl);
-                                        return publicUrl;
-                                    } else {
-                                        Log.w(TAG, "Unexpected URL format, returning as-is: " + imageUrl);
-                                        return imageUrl;
-                                    }
-                                } catch (Exception e) {
-                                    Log.e(TAG, "Error re-encoding URL: " + imageUrl, e);
-                                    return imageUrl;
-                                }
-                            } else {
-                                // It's a storage path, convert to public URL
-                                String publicUrl = BuildConfig.SUPABASE_URL + "/storage/v1/object/public/property-images/" + encodeStoragePath(imageUrl);
-                                Log.d(TAG, "Converted to public URL: " + publicUrl);
-                                return publicUrl;
-                            }
+                            return resolveMediaUrl(imageUrl);
                         }
                     }
                 } catch (Exception e) {
@@ -1514,125 +1745,17 @@ public class SupabaseClient {
      * Upload a property image to Supabase Storage and insert into properties_media table
      */
     public void uploadPropertyImage(String propertyId, android.net.Uri imageUri, boolean isPrimary, ApiCallback callback) {
+        uploadPropertyImage(propertyId, imageUri, isPrimary, null, callback);
+    }
+
+    /**
+     * Same as above, reporting upload progress from the upload thread.
+     */
+    public void uploadPropertyImage(String propertyId, android.net.Uri imageUri, boolean isPrimary,
+                                    ContentUriRequestBody.ProgressListener progressListener, ApiCallback callback) {
         new Thread(() -> {
             try {
-                if (appContext == null) {
-                    callback.onError("Context not initialized");
-                    return;
-                }
-                
-                android.content.SharedPreferences prefs = appContext.getSharedPreferences("roominate_prefs", android.content.Context.MODE_PRIVATE);
-                String userId = prefs.getString("user_id", null);
-                
-                if (userId == null) {
-                    callback.onError("User not logged in");
-                    return;
-                }
-                
-                // Generate unique filename
-                String fileName = "property_" + java.util.UUID.randomUUID().toString() + ".jpg";
-                String storagePath = "properties/" + userId + "/" + fileName;
-                
-                // Read image data
-                java.io.InputStream inputStream = appContext.getContentResolver().openInputStream(imageUri);
-                if (inputStream == null) {
-                    callback.onError("Failed to read image");
-                    return;
-                }
-                
-                java.io.File tempFile = java.io.File.createTempFile("upload", ".jpg", appContext.getCacheDir());
-                java.io.FileOutputStream outputStream = new java.io.FileOutputStream(tempFile);
-                
-                byte[] buffer = new byte[4096];
-                int bytesRead;
-                while ((bytesRead = inputStream.read(buffer)) != -1) {
-                    outputStream.write(buffer, 0, bytesRead);
-                }
-                
-                inputStream.close();
-                outputStream.close();
-                
-                // Read file into bytes
-                byte[] fileBytes = new byte[(int) tempFile.length()];
-                java.io.FileInputStream fis = new java.io.FileInputStream(tempFile);
-                fis.read(fileBytes);
-                fis.close();
-                
-                // Upload to Supabase Storage
-                RequestBody requestBody = RequestBody.create(fileBytes, MediaType.parse("image/jpeg"));
-                
-                OkHttpClient uploadClient = new OkHttpClient.Builder()
-                    .connectTimeout(60, java.util.concurrent.TimeUnit.SECONDS)
-                    .readTimeout(60, java.util.concurrent.TimeUnit.SECONDS)
-                    .writeTimeout(60, java.util.concurrent.TimeUnit.SECONDS)
-                    .build();
-                
-                String uploadUrl = BuildConfig.SUPABASE_URL + "/storage/v1/object/property-images/" + storagePath;
-                Log.d(TAG, "Uploading image to: " + uploadUrl);
-                
-                Request.Builder reqBuilder = new Request.Builder()
-                    .url(uploadUrl)
-                    .put(requestBody)
-                    .addHeader("Content-Type", "image/jpeg");
-                addAuthHeaders(reqBuilder);
-                
-                Request uploadRequest = reqBuilder.build();
-                Response uploadResponse = uploadClient.newCall(uploadRequest).execute();
-                
-                tempFile.delete();
-                
-                if (!uploadResponse.isSuccessful()) {
-                    String errorBody = uploadResponse.body() != null ? uploadResponse.body().string() : "Unknown error";
-                    Log.e(TAG, "Upload failed: " + uploadResponse.code() + " - " + errorBody);
-                    callback.onError("Upload failed: " + errorBody);
-                    return;
-                }
-                
-                uploadResponse.close();
-                
-                // Store just the storage path in the database, not the full URL
-                // We'll construct the public URL at read time
-                String storagePath_only = storagePath;
-                Log.d(TAG, "Image uploaded successfully to storage path: " + storagePath_only);
-                
-                // Insert into properties_media table
-                org.json.JSONObject mediaRecord = new org.json.JSONObject();
-                mediaRecord.put("listing_id", propertyId);  // Changed from property_id
-                mediaRecord.put("url", storagePath_only);   // Store just the path, not the full URL
-                mediaRecord.put("filename", fileName);
-                mediaRecord.put("mime_type", "image/jpeg");
-                mediaRecord.put("ordering", isPrimary ? 0 : 1);  // Primary images get ordering 0
-                
-                String insertUrl = BuildConfig.SUPABASE_URL + "/rest/v1/properties_media";
-                RequestBody insertBody = RequestBody.create(mediaRecord.toString(), MediaType.parse("application/json"));
-                
-                Request.Builder insertBuilder = new Request.Builder()
-                    .url(insertUrl)
-                    .post(insertBody)
-                    .addHeader("Content-Type", "application/json")
-                    .addHeader("Prefer", "return=representation");
-                addAuthHeaders(insertBuilder);
-                
-                Request insertRequest = insertBuilder.build();
-                Response insertResponse = client.newCall(insertRequest).execute();
-                
-                if (insertResponse.isSuccessful()) {
-                    String body = insertResponse.body() != null ? insertResponse.body().string() : "[]";
-                    org.json.JSONArray arr = new org.json.JSONArray(body);
-                    org.json.JSONObject wrapper = new org.json.JSONObject();
-                    wrapper.put("data", arr);
-                    // Construct full public URL for return (ensure encoded path)
-                    String publicUrl = BuildConfig.SUPABASE_URL + "/storage/v1/object/public/property-images/" + encodeStoragePath(storagePath_only);
-                    wrapper.put("image_url", publicUrl);
-                    callback.onSuccess(wrapper);
-                } else {
-                    String errorBody = insertResponse.body() != null ? insertResponse.body().string() : "Unknown error";
-                    Log.e(TAG, "Failed to insert media record: " + insertResponse.code() + " - " + errorBody);
-                    callback.onError("Failed to save image record: " + errorBody);
-                }
-                
-                insertResponse.close();
-                
+                callback.onSuccess(uploadPropertyImageSync(propertyId, imageUri, isPrimary, progressListener));
             } catch (Exception e) {
                 Log.e(TAG, "Error uploading property image", e);
                 callback.onError("Error: " + e.getMessage());
@@ -1640,6 +1763,168 @@ public class SupabaseClient {
         }).start();
     }
 
+    /**
+     * Blocking upload for callers already on a background thread.
+     * The photo is downscaled and transcoded by {@link com.roominate.utils.ImagePreparer} into a
+     * full-size and a thumbnail WebP; both are streamed to Storage and recorded in one
+     * properties_media row (url / thumbnail_url hold storage paths). Images that can't be
+     * decoded are uploaded as-is without a thumbnail.
+     * @return {"data": [media row], "image_url": public full-size URL}
+     */
+    public org.json.JSONObject uploadPropertyImageSync(String propertyId, android.net.Uri imageUri, boolean isPrimary,
+                                                       ContentUriRequestBody.ProgressListener progressListener) throws Exception {
+        if (appContext == null) {
+            throw new IllegalStateException("Context not initialized");
+        }
+        android.content.SharedPreferences prefs = appContext.getSharedPreferences("roominate_prefs", android.content.Context.MODE_PRIVATE);
+        String userId = prefs.getString("user_id", null);
+        if (userId == null) {
+            throw new IllegalStateException("User not logged in");
+        }
+
+        android.content.ContentResolver resolver = appContext.getContentResolver();
+        String folder = "properties/" + userId + "/";
+
+        com.roominate.utils.ImagePreparer.Prepared prepared = null;
+        try {
+            prepared = com.roominate.utils.ImagePreparer.prepare(resolver, imageUri, appContext.getCacheDir());
+        } catch (IOException | OutOfMemoryError e) {
+            Log.w(TAG, "Could not prepare renditions, uploading original: " + e.getMessage());
+        }
+
+        org.json.JSONObject mediaRecord = new org.json.JSONObject();
+        mediaRecord.put("listing_id", propertyId);
+        mediaRecord.put("ordering", isPrimary ? 0 : 1);  // Primary images get ordering 0
+
+        String storagePath;
+        try {
+            if (prepared != null) {
+                // Content-addressed: the same prepared bytes always get the same key
+                String fileName = com.roominate.utils.ContentHash.sha256Hex(prepared.full.file) + ".webp";
+                storagePath = folder + fileName;
+                String thumbPath = folder + "thumb_" + fileName;
+
+                if (storageObjectExists(storagePath)) {
+                    Log.d(TAG, "Image already stored, skipping upload: " + storagePath);
+                } else {
+                    MediaType webp = MediaType.parse(com.roominate.utils.ImagePreparer.MIME_TYPE);
+
+                    // Progress covers both renditions as one transfer
+                    long thumbLength = prepared.thumbnail.file.length();
+                    long total = thumbLength + prepared.full.file.length();
+                    RequestBody thumbBody = new ContentUriRequestBody(resolver, android.net.Uri.fromFile(prepared.thumbnail.file), webp,
+                            progressListener == null ? null : (written, length) -> progressListener.onProgress(written, total));
+                    RequestBody fullBody = new ContentUriRequestBody(resolver, android.net.Uri.fromFile(prepared.full.file), webp,
+                            progressListener == null ? null : (written, length) -> progressListener.onProgress(thumbLength + written, total));
+
+                    // Full-size last: its existence (checked above) implies the thumbnail is there too
+                    putStorageObject(thumbPath, thumbBody, com.roominate.utils.ImagePreparer.MIME_TYPE);
+                    putStorageObject(storagePath, fullBody, com.roominate.utils.ImagePreparer.MIME_TYPE);
+                }
+
+                mediaRecord.put("url", storagePath);
+                mediaRecord.put("thumbnail_url", thumbPath);
+                mediaRecord.put("filename", fileName);
+                mediaRecord.put("mime_type", com.roominate.utils.ImagePreparer.MIME_TYPE);
+                mediaRecord.put("width", prepared.full.width);
+                mediaRecord.put("height", prepared.full.height);
+            } else {
+                String hash;
+                try (java.io.InputStream in = resolver.openInputStream(imageUri)) {
+                    if (in == null) throw new IOException("Failed to read image");
+                    hash = com.roominate.utils.ContentHash.sha256Hex(in, null);
+                }
+                String fileName = hash + ".jpg";
+                storagePath = folder + fileName;
+                if (storageObjectExists(storagePath)) {
+                    Log.d(TAG, "Image already stored, skipping upload: " + storagePath);
+                } else {
+                    putStorageObject(storagePath, new ContentUriRequestBody(resolver, imageUri,
+                            MediaType.parse("image/jpeg"), progressListener), "image/jpeg");
+                }
+
+                mediaRecord.put("url", storagePath);
+                mediaRecord.put("thumbnail_url", org.json.JSONObject.NULL);
+                mediaRecord.put("filename", fileName);
+                mediaRecord.put("mime_type", "image/jpeg");
+            }
+        } finally {
+            if (prepared != null) prepared.delete();
+        }
+        Log.d(TAG, "Image available at storage path: " + storagePath);
+
+        // Store just the storage paths in the database; public URLs are built at read time
+        org.json.JSONObject wrapper = new org.json.JSONObject();
+        wrapper.put("data", insertPropertyMediaSync(new org.json.JSONArray().put(mediaRecord)));
+        wrapper.put("image_url", MediaUrlResolver.publicUrl(storagePath));
+        return wrapper;
+    }
+
+    /**
+     * Insert properties_media rows in a single POST (PostgREST bulk insert). Rows whose
+     * (listing_id, url) already exist are left alone, so re-adding a photo reuses its row.
+     * @return the newly inserted rows
+     */
+    org.json.JSONArray insertPropertyMediaSync(org.json.JSONArray mediaRecords) throws Exception {
+        String insertUrl = BuildConfig.SUPABASE_URL + "/rest/v1/properties_media?on_conflict=listing_id,url";
+        RequestBody insertBody = RequestBody.create(mediaRecords.toString(), MediaType.parse("application/json"));
+
+        Request.Builder insertBuilder = new Request.Builder()
+            .url(insertUrl)
+            .post(insertBody)
+            .addHeader("Content-Type", "application/json")
+            .addHeader("Prefer", "return=representation,resolution=ignore-duplicates");
+        addAuthHeaders(insertBuilder);
+
+        try (Response insertResponse = client.newCall(insertBuilder.build()).execute()) {
+            String body = insertResponse.body() != null ? insertResponse.body().string() : "[]";
+            if (!insertResponse.isSuccessful()) {
+                Log.e(TAG, "Failed to insert media records: " + insertResponse.code() + " - " + body);
+                throw new IOException("Failed to save image record: " + body);
+            }
+            return new org.json.JSONArray(body);
+        }
+    }
+
+    /**
+     * HEAD an object in the property-images bucket: one tiny request instead of re-sending
+     * an image that is already stored.
+     */
+    boolean storageObjectExists(String storagePath) throws IOException {
+        Request.Builder reqBuilder = new Request.Builder()
+            .url(BuildConfig.SUPABASE_URL + "/storage/v1/object/property-images/" + MediaUrlResolver.encodePath(storagePath))
+            .head();
+        addAuthHeaders(reqBuilder);
+
+        try (Response response = client.newCall(reqBuilder.build()).execute()) {
+            return response.isSuccessful();
+        }
+    }
+
+    /**
+     * PUT one object into the property-images bucket. Upserts, so retrying an upload whose
+     * response was lost doesn't fail on the already-stored object.
+     */
+    void putStorageObject(String storagePath, RequestBody body, String contentType) throws IOException {
+        String uploadUrl = BuildConfig.SUPABASE_URL + "/storage/v1/object/property-images/" + storagePath;
+        Log.d(TAG, "Uploading image to: " + uploadUrl + " (" + body.contentLength() + " bytes)");
+
+        Request.Builder reqBuilder = new Request.Builder()
+            .url(uploadUrl)
+            .put(body)
+            .addHeader("Content-Type", contentType)
+            .addHeader("x-upsert", "true");
+        addAuthHeaders(reqBuilder);
+
+        try (Response response = client.newCall(reqBuilder.build()).execute()) {
+            if (!response.isSuccessful()) {
+                String errorBody = response.body() != null ? response.body().string() : "Unknown error";
+                Log.e(TAG, "Upload failed: " + response.code() + " - " + errorBody);
+                throw new IOException("Upload failed: " + errorBody);
+            }
+        }
+    }
+
     /**
      * Insert property (POST to boarding_houses)
      */
@@ -1897,7 +2182,7 @@ public class SupabaseClient {
 
             org.json.JSONObject payload = new org.json.JSONObject();
             payload.put("status", newStatus);
-            payload.put("updated_at", new java.text.SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", java.util.Locale.getDefault()).format(new java.util.Date()));
+            payload.put("updated_at", DateTimeHelper.nowIsoTimestamp());
 
             String url = BuildConfig.SUPABASE_URL + "/rest/v1/bookings?id=eq." + bookingId;
             RequestBody rbBody = RequestBody.create(payload.toString(), MediaType.parse("application/json; charset=utf-8"));
@@ -1955,8 +2240,9 @@ public class SupabaseClient {
             org.json.JSONObject payload = new org.json.JSONObject();
             payload.put("status", "cancelled");
             payload.put("cancellation_reason", cancellationReason != null ? cancellationReason : "");
-            payload.put("cancellation_date", new java.text.SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", java.util.Locale.getDefault()).format(new java.util.Date()));
-            payload.put("updated_at", new java.text.SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", java.util.Locale.getDefault()).format(new java.util.Date()));
+            String now = DateTimeHelper.nowIsoTimestamp();
+            payload.put("cancellation_date", now);
+            payload.put("updated_at", now);
 
             String url = BuildConfig.SUPABASE_URL + "/rest/v1/bookings?id=eq." + bookingId;
             RequestBody rbBody = RequestBody.create(payload.toString(), MediaType.parse("application/json; charset=utf-8"));
@@ -2215,7 +2501,8 @@ public class SupabaseClient {
             payload.put("rating", rating);
             payload.put("comment", comment != null ? comment : "");
 
-            String url = BuildConfig.SUPABASE_URL + "/rest/v1/reviews";
+            // Same embed as getReviews so the returned row can replace the optimistic one as-is
+            String url = BuildConfig.SUPABASE_URL + "/rest/v1/reviews?select=*,users(id,display_name,avatar_url)";
             Log.d(TAG, "submitReview URL: " + url);
             Log.d(TAG, "submitReview payload: " + payload.toString());
             
@@ -2268,14 +2555,29 @@ public class SupabaseClient {
     }
 
     /**
-     * Get reviews for a property (GET reviews with user details)
+     * Get one page of a property's reviews, newest first (GET reviews with user details).
+     * Pages are keyset-paginated on (created_at, id): pass the created_at and id of the last
+     * review of the previous page, or nulls for the first page. The rating summary comes from
+     * the listing's rating_sum/rating_count, not from these rows.
+     * @param limit Page size
+     * @param callback Returns {"body": [reviews], "has_more": true|false}
      */
-    public void getReviews(String propertyId, ApiCallback callback) {
+    public void getReviews(String propertyId, int limit, String beforeCreatedAt, String beforeId, ApiCallback callback) {
         try {
-            String url = BuildConfig.SUPABASE_URL + "/rest/v1/reviews?listing_id=eq." + propertyId + "&select=*,users(id,display_name,avatar_url)&order=created_at.desc";
+            StringBuilder url = new StringBuilder(BuildConfig.SUPABASE_URL)
+                    .append("/rest/v1/reviews?listing_id=eq.").append(propertyId)
+                    .append("&select=*,users(id,display_name,avatar_url)")
+                    .append("&order=created_at.desc,id.desc")
+                    // One extra row tells whether another page exists
+                    .append("&limit=").append(limit + 1);
+            if (beforeCreatedAt != null && beforeId != null) {
+                String ts = java.net.URLEncoder.encode(beforeCreatedAt, "UTF-8");
+                url.append("&or=(created_at.lt.").append(ts)
+                        .append(",and(created_at.eq.").append(ts).append(",id.lt.").append(beforeId).append("))");
+            }
 
             Request.Builder rb = new Request.Builder()
-                    .url(url)
+                    .url(url.toString())
                     .get()
                     .addHeader("Content-Type", "application/json");
             addAuthHeaders(rb);
@@ -2294,8 +2596,13 @@ public class SupabaseClient {
                     try {
                         if (response.isSuccessful()) {
                             org.json.JSONArray arr = new org.json.JSONArray(body);
+                            org.json.JSONArray page = new org.json.JSONArray();
+                            for (int i = 0; i < Math.min(limit, arr.length()); i++) {
+                                page.put(arr.get(i));
+                            }
                             org.json.JSONObject wrapper = new org.json.JSONObject();
-                            wrapper.put("body", arr);
+                            wrapper.put("body", page);
+                            wrapper.put("has_more", arr.length() > limit);
                             callback.onSuccess(wrapper);
                         } else {
                             callback.onError("Status=" + response.code() + " body=" + body);
@@ -2338,7 +2645,7 @@ public class SupabaseClient {
             }
             
             // Only show available properties and include basic info
-            urlBuilder.append("available=eq.true&select=id,name,description,address,price_per_month,available_rooms,latitude,longitude&order=created_at.desc");
+            urlBuilder.append("available=eq.true&select=id,name,description,address,price_per_month,available_rooms,latitude,longitude,rating_sum,rating_count&order=created_at.desc");
 
             String url = urlBuilder.toString();
             Log.d(TAG, "Search URL: " + url);
@@ -2383,7 +2690,11 @@ public class SupabaseClient {
     }
 
     /**
-     * Get owner dashboard statistics
+     * Get owner dashboard statistics from the owner_dashboard_stats RPC.
+     * The counters are trigger-maintained server side (see add_owner_dashboard_stats.sql), so
+     * this is one small row however many bookings the owner has. The callback fires exactly
+     * once with properties_count, total_bookings, pending/confirmed/completed/cancelled_bookings,
+     * total_revenue, total_rooms, occupied_rooms and occupancy_rate (0..1).
      */
     public void getOwnerStats(ApiCallback callback) {
         try {
@@ -2400,99 +2711,34 @@ public class SupabaseClient {
                 return;
             }
 
-            // Fetch properties count, bookings count, and total revenue
-            String propertiesUrl = BuildConfig.SUPABASE_URL + "/rest/v1/boarding_houses?owner_id=eq." + ownerId + "&select=count";
-            String bookingsUrl = BuildConfig.SUPABASE_URL + "/rest/v1/bookings?owner_id=eq." + ownerId + "&select=status,total_amount";
-
-            org.json.JSONObject stats = new org.json.JSONObject();
-            final AtomicBoolean propertiesDone = new AtomicBoolean(false);
-            final AtomicBoolean bookingsDone = new AtomicBoolean(false);
-
-            // Fetch properties count
-            Request.Builder propertiesRb = new Request.Builder()
-                    .url(propertiesUrl)
-                    .get()
-                    .addHeader("Content-Type", "application/json")
-                    .addHeader("Prefer", "count=exact");
-            addAuthHeaders(propertiesRb);
-
-            client.newCall(propertiesRb.build()).enqueue(new Callback() {
-                @Override
-                public void onFailure(Call call, IOException e) {
-                    Log.e(TAG, "getOwnerStats properties failure", e);
-                    callback.onError("Failed to fetch properties count");
-                }
-
-                @Override
-                public void onResponse(Call call, Response response) throws IOException {
-                    try {
-                        String contentRange = response.header("Content-Range");
-                        int propertiesCount = 0;
-                        if (contentRange != null && contentRange.contains("/")) {
-                            String[] parts = contentRange.split("/");
-                            propertiesCount = Integer.parseInt(parts[1]);
-                        }
-                        stats.put("properties_count", propertiesCount);
-                        propertiesDone.set(true);
+            String url = BuildConfig.SUPABASE_URL + "/rest/v1/rpc/owner_dashboard_stats";
+            RequestBody rbBody = RequestBody.create("{}", MediaType.parse("application/json; charset=utf-8"));
 
-                        if (bookingsDone.get()) {
-                            callback.onSuccess(stats);
-                        }
-                    } catch (Exception e) {
-                        Log.e(TAG, "getOwnerStats properties parse error", e);
-                        callback.onError("Failed to parse properties count");
-                    }
-                }
-            });
-
-            // Fetch bookings data
-            Request.Builder bookingsRb = new Request.Builder()
-                    .url(bookingsUrl)
-                    .get()
+            Request.Builder rb = new Request.Builder()
+                    .url(url)
+                    .post(rbBody)
                     .addHeader("Content-Type", "application/json");
-            addAuthHeaders(bookingsRb);
+            addAuthHeaders(rb);
 
-            client.newCall(bookingsRb.build()).enqueue(new Callback() {
+            client.newCall(rb.build()).enqueue(new Callback() {
                 @Override
                 public void onFailure(Call call, IOException e) {
-                    Log.e(TAG, "getOwnerStats bookings failure", e);
-                    callback.onError("Failed to fetch bookings data");
+                    Log.e(TAG, "getOwnerStats network failure", e);
+                    callback.onError("Network error: " + e.getMessage());
                 }
 
                 @Override
                 public void onResponse(Call call, Response response) throws IOException {
                     String body = response.body() != null ? response.body().string() : "";
                     try {
-                        org.json.JSONArray bookings = new org.json.JSONArray(body);
-                        int totalBookings = bookings.length();
-                        int pendingBookings = 0;
-                        int completedBookings = 0;
-                        double totalRevenue = 0;
-
-                        for (int i = 0; i < bookings.length(); i++) {
-                            org.json.JSONObject booking = bookings.getJSONObject(i);
-                            String status = booking.optString("status", "");
-                            double amount = booking.optDouble("total_amount", 0);
-
-                            if ("pending".equals(status)) pendingBookings++;
-                            if ("completed".equals(status)) {
-                                completedBookings++;
-                                totalRevenue += amount;
-                            }
-                        }
-
-                        stats.put("total_bookings", totalBookings);
-                        stats.put("pending_bookings", pendingBookings);
-                        stats.put("completed_bookings", completedBookings);
-                        stats.put("total_revenue", totalRevenue);
-                        bookingsDone.set(true);
-
-                        if (propertiesDone.get()) {
-                            callback.onSuccess(stats);
+                        if (response.isSuccessful()) {
+                            callback.onSuccess(new JSONObject(body));
+                        } else {
+                            callback.onError("Status=" + response.code() + " body=" + body);
                         }
                     } catch (Exception e) {
-                        Log.e(TAG, "getOwnerStats bookings parse error", e);
-                        callback.onError("Failed to parse bookings data");
+                        Log.e(TAG, "getOwnerStats parse error", e);
+                        callback.onError("Failed to parse owner stats");
                     }
                 }
             });
@@ -2504,19 +2750,81 @@ public class SupabaseClient {
     }
 
     /**
-     * Check if property is in user's favorites
+     * Get the owner's bookings, revenue and occupancy in time buckets from the
+     * owner_booking_timeseries RPC: one row per listing per bucket, oldest first.
+     * @param bucket "day", "week" or "month"
+     * @param rangeStart ISO-8601 start (inclusive)
+     * @param rangeEnd ISO-8601 end (exclusive)
+     * @param listingId limit to one listing, or null for all of the owner's listings
+     * Response: {"body": [{bucket_start, listing_id, bookings, revenue, booked_nights, room_nights, occupancy}]}
      */
-    public void isFavorite(String propertyId, ApiCallback callback) {
+    public void getOwnerTimeSeries(String bucket, String rangeStart, String rangeEnd, String listingId, ApiCallback callback) {
         try {
             if (appContext == null) {
                 callback.onError("Supabase client not initialized");
                 return;
             }
 
-            android.content.SharedPreferences prefs = appContext.getSharedPreferences("roominate_prefs", android.content.Context.MODE_PRIVATE);
-            String userId = prefs.getString("user_id", null);
+            JSONObject params = new JSONObject();
+            params.put("bucket", bucket);
+            params.put("range_start", rangeStart);
+            params.put("range_end", rangeEnd);
+            if (listingId != null) params.put("target_listing", listingId);
 
-            if (userId == null || userId.isEmpty()) {
+            String url = BuildConfig.SUPABASE_URL + "/rest/v1/rpc/owner_booking_timeseries";
+            RequestBody rbBody = RequestBody.create(params.toString(), MediaType.parse("application/json; charset=utf-8"));
+
+            Request.Builder rb = new Request.Builder()
+                    .url(url)
+                    .post(rbBody)
+                    .addHeader("Content-Type", "application/json");
+            addAuthHeaders(rb);
+
+            client.newCall(rb.build()).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    Log.e(TAG, "getOwnerTimeSeries network failure", e);
+                    callback.onError("Network error: " + e.getMessage());
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) throws IOException {
+                    String body = response.body() != null ? response.body().string() : "";
+                    try {
+                        if (response.isSuccessful()) {
+                            JSONObject wrapper = new JSONObject();
+                            wrapper.put("body", new JSONArray(body));
+                            callback.onSuccess(wrapper);
+                        } else {
+                            callback.onError("Status=" + response.code() + " body=" + body);
+                        }
+                    } catch (Exception e) {
+                        Log.e(TAG, "getOwnerTimeSeries parse error", e);
+                        callback.onError("Failed to parse analytics");
+                    }
+                }
+            });
+
+        } catch (Exception e) {
+            Log.e(TAG, "getOwnerTimeSeries exception", e);
+            callback.onError("Failed to fetch analytics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Check if property is in user's favorites
+     */
+    public void isFavorite(String propertyId, ApiCallback callback) {
+        try {
+            if (appContext == null) {
+                callback.onError("Supabase client not initialized");
+                return;
+            }
+
+            android.content.SharedPreferences prefs = appContext.getSharedPreferences("roominate_prefs", android.content.Context.MODE_PRIVATE);
+            String userId = prefs.getString("user_id", null);
+
+            if (userId == null || userId.isEmpty()) {
                 callback.onError("User not signed in");
                 return;
             }
@@ -2677,6 +2985,78 @@ public class SupabaseClient {
         }
     }
 
+    /**
+     * Get one page of the user's notifications, newest first, using keyset pagination on
+     * (created_at, id). Pass null cursor values for the first page; for older pages pass the
+     * raw created_at string and id of the last row already loaded so no precision is lost.
+     */
+    public void getNotificationsPage(String beforeCreatedAt, String beforeId, int limit, ApiCallback callback) {
+        try {
+            if (appContext == null) {
+                callback.onError("Supabase client not initialized");
+                return;
+            }
+
+            android.content.SharedPreferences prefs = appContext.getSharedPreferences("roominate_prefs", android.content.Context.MODE_PRIVATE);
+            String userId = prefs.getString("user_id", null);
+
+            if (userId == null || userId.isEmpty()) {
+                callback.onError("User not signed in");
+                return;
+            }
+
+            StringBuilder url = new StringBuilder(BuildConfig.SUPABASE_URL)
+                    .append("/rest/v1/notifications?user_id=eq.").append(userId)
+                    .append("&select=id,user_id,title,message,type,related_id,is_read,created_at")
+                    .append("&order=created_at.desc,id.desc")
+                    .append("&limit=").append(limit);
+            if (beforeCreatedAt != null && beforeId != null) {
+                // Quote the timestamp and encode '+' offsets so PostgREST sees the exact value
+                String ts = java.net.URLEncoder.encode("\"" + beforeCreatedAt + "\"", "UTF-8");
+                url.append("&or=(created_at.lt.").append(ts)
+                        .append(",and(created_at.eq.").append(ts)
+                        .append(",id.lt.").append(beforeId).append("))");
+            }
+
+            Request.Builder rb = new Request.Builder()
+                    .url(url.toString())
+                    .get()
+                    .addHeader("Content-Type", "application/json");
+            addAuthHeaders(rb);
+
+            Request request = rb.build();
+            client.newCall(request).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    Log.e(TAG, "getNotificationsPage network failure", e);
+                    callback.onError("Network error: " + e.getMessage());
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) throws IOException {
+                    String body = response.body() != null ? response.body().string() : "";
+                    try {
+                        if (response.isSuccessful()) {
+                            JSONArray arr = new JSONArray(body);
+                            JSONObject wrapper = new JSONObject();
+                            wrapper.put("body", arr);
+                            callback.onSuccess(wrapper);
+                        } else {
+                            callback.onError("Status=" + response.code() + " body=" + body);
+                        }
+                    } catch (Exception e) {
+                        Log.e(TAG, "getNotificationsPage parse error", e);
+                        callback.onError("Failed to parse response");
+                    }
+                }
+            });
+
+        } catch (Exception e) {
+            Log.e(TAG, "getNotificationsPage exception", e);
+            callback.onError("Failed to fetch notifications: " + e.getMessage());
+        }
+    }
+
     /**
      * Mark notification as read
      */
@@ -2727,7 +3107,9 @@ public class SupabaseClient {
     }
 
     /**
-     * Get unread notifications count
+     * Get unread notifications count from the trigger-maintained counter
+     * (RPC get_my_unread_count, a primary-key lookup). Result: {"count": n}.
+     * Prefer {@link UnreadCountStore} in UI code, which caches this and notifies observers.
      */
     public void getUnreadNotificationsCount(ApiCallback callback) {
         try {
@@ -2744,13 +3126,13 @@ public class SupabaseClient {
                 return;
             }
 
-            String url = BuildConfig.SUPABASE_URL + "/rest/v1/notifications?user_id=eq." + userId + "&is_read=eq.false&select=count";
+            String url = BuildConfig.SUPABASE_URL + "/rest/v1/rpc/get_my_unread_count";
+            RequestBody rbBody = RequestBody.create("{}", MediaType.parse("application/json; charset=utf-8"));
 
             Request.Builder rb = new Request.Builder()
                     .url(url)
-                    .get()
-                    .addHeader("Content-Type", "application/json")
-                    .addHeader("Prefer", "count=exact");
+                    .post(rbBody)
+                    .addHeader("Content-Type", "application/json");
             addAuthHeaders(rb);
 
             Request request = rb.build();
@@ -2763,16 +3145,16 @@ public class SupabaseClient {
 
                 @Override
                 public void onResponse(Call call, Response response) throws IOException {
+                    String body = response.body() != null ? response.body().string() : "";
                     try {
-                        String contentRange = response.header("Content-Range");
-                        int count = 0;
-                        if (contentRange != null && contentRange.contains("/")) {
-                            String[] parts = contentRange.split("/");
-                            count = Integer.parseInt(parts[1]);
+                        if (response.isSuccessful()) {
+                            String value = body.trim();
+                            JSONObject wrapper = new JSONObject();
+                            wrapper.put("count", value.isEmpty() || value.equals("null") ? 0 : Integer.parseInt(value));
+                            callback.onSuccess(wrapper);
+                        } else {
+                            callback.onError("Status=" + response.code() + " body=" + body);
                         }
-                        JSONObject wrapper = new JSONObject();
-                        wrapper.put("count", count);
-                        callback.onSuccess(wrapper);
                     } catch (Exception e) {
                         Log.e(TAG, "getUnreadNotificationsCount parse error", e);
                         callback.onError("Failed to parse count");
@@ -2831,6 +3213,216 @@ public class SupabaseClient {
         }
     }
 
+    /**
+     * Mark several notifications as read with a single PATCH ...?id=in.(a,b,c)
+     */
+    public void markNotificationsAsRead(java.util.Collection<String> notificationIds, ApiCallback callback) {
+        try {
+            if (notificationIds == null || notificationIds.isEmpty()) {
+                JSONObject wrapper = new JSONObject();
+                wrapper.put("message", "Nothing to update");
+                callback.onSuccess(wrapper);
+                return;
+            }
+
+            JSONObject payload = new JSONObject();
+            payload.put("is_read", true);
+
+            String url = BuildConfig.SUPABASE_URL + "/rest/v1/notifications?id=in.(" + android.text.TextUtils.join(",", notificationIds) + ")";
+            RequestBody rbBody = RequestBody.create(payload.toString(), MediaType.parse("application/json; charset=utf-8"));
+
+            Request.Builder rb = new Request.Builder()
+                    .url(url)
+                    .patch(rbBody)
+                    .addHeader("Content-Type", "application/json");
+            addAuthHeaders(rb);
+
+            Request request = rb.build();
+            client.newCall(request).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    Log.e(TAG, "markNotificationsAsRead network failure", e);
+                    callback.onError("Network error: " + e.getMessage());
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) throws IOException {
+                    String body = response.body() != null ? response.body().string() : "";
+                    try {
+                        if (response.isSuccessful()) {
+                            JSONObject wrapper = new JSONObject();
+                            wrapper.put("message", "Notifications marked as read");
+                            wrapper.put("count", notificationIds.size());
+                            callback.onSuccess(wrapper);
+                        } else {
+                            callback.onError("Status=" + response.code() + " body=" + body);
+                        }
+                    } catch (Exception e) {
+                        Log.e(TAG, "markNotificationsAsRead parse error", e);
+                        callback.onError("Failed to parse response");
+                    }
+                }
+            });
+
+        } catch (Exception e) {
+            Log.e(TAG, "markNotificationsAsRead exception", e);
+            callback.onError("Failed to mark notifications as read: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Delete several notifications with a single DELETE ...?id=in.(a,b,c)
+     */
+    public void deleteNotifications(java.util.Collection<String> notificationIds, ApiCallback callback) {
+        try {
+            if (notificationIds == null || notificationIds.isEmpty()) {
+                JSONObject wrapper = new JSONObject();
+                wrapper.put("message", "Nothing to delete");
+                callback.onSuccess(wrapper);
+                return;
+            }
+
+            String url = BuildConfig.SUPABASE_URL + "/rest/v1/notifications?id=in.(" + android.text.TextUtils.join(",", notificationIds) + ")";
+
+            Request.Builder rb = new Request.Builder()
+                    .url(url)
+                    .delete()
+                    .addHeader("Content-Type", "application/json");
+            addAuthHeaders(rb);
+
+            Request request = rb.build();
+            client.newCall(request).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    Log.e(TAG, "deleteNotifications network failure", e);
+                    callback.onError("Network error: " + e.getMessage());
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) throws IOException {
+                    String body = response.body() != null ? response.body().string() : "";
+                    try {
+                        if (response.isSuccessful()) {
+                            JSONObject wrapper = new JSONObject();
+                            wrapper.put("message", "Notifications deleted");
+                            wrapper.put("count", notificationIds.size());
+                            callback.onSuccess(wrapper);
+                        } else {
+                            callback.onError("Status=" + response.code() + " body=" + body);
+                        }
+                    } catch (Exception e) {
+                        Log.e(TAG, "deleteNotifications parse error", e);
+                        callback.onError("Failed to parse response");
+                    }
+                }
+            });
+
+        } catch (Exception e) {
+            Log.e(TAG, "deleteNotifications exception", e);
+            callback.onError("Failed to delete notifications: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Mark all of the current user's notifications created at or before {@code beforeCreatedAt}
+     * as read (RPC mark_notifications_read_before). Result: {"count": rows updated}
+     */
+    public void markAllNotificationsReadBefore(String beforeCreatedAt, ApiCallback callback) {
+        try {
+            JSONObject payload = new JSONObject();
+            payload.put("before_ts", beforeCreatedAt);
+
+            String url = BuildConfig.SUPABASE_URL + "/rest/v1/rpc/mark_notifications_read_before";
+            RequestBody rbBody = RequestBody.create(payload.toString(), MediaType.parse("application/json; charset=utf-8"));
+
+            Request.Builder rb = new Request.Builder()
+                    .url(url)
+                    .post(rbBody)
+                    .addHeader("Content-Type", "application/json");
+            addAuthHeaders(rb);
+
+            Request request = rb.build();
+            client.newCall(request).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    Log.e(TAG, "markAllNotificationsReadBefore network failure", e);
+                    callback.onError("Network error: " + e.getMessage());
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) throws IOException {
+                    String body = response.body() != null ? response.body().string() : "";
+                    try {
+                        if (response.isSuccessful()) {
+                            JSONObject wrapper = new JSONObject();
+                            wrapper.put("count", body.trim().isEmpty() ? 0 : Integer.parseInt(body.trim()));
+                            callback.onSuccess(wrapper);
+                        } else {
+                            callback.onError("Status=" + response.code() + " body=" + body);
+                        }
+                    } catch (Exception e) {
+                        Log.e(TAG, "markAllNotificationsReadBefore parse error", e);
+                        callback.onError("Failed to parse response");
+                    }
+                }
+            });
+
+        } catch (Exception e) {
+            Log.e(TAG, "markAllNotificationsReadBefore exception", e);
+            callback.onError("Failed to mark notifications as read: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Delete all of the current user's notifications created at or before {@code beforeCreatedAt}
+     * (RPC delete_notifications_before). Result: {"count": rows deleted}
+     */
+    public void deleteNotificationsBefore(String beforeCreatedAt, ApiCallback callback) {
+        try {
+            JSONObject payload = new JSONObject();
+            payload.put("before_ts", beforeCreatedAt);
+
+            String url = BuildConfig.SUPABASE_URL + "/rest/v1/rpc/delete_notifications_before";
+            RequestBody rbBody = RequestBody.create(payload.toString(), MediaType.parse("application/json; charset=utf-8"));
+
+            Request.Builder rb = new Request.Builder()
+                    .url(url)
+                    .post(rbBody)
+                    .addHeader("Content-Type", "application/json");
+            addAuthHeaders(rb);
+
+            Request request = rb.build();
+            client.newCall(request).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    Log.e(TAG, "deleteNotificationsBefore network failure", e);
+                    callback.onError("Network error: " + e.getMessage());
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) throws IOException {
+                    String body = response.body() != null ? response.body().string() : "";
+                    try {
+                        if (response.isSuccessful()) {
+                            JSONObject wrapper = new JSONObject();
+                            wrapper.put("count", body.trim().isEmpty() ? 0 : Integer.parseInt(body.trim()));
+                            callback.onSuccess(wrapper);
+                        } else {
+                            callback.onError("Status=" + response.code() + " body=" + body);
+                        }
+                    } catch (Exception e) {
+                        Log.e(TAG, "deleteNotificationsBefore parse error", e);
+                        callback.onError("Failed to parse response");
+                    }
+                }
+            });
+
+        } catch (Exception e) {
+            Log.e(TAG, "deleteNotificationsBefore exception", e);
+            callback.onError("Failed to delete notifications: " + e.getMessage());
+        }
+    }
+
     /**
      * Sign out the current user. Calls Supabase auth logout endpoint and clears stored session.
      */
@@ -2841,6 +3433,9 @@ public class SupabaseClient {
         }
         android.content.SharedPreferences prefs = appContext.getSharedPreferences("roominate_prefs", android.content.Context.MODE_PRIVATE);
         String accessToken = prefs.getString("access_token", null);
+        synchronized (this) {
+            if (realtime != null) realtime.disconnect();
+        }
         try {
             String url = BuildConfig.SUPABASE_URL + "/auth/v1/logout";
             RequestBody rbBody = RequestBody.create("", MediaType.parse("application/json"));
@@ -2944,173 +3539,104 @@ public class SupabaseClient {
     // ============================================================================
 
     /**
-     * Geocode an address using multiple strategies:
-     * 1. Try the full address with Nominatim
-     * 2. If that fails, try extracting the district/province (works better for plus codes)
-     * 3. If that fails, try just city + country
+     * Geocode an address: the full address first, then just the district/city part if that
+     * has no match. Cached, rate limited and coalesced by {@link GeocodingService}.
      * 
      * @param address The address to geocode (supports plus codes, street addresses, etc.)
      * @param callback Returns {"latitude": 14.123, "longitude": 120.456} on success
      */
     public void geocodeAddress(String address, ApiCallback callback) {
-        try {
-            if (address == null || address.isEmpty()) {
-                callback.onError("Address cannot be empty");
-                return;
+        getGeocoder().geocode(address, new GeocodingService.Callback() {
+            @Override
+            public void onSuccess(JSONObject result) {
+                callback.onSuccess(result);
             }
 
-            Log.d(TAG, "Geocoding address: " + address);
-            geocodeWithNominatim(address, callback);
-
-        } catch (Exception e) {
-            Log.e(TAG, "geocodeAddress exception", e);
-            callback.onError("Geocoding failed: " + e.getMessage());
-        }
+            @Override
+            public void onError(String error) {
+                callback.onError(error);
+            }
+        });
     }
 
+    private GeocodingService geocoder;
+
     /**
-     * Attempt geocoding using Nominatim OSM service
+     * App-wide geocoder: cache persisted in the "geocode_cache" prefs (memory only before
+     * {@link #init}), the bundled gazetteer, and one daemon thread for lookups.
      */
-    private void geocodeWithNominatim(String address, ApiCallback callback) {
-        try {
-            String encodedAddress = java.net.URLEncoder.encode(address, "UTF-8");
-            String url = "https://nominatim.openstreetmap.org/search?q=" + encodedAddress + "&format=json&limit=5&countrycodes=zm";
-
-            Request request = new Request.Builder()
-                    .url(url)
-                    .addHeader("User-Agent", "Roominate-App/1.0")
-                    .get()
-                    .build();
-
-            client.newCall(request).enqueue(new Callback() {
-                @Override
-                public void onFailure(Call call, IOException e) {
-                    Log.e(TAG, "Nominatim network failure", e);
-                    callback.onError("Failed to geocode address: " + e.getMessage());
-                }
-
-                @Override
-                public void onResponse(Call call, Response response) throws IOException {
-                    String body = response.body() != null ? response.body().string() : "";
-                    try {
-                        if (!response.isSuccessful()) {
-                            Log.w(TAG, "Nominatim error: " + response.code());
-                            callback.onError("Geocoding service error: " + response.code());
-                            return;
-                        }
-
-                        org.json.JSONArray results = new org.json.JSONArray(body);
-                        
-                        // If no results from full address, try simplified searches
-                        if (results.length() == 0) {
-                            Log.d(TAG, "No results for full address, trying simplified search");
-                            geocodeSimplified(address, callback);
-                            return;
-                        }
-
-                        org.json.JSONObject location = results.getJSONObject(0);
-                        double latitude = location.getDouble("lat");
-                        double longitude = location.getDouble("lon");
-                        String displayName = location.optString("display_name", "");
-
-                        org.json.JSONObject result = new org.json.JSONObject();
-                        result.put("latitude", latitude);
-                        result.put("longitude", longitude);
-                        result.put("display_name", displayName);
+    private synchronized GeocodingService getGeocoder() {
+        if (geocoder == null) {
+            GeocodingService.Store store;
+            if (appContext != null) {
+                android.content.SharedPreferences prefs = appContext
+                        .getSharedPreferences("geocode_cache", Context.MODE_PRIVATE);
+                store = new GeocodingService.Store() {
+                    @Override
+                    public String load() {
+                        return prefs.getString("entries", null);
+                    }
 
-                        Log.d(TAG, "Geocoded '" + address + "' -> " + latitude + ", " + longitude);
-                        callback.onSuccess(result);
+                    @Override
+                    public void save(String snapshot) {
+                        prefs.edit().putString("entries", snapshot).apply();
+                    }
+                };
+            } else {
+                store = new GeocodingService.Store() {
+                    @Override
+                    public String load() {
+                        return null;
+                    }
 
-                    } catch (Exception e) {
-                        Log.e(TAG, "Nominatim parse error", e);
-                        callback.onError("Failed to parse geocoding response: " + e.getMessage());
+                    @Override
+                    public void save(String snapshot) {
                     }
+                };
+            }
+            Gazetteer gazetteer = null;
+            if (appContext != null) {
+                try {
+                    gazetteer = loadGazetteer(appContext.getAssets());
+                } catch (IOException e) {
+                    Log.e(TAG, "Offline gazetteer unavailable", e);
                 }
-            });
-
-        } catch (Exception e) {
-            Log.e(TAG, "geocodeWithNominatim exception", e);
-            callback.onError("Geocoding failed: " + e.getMessage());
+            }
+            geocoder = new GeocodingService(
+                    new GeocodingService.NominatimEndpoint(client, GeocodingService.NominatimEndpoint.DEFAULT_BASE_URL),
+                    store,
+                    java.util.concurrent.Executors.newSingleThreadExecutor(r -> {
+                        Thread t = new Thread(r, "geocoder");
+                        t.setDaemon(true);
+                        return t;
+                    }),
+                    gazetteer,
+                    GeocodingService.NOMINATIM_REQUESTS_PER_SECOND);
         }
+        return geocoder;
     }
 
     /**
-     * Try simplified geocoding by extracting just district/province
+     * Memory-map the bundled gazetteer (stored uncompressed, see app/build.gradle); falls back
+     * to reading it into memory if the asset is compressed.
      */
-    private void geocodeSimplified(String address, ApiCallback callback) {
+    private static Gazetteer loadGazetteer(android.content.res.AssetManager assets) throws IOException {
         try {
-            // Extract district/province from the address
-            // Format is typically: "address, city, district, Zambia"
-            String[] parts = address.split(",");
-            
-            String simplifiedAddress;
-            if (parts.length >= 3) {
-                // Try: "district, Zambia"
-                simplifiedAddress = parts[parts.length - 2].trim() + ", Zambia";
-            } else if (parts.length == 2) {
-                // Try: "city, Zambia"
-                simplifiedAddress = parts[parts.length - 1].trim() + ", Zambia";
-            } else {
-                simplifiedAddress = address;
+            android.content.res.AssetFileDescriptor afd = assets.openFd(Gazetteer.ASSET_NAME);
+            java.io.FileInputStream in = new java.io.FileInputStream(afd.getFileDescriptor());
+            try {
+                return Gazetteer.map(in.getChannel(), afd.getStartOffset(), afd.getLength());
+            } finally {
+                in.close();
+                afd.close();
+            }
+        } catch (java.io.FileNotFoundException compressed) {
+            java.io.InputStream in = assets.open(Gazetteer.ASSET_NAME);
+            try {
+                return Gazetteer.read(in);
+            } finally {
+                in.close();
             }
-
-            Log.d(TAG, "Trying simplified search: " + simplifiedAddress);
-            String encodedAddress = java.net.URLEncoder.encode(simplifiedAddress, "UTF-8");
-            String url = "https://nominatim.openstreetmap.org/search?q=" + encodedAddress + "&format=json&limit=5&countrycodes=zm";
-
-            Request request = new Request.Builder()
-                    .url(url)
-                    .addHeader("User-Agent", "Roominate-App/1.0")
-                    .get()
-                    .build();
-
-            client.newCall(request).enqueue(new Callback() {
-                @Override
-                public void onFailure(Call call, IOException e) {
-                    Log.e(TAG, "Simplified search network failure", e);
-                    callback.onError("Address not found in Zambia. Try entering just the district name (e.g., 'Ndola, Copperbelt, Zambia')");
-                }
-
-                @Override
-                public void onResponse(Call call, Response response) throws IOException {
-                    String body = response.body() != null ? response.body().string() : "";
-                    try {
-                        if (!response.isSuccessful()) {
-                            Log.w(TAG, "Simplified search error: " + response.code());
-                            callback.onError("Address not found");
-                            return;
-                        }
-
-                        org.json.JSONArray results = new org.json.JSONArray(body);
-                        if (results.length() == 0) {
-                            Log.d(TAG, "No results for simplified search either");
-                            callback.onError("Address '" + address + "' not found. Make sure the city/district name is correct. Examples: 'Ndola, Copperbelt, Zambia' or 'Lusaka, Lusaka, Zambia'");
-                            return;
-                        }
-
-                        org.json.JSONObject location = results.getJSONObject(0);
-                        double latitude = location.getDouble("lat");
-                        double longitude = location.getDouble("lon");
-                        String displayName = location.optString("display_name", "");
-
-                        org.json.JSONObject result = new org.json.JSONObject();
-                        result.put("latitude", latitude);
-                        result.put("longitude", longitude);
-                        result.put("display_name", displayName);
-
-                        Log.d(TAG, "Geocoded simplified '" + simplifiedAddress + "' -> " + latitude + ", " + longitude);
-                        callback.onSuccess(result);
-
-                    } catch (Exception e) {
-                        Log.e(TAG, "Simplified search parse error", e);
-                        callback.onError("Failed to parse geocoding response");
-                    }
-                }
-            });
-
-        } catch (Exception e) {
-            Log.e(TAG, "geocodeSimplified exception", e);
-            callback.onError("Geocoding failed");
         }
     }
 
@@ -3245,7 +3771,7 @@ public class SupabaseClient {
         try {
             // Select only properties that have coordinates and are available
             String url = BuildConfig.SUPABASE_URL + "/rest/v1/boarding_houses?" +
-                    "select=id,name,address,latitude,longitude,price_per_month,available_rooms" +
+                    "select=id,name,address,latitude,longitude,price_per_month,available_rooms,rating_sum,rating_count" +
                     "&latitude=not.is.null" +
                     "&longitude=not.is.null" +
                     "&available=eq.true" +
@@ -0,0 +1,262 @@
+package com.roominate.services;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.roominate.models.Booking;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The signed-in tenant's bookings, fetched once and indexed by status so the My Bookings
+ * filter chips switch from memory instead of refetching.
+ *
+ * Bookings are parsed into {@link Booking} models off the main thread; the snapshot is swapped
+ * and observers are notified on the main thread, where all other state changes happen too. A
+ * refresh only goes to the network when the snapshot is older than {@link #TTL_MS} (or when
+ * forced, e.g. pull-to-refresh), and concurrent refreshes share one request. Status changes
+ * made locally ({@link #updateStatus}) or pushed by Realtime ({@link #applyChange}) move the
+ * booking between the status lists in place.
+ */
+public class TenantBookingCache {
+    private static final String TAG = "TenantBookingCache";
+
+    public static final long TTL_MS = 60 * 1000L;
+    public static final String ALL = "all";
+
+    public interface Observer {
+        /** The lists changed; re-read {@link #get} */
+        void onBookingsChanged();
+        void onBookingsError(String error);
+    }
+
+    private static TenantBookingCache instance;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final CopyOnWriteArrayList<Observer> observers = new CopyOnWriteArrayList<>();
+
+    // Newest first, like getTenantBookings; the per-status lists keep the same order
+    private List<Booking> all = new ArrayList<>();
+    private Map<String, List<Booking>> byStatus = new HashMap<>();
+    private boolean loaded = false;
+    private long fetchedAtMs = 0;
+    private boolean fetching = false;
+    // A forced refresh arrived while fetching; re-fetch when the in-flight request completes
+    private boolean pendingForce = false;
+    // Bumped by invalidate() so a response for the previous user is dropped
+    private int generation = 0;
+
+    private TenantBookingCache() {
+    }
+
+    public static synchronized TenantBookingCache getInstance() {
+        if (instance == null) {
+            instance = new TenantBookingCache();
+        }
+        return instance;
+    }
+
+    public void observe(Observer observer) {
+        if (observer != null && !observers.contains(observer)) observers.add(observer);
+    }
+
+    public void removeObserver(Observer observer) {
+        observers.remove(observer);
+    }
+
+    /** @return true once a snapshot has been fetched (it may be empty) */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Bookings with the given status, or all of them for {@link #ALL}/null. Main thread only.
+     */
+    public List<Booking> get(String status) {
+        if (status == null || ALL.equals(status)) return Collections.unmodifiableList(all);
+        List<Booking> list = byStatus.get(status);
+        return list != null ? Collections.unmodifiableList(list) : Collections.emptyList();
+    }
+
+    /**
+     * Fetch all bookings unless the snapshot is still fresh. Main thread only.
+     * A forced refresh while a fetch is in flight re-fetches once that one completes, since
+     * its answer may predate the change that triggered the force (e.g. a Realtime insert).
+     * @param force ignore the TTL
+     */
+    public void refresh(boolean force) {
+        if (fetching) {
+            if (force) pendingForce = true;
+            return;
+        }
+        boolean fresh = loaded && SystemClock.elapsedRealtime() - fetchedAtMs < TTL_MS;
+        if (fresh && !force) return;
+        fetching = true;
+        final int requestGeneration = generation;
+
+        SupabaseClient.getInstance().getTenantBookings(ALL, new SupabaseClient.ApiCallback() {
+            @Override
+            public void onSuccess(JSONObject response) {
+                // Parse on the network thread; only the swap happens on the main thread
+                JSONArray rows = response.optJSONArray("body");
+                List<Booking> parsed = new ArrayList<>();
+                if (rows != null) {
+                    for (int i = 0; i < rows.length(); i++) {
+                        try {
+                            Booking booking = Booking.fromJson(rows.getJSONObject(i));
+                            if (booking != null) parsed.add(booking);
+                        } catch (Exception e) {
+                            Log.e(TAG, "Error parsing booking object", e);
+                        }
+                    }
+                }
+                Map<String, List<Booking>> index = indexByStatus(parsed);
+                mainHandler.post(() -> {
+                    if (requestGeneration != generation) return;
+                    fetching = false;
+                    if (pendingForce) {
+                        // Possibly stale: drop it and ask again
+                        pendingForce = false;
+                        refresh(true);
+                        return;
+                    }
+                    all = parsed;
+                    byStatus = index;
+                    loaded = true;
+                    fetchedAtMs = SystemClock.elapsedRealtime();
+                    notifyChanged();
+                });
+            }
+
+            @Override
+            public void onError(String error) {
+                mainHandler.post(() -> {
+                    if (requestGeneration != generation) return;
+                    fetching = false;
+                    if (pendingForce) {
+                        pendingForce = false;
+                        refresh(true);
+                        return;
+                    }
+                    Log.e(TAG, "Failed to refresh bookings: " + error);
+                    for (Observer observer : observers) {
+                        observer.onBookingsError(error);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Apply a status change made by this client (e.g. after cancelBooking succeeds).
+     * Main thread only.
+     */
+    public void updateStatus(String bookingId, String newStatus) {
+        Booking booking = find(bookingId);
+        if (booking == null || newStatus == null || newStatus.equals(booking.getStatus())) return;
+        removeFromStatus(booking);
+        booking.setStatus(newStatus);
+        addToStatus(booking);
+        notifyChanged();
+    }
+
+    /**
+     * Apply a Realtime change to the tenant's bookings. Updates are merged in place; a new
+     * booking needs its joined property, so it triggers a forced refresh. Main thread only.
+     */
+    public void applyChange(RealtimeClient.Change change) {
+        if (!loaded) return;
+        Booking booking = find(change.getId());
+        if ("UPDATE".equals(change.eventType) && booking != null) {
+            removeFromStatus(booking);
+            booking.mergeFrom(change.newRecord);
+            addToStatus(booking);
+            notifyChanged();
+        } else if ("DELETE".equals(change.eventType)) {
+            if (booking == null) return;
+            removeFromStatus(booking);
+            all.remove(booking);
+            notifyChanged();
+        } else {
+            refresh(true);
+        }
+    }
+
+    /**
+     * Drop everything, e.g. on sign out. Observers are told so they stop showing the dropped
+     * bookings. Main thread only.
+     */
+    public void invalidate() {
+        generation++;
+        all = new ArrayList<>();
+        byStatus = new HashMap<>();
+        loaded = false;
+        fetching = false;
+        pendingForce = false;
+        fetchedAtMs = 0;
+        notifyChanged();
+    }
+
+    // ============================================================================
+    // INTERNALS
+    // ============================================================================
+
+    private Booking find(String bookingId) {
+        if (bookingId == null) return null;
+        for (Booking booking : all) {
+            if (bookingId.equals(booking.getId())) return booking;
+        }
+        return null;
+    }
+
+    private static Map<String, List<Booking>> indexByStatus(List<Booking> bookings) {
+        Map<String, List<Booking>> index = new HashMap<>();
+        for (Booking booking : bookings) {
+            String status = booking.getStatus() != null ? booking.getStatus() : "";
+            List<Booking> list = index.get(status);
+            if (list == null) {
+                list = new ArrayList<>();
+                index.put(status, list);
+            }
+            list.add(booking);
+        }
+        return index;
+    }
+
+    private void removeFromStatus(Booking booking) {
+        List<Booking> list = byStatus.get(booking.getStatus() != null ? booking.getStatus() : "");
+        if (list != null) list.remove(booking);
+    }
+
+    // Keeps the status list in the same order as the full list
+    private void addToStatus(Booking booking) {
+        String status = booking.getStatus() != null ? booking.getStatus() : "";
+        List<Booking> list = byStatus.get(status);
+        if (list == null) {
+            list = new ArrayList<>();
+            byStatus.put(status, list);
+        }
+        int rank = all.indexOf(booking);
+        int insertAt = 0;
+        while (insertAt < list.size() && all.indexOf(list.get(insertAt)) < rank) {
+            insertAt++;
+        }
+        list.add(insertAt, booking);
+    }
+
+    private void notifyChanged() {
+        for (Observer observer : observers) {
+            observer.onBookingsChanged();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.roominate.services;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import org.json.JSONObject;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Client-side cache for the unread notification badge.
+ * The server keeps the count in notification_counters (trigger-maintained), so a fetch is a
+ * constant-time lookup; this store additionally caches it for {@link #TTL_MS} so dashboards
+ * that refresh often don't hit the network each time, coalesces concurrent refreshes into one
+ * request, and pushes every change to registered observers on the main thread.
+ * Local mutations (mark read, delete) adjust the cached value immediately, and while observed
+ * it listens to Realtime notification changes so pushes from the server update the badge.
+ */
+public class UnreadCountStore {
+    private static final String TAG = "UnreadCountStore";
+
+    public static final long TTL_MS = 30 * 1000L;
+
+    public interface Observer {
+        void onUnreadCountChanged(int count);
+    }
+
+    private static UnreadCountStore instance;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final CopyOnWriteArrayList<Observer> observers = new CopyOnWriteArrayList<>();
+
+    // -1 until the first successful fetch
+    private int count = -1;
+    private long fetchedAtMs = 0;
+    private boolean fetching = false;
+    // A forced refresh arrived while fetching; re-fetch when the in-flight request completes
+    private boolean pendingForce = false;
+    // Live while at least one observer is registered
+    private RealtimeClient.Subscription subscription;
+
+    private UnreadCountStore() {
+    }
+
+    public static synchronized UnreadCountStore getInstance() {
+        if (instance == null) {
+            instance = new UnreadCountStore();
+        }
+        return instance;
+    }
+
+    /**
+     * Register an observer. It immediately receives the cached count (if any) and a refresh
+     * is started when the cached value is missing or older than the TTL.
+     */
+    public void observe(Observer observer) {
+        if (observer == null || observers.contains(observer)) return;
+        observers.add(observer);
+        if (subscription == null) {
+            // Any change to the user's notifications may move the counter; re-reading it is a
+            // primary-key lookup, so just refresh rather than mirroring the trigger logic here
+            subscription = SupabaseClient.getInstance().subscribeToNotifications(change -> refresh(true));
+        }
+        int cached = count;
+        if (cached >= 0) {
+            mainHandler.post(() -> {
+                if (observers.contains(observer)) observer.onUnreadCountChanged(cached);
+            });
+        }
+        refresh(false);
+    }
+
+    public void removeObserver(Observer observer) {
+        observers.remove(observer);
+        if (observers.isEmpty() && subscription != null) {
+            subscription.unsubscribe();
+            subscription = null;
+        }
+    }
+
+    /**
+     * @return last known count, or -1 if it hasn't been fetched yet
+     */
+    public int getCachedCount() {
+        return count;
+    }
+
+    /**
+     * Fetch the count from the server unless the cached value is still fresh.
+     * A forced refresh while a fetch is in flight re-fetches once that one completes, since
+     * its answer may predate the change that triggered the force (e.g. mark all as read).
+     * @param force ignore the TTL
+     */
+    public synchronized void refresh(boolean force) {
+        if (fetching) {
+            if (force) pendingForce = true;
+            return;
+        }
+        boolean fresh = count >= 0 && SystemClock.elapsedRealtime() - fetchedAtMs < TTL_MS;
+        if (fresh && !force) return;
+        fetching = true;
+
+        SupabaseClient.getInstance().getUnreadNotificationsCount(new SupabaseClient.ApiCallback() {
+            @Override
+            public void onSuccess(JSONObject response) {
+                synchronized (UnreadCountStore.this) {
+                    fetching = false;
+                    if (pendingForce) {
+                        // Possibly stale: drop it and ask again
+                        pendingForce = false;
+                        refresh(true);
+                        return;
+                    }
+                    fetchedAtMs = SystemClock.elapsedRealtime();
+                }
+                publish(response.optInt("count", 0));
+            }
+
+            @Override
+            public void onError(String error) {
+                boolean retry;
+                synchronized (UnreadCountStore.this) {
+                    fetching = false;
+                    retry = pendingForce;
+                    pendingForce = false;
+                }
+                Log.e(TAG, "Failed to refresh unread count: " + error);
+                if (retry) refresh(true);
+            }
+        });
+    }
+
+    /**
+     * Apply a local change (e.g. -1 when a notification is marked read) without a round trip.
+     * Ignored until a server value is known.
+     */
+    public void adjust(int delta) {
+        int current;
+        synchronized (this) {
+            if (count < 0 || delta == 0) return;
+            current = Math.max(0, count + delta);
+        }
+        publish(current);
+    }
+
+    /**
+     * Set the count locally (e.g. 0 after "mark all as read").
+     */
+    public void set(int value) {
+        synchronized (this) {
+            fetchedAtMs = SystemClock.elapsedRealtime();
+        }
+        publish(Math.max(0, value));
+    }
+
+    /**
+     * Drop the cached value so the next observe/refresh goes to the server (e.g. on sign out).
+     */
+    public synchronized void invalidate() {
+        count = -1;
+        fetchedAtMs = 0;
+    }
+
+    private void publish(int value) {
+        synchronized (this) {
+            if (value == count) return;
+            count = value;
+        }
+        mainHandler.post(() -> {
+            for (Observer observer : observers) {
+                observer.onUnreadCountChanged(value);
+            }
+        });
+    }
+}
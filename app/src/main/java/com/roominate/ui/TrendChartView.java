@@ -0,0 +1,178 @@
+package com.roominate.ui;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+
+import com.roominate.utils.DateTimeHelper;
+import com.roominate.utils.Lttb;
+
+/**
+ * Minimal line chart for the owner analytics trends.
+ * The series is reduced with {@link Lttb} to about one point per pixel column of the plot
+ * and turned into a Path whenever the data or the size changes, so onDraw only strokes two
+ * prebuilt paths however many buckets the history has.
+ */
+public class TrendChartView extends View {
+
+    public interface ValueFormatter {
+        String format(double value);
+    }
+
+    private final Paint linePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint fillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint axisPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint labelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Path linePath = new Path();
+    private final Path fillPath = new Path();
+
+    private double[] xs = new double[0];
+    private double[] ys = new double[0];
+    private ValueFormatter formatter = value -> String.valueOf(Math.round(value));
+    private String emptyText = "No data yet";
+    private double maxY = 0;
+    private int keptPoints = 0;
+
+    public TrendChartView(Context context) {
+        this(context, null);
+    }
+
+    public TrendChartView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+
+        TypedValue accent = new TypedValue();
+        int color = context.getTheme().resolveAttribute(android.R.attr.colorPrimary, accent, true)
+                ? accent.data : Color.parseColor("#1976D2");
+
+        linePaint.setStyle(Paint.Style.STROKE);
+        linePaint.setStrokeWidth(dp(2));
+        linePaint.setStrokeJoin(Paint.Join.ROUND);
+        linePaint.setColor(color);
+
+        fillPaint.setStyle(Paint.Style.FILL);
+        fillPaint.setColor(color);
+        fillPaint.setAlpha(40);
+
+        axisPaint.setStrokeWidth(dp(1));
+        axisPaint.setColor(Color.parseColor("#DDDDDD"));
+
+        labelPaint.setTextSize(dp(11));
+        labelPaint.setColor(Color.parseColor("#666666"));
+    }
+
+    /**
+     * @param x bucket starts in epoch millis, ascending
+     * @param y values, same length as x
+     */
+    public void setData(double[] x, double[] y, @Nullable ValueFormatter valueFormatter) {
+        xs = x != null ? x : new double[0];
+        ys = y != null ? y : new double[0];
+        if (valueFormatter != null) formatter = valueFormatter;
+        rebuildPaths();
+        invalidate();
+    }
+
+    public void setEmptyText(String text) {
+        emptyText = text;
+        invalidate();
+    }
+
+    /** @return how many points the current path was built from (after downsampling) */
+    public int getKeptPointCount() {
+        return keptPoints;
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        rebuildPaths();
+    }
+
+    private float plotLeft() {
+        return getPaddingLeft();
+    }
+
+    private float plotRight() {
+        return getWidth() - getPaddingRight();
+    }
+
+    private float plotTop() {
+        return getPaddingTop() + labelPaint.getTextSize() + dp(4);
+    }
+
+    private float plotBottom() {
+        return getHeight() - getPaddingBottom() - labelPaint.getTextSize() - dp(6);
+    }
+
+    private void rebuildPaths() {
+        linePath.reset();
+        fillPath.reset();
+        keptPoints = 0;
+        int n = Math.min(xs.length, ys.length);
+        float width = plotRight() - plotLeft();
+        float height = plotBottom() - plotTop();
+        if (n == 0 || width <= 0 || height <= 0) return;
+
+        maxY = 0;
+        for (int i = 0; i < n; i++) maxY = Math.max(maxY, ys[i]);
+        double top = maxY > 0 ? maxY : 1;
+        double minX = xs[0];
+        double spanX = Math.max(xs[n - 1] - minX, 1);
+
+        int[] kept = Lttb.downsample(xs, ys, Math.max(3, (int) width));
+        keptPoints = kept.length;
+        for (int k = 0; k < kept.length; k++) {
+            int i = kept[k];
+            float px = n == 1 ? plotLeft() + width / 2 : plotLeft() + (float) ((xs[i] - minX) / spanX) * width;
+            float py = plotBottom() - (float) (Math.max(ys[i], 0) / top) * height;
+            if (k == 0) {
+                linePath.moveTo(px, py);
+                fillPath.moveTo(px, plotBottom());
+            } else {
+                linePath.lineTo(px, py);
+            }
+            fillPath.lineTo(px, py);
+            if (k == kept.length - 1) {
+                fillPath.lineTo(px, plotBottom());
+                fillPath.close();
+            }
+        }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        canvas.drawLine(plotLeft(), plotBottom(), plotRight(), plotBottom(), axisPaint);
+
+        if (keptPoints == 0) {
+            float textWidth = labelPaint.measureText(emptyText);
+            canvas.drawText(emptyText, (getWidth() - textWidth) / 2, (plotTop() + plotBottom()) / 2, labelPaint);
+            return;
+        }
+
+        canvas.drawPath(fillPath, fillPaint);
+        canvas.drawPath(linePath, linePaint);
+
+        // Peak value above the plot, first and last bucket under it
+        canvas.drawText(formatter.format(maxY), plotLeft(), plotTop() - dp(4), labelPaint);
+        float labelY = getHeight() - getPaddingBottom() - dp(2);
+        int n = Math.min(xs.length, ys.length);
+        String first = DateTimeHelper.formatDisplayDate((long) xs[0]);
+        canvas.drawText(first, plotLeft(), labelY, labelPaint);
+        if (n > 1) {
+            String last = DateTimeHelper.formatDisplayDate((long) xs[n - 1]);
+            canvas.drawText(last, plotRight() - labelPaint.measureText(last), labelY, labelPaint);
+        }
+    }
+
+    private float dp(float value) {
+        return TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, value, getResources().getDisplayMetrics());
+    }
+}
@@ -20,13 +20,13 @@ import com.google.android.material.button.MaterialButton;
 import com.roominate.R;
 import com.roominate.adapters.BookingAdapter;
 import com.roominate.models.Booking;
+import com.roominate.services.RealtimeClient;
 import com.roominate.services.SupabaseClient;
-import org.json.JSONArray;
-import org.json.JSONException;
+import com.roominate.services.TenantBookingCache;
+import com.roominate.utils.DateTimeHelper;
+import com.roominate.utils.ImageLoader;
 import org.json.JSONObject;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 
@@ -46,6 +46,25 @@ public class MyBookingsFragment extends Fragment {
     private MaterialButton pendingButton;
     private String currentFilter = "all";
     private SupabaseClient supabaseClient;
+    private RealtimeClient.Subscription bookingSubscription;
+    private final TenantBookingCache bookingCache = TenantBookingCache.getInstance();
+    private final TenantBookingCache.Observer cacheObserver = new TenantBookingCache.Observer() {
+        @Override
+        public void onBookingsChanged() {
+            if (!isAdded() || bookingAdapter == null) return;
+            swipeRefreshLayout.setRefreshing(false);
+            showCurrentFilter();
+        }
+
+        @Override
+        public void onBookingsError(String error) {
+            if (!isAdded() || bookingAdapter == null) return;
+            swipeRefreshLayout.setRefreshing(false);
+            Log.e(TAG, "Error loading bookings: " + error);
+            Toast.makeText(getContext(), "Failed to load bookings: " + error, Toast.LENGTH_SHORT).show();
+            updateEmptyState();
+        }
+    };
 
     @Nullable
     @Override
@@ -60,7 +79,15 @@ public class MyBookingsFragment extends Fragment {
         initializeViews(view);
         setupRecyclerView();
         setupFilterButtons();
-        loadBookings("all");
+        bookingCache.observe(cacheObserver);
+        showCurrentFilter();
+        loadBookings(false);
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        bookingCache.removeObserver(cacheObserver);
     }
 
     private void initializeViews(View view) {
@@ -77,7 +104,7 @@ public class MyBookingsFragment extends Fragment {
         // Setup SwipeRefreshLayout
         swipeRefreshLayout.setColorSchemeResources(R.color.primary_blue);
         swipeRefreshLayout.setOnRefreshListener(() -> {
-            loadBookings(currentFilter);
+            loadBookings(true);
         });
     }
 
@@ -110,19 +137,22 @@ public class MyBookingsFragment extends Fragment {
         allButton.setOnClickListener(v -> {
             currentFilter = "all";
             updateFilterButtonStyles();
-            loadBookings("all");
+            showCurrentFilter();
+            loadBookings(false);
         });
         
         confirmedButton.setOnClickListener(v -> {
             currentFilter = "confirmed";
             updateFilterButtonStyles();
-            loadBookings("confirmed");
+            showCurrentFilter();
+            loadBookings(false);
         });
         
         pendingButton.setOnClickListener(v -> {
             currentFilter = "pending";
             updateFilterButtonStyles();
-            loadBookings("pending");
+            showCurrentFilter();
+            loadBookings(false);
         });
         
         updateFilterButtonStyles();
@@ -153,133 +183,50 @@ public class MyBookingsFragment extends Fragment {
         }
     }
 
-    private void loadBookings(String status) {
-        if (supabaseClient == null) {
-            supabaseClient = SupabaseClient.getInstance();
+    /**
+     * Refresh the booking cache in the background; chip switches are served from it
+     * immediately and only go to the network once it is stale.
+     * @param force ignore the cache's freshness (pull-to-refresh)
+     */
+    private void loadBookings(boolean force) {
+        // Only show the spinner when there's nothing to show yet or the user asked for it
+        if (!bookingCache.isLoaded() || force) {
+            if (swipeRefreshLayout != null && !swipeRefreshLayout.isRefreshing()) {
+                swipeRefreshLayout.setRefreshing(true);
+            }
         }
-        
-        // Show loading indicator
-        if (swipeRefreshLayout != null && !swipeRefreshLayout.isRefreshing()) {
-            swipeRefreshLayout.setRefreshing(true);
+        bookingCache.refresh(force);
+    }
+
+    private void showCurrentFilter() {
+        bookingsList = new ArrayList<>(bookingCache.get(currentFilter));
+        bookingAdapter.setBookings(bookingsList);
+        if (bookingCache.isLoaded()) {
+            updateEmptyState();
         }
-        
-        supabaseClient.getTenantBookings(status, new SupabaseClient.ApiCallback() {
-            @Override
-            public void onSuccess(JSONObject response) {
-                if (getActivity() == null) return; // Fragment may be detached
-                
-                getActivity().runOnUiThread(() -> {
-                    // Hide loading indicator
-                    if (swipeRefreshLayout != null) {
-                        swipeRefreshLayout.setRefreshing(false);
-                    }
-                    
-                    try {
-                        JSONArray bookingsArray = response.optJSONArray("body");
-                        if (bookingsArray == null) {
-                            bookingsArray = new JSONArray();
-                        }
-                        
-                        bookingsList.clear();
-                        
-                        for (int i = 0; i < bookingsArray.length(); i++) {
-                            JSONObject bookingObj = bookingsArray.getJSONObject(i);
-                            Booking booking = parseBooking(bookingObj);
-                            if (booking != null) {
-                                bookingsList.add(booking);
-                            }
-                        }
-                        
-                        bookingAdapter.setBookings(bookingsList);
-                        updateEmptyState();
-                        
-                        Log.d(TAG, "Loaded " + bookingsList.size() + " bookings");
-                        
-                    } catch (JSONException e) {
-                        Log.e(TAG, "Error parsing bookings", e);
-                        Toast.makeText(getContext(), "Error loading bookings: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                    }
-                });
-            }
+    }
 
-            @Override
-            public void onError(String error) {
-                if (getActivity() == null) return;
-                
-                getActivity().runOnUiThread(() -> {
-                    // Hide loading indicator
-                    if (swipeRefreshLayout != null) {
-                        swipeRefreshLayout.setRefreshing(false);
-                    }
-                    
-                    Log.e(TAG, "Error loading bookings: " + error);
-                    Toast.makeText(getContext(), "Failed to load bookings: " + error, Toast.LENGTH_SHORT).show();
-                    updateEmptyState();
-                });
-            }
-        });
+    @Override
+    public void onStart() {
+        super.onStart();
+        // Live status/payment updates while visible (e.g. owner confirms, payment webhook lands)
+        bookingSubscription = SupabaseClient.getInstance().subscribeToTenantBookings(this::onBookingChanged);
     }
 
-    private Booking parseBooking(JSONObject bookingObj) {
-        try {
-            Booking booking = new Booking();
-            booking.setId(bookingObj.optString("id"));
-            booking.setTenantId(bookingObj.optString("tenant_id"));
-            booking.setBoardingHouseId(bookingObj.optString("boarding_house_id"));
-            booking.setStatus(bookingObj.optString("status", "pending"));
-            booking.setTotalAmount(bookingObj.optDouble("total_amount", 0.0));
-            
-            // Parse dates from ISO format strings
-            SimpleDateFormat isoFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
-            
-            // Parse dates from database column names: start_date, end_date
-            // DB returns dates in format: "2025-11-06" (date only, no time)
-            SimpleDateFormat dateOnlyFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
-            
-            String startDateStr = bookingObj.optString("start_date", "");
-            if (!startDateStr.isEmpty()) {
-                try {
-                    Date startDate = dateOnlyFormat.parse(startDateStr);
-                    booking.setMoveInDate(startDate);
-                } catch (Exception e) {
-                    Log.w(TAG, "Could not parse start_date: " + startDateStr, e);
-                }
-            }
-            
-            String endDateStr = bookingObj.optString("end_date", "");
-            if (!endDateStr.isEmpty()) {
-                try {
-                    Date endDate = dateOnlyFormat.parse(endDateStr);
-                    booking.setMoveOutDate(endDate);
-                } catch (Exception e) {
-                    Log.w(TAG, "Could not parse end_date: " + endDateStr, e);
-                }
-            }
-            
-            String createdAtStr = bookingObj.optString("created_at", "");
-            if (!createdAtStr.isEmpty()) {
-                try {
-                    Date createdAt = isoFormat.parse(createdAtStr);
-                    booking.setCreatedAt(createdAt);
-                } catch (Exception e) {
-                    Log.w(TAG, "Could not parse created_at: " + createdAtStr);
-                }
-            }
-            
-            // Get property details from nested boarding_houses object
-            JSONObject propertyObj = bookingObj.optJSONObject("boarding_houses");
-            if (propertyObj != null) {
-                booking.setPropertyName(propertyObj.optString("title", propertyObj.optString("name", "Unknown Property")));
-                booking.setPropertyAddress(propertyObj.optString("address", ""));
-            }
-            
-            return booking;
-        } catch (Exception e) {
-            Log.e(TAG, "Error parsing booking object", e);
-            return null;
+    @Override
+    public void onStop() {
+        super.onStop();
+        if (bookingSubscription != null) {
+            bookingSubscription.unsubscribe();
+            bookingSubscription = null;
         }
     }
 
+    private void onBookingChanged(RealtimeClient.Change change) {
+        // Updates the cached lists in place; the observer re-renders the current chip
+        bookingCache.applyChange(change);
+    }
+
     private void updateEmptyState() {
         if (bookingsList.isEmpty()) {
             bookingsRecyclerView.setVisibility(View.GONE);
@@ -324,8 +271,6 @@ public class MyBookingsFragment extends Fragment {
         TextView contactPhone = dialogView.findViewById(R.id.receiptContactPhone);
         
         // Set data
-        SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
-        
         bookingIdText.setText("Booking ID: #" + booking.getId().substring(0, 8));
         propertyName.setText(booking.getPropertyName());
         propertyAddress.setText(booking.getPropertyAddress());
@@ -340,14 +285,14 @@ public class MyBookingsFragment extends Fragment {
         }
         
         // Dates
-        if (booking.getMoveInDate() != null) {
-            moveInDate.setText(dateFormat.format(booking.getMoveInDate()));
+        if (booking.getMoveInDate() != 0) {
+            moveInDate.setText(DateTimeHelper.formatDisplayDate(booking.getMoveInDate()));
         }
-        if (booking.getMoveOutDate() != null) {
-            moveOutDate.setText(dateFormat.format(booking.getMoveOutDate()));
+        if (booking.getMoveOutDate() != 0) {
+            moveOutDate.setText(DateTimeHelper.formatDisplayDate(booking.getMoveOutDate()));
         }
-        if (booking.getCreatedAt() != null) {
-            bookingDate.setText(dateFormat.format(booking.getCreatedAt()));
+        if (booking.getCreatedAt() != 0) {
+            bookingDate.setText(DateTimeHelper.formatDisplayDate(booking.getCreatedAt()));
         }
         
         // Get duration from booking model
@@ -365,8 +310,7 @@ public class MyBookingsFragment extends Fragment {
         
         // Load property image if available
         if (booking.getPropertyImageUrl() != null && !booking.getPropertyImageUrl().isEmpty()) {
-            com.squareup.picasso.Picasso.get()
-                .load(booking.getPropertyImageUrl())
+            ImageLoader.loadThumbnail(booking.getPropertyImageUrl(), propertyImage)
                 .placeholder(R.drawable.ic_house_placeholder)
                 .error(R.drawable.ic_house_placeholder)
                 .fit()
@@ -381,7 +325,6 @@ public class MyBookingsFragment extends Fragment {
     }
 
     private void cancelBooking(Booking booking) {
-        // TODO: Implement API call to cancel booking
         String bookingId = booking.getId();
         
         supabaseClient.updateBookingStatus(bookingId, "cancelled", new SupabaseClient.ApiCallback() {
@@ -390,7 +333,7 @@ public class MyBookingsFragment extends Fragment {
                 if (getActivity() != null) {
                     getActivity().runOnUiThread(() -> {
                         Toast.makeText(getContext(), "Booking cancelled successfully", Toast.LENGTH_SHORT).show();
-                        loadBookings(currentFilter); // Reload bookings
+                        bookingCache.updateStatus(bookingId, "cancelled");
                     });
                 }
             }
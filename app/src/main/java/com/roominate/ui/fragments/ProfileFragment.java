@@ -21,11 +21,9 @@ import com.roominate.R;
 import com.roominate.activities.auth.LoginActivity;
 import com.roominate.activities.tenant.EditProfileActivity;
 import com.roominate.services.SupabaseClient;
+import com.roominate.utils.DateTimeHelper;
 import com.squareup.picasso.Picasso;
 import org.json.JSONObject;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
 
 import static android.content.Context.MODE_PRIVATE;
 
@@ -155,15 +153,11 @@ public class ProfileFragment extends Fragment {
                 // Get created_at for member since
                 String createdAt = userData.optString("created_at", "");
                 if (!createdAt.isEmpty()) {
-                    try {
-                        SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
-                        SimpleDateFormat outputFormat = new SimpleDateFormat("MMMM yyyy", Locale.US);
-                        Date date = inputFormat.parse(createdAt);
-                        if (date != null) {
-                            memberSinceTextView.setText(outputFormat.format(date));
-                        }
-                    } catch (Exception e) {
-                        Log.e(TAG, "Error parsing date", e);
+                    long createdAtMillis = DateTimeHelper.parseTimestamp(createdAt);
+                    if (createdAtMillis != 0) {
+                        memberSinceTextView.setText(DateTimeHelper.formatMonthYear(createdAtMillis));
+                    } else {
+                        Log.e(TAG, "Error parsing date: " + createdAt);
                     }
                 }
                 
@@ -31,6 +31,7 @@ import com.roominate.adapters.PropertyAdapter;
 import com.roominate.models.Property;
 import com.roominate.services.SupabaseClient;
 import com.roominate.activities.tenant.BoardingHouseDetailsActivity;
+import com.roominate.utils.ImagePrefetcher;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -66,6 +67,7 @@ public class SearchFragment extends Fragment {
     private List<Property> allProperties = new ArrayList<>();
     private List<Property> filteredProperties = new ArrayList<>();
     private PropertyAdapter adapter;
+    private ImagePrefetcher imagePrefetcher;
 
     // Filter state
     private Double minPrice = null;
@@ -126,6 +128,8 @@ public class SearchFragment extends Fragment {
         
         resultsRecyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
         resultsRecyclerView.setAdapter(adapter);
+        imagePrefetcher = new ImagePrefetcher(adapter, R.id.property_thumbnail, 2);
+        imagePrefetcher.attach(resultsRecyclerView);
     }
 
     private void setupListeners() {
@@ -337,6 +341,7 @@ public class SearchFragment extends Fragment {
             property.setName(json.optString("name"));
             property.setAddress(json.optString("address"));
             property.setMonthlyRate(json.optDouble("price_per_month", 0.0));
+            property.setRating(json.optInt("rating_sum", 0), json.optInt("rating_count", 0));
             
             // Add coordinates
             property.setLatitude(json.optDouble("latitude", 0.0));
@@ -568,6 +573,9 @@ public class SearchFragment extends Fragment {
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        if (imagePrefetcher != null) {
+            imagePrefetcher.detach();
+        }
         if (mapView != null) {
             mapView.onDetach();
         }
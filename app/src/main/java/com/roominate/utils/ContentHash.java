@@ -0,0 +1,59 @@
+package com.roominate.utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Streaming SHA-256 for content-addressed uploads: the same image bytes always map to the
+ * same storage key, so re-adding a photo or retrying an upload never stores a second blob.
+ */
+public final class ContentHash {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private ContentHash() {
+    }
+
+    public static String sha256Hex(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return sha256Hex(in, null);
+        }
+    }
+
+    /**
+     * Hash a stream in fixed-size chunks, optionally copying it to {@code copyTo} in the same
+     * pass. Neither stream is closed.
+     */
+    public static String sha256Hex(InputStream in, OutputStream copyTo) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+            if (copyTo != null) {
+                copyTo.write(buffer, 0, read);
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0x0f];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0x0f];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,245 @@
+package com.roominate.utils;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared, thread-safe date/time helper.
+ * Parses PostgREST `timestamptz` / `date` strings into epoch millis once (on model decode)
+ * and formats them back with cached, locale-aware formatters. Models keep the parsed value
+ * as a primitive long where 0 means "not set".
+ */
+public final class DateTimeHelper {
+
+    public static final String PATTERN_DISPLAY_DATE = "MMM dd, yyyy";
+    public static final String PATTERN_MONTH_YEAR = "MMMM yyyy";
+    public static final String PATTERN_ISO_DATE = "yyyy-MM-dd";
+    public static final String PATTERN_ISO_TIMESTAMP_UTC = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
+
+    private static final long MINUTE_MS = 60 * 1000L;
+    private static final long HOUR_MS = 60 * MINUTE_MS;
+    private static final long DAY_MS = 24 * HOUR_MS;
+
+    // SimpleDateFormat is not thread-safe: cache one instance per thread per pattern+locale+zone
+    private static final ConcurrentHashMap<String, ThreadLocal<SimpleDateFormat>> FORMATTERS = new ConcurrentHashMap<>();
+
+    private DateTimeHelper() {
+    }
+
+    // ============================================================================
+    // PARSING
+    // ============================================================================
+
+    /**
+     * Parse a PostgREST timestamp (e.g. "2025-11-06T12:34:56.123456+00:00", "2025-11-06 12:34:56Z")
+     * into epoch millis. Offsets are honoured; a missing offset is treated as UTC because every
+     * timestamp column in the schema is `timestamptz`. A bare date is parsed as local midnight.
+     * @return epoch millis, or 0 when the value is null, empty or malformed
+     */
+    public static long parseTimestamp(String value) {
+        if (value == null) return 0;
+        int len = value.length();
+        if (len < 10) return 0;
+
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 2);
+        int day = digits(value, 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31
+                || value.charAt(4) != '-' || value.charAt(7) != '-') {
+            return 0;
+        }
+        if (len == 10) {
+            return localMidnight(year, month, day);
+        }
+
+        char sep = value.charAt(10);
+        if ((sep != 'T' && sep != 't' && sep != ' ') || len < 16) return 0;
+        int hour = digits(value, 11, 2);
+        int minute = digits(value, 14, 2);
+        if (hour < 0 || minute < 0 || value.charAt(13) != ':') return 0;
+
+        int pos = 16;
+        int second = 0;
+        if (pos < len && value.charAt(pos) == ':') {
+            second = digits(value, pos + 1, 2);
+            if (second < 0) return 0;
+            pos += 3;
+        }
+
+        int millis = 0;
+        if (pos < len && value.charAt(pos) == '.') {
+            pos++;
+            int scale = 100;
+            while (pos < len && Character.isDigit(value.charAt(pos))) {
+                millis += (value.charAt(pos) - '0') * scale;
+                scale /= 10;
+                pos++;
+            }
+        }
+
+        long offsetMs = 0;
+        if (pos < len) {
+            char c = value.charAt(pos);
+            if (c == 'Z' || c == 'z') {
+                pos++;
+            } else if (c == '+' || c == '-') {
+                int offHour = digits(value, pos + 1, 2);
+                if (offHour < 0) return 0;
+                int offMinute = 0;
+                int next = pos + 3;
+                if (next < len && value.charAt(next) == ':') next++;
+                if (next + 2 <= len) {
+                    offMinute = digits(value, next, 2);
+                    if (offMinute < 0) return 0;
+                    next += 2;
+                }
+                offsetMs = offHour * HOUR_MS + offMinute * MINUTE_MS;
+                if (c == '-') offsetMs = -offsetMs;
+                pos = next;
+            }
+        }
+        if (pos != len) return 0;
+
+        long epochDay = daysFromCivil(year, month, day);
+        return epochDay * DAY_MS + hour * HOUR_MS + minute * MINUTE_MS + second * 1000L + millis - offsetMs;
+    }
+
+    /**
+     * Parse a Postgres `date` value ("yyyy-MM-dd") as local midnight, matching how date pickers
+     * and the booking screens treat move-in/move-out days.
+     * @return epoch millis, or 0 when the value is null, empty or malformed
+     */
+    public static long parseDate(String value) {
+        if (value == null || value.length() < 10) return 0;
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 2);
+        int day = digits(value, 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) return 0;
+        return localMidnight(year, month, day);
+    }
+
+    // ============================================================================
+    // FORMATTING
+    // ============================================================================
+
+    /**
+     * Format epoch millis with a cached formatter for the given pattern in the default locale/zone.
+     * @return formatted string, or an empty string when millis is 0
+     */
+    public static String format(long millis, String pattern) {
+        return format(millis, pattern, Locale.getDefault(), TimeZone.getDefault());
+    }
+
+    public static String format(long millis, String pattern, Locale locale, TimeZone zone) {
+        if (millis == 0) return "";
+        return formatter(pattern, locale, zone).format(new Date(millis));
+    }
+
+    /** "Nov 06, 2025" */
+    public static String formatDisplayDate(long millis) {
+        return format(millis, PATTERN_DISPLAY_DATE);
+    }
+
+    /** "November 2025" - used for "Member since" labels */
+    public static String formatMonthYear(long millis) {
+        return format(millis, PATTERN_MONTH_YEAR);
+    }
+
+    /** "2025-11-06" in the local zone - for Postgres `date` columns */
+    public static String formatIsoDate(long millis) {
+        return format(millis, PATTERN_ISO_DATE, Locale.US, TimeZone.getDefault());
+    }
+
+    /** "2025-11-06T10:34:56.000Z" - unambiguous UTC value for `timestamptz` writes */
+    public static String formatIsoTimestamp(long millis) {
+        return format(millis, PATTERN_ISO_TIMESTAMP_UTC, Locale.US, TimeZone.getTimeZone("UTC"));
+    }
+
+    /** Current time as a UTC ISO timestamp for PATCH payloads (updated_at etc.) */
+    public static String nowIsoTimestamp() {
+        return formatIsoTimestamp(System.currentTimeMillis());
+    }
+
+    /**
+     * Relative rendering for feeds: "Just now", "5 min ago", "3 hours ago", "2 days ago",
+     * falling back to the display date after a week.
+     */
+    public static String formatRelative(long millis) {
+        return formatRelative(millis, System.currentTimeMillis());
+    }
+
+    public static String formatRelative(long millis, long now) {
+        if (millis == 0) return "";
+        long diff = Math.max(0, now - millis);
+        long minutes = diff / MINUTE_MS;
+        long hours = diff / HOUR_MS;
+        long days = diff / DAY_MS;
+
+        if (minutes < 1) {
+            return "Just now";
+        } else if (minutes < 60) {
+            return minutes + " min ago";
+        } else if (hours < 24) {
+            return hours + " hour" + (hours > 1 ? "s" : "") + " ago";
+        } else if (days < 7) {
+            return days + " day" + (days > 1 ? "s" : "") + " ago";
+        } else {
+            return formatDisplayDate(millis);
+        }
+    }
+
+    // ============================================================================
+    // INTERNALS
+    // ============================================================================
+
+    private static SimpleDateFormat formatter(String pattern, Locale locale, TimeZone zone) {
+        String key = pattern + '|' + locale + '|' + zone.getID();
+        ThreadLocal<SimpleDateFormat> local = FORMATTERS.get(key);
+        if (local == null) {
+            ThreadLocal<SimpleDateFormat> created = new ThreadLocal<SimpleDateFormat>() {
+                @Override
+                protected SimpleDateFormat initialValue() {
+                    SimpleDateFormat f = new SimpleDateFormat(pattern, locale);
+                    f.setTimeZone(zone);
+                    return f;
+                }
+            };
+            local = FORMATTERS.putIfAbsent(key, created);
+            if (local == null) local = created;
+        }
+        return local.get();
+    }
+
+    private static int digits(String s, int start, int count) {
+        if (start + count > s.length()) return -1;
+        int v = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            v = v * 10 + (c - '0');
+        }
+        return v;
+    }
+
+    private static long localMidnight(int year, int month, int day) {
+        Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(year, month - 1, day, 0, 0, 0);
+        return cal.getTimeInMillis();
+    }
+
+    // Days since 1970-01-01 for a proleptic Gregorian date (H. Hinnant's civil algorithm)
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yoe = y - era * 400;
+        int mp = (month + 9) % 12;
+        int doy = (153 * mp + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return (long) era * 146097 + doe - 719468;
+    }
+}
@@ -0,0 +1,219 @@
+package com.roominate.utils;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.net.Uri;
+import android.util.DisplayMetrics;
+import android.util.Log;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import com.roominate.BuildConfig;
+import com.roominate.services.SupabaseClient;
+import com.squareup.picasso.Callback;
+import com.squareup.picasso.LruCache;
+import com.squareup.picasso.OkHttp3Downloader;
+import com.squareup.picasso.Picasso;
+import com.squareup.picasso.RequestCreator;
+import com.squareup.picasso.StatsSnapshot;
+
+import java.io.File;
+
+import okhttp3.Cache;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+
+/**
+ * App-wide Picasso configuration, installed as the {@link Picasso#get()} singleton so every
+ * existing call site picks it up.
+ *
+ * - Downloads run on the shared SupabaseClient connection pool/dispatcher (without its body
+ *   logging) with a dedicated {@link #DISK_CACHE_BYTES} HTTP disk cache.
+ * - Requests for private-bucket objects get the same auth headers as API calls.
+ * - The memory cache is sized from the device's heap class instead of a fixed 15%.
+ * - {@link #loadThumbnail} decodes opaque grid thumbnails as RGB_565 (half the memory), and
+ *   the view-sized overloads fetch server-side renditions via {@link MediaUrlResolver}.
+ * - {@link #getStats()} reports memory and disk cache hit/miss counts.
+ */
+public final class ImageLoader {
+    private static final String TAG = "ImageLoader";
+
+    public static final long DISK_CACHE_BYTES = 50L * 1024 * 1024;
+    private static final String DISK_CACHE_DIR = "image_cache";
+    private static final String PRIVATE_OBJECT_PATH = "/storage/v1/object/authenticated/";
+    private static final String RENDER_PATH = "/storage/v1/render/image/";
+    private static final int MAX_MEMORY_CACHE_BYTES = 64 * 1024 * 1024;
+
+    private static Cache diskCache;
+    private static LruCache memoryCache;
+    private static DisplayMetrics displayMetrics;
+
+    private ImageLoader() {
+    }
+
+    /**
+     * Build and install the singleton. Call once from Application.onCreate, after
+     * SupabaseClient.init.
+     */
+    public static synchronized void init(Context context) {
+        if (diskCache != null) return;
+        Context appContext = context.getApplicationContext();
+        displayMetrics = appContext.getResources().getDisplayMetrics();
+
+        diskCache = new Cache(new File(appContext.getCacheDir(), DISK_CACHE_DIR), DISK_CACHE_BYTES);
+        OkHttpClient.Builder builder = SupabaseClient.getInstance().getHttpClient().newBuilder();
+        // The API client logs bodies; never do that for image bytes
+        builder.interceptors().clear();
+        builder.networkInterceptors().clear();
+        OkHttpClient imageClient = builder
+                .cache(diskCache)
+                .addInterceptor(chain -> {
+                    Request request = chain.request();
+                    String url = request.url().toString();
+                    if (url.startsWith(BuildConfig.SUPABASE_URL + PRIVATE_OBJECT_PATH)
+                            && request.header("Authorization") == null) {
+                        request = SupabaseClient.addAuthHeaders(request.newBuilder()).build();
+                    } else if (url.startsWith(BuildConfig.SUPABASE_URL + RENDER_PATH)) {
+                        // Lets the transformation service answer with WebP
+                        request = request.newBuilder().header("Accept", "image/webp,image/*").build();
+                    }
+                    return chain.proceed(request);
+                })
+                .build();
+
+        memoryCache = new LruCache(memoryCacheBytes(appContext));
+        Picasso picasso = new Picasso.Builder(appContext)
+                .downloader(new OkHttp3Downloader(imageClient))
+                .memoryCache(memoryCache)
+                .listener((p, uri, e) -> Log.w(TAG, "Image load failed: " + uri, e))
+                .build();
+        try {
+            Picasso.setSingletonInstance(picasso);
+        } catch (IllegalStateException e) {
+            // Something already called Picasso.get(); keep working with the default instance
+            Log.e(TAG, "Picasso singleton already created, custom configuration not applied", e);
+        }
+    }
+
+    /**
+     * Load an opaque photo thumbnail (listing/booking cards) at RGB_565.
+     */
+    public static RequestCreator loadThumbnail(String url) {
+        return Picasso.get().load(url).config(Bitmap.Config.RGB_565);
+    }
+
+    /**
+     * Thumbnail sized for {@code target}: requests a server-side rendition of about the
+     * view's pixel size (see {@link MediaUrlResolver}) instead of the stored object.
+     * The caller still calls into(target).
+     */
+    public static RequestCreator loadThumbnail(String url, ImageView target) {
+        return load(url, target).config(Bitmap.Config.RGB_565);
+    }
+
+    /**
+     * Full-colour image sized for {@code target} (e.g. the details slider).
+     */
+    public static RequestCreator load(String url, ImageView target) {
+        return load(url, targetWidth(target), targetHeight(target));
+    }
+
+    /**
+     * Preview of a local (picker/camera) image for a small cell. Decoded off the main thread
+     * with inSampleSize for the cell size instead of at camera resolution, and cached by
+     * URI + size so rebinding after notifyDataSetChanged is a memory-cache hit.
+     * The caller still calls into(target).
+     */
+    public static RequestCreator loadPreview(Uri uri) {
+        return Picasso.get().load(uri).fit().centerCrop().onlyScaleDown();
+    }
+
+    /**
+     * Decode a thumbnail into the memory cache ahead of its bind (see {@link ImagePrefetcher}).
+     * The size must be the target view's, so the key matches the later fit().centerCrop() load.
+     * @param tag for {@link Picasso#cancelTag}
+     */
+    public static void prefetchThumbnail(String url, int widthPx, int heightPx, Object tag, Callback callback) {
+        load(url, widthPx, heightPx)
+                .config(Bitmap.Config.RGB_565)
+                .resize(widthPx, heightPx)
+                .centerCrop()
+                .priority(Picasso.Priority.LOW)
+                .tag(tag)
+                .fetch(callback);
+    }
+
+    private static RequestCreator load(String url, int widthPx, int heightPx) {
+        MediaUrlResolver.Rendition rendition = MediaUrlResolver.resolve(
+                url, widthPx, heightPx, displayMetrics != null ? displayMetrics.density : 1f);
+        // Same key for the same rendition whatever the URL spelling (memory cache)
+        return Picasso.get().load(rendition.url).stableKey(rendition.cacheKey);
+    }
+
+    /**
+     * One-line summary of cache effectiveness for logs/diagnostics.
+     */
+    public static String getStats() {
+        StringBuilder sb = new StringBuilder();
+        if (memoryCache != null) {
+            StatsSnapshot snapshot = Picasso.get().getSnapshot();
+            long lookups = snapshot.cacheHits + snapshot.cacheMisses;
+            sb.append("memory: ").append(snapshot.cacheHits).append(" hits / ").append(snapshot.cacheMisses)
+                    .append(" misses (").append(lookups == 0 ? 0 : snapshot.cacheHits * 100 / lookups).append("%), ")
+                    .append(snapshot.size / 1024).append("/").append(snapshot.maxSize / 1024).append(" KB; ");
+        }
+        if (diskCache != null) {
+            // hitCount: served from disk; networkCount: went to the network (incl. revalidation)
+            sb.append("disk: ").append(diskCache.hitCount()).append(" hits / ")
+                    .append(diskCache.networkCount()).append(" network of ").append(diskCache.requestCount())
+                    .append(" requests");
+            try {
+                sb.append(", ").append(diskCache.size() / 1024).append("/").append(DISK_CACHE_BYTES / 1024).append(" KB");
+            } catch (java.io.IOException ignored) {
+            }
+        }
+        return sb.toString();
+    }
+
+    public static void logStats() {
+        Log.i(TAG, getStats());
+    }
+
+    /**
+     * Drop decoded bitmaps under memory pressure; the disk cache makes reloading cheap.
+     */
+    public static void trimMemory() {
+        if (memoryCache != null) {
+            memoryCache.clear();
+        }
+    }
+
+    // Before the first layout pass fall back to layout params, then to the screen width
+    private static int targetWidth(ImageView view) {
+        if (view.getWidth() > 0) return view.getWidth();
+        ViewGroup.LayoutParams lp = view.getLayoutParams();
+        if (lp != null && lp.width > 0) return lp.width;
+        return displayMetrics != null ? displayMetrics.widthPixels : 0;
+    }
+
+    private static int targetHeight(ImageView view) {
+        if (view.getHeight() > 0) return view.getHeight();
+        ViewGroup.LayoutParams lp = view.getLayoutParams();
+        return lp != null && lp.height > 0 ? lp.height : 0;
+    }
+
+    private static int memoryCacheBytes(Context context) {
+        ActivityManager am = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        int heapBytes = am.getMemoryClass() * 1024 * 1024;
+        int divisor;
+        if (am.isLowRamDevice()) {
+            divisor = 12;
+        } else if (am.getMemoryClass() <= 128) {
+            divisor = 8;
+        } else {
+            divisor = 6;
+        }
+        return Math.min(heapBytes / divisor, MAX_MEMORY_CACHE_BYTES);
+    }
+}
@@ -0,0 +1,139 @@
+package com.roominate.utils;
+
+import android.os.SystemClock;
+import android.view.View;
+
+import androidx.annotation.IdRes;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.squareup.picasso.Callback;
+import com.squareup.picasso.Picasso;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Warms the image cache for the rows just past the visible range of a list or grid, in the
+ * scroll direction, so cards already have their thumbnail when they are bound.
+ *
+ * The look-ahead grows with scroll speed (about {@link #LOOKAHEAD_MS} of travel, between
+ * {@code minRows} and {@link #MAX_ROWS_AHEAD} rows). Images are fetched at the size of the
+ * bound image view ({@code imageViewId} in a visible item), which gives the same rendition
+ * and memory-cache key as the adapter's fit().centerCrop() load. Prefetches for positions
+ * that fall out of the window are cancelled.
+ *
+ * Usage: {@code new ImagePrefetcher(adapter, R.id.property_thumbnail, 2).attach(recyclerView)}
+ * and {@link #detach()} in onDestroyView.
+ */
+public class ImagePrefetcher extends RecyclerView.OnScrollListener {
+
+    /**
+     * Implemented by adapters whose items show one thumbnail.
+     */
+    public interface ImageSource {
+        /** Thumbnail URL for the item at {@code position}, or null if it has none. */
+        String getImageUrl(int position);
+    }
+
+    private static final long LOOKAHEAD_MS = 500;
+    private static final int MAX_ROWS_AHEAD = 6;
+
+    private final ImageSource source;
+    private final int imageViewId;
+    private final int minRows;
+    // position -> Picasso tag of the in-flight prefetch
+    private final Map<Integer, Object> inFlight = new HashMap<>();
+
+    private RecyclerView recyclerView;
+    private long lastScrollTime;
+
+    public ImagePrefetcher(ImageSource source, @IdRes int imageViewId, int minRows) {
+        this.source = source;
+        this.imageViewId = imageViewId;
+        this.minRows = minRows;
+    }
+
+    public void attach(RecyclerView recyclerView) {
+        detach();
+        this.recyclerView = recyclerView;
+        recyclerView.addOnScrollListener(this);
+    }
+
+    public void detach() {
+        if (recyclerView != null) {
+            recyclerView.removeOnScrollListener(this);
+            recyclerView = null;
+        }
+        cancelOutside(0, -1);
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+        long now = SystemClock.uptimeMillis();
+        long elapsed = Math.max(1, now - lastScrollTime);
+        lastScrollTime = now;
+        if (dy == 0 || !(rv.getLayoutManager() instanceof LinearLayoutManager)) return;
+
+        LinearLayoutManager layoutManager = (LinearLayoutManager) rv.getLayoutManager();
+        int first = layoutManager.findFirstVisibleItemPosition();
+        int last = layoutManager.findLastVisibleItemPosition();
+        View item = layoutManager.findViewByPosition(first);
+        View image = item != null ? item.findViewById(imageViewId) : null;
+        if (first == RecyclerView.NO_POSITION || image == null || image.getWidth() == 0 || item.getHeight() == 0) return;
+
+        int span = layoutManager instanceof GridLayoutManager ? ((GridLayoutManager) layoutManager).getSpanCount() : 1;
+        // Rows travelled in LOOKAHEAD_MS at the current speed (a long pause reads as slow)
+        float pixelsPerMs = elapsed > LOOKAHEAD_MS ? 0 : (float) Math.abs(dy) / elapsed;
+        int rows = Math.min(MAX_ROWS_AHEAD, Math.max(minRows, Math.round(pixelsPerMs * LOOKAHEAD_MS / item.getHeight())));
+
+        int count = rv.getAdapter() != null ? rv.getAdapter().getItemCount() : 0;
+        int from;
+        int to;
+        if (dy > 0) {
+            from = last + 1;
+            to = Math.min(count - 1, last + rows * span);
+        } else {
+            from = Math.max(0, first - rows * span);
+            to = first - 1;
+        }
+        cancelOutside(from, to);
+        for (int position = from; position <= to; position++) {
+            prefetch(position, image.getWidth(), image.getHeight());
+        }
+    }
+
+    private void prefetch(int position, int width, int height) {
+        if (inFlight.containsKey(position)) return;
+        String url = source.getImageUrl(position);
+        if (url == null || url.isEmpty()) return;
+
+        Object tag = new Object();
+        inFlight.put(position, tag);
+        ImageLoader.prefetchThumbnail(url, width, height, tag, new Callback() {
+            @Override
+            public void onSuccess() {
+                inFlight.remove(position, tag);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                inFlight.remove(position, tag);
+            }
+        });
+    }
+
+    private void cancelOutside(int from, int to) {
+        Iterator<Map.Entry<Integer, Object>> it = inFlight.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, Object> entry = it.next();
+            if (entry.getKey() < from || entry.getKey() > to) {
+                Picasso.get().cancelTag(entry.getValue());
+                it.remove();
+            }
+        }
+    }
+}
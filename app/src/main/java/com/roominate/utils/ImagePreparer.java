@@ -0,0 +1,171 @@
+package com.roominate.utils;
+
+import android.content.ContentResolver;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.net.Uri;
+import android.os.Build;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
+
+/**
+ * Turns a picked/captured photo into the renditions we actually serve: a full-size WebP for
+ * the details slider and a small WebP thumbnail for listing grids.
+ *
+ * The source is decoded with inSampleSize (never at full camera resolution), rotated per its
+ * EXIF orientation, scaled to the target long edge and encoded once per rendition. A 4-12 MB
+ * camera JPEG typically ends up as ~200-400 KB full-size and ~20-40 KB thumbnail.
+ * Must be called off the main thread.
+ */
+public final class ImagePreparer {
+
+    public static final int FULL_MAX_EDGE = 1600;
+    public static final int THUMB_MAX_EDGE = 400;
+    public static final String MIME_TYPE = "image/webp";
+
+    private static final int FULL_QUALITY = 80;
+    private static final int THUMB_QUALITY = 70;
+
+    /** One encoded rendition written to the cache dir; delete it once uploaded */
+    public static class Rendition {
+        public final File file;
+        public final int width;
+        public final int height;
+
+        Rendition(File file, int width, int height) {
+            this.file = file;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    public static class Prepared {
+        public final Rendition full;
+        public final Rendition thumbnail;
+
+        Prepared(Rendition full, Rendition thumbnail) {
+            this.full = full;
+            this.thumbnail = thumbnail;
+        }
+
+        public void delete() {
+            full.file.delete();
+            thumbnail.file.delete();
+        }
+    }
+
+    private ImagePreparer() {
+    }
+
+    /**
+     * Decode, orient and encode both renditions of {@code uri} into {@code cacheDir}.
+     * @throws IOException if the image can't be read or decoded
+     */
+    public static Prepared prepare(ContentResolver resolver, Uri uri, File cacheDir) throws IOException {
+        // Bounds only: nothing is allocated for pixels yet
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = open(resolver, uri)) {
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            throw new IOException("Not a decodable image: " + uri);
+        }
+
+        BitmapFactory.Options decode = new BitmapFactory.Options();
+        decode.inSampleSize = sampleSizeFor(bounds.outWidth, bounds.outHeight, FULL_MAX_EDGE);
+        Bitmap decoded;
+        try (InputStream in = open(resolver, uri)) {
+            decoded = BitmapFactory.decodeStream(in, null, decode);
+        }
+        if (decoded == null) {
+            throw new IOException("Failed to decode image: " + uri);
+        }
+
+        Bitmap full = scaleAndRotate(decoded, FULL_MAX_EDGE, readRotation(resolver, uri));
+        if (full != decoded) decoded.recycle();
+        // The thumbnail comes from the already-reduced bitmap, not a second decode
+        Bitmap thumb = scaleAndRotate(full, THUMB_MAX_EDGE, 0);
+
+        String name = UUID.randomUUID().toString();
+        try {
+            Rendition fullRendition = encode(full, new File(cacheDir, name + "_full.webp"), FULL_QUALITY);
+            Rendition thumbRendition = encode(thumb, new File(cacheDir, name + "_thumb.webp"), THUMB_QUALITY);
+            return new Prepared(fullRendition, thumbRendition);
+        } finally {
+            if (thumb != full) thumb.recycle();
+            full.recycle();
+        }
+    }
+
+    /**
+     * Largest power-of-two sample size that keeps the decoded long edge at or above
+     * {@code targetEdge}, so the final scale step only ever shrinks.
+     */
+    static int sampleSizeFor(int width, int height, int targetEdge) {
+        int longEdge = Math.max(width, height);
+        int sampleSize = 1;
+        while (longEdge / (sampleSize * 2) >= targetEdge) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    private static InputStream open(ContentResolver resolver, Uri uri) throws IOException {
+        InputStream in = resolver.openInputStream(uri);
+        if (in == null) {
+            throw new IOException("Cannot open " + uri);
+        }
+        return in;
+    }
+
+    private static int readRotation(ContentResolver resolver, Uri uri) {
+        try (InputStream in = open(resolver, uri)) {
+            ExifInterface exif = new ExifInterface(in);
+            switch (exif.getAttributeInt(ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL)) {
+                case ExifInterface.ORIENTATION_ROTATE_90:
+                    return 90;
+                case ExifInterface.ORIENTATION_ROTATE_180:
+                    return 180;
+                case ExifInterface.ORIENTATION_ROTATE_270:
+                    return 270;
+                default:
+                    return 0;
+            }
+        } catch (IOException e) {
+            // No/unsupported EXIF (e.g. PNG): keep as decoded
+            return 0;
+        }
+    }
+
+    private static Bitmap scaleAndRotate(Bitmap source, int maxEdge, int rotation) {
+        int longEdge = Math.max(source.getWidth(), source.getHeight());
+        float scale = longEdge > maxEdge ? (float) maxEdge / longEdge : 1f;
+        if (scale == 1f && rotation == 0) {
+            return source;
+        }
+        Matrix matrix = new Matrix();
+        matrix.postScale(scale, scale);
+        matrix.postRotate(rotation);
+        return Bitmap.createBitmap(source, 0, 0, source.getWidth(), source.getHeight(), matrix, true);
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Rendition encode(Bitmap bitmap, File file, int quality) throws IOException {
+        Bitmap.CompressFormat format = Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                ? Bitmap.CompressFormat.WEBP_LOSSY
+                : Bitmap.CompressFormat.WEBP;
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            if (!bitmap.compress(format, quality, out)) {
+                throw new IOException("WebP encode failed");
+            }
+        }
+        return new Rendition(file, bitmap.getWidth(), bitmap.getHeight());
+    }
+}
@@ -0,0 +1,76 @@
+package com.roominate.utils;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling (Steinarsson, 2013).
+ * Picks the points of a series that best preserve its visual shape, so a chart only has to
+ * draw about one point per pixel column however long the history is. The first and last
+ * points are always kept; x must be ascending.
+ */
+public final class Lttb {
+
+    private Lttb() {
+    }
+
+    /**
+     * @param threshold number of points to keep (values below 3 keep just the end points)
+     * @return indices of the kept points, ascending; all indices when the series is already
+     *         no longer than the threshold
+     */
+    public static int[] downsample(double[] x, double[] y, int threshold) {
+        int n = Math.min(x.length, y.length);
+        if (threshold >= n || n <= 2) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) all[i] = i;
+            return all;
+        }
+        if (threshold < 3) {
+            return new int[] {0, n - 1};
+        }
+
+        int[] kept = new int[threshold];
+        int count = 0;
+        kept[count++] = 0;
+
+        // The points between the two ends are split into threshold - 2 buckets
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+
+            // Average of the next bucket (the last point for the final bucket)
+            int nextStart = end;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, n);
+            if (bucket == threshold - 3) {
+                nextStart = n - 1;
+                nextEnd = n;
+            }
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            // Keep the point forming the largest triangle with the last kept point and that average
+            double maxArea = -1;
+            int best = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((x[a] - avgX) * (y[i] - y[a]) - (x[a] - x[i]) * (avgY - y[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    best = i;
+                }
+            }
+            kept[count++] = best;
+            a = best;
+        }
+
+        kept[count] = n - 1;
+        return kept;
+    }
+}
@@ -0,0 +1,240 @@
+package com.roominate.utils;
+
+import com.roominate.BuildConfig;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds image URLs for property media.
+ *
+ * {@link #resolve} maps a stored path (or any URL pointing into the property-images bucket)
+ * plus a target size to a Supabase image transformation URL
+ * ({@code /storage/v1/render/image/public/...?width=&height=&quality=&resize=cover}).
+ * Widths snap up to a small set of buckets and the height follows the view's aspect ratio,
+ * so views of similar size share one URL; {@link Rendition#cacheKey} is that same identity
+ * without host/query noise and is used by {@link ImageLoader} as Picasso's stable key. Each
+ * rendition is therefore downloaded once and then served from the memory or disk cache.
+ *
+ * Normalized URLs and renditions are memoized in small bounded LRU maps, since adapters ask
+ * for the same few dozen images on every bind. Signed URLs (private objects) are cached
+ * until shortly before they expire; SupabaseClient.getSignedUrl fills that cache.
+ */
+public final class MediaUrlResolver {
+
+    public static final String BUCKET = "property-images";
+    private static final String PUBLIC_PREFIX = "/storage/v1/object/public/" + BUCKET + "/";
+    private static final String RENDER_PREFIX = "/storage/v1/render/image/public/" + BUCKET + "/";
+    private static final String THUMB_PREFIX = "thumb_";
+
+    // Snap target widths so nearby view sizes reuse one rendition
+    static final int[] WIDTH_BUCKETS = {160, 240, 320, 480, 640, 800, 1080, 1440};
+    // Uploaded full-size renditions are never larger than this; don't ask the server to upscale
+    private static final int MAX_WIDTH = ImagePreparer.FULL_MAX_EDGE;
+
+    private static final int MAX_CACHED_URLS = 256;
+    // Hand out a cached signed URL only while it stays valid for at least this long
+    private static final long SIGNED_URL_MIN_REMAINING_MS = 60_000;
+
+    private static final Map<String, String> publicUrls = new BoundedMap<>(MAX_CACHED_URLS);
+    private static final Map<String, Rendition> renditions = new BoundedMap<>(MAX_CACHED_URLS);
+    private static final Map<String, SignedUrl> signedUrls = new BoundedMap<>(MAX_CACHED_URLS);
+
+    public static final class Rendition {
+        public final String url;
+        public final String cacheKey;
+
+        Rendition(String url, String cacheKey) {
+            this.url = url;
+            this.cacheKey = cacheKey;
+        }
+    }
+
+    private static final class SignedUrl {
+        final String url;
+        final long expiresAtMillis;
+
+        SignedUrl(String url, long expiresAtMillis) {
+            this.url = url;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    // Access-ordered LinkedHashMap that drops the least recently used entry; guarded by the class lock
+    private static final class BoundedMap<V> extends LinkedHashMap<String, V> {
+        private final int maxEntries;
+
+        BoundedMap(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+            return size() > maxEntries;
+        }
+    }
+
+    private MediaUrlResolver() {
+    }
+
+    /**
+     * @param widthPx  target view width in pixels (already density-scaled)
+     * @param heightPx target view height in pixels, or 0 to keep the image's aspect ratio
+     * @param density  screen density (DisplayMetrics.density), used to pick the quality
+     * @return a transformation rendition, or the URL unchanged (cacheKey = url) for images
+     *         outside our bucket
+     */
+    public static Rendition resolve(String urlOrPath, int widthPx, int heightPx, float density) {
+        if (urlOrPath == null) return new Rendition(null, null);
+        String key = urlOrPath + '|' + widthPx + 'x' + heightPx + '@' + density;
+        synchronized (MediaUrlResolver.class) {
+            Rendition cached = renditions.get(key);
+            if (cached != null) return cached;
+        }
+        Rendition rendition = buildRendition(urlOrPath, widthPx, heightPx, density);
+        synchronized (MediaUrlResolver.class) {
+            renditions.put(key, rendition);
+        }
+        return rendition;
+    }
+
+    private static Rendition buildRendition(String urlOrPath, int widthPx, int heightPx, float density) {
+        String path = storagePathOf(urlOrPath);
+        if (path == null || widthPx <= 0) {
+            String url = path != null ? publicUrl(urlOrPath) : urlOrPath;
+            return new Rendition(url, url);
+        }
+
+        int width = snapWidth(widthPx);
+        int height = heightPx > 0 ? Math.round((float) heightPx * width / widthPx) : 0;
+        // The grid thumbnail is only 400px; bigger targets render from the full-size object
+        String fileName = path.substring(path.lastIndexOf('/') + 1);
+        if (width > ImagePreparer.THUMB_MAX_EDGE && fileName.startsWith(THUMB_PREFIX)) {
+            path = path.substring(0, path.length() - fileName.length()) + fileName.substring(THUMB_PREFIX.length());
+        }
+        int quality = qualityFor(width, density);
+
+        StringBuilder url = new StringBuilder(BuildConfig.SUPABASE_URL)
+                .append(RENDER_PREFIX).append(encodePath(path))
+                .append("?width=").append(width);
+        if (height > 0) {
+            url.append("&height=").append(height).append("&resize=cover");
+        }
+        url.append("&quality=").append(quality);
+
+        String cacheKey = BUCKET + "/" + path + "@" + width + "x" + height + "q" + quality;
+        return new Rendition(url.toString(), cacheKey);
+    }
+
+    /**
+     * Canonical public URL (original object) for a stored path or bucket URL; other URLs are
+     * returned unchanged.
+     */
+    public static String publicUrl(String urlOrPath) {
+        if (urlOrPath == null) return null;
+        synchronized (MediaUrlResolver.class) {
+            String cached = publicUrls.get(urlOrPath);
+            if (cached != null) return cached;
+        }
+        String path = storagePathOf(urlOrPath);
+        String url = path == null ? urlOrPath : BuildConfig.SUPABASE_URL + PUBLIC_PREFIX + encodePath(path);
+        synchronized (MediaUrlResolver.class) {
+            publicUrls.put(urlOrPath, url);
+        }
+        return url;
+    }
+
+    /**
+     * Cached signed URL for a storage path, or null when there is none that stays valid for
+     * at least another minute.
+     */
+    public static synchronized String cachedSignedUrl(String storagePath) {
+        SignedUrl signed = signedUrls.get(storagePath);
+        if (signed == null) return null;
+        if (signed.expiresAtMillis - System.currentTimeMillis() < SIGNED_URL_MIN_REMAINING_MS) {
+            signedUrls.remove(storagePath);
+            return null;
+        }
+        return signed.url;
+    }
+
+    /**
+     * Remember a freshly signed URL.
+     * @param expiresInSeconds the validity requested when signing
+     * @param signedAtMillis   when the sign request was sent (counts the round trip against it)
+     */
+    public static synchronized void putSignedUrl(String storagePath, String signedUrl, int expiresInSeconds, long signedAtMillis) {
+        signedUrls.put(storagePath, new SignedUrl(signedUrl, signedAtMillis + expiresInSeconds * 1000L));
+    }
+
+    /**
+     * Storage path inside the bucket for a raw path, public URL or render URL; null for
+     * empty values and URLs that point elsewhere.
+     */
+    public static String storagePathOf(String urlOrPath) {
+        if (urlOrPath == null || urlOrPath.isEmpty() || urlOrPath.equals("placeholder")) {
+            return null;
+        }
+        if (!urlOrPath.startsWith("http://") && !urlOrPath.startsWith("https://")) {
+            return urlOrPath;
+        }
+        String path;
+        int start = urlOrPath.indexOf(PUBLIC_PREFIX);
+        if (start != -1) {
+            path = urlOrPath.substring(start + PUBLIC_PREFIX.length());
+        } else if ((start = urlOrPath.indexOf(RENDER_PREFIX)) != -1) {
+            path = urlOrPath.substring(start + RENDER_PREFIX.length());
+        } else {
+            return null;
+        }
+        int query = path.indexOf('?');
+        if (query != -1) path = path.substring(0, query);
+        return decodePath(path);
+    }
+
+    static int snapWidth(int widthPx) {
+        for (int bucket : WIDTH_BUCKETS) {
+            if (bucket >= widthPx) return Math.min(bucket, MAX_WIDTH);
+        }
+        return MAX_WIDTH;
+    }
+
+    /**
+     * Small renditions hide compression artefacts better, as do very dense screens.
+     */
+    static int qualityFor(int width, float density) {
+        int quality = width <= 480 ? 70 : 80;
+        if (density >= 2.5f) quality -= 5;
+        return quality;
+    }
+
+    /**
+     * Percent-encode each segment of a storage path (object API URLs).
+     */
+    public static String encodePath(String path) {
+        try {
+            String[] parts = path.split("/");
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < parts.length; i++) {
+                if (i > 0) sb.append("/");
+                // URLEncoder uses + for spaces; convert to %20 for path segments
+                sb.append(URLEncoder.encode(parts[i], "UTF-8").replace("+", "%20"));
+            }
+            return sb.toString();
+        } catch (UnsupportedEncodingException e) {
+            return path;
+        }
+    }
+
+    private static String decodePath(String path) {
+        // Stored URLs may already be encoded; decode so encodePath doesn't double-encode
+        try {
+            return java.net.URLDecoder.decode(path.replace("+", "%2B"), "UTF-8");
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return path;
+        }
+    }
+}
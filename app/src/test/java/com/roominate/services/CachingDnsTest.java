@@ -0,0 +1,101 @@
+package com.roominate.services;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.List;
+
+import okhttp3.Dns;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CachingDnsTest {
+
+    private static final String HOST = "example.supabase.co";
+    private static final long TTL = 1000;
+    private static final long MAX_STALE = 5000;
+
+    private long now;
+    private int lookups;
+    private boolean failing;
+    private InetAddress address;
+    private CachingDns dns;
+
+    @Before
+    public void setUp() throws Exception {
+        now = 0;
+        lookups = 0;
+        failing = false;
+        address = InetAddress.getByAddress(HOST, new byte[] {10, 0, 0, 1});
+        Dns upstream = hostname -> {
+            lookups++;
+            if (failing) throw new UnknownHostException(hostname);
+            return Collections.singletonList(address);
+        };
+        dns = new CachingDns(upstream, TTL, MAX_STALE, () -> now);
+    }
+
+    @Test
+    public void answersFromCacheWithinTtl() throws Exception {
+        dns.lookup(HOST);
+        now = TTL - 1;
+        List<InetAddress> result = dns.lookup(HOST);
+
+        assertEquals(Collections.singletonList(address), result);
+        assertEquals(1, lookups);
+        assertEquals(1, dns.getHitCount());
+        assertEquals(1, dns.getMissCount());
+    }
+
+    @Test
+    public void resolvesAgainAfterTtl() throws Exception {
+        dns.lookup(HOST);
+        now = TTL;
+        dns.lookup(HOST);
+
+        assertEquals(2, lookups);
+    }
+
+    @Test
+    public void failedLookupFallsBackToStaleAnswer() throws Exception {
+        dns.lookup(HOST);
+        failing = true;
+        now = TTL + MAX_STALE - 1;
+
+        assertEquals(Collections.singletonList(address), dns.lookup(HOST));
+        assertEquals(1, dns.getStaleHitCount());
+    }
+
+    @Test
+    public void failedLookupPastMaxStaleThrows() throws Exception {
+        dns.lookup(HOST);
+        failing = true;
+        now = TTL + MAX_STALE;
+        try {
+            dns.lookup(HOST);
+            fail();
+        } catch (UnknownHostException expected) {
+            assertEquals(0, dns.getStaleHitCount());
+        }
+    }
+
+    @Test
+    public void prefetchFillsCacheAndClearEmptiesIt() throws Exception {
+        assertTrue(dns.prefetch(HOST));
+        dns.lookup(HOST);
+        assertEquals(1, lookups);
+
+        dns.clear();
+        dns.lookup(HOST);
+        assertEquals(2, lookups);
+
+        failing = true;
+        assertFalse(dns.prefetch(HOST));
+    }
+}
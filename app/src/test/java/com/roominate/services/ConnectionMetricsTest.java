@@ -0,0 +1,60 @@
+package com.roominate.services;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+
+public class ConnectionMetricsTest {
+
+    private MockWebServer server;
+    private ConnectionMetrics metrics;
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        metrics = new ConnectionMetrics();
+        client = new OkHttpClient.Builder().eventListenerFactory(metrics).build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    private void get() throws Exception {
+        server.enqueue(new MockResponse().setBody("ok"));
+        try (Response response = client.newCall(new Request.Builder().url(server.url("/")).build()).execute()) {
+            response.body().string();
+        }
+    }
+
+    @Test
+    public void firstCallIsColdAndPooledCallsAreWarm() throws Exception {
+        get();
+        get();
+        get();
+
+        assertEquals(1, metrics.getColdCallCount());
+        assertEquals(2, metrics.getWarmCallCount());
+    }
+
+    @Test
+    public void evictedPoolMakesTheNextCallCold() throws Exception {
+        get();
+        client.connectionPool().evictAll();
+        get();
+
+        assertEquals(2, metrics.getColdCallCount());
+        assertEquals(0, metrics.getWarmCallCount());
+    }
+}
@@ -0,0 +1,81 @@
+package com.roominate.services;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Lookups against the bundled gazetteer asset.
+ */
+public class GazetteerTest {
+
+    private static Gazetteer gazetteer;
+
+    /** The real asset; unit tests run from the module directory */
+    static Gazetteer load() throws IOException {
+        File asset = new File("src/main/assets/" + Gazetteer.ASSET_NAME);
+        return new Gazetteer(ByteBuffer.wrap(Files.readAllBytes(asset.toPath())));
+    }
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        gazetteer = load();
+    }
+
+    @Test
+    public void exactPlacesAreCompleteMatches() {
+        Gazetteer.Match match = gazetteer.lookup("Ndola, Copperbelt, Zambia");
+        assertEquals("Ndola", match.place.name);
+        assertEquals(Gazetteer.Kind.TOWN, match.place.kind);
+        assertTrue(match.complete);
+        assertTrue(match.place.minLatitude < match.place.latitude && match.place.latitude < match.place.maxLatitude);
+
+        match = gazetteer.lookup("Copperbelt");
+        assertEquals(Gazetteer.Kind.PROVINCE, match.place.kind);
+    }
+
+    @Test
+    public void repeatedNamesResolveToTheMostSpecificConsistentPlace() {
+        Gazetteer.Match match = gazetteer.lookup("Lusaka, Lusaka, Zambia");
+        assertEquals(Gazetteer.Kind.TOWN, match.place.kind);
+        assertTrue(match.complete);
+
+        match = gazetteer.lookup("Kabwata, Lusaka");
+        assertEquals(Gazetteer.Kind.COMPOUND, match.place.kind);
+        assertEquals("Kabwata, Lusaka, Lusaka, Zambia", match.place.getDisplayName());
+    }
+
+    @Test
+    public void misspellingsAndPrefixesStillMatch() {
+        assertEquals("Chipata", gazetteer.lookup("Chipatta, Eastern").place.name);
+        assertEquals("Chililabombwe", gazetteer.lookup("chililabomwe").place.name);
+        assertEquals("Kalulushi", gazetteer.lookup("Kalulu").place.name);
+        assertEquals("Itezhi-Tezhi", gazetteer.lookup("itezhi tezhi").place.name);
+    }
+
+    @Test
+    public void streetAddressesAreIncompleteMatches() {
+        Gazetteer.Match match = gazetteer.lookup("Plot 12, Great East Road, Lusaka, Zambia");
+        assertEquals("Lusaka", match.place.name);
+        assertFalse(match.complete);
+
+        // Riverside is a Kitwe compound; naming another town contradicts it
+        assertFalse(gazetteer.lookup("Riverside, Lusaka").complete);
+        assertTrue(gazetteer.lookup("Riverside, Kitwe").complete);
+    }
+
+    @Test
+    public void unknownPlacesDoNotMatch() {
+        assertNull(gazetteer.lookup("Atlantis, Zambia"));
+        assertNull(gazetteer.lookup("Zambia"));
+    }
+}
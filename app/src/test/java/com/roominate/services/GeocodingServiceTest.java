@@ -0,0 +1,266 @@
+package com.roominate.services;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs GeocodingService against MockWebServer acting as Nominatim.
+ */
+public class GeocodingServiceTest {
+
+    private static final String LUSAKA = "[{\"lat\":\"-15.4167\",\"lon\":\"28.2833\",\"display_name\":\"Lusaka, Zambia\"}]";
+
+    private MockWebServer server;
+    private ExecutorService executor;
+    private MemoryStore store;
+
+    private static class MemoryStore implements GeocodingService.Store {
+        volatile String snapshot;
+
+        @Override
+        public String load() {
+            return snapshot;
+        }
+
+        @Override
+        public void save(String snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
+
+    /** Collects callback outcomes: the result JSON, or "error: ..." */
+    private static class Results implements GeocodingService.Callback {
+        final BlockingQueue<Object> outcomes = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onSuccess(JSONObject response) {
+            outcomes.add(response);
+        }
+
+        @Override
+        public void onError(String error) {
+            outcomes.add("error: " + error);
+        }
+
+        Object next() throws InterruptedException {
+            return outcomes.poll(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        executor = Executors.newSingleThreadExecutor();
+        store = new MemoryStore();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+        server.shutdown();
+    }
+
+    private GeocodingService newService(double requestsPerSecond) {
+        return newService(null, requestsPerSecond);
+    }
+
+    private GeocodingService newService(Gazetteer gazetteer, double requestsPerSecond) {
+        String baseUrl = server.url("/").toString().replaceAll("/$", "");
+        return new GeocodingService(
+                new GeocodingService.NominatimEndpoint(new OkHttpClient(), baseUrl), store, executor, gazetteer, requestsPerSecond);
+    }
+
+    @Test
+    public void normalizedAddressesShareACacheEntry() throws Exception {
+        assertEquals(GeocodingService.normalizeKey("12 Kabulonga Rd, Lusaka"),
+                GeocodingService.normalizeKey("  12 kabulonga rd. ,, LUSAKA "));
+        assertEquals("chipata, eastern", GeocodingService.normalizeKey("Chip\u00e0ta,Eastern"));
+
+        GeocodingService service = newService(100);
+        server.enqueue(new MockResponse().setBody(LUSAKA));
+        Results results = new Results();
+        service.geocode("12 Kabulonga Rd, Lusaka", results);
+        JSONObject first = (JSONObject) results.next();
+        assertEquals(-15.4167, first.getDouble("latitude"), 1e-6);
+
+        service.geocode("12 KABULONGA RD , lusaka", results);
+        JSONObject second = (JSONObject) results.next();
+        assertEquals(first.toString(), second.toString());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void notFoundIsCachedIncludingTheSimplifiedRetry() throws Exception {
+        GeocodingService service = newService(100);
+        server.enqueue(new MockResponse().setBody("[]"));
+        server.enqueue(new MockResponse().setBody("[]"));
+        Results results = new Results();
+
+        service.geocode("Nowhere St, Atlantis, Deep, Zambia", results);
+        assertTrue(((String) results.next()).startsWith("error: Address"));
+        assertEquals(2, server.getRequestCount());
+        assertTrue(server.takeRequest().getRequestUrl().queryParameter("q").startsWith("Nowhere St"));
+        assertEquals("Deep, Zambia", server.takeRequest().getRequestUrl().queryParameter("q"));
+
+        service.geocode("Nowhere St, Atlantis, Deep, Zambia", results);
+        assertTrue(((String) results.next()).startsWith("error: Address"));
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void simplifiedHitIsReusedForTheFullAddress() throws Exception {
+        GeocodingService service = newService(100);
+        server.enqueue(new MockResponse().setBody("[]"));
+        server.enqueue(new MockResponse().setBody(LUSAKA));
+        Results results = new Results();
+
+        service.geocode("Plot 9, Unknown Road, Lusaka, Zambia", results);
+        assertTrue(results.next() instanceof JSONObject);
+        service.geocode("Plot 9, Unknown Road, Lusaka, Zambia", results);
+        assertTrue(results.next() instanceof JSONObject);
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void concurrentLookupsOfOneAddressShareARequest() throws Exception {
+        GeocodingService service = newService(100);
+        server.enqueue(new MockResponse().setBody(LUSAKA).setBodyDelay(300, TimeUnit.MILLISECONDS));
+        Results results = new Results();
+
+        for (int i = 0; i < 3; i++) {
+            service.geocode("Lusaka, Zambia", results);
+        }
+        for (int i = 0; i < 3; i++) {
+            assertTrue(results.next() instanceof JSONObject);
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void networkErrorsAreNotCached() throws Exception {
+        GeocodingService service = newService(100);
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody(LUSAKA));
+        Results results = new Results();
+
+        service.geocode("Lusaka, Zambia", results);
+        assertTrue(((String) results.next()).contains("503"));
+        service.geocode("Lusaka, Zambia", results);
+        assertTrue(results.next() instanceof JSONObject);
+    }
+
+    @Test
+    public void cacheSurvivesARestart() throws Exception {
+        server.enqueue(new MockResponse().setBody(LUSAKA));
+        Results results = new Results();
+        newService(100).geocode("Lusaka, Zambia", results);
+        assertNotNull(results.next());
+
+        newService(100).geocode("LUSAKA,Zambia", results);
+        assertTrue(results.next() instanceof JSONObject);
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void requestsAreSpacedByTheRateLimit() throws Exception {
+        GeocodingService service = newService(5);
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setBody(LUSAKA));
+        }
+        Results results = new Results();
+
+        long start = System.currentTimeMillis();
+        service.geocode("Lusaka, Zambia", results);
+        service.geocode("Ndola, Zambia", results);
+        service.geocode("Kitwe, Zambia", results);
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(results.next());
+        }
+        // First request is free, the next two wait 200 ms each
+        assertTrue(System.currentTimeMillis() - start >= 400);
+    }
+
+    @Test
+    public void placeOnlyAddressesResolveOffline() throws Exception {
+        GeocodingService service = newService(GazetteerTest.load(), 100);
+        Results results = new Results();
+
+        service.geocode("Kabwata, Lusaka, Zambia", results);
+        JSONObject result = (JSONObject) results.next();
+        assertEquals("Kabwata, Lusaka, Lusaka, Zambia", result.getString("display_name"));
+        assertEquals(0, server.getRequestCount());
+    }
+
+    @Test
+    public void streetMissFallsBackToTheGazetteerWithoutASecondRequest() throws Exception {
+        GeocodingService service = newService(GazetteerTest.load(), 100);
+        server.enqueue(new MockResponse().setBody("[]"));
+        Results results = new Results();
+
+        service.geocode("Plot 9, Unknown Road, Ndola, Copperbelt, Zambia", results);
+        JSONObject result = (JSONObject) results.next();
+        assertEquals("Ndola, Copperbelt, Zambia", result.getString("display_name"));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void networkErrorFallsBackToTheGazetteerWithoutCaching() throws Exception {
+        GeocodingService service = newService(GazetteerTest.load(), 100);
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody(LUSAKA));
+        Results results = new Results();
+
+        service.geocode("Plot 5, Kabwata, Lusaka", results);
+        JSONObject offline = (JSONObject) results.next();
+        assertEquals("Kabwata, Lusaka, Lusaka, Zambia", offline.getString("display_name"));
+
+        // Back online: the street-level answer replaces the coarse one
+        service.geocode("Plot 5, Kabwata, Lusaka", results);
+        JSONObject online = (JSONObject) results.next();
+        assertEquals("Lusaka, Zambia", online.getString("display_name"));
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void blockingOnlyServiceRejectsAsyncLookups() throws Exception {
+        String baseUrl = server.url("/").toString().replaceAll("/$", "");
+        GeocodingService service = new GeocodingService(
+                new GeocodingService.NominatimEndpoint(new OkHttpClient(), baseUrl), store, null, null, 100);
+        server.enqueue(new MockResponse().setBody(LUSAKA));
+
+        assertEquals(-15.4167, service.geocodeBlocking("Lusaka, Zambia").getDouble("latitude"), 1e-6);
+        try {
+            service.geocode("Ndola, Zambia", new Results());
+            fail();
+        } catch (IllegalStateException expected) {
+            assertTrue(expected.getMessage().contains("geocodeBlocking"));
+        }
+    }
+
+    @Test
+    public void tokenBucketReservesInOrder() {
+        GeocodingService.TokenBucket bucket = new GeocodingService.TokenBucket(1, 1.0, 0);
+        assertEquals(0, bucket.reserve(0));
+        assertEquals(1000, bucket.reserve(0));
+        assertEquals(1500, bucket.reserve(500));
+        assertEquals(0, bucket.reserve(10_000));
+    }
+}
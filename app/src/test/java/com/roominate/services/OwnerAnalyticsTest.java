@@ -0,0 +1,74 @@
+package com.roominate.services;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OwnerAnalyticsTest {
+
+    private static final String[] BUCKETS = {
+            OwnerAnalytics.BUCKET_DAY, OwnerAnalytics.BUCKET_WEEK, OwnerAnalytics.BUCKET_MONTH,
+    };
+
+    private static JSONObject row(String start, int bookings, double revenue, int booked, int roomNights) throws Exception {
+        return new JSONObject()
+                .put("bucket_start", start)
+                .put("listing_id", JSONObject.NULL)
+                .put("bookings", bookings)
+                .put("revenue", revenue)
+                .put("booked_nights", booked)
+                .put("room_nights", roomNights);
+    }
+
+    @Test
+    public void everyRangeFitsInOneResponse() {
+        // One RPC row per bucket, whatever the number of listings
+        for (String bucket : BUCKETS) {
+            int buckets = OwnerAnalytics.maxBuckets(bucket);
+            assertTrue(bucket + ": " + buckets, buckets <= OwnerAnalytics.MAX_ROWS);
+        }
+        assertEquals(732, OwnerAnalytics.maxBuckets(OwnerAnalytics.BUCKET_DAY));
+    }
+
+    @Test
+    public void rangesGrowWithTheBucketSize() {
+        assertTrue(OwnerAnalytics.rangeMs(OwnerAnalytics.BUCKET_DAY) < OwnerAnalytics.rangeMs(OwnerAnalytics.BUCKET_WEEK));
+        assertTrue(OwnerAnalytics.rangeMs(OwnerAnalytics.BUCKET_WEEK) < OwnerAnalytics.rangeMs(OwnerAnalytics.BUCKET_MONTH));
+    }
+
+    @Test
+    public void summedRowsMapOneToOne() throws Exception {
+        JSONArray rows = new JSONArray()
+                .put(row("2025-01-01", 3, 1500, 20, 62))
+                .put(row("2025-02-01", 0, 0, 0, 56))
+                .put(row("2025-03-01", 1, 400, 62, 62));
+
+        OwnerAnalytics.Series series = OwnerAnalytics.totals(rows);
+
+        assertEquals(3, series.size());
+        assertArrayEquals(new double[] {3, 0, 1}, series.bookings, 0);
+        assertArrayEquals(new double[] {1500, 0, 400}, series.revenue, 0);
+        assertArrayEquals(new double[] {20 / 62.0, 0, 1}, series.occupancy, 1e-9);
+        assertTrue(series.time[0] < series.time[1] && series.time[1] < series.time[2]);
+    }
+
+    @Test
+    public void perListingRowsAreSummedWithWeightedOccupancy() throws Exception {
+        JSONArray rows = new JSONArray()
+                .put(row("2025-01-01", 1, 100, 31, 31))
+                .put(row("2025-01-01", 2, 50, 0, 93))
+                .put(row("2025-02-01", 0, 0, 0, 28))
+                .put(row("not a date", 9, 9, 9, 9));
+
+        OwnerAnalytics.Series series = OwnerAnalytics.totals(rows);
+
+        assertEquals(2, series.size());
+        assertArrayEquals(new double[] {3, 0}, series.bookings, 0);
+        assertArrayEquals(new double[] {150, 0}, series.revenue, 0);
+        assertEquals(0.25, series.occupancy[0], 1e-9);
+    }
+}
@@ -0,0 +1,205 @@
+package com.roominate.services;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Drives PaymentStatusTracker with a local fake of the lenco-webhook state transitions.
+ */
+public class PaymentStatusTrackerTest {
+
+    private static final String REFERENCE = "ref-123";
+    private static final String BOOKING_ID = "booking-1";
+
+    /**
+     * Stands in for lenco-webhook + Postgres: holds each booking's payment_status, answers
+     * status lookups like PaymentService does, and pushes row changes like Realtime would
+     * (only while "connected").
+     */
+    private static class FakeLencoWebhook implements PaymentStatusTracker.StatusSource, PaymentStatusTracker.ChangeSource {
+        final Map<String, String> bookingByReference = new HashMap<>();
+        final Map<String, String> statusByBooking = new HashMap<>();
+        final Map<String, List<RealtimeClient.ChangeListener>> watchers = new HashMap<>();
+        final AtomicInteger statusFetches = new AtomicInteger();
+        volatile boolean connected = true;
+
+        synchronized void createPayment(String reference, String bookingId) {
+            bookingByReference.put(reference, bookingId);
+            statusByBooking.put(bookingId, "pending");
+        }
+
+        /** What the webhook does on a Lenco event: update the row, which Realtime then broadcasts */
+        void transition(String reference, String paymentStatus) throws Exception {
+            String bookingId;
+            String previous;
+            List<RealtimeClient.ChangeListener> listeners;
+            synchronized (this) {
+                bookingId = bookingByReference.get(reference);
+                previous = statusByBooking.put(bookingId, paymentStatus);
+                listeners = new CopyOnWriteArrayList<>(watchers.getOrDefault(bookingId, new CopyOnWriteArrayList<>()));
+            }
+            if (!connected) return;
+
+            JSONObject record = new JSONObject()
+                    .put("id", bookingId)
+                    .put("payment_reference", reference)
+                    .put("payment_status", paymentStatus);
+            JSONObject oldRecord = new JSONObject()
+                    .put("id", bookingId)
+                    .put("payment_status", previous);
+            RealtimeClient.Change change = new RealtimeClient.Change(
+                    "bookings", "UPDATE", record, oldRecord, "2025-01-01T00:00:00Z");
+            for (RealtimeClient.ChangeListener listener : listeners) {
+                listener.onChange(change);
+            }
+        }
+
+        synchronized int watcherCount(String bookingId) {
+            List<RealtimeClient.ChangeListener> list = watchers.get(bookingId);
+            return list == null ? 0 : list.size();
+        }
+
+        @Override
+        public void fetchStatus(String reference, SupabaseClient.ApiCallback callback) {
+            statusFetches.incrementAndGet();
+            String status;
+            synchronized (this) {
+                status = statusByBooking.getOrDefault(bookingByReference.get(reference), "pending");
+            }
+            try {
+                callback.onSuccess(new JSONObject().put("status", status));
+            } catch (Exception e) {
+                callback.onError(e.getMessage());
+            }
+        }
+
+        @Override
+        public synchronized Runnable watchBooking(String bookingId, RealtimeClient.ChangeListener listener) {
+            watchers.computeIfAbsent(bookingId, k -> new CopyOnWriteArrayList<>()).add(listener);
+            return () -> {
+                synchronized (FakeLencoWebhook.this) {
+                    watchers.get(bookingId).remove(listener);
+                }
+            };
+        }
+
+        @Override
+        public boolean isConnected() {
+            return connected;
+        }
+    }
+
+    private static class RecordingListener implements PaymentStatusTracker.Listener {
+        final BlockingQueue<PaymentStatusTracker.Result> results = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onPaymentResult(String reference, PaymentStatusTracker.Result result) {
+            results.add(result);
+        }
+    }
+
+    private FakeLencoWebhook webhook;
+    private ScheduledExecutorService scheduler;
+    private PaymentStatusTracker tracker;
+
+    @Before
+    public void setUp() {
+        webhook = new FakeLencoWebhook();
+        webhook.createPayment(REFERENCE, BOOKING_ID);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        tracker = new PaymentStatusTracker(webhook, webhook, Runnable::run, scheduler);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void pushedStatusDeliversExactlyOneTerminalEvent() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        tracker.track(REFERENCE, BOOKING_ID);
+        tracker.addListener(REFERENCE, listener);
+
+        webhook.transition(REFERENCE, "completed");
+        // Webhook retries re-broadcast the same row
+        webhook.transition(REFERENCE, "completed");
+
+        assertEquals(PaymentStatusTracker.Result.COMPLETED, listener.results.poll(2, TimeUnit.SECONDS));
+        assertNull(listener.results.poll(300, TimeUnit.MILLISECONDS));
+        assertFalse(tracker.isTracking(REFERENCE));
+        assertEquals(0, webhook.watcherCount(BOOKING_ID));
+    }
+
+    @Test
+    public void fallsBackToPollingWhilePushIsDisconnected() throws Exception {
+        webhook.connected = false;
+        RecordingListener listener = new RecordingListener();
+        tracker.track(REFERENCE, BOOKING_ID);
+        tracker.addListener(REFERENCE, listener);
+
+        // Let the immediate poll see "pending" before the webhook fires
+        Thread.sleep(200);
+        webhook.transition(REFERENCE, "failed");
+
+        PaymentStatusTracker.Result result = listener.results.poll(
+                PaymentStatusTracker.POLL_BACKOFF_MS[0] + 2000, TimeUnit.MILLISECONDS);
+        assertEquals(PaymentStatusTracker.Result.FAILED, result);
+        assertTrue(webhook.statusFetches.get() >= 2);
+        assertNull(listener.results.poll(300, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void resultWhileDetachedIsDeliveredOnceOnReattach() throws Exception {
+        RecordingListener first = new RecordingListener();
+        tracker.track(REFERENCE, BOOKING_ID);
+        tracker.addListener(REFERENCE, first);
+        // Activity stops (e.g. rotation) before the webhook fires
+        tracker.removeListener(REFERENCE, first);
+
+        webhook.transition(REFERENCE, "cancelled");
+        assertNull(first.results.poll(200, TimeUnit.MILLISECONDS));
+        assertTrue(tracker.isTracking(REFERENCE));
+
+        RecordingListener recreated = new RecordingListener();
+        tracker.addListener(REFERENCE, recreated);
+        assertEquals(PaymentStatusTracker.Result.CANCELLED, recreated.results.poll(1, TimeUnit.SECONDS));
+
+        // A further attach finds nothing left to deliver
+        RecordingListener late = new RecordingListener();
+        tracker.addListener(REFERENCE, late);
+        assertNull(late.results.poll(200, TimeUnit.MILLISECONDS));
+        assertNull(first.results.poll(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void cancelStopsWatchingWithoutResult() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        tracker.track(REFERENCE, BOOKING_ID);
+        tracker.addListener(REFERENCE, listener);
+        tracker.cancel(REFERENCE);
+
+        assertEquals(0, webhook.watcherCount(BOOKING_ID));
+        webhook.transition(REFERENCE, "completed");
+        assertNull(listener.results.poll(300, TimeUnit.MILLISECONDS));
+        assertFalse(tracker.isTracking(REFERENCE));
+    }
+}
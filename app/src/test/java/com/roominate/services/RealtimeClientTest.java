@@ -0,0 +1,147 @@
+package com.roominate.services;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Runs RealtimeClient against MockWebServer acting as the Supabase Realtime endpoint.
+ */
+public class RealtimeClientTest {
+
+    private MockWebServer server;
+    private RealtimeClient realtime;
+
+    /** Server side of one websocket connection: records frames and can push messages back */
+    private static class FakeRealtimeSocket extends WebSocketListener {
+        final BlockingQueue<JSONObject> received = new LinkedBlockingQueue<>();
+        volatile WebSocket socket;
+
+        @Override
+        public void onOpen(WebSocket webSocket, Response response) {
+            socket = webSocket;
+        }
+
+        @Override
+        public void onMessage(WebSocket webSocket, String text) {
+            try {
+                JSONObject message = new JSONObject(text);
+                // Acknowledge joins like Realtime does
+                if ("phx_join".equals(message.optString("event"))) {
+                    webSocket.send(new JSONObject()
+                            .put("topic", message.getString("topic"))
+                            .put("event", "phx_reply")
+                            .put("ref", message.getString("ref"))
+                            .put("payload", new JSONObject().put("status", "ok").put("response", new JSONObject()))
+                            .toString());
+                }
+                received.add(message);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public void onClosing(WebSocket webSocket, int code, String reason) {
+            webSocket.close(1000, null);
+        }
+
+        JSONObject nextFrame() throws InterruptedException {
+            return received.poll(5, TimeUnit.SECONDS);
+        }
+
+        void pushChange(String topic, String table, String type, JSONObject record) throws Exception {
+            JSONObject data = new JSONObject()
+                    .put("schema", "public")
+                    .put("table", table)
+                    .put("type", type)
+                    .put("record", record)
+                    .put("commit_timestamp", "2025-11-06T10:00:00Z");
+            socket.send(new JSONObject()
+                    .put("topic", topic)
+                    .put("event", "postgres_changes")
+                    .put("ref", JSONObject.NULL)
+                    .put("payload", new JSONObject().put("ids", new org.json.JSONArray()).put("data", data))
+                    .toString());
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        String url = server.url("/realtime/v1/websocket").toString().replaceFirst("^http", "ws");
+        realtime = new RealtimeClient(new OkHttpClient(), url, "anon-key", () -> "user-jwt", Runnable::run);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        realtime.disconnect();
+        server.shutdown();
+    }
+
+    @Test
+    public void subscriptionsShareOneSocketAndReceiveChanges() throws Exception {
+        FakeRealtimeSocket fake = new FakeRealtimeSocket();
+        server.enqueue(new MockResponse().withWebSocketUpgrade(fake));
+
+        BlockingQueue<RealtimeClient.Change> changes = new LinkedBlockingQueue<>();
+        realtime.subscribe("notifications", "user_id=eq.u1", changes::add);
+        realtime.subscribe("bookings", "tenant_id=eq.u1", changes::add);
+
+        JSONObject first = fake.nextFrame();
+        JSONObject second = fake.nextFrame();
+        assertNotNull(first);
+        assertNotNull(second);
+        assertEquals("phx_join", first.getString("event"));
+        assertEquals("phx_join", second.getString("event"));
+        assertEquals("user-jwt", first.getJSONObject("payload").getString("access_token"));
+        assertEquals(1, server.getRequestCount());
+        assertEquals("/realtime/v1/websocket?apikey=anon-key&vsn=1.0.0", server.takeRequest().getPath());
+
+        fake.pushChange("realtime:public:notifications:user_id=eq.u1", "notifications", "INSERT",
+                new JSONObject().put("id", "n1").put("is_read", false));
+
+        RealtimeClient.Change change = changes.poll(5, TimeUnit.SECONDS);
+        assertNotNull(change);
+        assertEquals("notifications", change.table);
+        assertEquals("INSERT", change.eventType);
+        assertEquals("n1", change.getId());
+        assertNull(changes.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void reconnectsAndRejoinsAfterServerClose() throws Exception {
+        FakeRealtimeSocket firstSocket = new FakeRealtimeSocket();
+        FakeRealtimeSocket secondSocket = new FakeRealtimeSocket();
+        server.enqueue(new MockResponse().withWebSocketUpgrade(firstSocket));
+        server.enqueue(new MockResponse().withWebSocketUpgrade(secondSocket));
+
+        realtime.subscribe("notifications", "user_id=eq.u1", change -> { });
+        assertEquals("phx_join", firstSocket.nextFrame().getString("event"));
+
+        firstSocket.socket.close(1001, "server restart");
+
+        JSONObject rejoin = secondSocket.nextFrame();
+        assertNotNull(rejoin);
+        assertEquals("phx_join", rejoin.getString("event"));
+        assertEquals("realtime:public:notifications:user_id=eq.u1", rejoin.getString("topic"));
+        assertEquals(2, server.getRequestCount());
+    }
+}
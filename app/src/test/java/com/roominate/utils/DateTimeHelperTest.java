@@ -0,0 +1,70 @@
+package com.roominate.utils;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+
+import static org.junit.Assert.assertEquals;
+
+public class DateTimeHelperTest {
+
+    private static long instant(String iso) {
+        return OffsetDateTime.parse(iso).toInstant().toEpochMilli();
+    }
+
+    private static long localMidnight(int year, int month, int day) {
+        return LocalDate.of(year, month, day).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @Test
+    public void fractionalSecondsAreTruncatedToMillis() {
+        assertEquals(instant("2025-11-06T12:34:56Z"), DateTimeHelper.parseTimestamp("2025-11-06T12:34:56Z"));
+        assertEquals(instant("2025-11-06T12:34:56.123Z"), DateTimeHelper.parseTimestamp("2025-11-06T12:34:56.123Z"));
+        assertEquals(instant("2025-11-06T12:34:56.123Z"), DateTimeHelper.parseTimestamp("2025-11-06T12:34:56.123456+00:00"));
+        assertEquals(instant("2025-11-06T12:34:56.500Z"), DateTimeHelper.parseTimestamp("2025-11-06T12:34:56.5Z"));
+    }
+
+    @Test
+    public void offsetsAreHonoured() {
+        assertEquals(instant("2025-11-06T10:34:56Z"), DateTimeHelper.parseTimestamp("2025-11-06T12:34:56+02:00"));
+        assertEquals(instant("2025-11-06T18:04:56Z"), DateTimeHelper.parseTimestamp("2025-11-06T12:34:56-05:30"));
+        assertEquals(instant("2025-11-06T10:34:56Z"), DateTimeHelper.parseTimestamp("2025-11-06 12:34:56+02"));
+        assertEquals(instant("2025-11-06T12:34:56Z"), DateTimeHelper.parseTimestamp("2025-11-06T12:34:56z"));
+    }
+
+    @Test
+    public void missingOffsetIsUtc() {
+        assertEquals(instant("2025-11-06T12:34:56Z"), DateTimeHelper.parseTimestamp("2025-11-06T12:34:56"));
+        assertEquals(instant("2025-11-06T12:34:00Z"), DateTimeHelper.parseTimestamp("2025-11-06T12:34"));
+    }
+
+    @Test
+    public void dateOnlyIsLocalMidnight() {
+        assertEquals(localMidnight(2024, 2, 29), DateTimeHelper.parseTimestamp("2024-02-29"));
+        assertEquals(localMidnight(2024, 2, 29), DateTimeHelper.parseDate("2024-02-29"));
+        // parseDate ignores a time part, e.g. date_trunc output used as analytics buckets
+        assertEquals(localMidnight(2024, 2, 29), DateTimeHelper.parseDate("2024-02-29T00:00:00+00:00"));
+    }
+
+    @Test
+    public void malformedInputIsZero() {
+        String[] bad = {
+                null, "", "2025", "2025-11", "not a timestamp", "2025/11/06", "2025-13-01", "2025-11-00",
+                "2025-11-06X12:34:56Z", "2025-11-06T12:34:56Zjunk", "2025-11-06T12:34:56+ab:00", "2025-11-06T1x:34",
+        };
+        for (String value : bad) {
+            assertEquals(String.valueOf(value), 0, DateTimeHelper.parseTimestamp(value));
+        }
+        assertEquals(0, DateTimeHelper.parseDate(null));
+        assertEquals(0, DateTimeHelper.parseDate("06-11-2025"));
+    }
+
+    @Test
+    public void isoTimestampRoundTrips() {
+        long millis = instant("2025-11-06T12:34:56.789Z");
+        assertEquals("2025-11-06T12:34:56.789Z", DateTimeHelper.formatIsoTimestamp(millis));
+        assertEquals(millis, DateTimeHelper.parseTimestamp(DateTimeHelper.formatIsoTimestamp(millis)));
+    }
+}
@@ -0,0 +1,63 @@
+package com.roominate.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LttbTest {
+
+    private static double[] range(int n) {
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) x[i] = i;
+        return x;
+    }
+
+    @Test
+    public void shortSeriesAreReturnedWhole() {
+        assertArrayEquals(new int[] {0, 1, 2}, Lttb.downsample(range(3), new double[] {5, 1, 7}, 10));
+        assertArrayEquals(new int[0], Lttb.downsample(new double[0], new double[0], 10));
+    }
+
+    @Test
+    public void keepsEndsAndReturnsThresholdPointsInOrder() {
+        int n = 3650;
+        double[] x = range(n);
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) y[i] = Math.sin(i / 50.0);
+
+        int[] kept = Lttb.downsample(x, y, 400);
+
+        assertEquals(400, kept.length);
+        assertEquals(0, kept[0]);
+        assertEquals(n - 1, kept[kept.length - 1]);
+        for (int i = 1; i < kept.length; i++) {
+            assertTrue(kept[i] > kept[i - 1]);
+        }
+    }
+
+    @Test
+    public void keepsIsolatedSpikes() {
+        int n = 1000;
+        double[] y = new double[n];
+        y[137] = 50;
+        y[801] = -20;
+
+        int[] kept = Lttb.downsample(range(n), y, 50);
+
+        boolean peak = false;
+        boolean dip = false;
+        for (int i : kept) {
+            peak |= i == 137;
+            dip |= i == 801;
+        }
+        assertTrue(peak);
+        assertTrue(dip);
+    }
+
+    @Test
+    public void tinyThresholdKeepsOnlyTheEnds() {
+        assertArrayEquals(new int[] {0, 9}, Lttb.downsample(range(10), new double[10], 2));
+    }
+}
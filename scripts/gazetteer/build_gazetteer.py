@@ -0,0 +1,90 @@
+#!/usr/bin/env python3
+"""
+Compile zambia_places.csv into the binary gazetteer read by
+com.roominate.services.Gazetteer (app/src/main/assets/zambia_gazetteer.bin).
+
+Usage (from the repository root):
+  python3 scripts/gazetteer/build_gazetteer.py
+
+Layout (big-endian, see Gazetteer.java):
+  header  16 bytes: magic "ZGAZ", u16 version, u16 entry count, u32 strings offset, u32 reserved
+  entries 36 bytes each, sorted by (key, kind):
+          u32 key offset, u8 key length, u8 name length, u8 kind, u8 reserved,
+          u16 parent index (0xFFFF = none), u16 reserved,
+          i32 lat, lon, min lat, min lon, max lat, max lon (microdegrees)
+  strings UTF-8 key immediately followed by the display name, at strings offset + key offset
+"""
+import csv
+import math
+import os
+import re
+import struct
+import unicodedata
+
+ROOT = os.path.dirname(os.path.dirname(os.path.dirname(os.path.abspath(__file__))))
+SOURCE = os.path.join(ROOT, "scripts", "gazetteer", "zambia_places.csv")
+OUTPUT = os.path.join(ROOT, "app", "src", "main", "assets", "zambia_gazetteer.bin")
+
+VERSION = 1
+KINDS = {"province": 0, "district": 1, "town": 2, "compound": 3}
+NO_PARENT = 0xFFFF
+
+
+def normalize(name):
+    """Must match Gazetteer.normalizeName."""
+    folded = unicodedata.normalize("NFKD", name)
+    folded = "".join(c for c in folded if not unicodedata.combining(c)).lower()
+    return re.sub(r"[^a-z0-9+]+", " ", folded).strip()
+
+
+def micro(deg):
+    return int(round(deg * 1_000_000))
+
+
+def main():
+    with open(SOURCE, newline="", encoding="utf-8") as f:
+        rows = [r for r in csv.DictReader(line for line in f if not line.startswith("#"))]
+
+    places = []
+    for r in rows:
+        lat, lon, radius = float(r["lat"]), float(r["lon"]), float(r["radius_km"])
+        dlat = radius / 111.0
+        dlon = radius / (111.0 * math.cos(math.radians(lat)))
+        places.append({
+            "name": r["name"],
+            "key": normalize(r["name"]),
+            "kind": KINDS[r["kind"]],
+            "parent_name": r["parent"],
+            "box": (lat, lon, lat - dlat, lon - dlon, lat + dlat, lon + dlon),
+        })
+    places.sort(key=lambda p: (p["key"], p["kind"]))
+    if len(places) >= NO_PARENT:
+        raise SystemExit("too many places")
+
+    # Districts/towns hang off a province, compounds off a town
+    index = {(p["key"], p["kind"]): i for i, p in enumerate(places)}
+    for p in places:
+        if not p["parent_name"]:
+            p["parent"] = NO_PARENT
+            continue
+        parent_kind = KINDS["town"] if p["kind"] == KINDS["compound"] else KINDS["province"]
+        p["parent"] = index[(normalize(p["parent_name"]), parent_kind)]
+
+    strings = bytearray()
+    entries = bytearray()
+    for p in places:
+        key, name = p["key"].encode("utf-8"), p["name"].encode("utf-8")
+        if len(key) > 255 or len(name) > 255:
+            raise SystemExit("name too long: " + p["name"])
+        entries += struct.pack(">IBBBBHH6i", len(strings), len(key), len(name), p["kind"], 0,
+                               p["parent"], 0, *[micro(v) for v in p["box"]])
+        strings += key + name
+
+    header = struct.pack(">4sHHII", b"ZGAZ", VERSION, len(places), 16 + len(entries), 0)
+    with open(OUTPUT, "wb") as f:
+        f.write(header + entries + strings)
+    print("wrote %d places, %d bytes -> %s" % (len(places), len(header) + len(entries) + len(strings), OUTPUT))
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,107 @@
+-- Rating aggregates on boarding_houses maintained by triggers
+-- Run this in your Supabase SQL Editor
+--
+-- The details screen used to download every review of a listing to average them, and
+-- listing cards could not show a rating without one extra request per card. These columns
+-- keep the sum and count of review ratings on the listing row itself, so any listing
+-- projection can include them (select=...,rating_sum,rating_count,rating_average).
+
+ALTER TABLE public.boarding_houses
+    ADD COLUMN IF NOT EXISTS rating_sum INTEGER NOT NULL DEFAULT 0 CHECK (rating_sum >= 0),
+    ADD COLUMN IF NOT EXISTS rating_count INTEGER NOT NULL DEFAULT 0 CHECK (rating_count >= 0);
+
+-- Convenience for ordering/filtering by rating; 0 when there are no reviews
+ALTER TABLE public.boarding_houses
+    ADD COLUMN IF NOT EXISTS rating_average NUMERIC(3, 2)
+        GENERATED ALWAYS AS (
+            CASE WHEN rating_count > 0 THEN ROUND(rating_sum::NUMERIC / rating_count, 2) ELSE 0 END
+        ) STORED;
+
+-- Apply a delta to one listing's aggregate. A single UPDATE takes the row lock, so
+-- concurrent reviews of the same listing add up instead of overwriting each other.
+CREATE OR REPLACE FUNCTION public.bump_listing_rating(target_listing UUID, sum_delta INTEGER, count_delta INTEGER)
+RETURNS VOID AS $$
+BEGIN
+    IF target_listing IS NULL OR (sum_delta = 0 AND count_delta = 0) THEN
+        RETURN;
+    END IF;
+
+    UPDATE public.boarding_houses
+    SET rating_sum = GREATEST(rating_sum + sum_delta, 0),
+        rating_count = GREATEST(rating_count + count_delta, 0)
+    WHERE id = target_listing;
+END;
+$$ LANGUAGE plpgsql SECURITY DEFINER;
+
+-- Internal helper: not callable through the REST API
+REVOKE EXECUTE ON FUNCTION public.bump_listing_rating(UUID, INTEGER, INTEGER) FROM PUBLIC, anon, authenticated;
+
+-- Reviewers cannot update listings under RLS, hence SECURITY DEFINER
+CREATE OR REPLACE FUNCTION public.maintain_listing_rating()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM public.bump_listing_rating(NEW.listing_id, NEW.rating, 1);
+        RETURN NEW;
+
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM public.bump_listing_rating(OLD.listing_id, -OLD.rating, -1);
+        RETURN OLD;
+
+    ELSE -- UPDATE
+        IF OLD.listing_id IS DISTINCT FROM NEW.listing_id THEN
+            PERFORM public.bump_listing_rating(OLD.listing_id, -OLD.rating, -1);
+            PERFORM public.bump_listing_rating(NEW.listing_id, NEW.rating, 1);
+        ELSE
+            PERFORM public.bump_listing_rating(NEW.listing_id, NEW.rating - OLD.rating, 0);
+        END IF;
+        RETURN NEW;
+    END IF;
+END;
+$$ LANGUAGE plpgsql SECURITY DEFINER;
+
+DROP TRIGGER IF EXISTS reviews_listing_rating ON public.reviews;
+
+-- UPDATE only fires when the rating or the listing actually changes
+CREATE TRIGGER reviews_listing_rating
+    AFTER INSERT OR DELETE OR UPDATE OF rating, listing_id ON public.reviews
+    FOR EACH ROW EXECUTE FUNCTION public.maintain_listing_rating();
+
+-- Owners PATCH their listing rows directly; keep the aggregate out of their reach. Updates
+-- made from inside the reviews trigger run at trigger depth > 1 and go through.
+CREATE OR REPLACE FUNCTION public.protect_listing_rating()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF pg_trigger_depth() <= 1 THEN
+        NEW.rating_sum := OLD.rating_sum;
+        NEW.rating_count := OLD.rating_count;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS boarding_houses_protect_rating ON public.boarding_houses;
+
+CREATE TRIGGER boarding_houses_protect_rating
+    BEFORE UPDATE OF rating_sum, rating_count ON public.boarding_houses
+    FOR EACH ROW EXECUTE FUNCTION public.protect_listing_rating();
+
+-- Backfill from existing reviews (the protect trigger is bypassed for this one statement)
+ALTER TABLE public.boarding_houses DISABLE TRIGGER boarding_houses_protect_rating;
+
+UPDATE public.boarding_houses b
+SET rating_sum = COALESCE(r.total, 0),
+    rating_count = COALESCE(r.n, 0)
+FROM (
+    SELECT bh.id, SUM(rv.rating)::INTEGER AS total, COUNT(rv.id)::INTEGER AS n
+    FROM public.boarding_houses bh
+    LEFT JOIN public.reviews rv ON rv.listing_id = bh.id
+    GROUP BY bh.id
+) r
+WHERE b.id = r.id
+  AND (b.rating_sum, b.rating_count) IS DISTINCT FROM (COALESCE(r.total, 0), COALESCE(r.n, 0));
+
+ALTER TABLE public.boarding_houses ENABLE TRIGGER boarding_houses_protect_rating;
+
+COMMENT ON COLUMN public.boarding_houses.rating_sum IS 'Sum of review ratings, maintained by the reviews_listing_rating trigger';
+COMMENT ON COLUMN public.boarding_houses.rating_count IS 'Number of reviews, maintained by the reviews_listing_rating trigger';
@@ -0,0 +1,17 @@
+-- One properties_media row per stored object per listing
+-- Run this in your Supabase SQL Editor (after add_media_renditions.sql)
+--
+-- Uploads are now content-addressed (storage key = SHA-256 of the prepared image), so the
+-- same photo added twice maps to the same url. The app inserts with
+-- on_conflict=listing_id,url and resolution=ignore-duplicates, which needs this constraint.
+
+-- Drop existing duplicates, keeping the earliest row. created_at is nullable; a NULL would
+-- make the comparison NULL, keep both rows and abort the index below, so it sorts first.
+DELETE FROM public.properties_media a
+USING public.properties_media b
+WHERE a.listing_id = b.listing_id
+  AND a.url = b.url
+  AND (COALESCE(a.created_at, '-infinity'), a.id) > (COALESCE(b.created_at, '-infinity'), b.id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_media_listing_url
+    ON public.properties_media (listing_id, url);
@@ -0,0 +1,13 @@
+-- Thumbnail rendition and dimensions for property images
+-- Run this in your Supabase SQL Editor
+--
+-- The app now uploads two WebP renditions per photo: a full-size one (url, max 1600px)
+-- for the details slider and a small one (thumbnail_url, max 400px) for listing grids.
+-- Older rows keep thumbnail_url NULL and clients fall back to url.
+
+ALTER TABLE public.properties_media ADD COLUMN IF NOT EXISTS thumbnail_url TEXT;
+ALTER TABLE public.properties_media ADD COLUMN IF NOT EXISTS width INTEGER;
+ALTER TABLE public.properties_media ADD COLUMN IF NOT EXISTS height INTEGER;
+
+COMMENT ON COLUMN public.properties_media.url IS 'Storage path of the full-size rendition (property-images bucket)';
+COMMENT ON COLUMN public.properties_media.thumbnail_url IS 'Storage path of the grid thumbnail rendition; NULL for legacy uploads';
@@ -0,0 +1,48 @@
+-- Bulk notification actions
+-- Run this in your Supabase SQL Editor (after create_notifications_table.sql)
+
+-- Mark every unread notification of the calling user created at or before a given time as read.
+-- The app passes the created_at of the newest notification it has shown, so anything that
+-- arrives after the user tapped "Mark all as read" stays unread.
+-- SECURITY INVOKER: the existing RLS update policy still applies.
+CREATE OR REPLACE FUNCTION public.mark_notifications_read_before(before_ts TIMESTAMPTZ)
+RETURNS INTEGER AS $$
+DECLARE
+    updated_count INTEGER;
+BEGIN
+    UPDATE public.notifications
+    SET is_read = true
+    WHERE user_id = auth.uid()
+      AND is_read = false
+      AND created_at <= before_ts;
+
+    GET DIAGNOSTICS updated_count = ROW_COUNT;
+    RETURN updated_count;
+END;
+$$ LANGUAGE plpgsql SECURITY INVOKER;
+
+GRANT EXECUTE ON FUNCTION public.mark_notifications_read_before(TIMESTAMPTZ) TO authenticated;
+
+COMMENT ON FUNCTION public.mark_notifications_read_before(TIMESTAMPTZ) IS 'Marks the caller''s unread notifications created at or before before_ts as read; returns the number of rows updated';
+
+-- Delete every notification of the calling user created at or before a given time.
+-- Same bound as mark_notifications_read_before: "Clear all" removes what the user has seen,
+-- including older pages that were never loaded, in one round trip.
+-- SECURITY INVOKER: the existing RLS delete policy still applies.
+CREATE OR REPLACE FUNCTION public.delete_notifications_before(before_ts TIMESTAMPTZ)
+RETURNS INTEGER AS $$
+DECLARE
+    deleted_count INTEGER;
+BEGIN
+    DELETE FROM public.notifications
+    WHERE user_id = auth.uid()
+      AND created_at <= before_ts;
+
+    GET DIAGNOSTICS deleted_count = ROW_COUNT;
+    RETURN deleted_count;
+END;
+$$ LANGUAGE plpgsql SECURITY INVOKER;
+
+GRANT EXECUTE ON FUNCTION public.delete_notifications_before(TIMESTAMPTZ) TO authenticated;
+
+COMMENT ON FUNCTION public.delete_notifications_before(TIMESTAMPTZ) IS 'Deletes the caller''s notifications created at or before before_ts; returns the number of rows deleted';
@@ -0,0 +1,115 @@
+-- Owner analytics: bookings, revenue and occupancy per listing in time buckets
+-- Run this in your Supabase SQL Editor (after add_payment_tracking.sql)
+--
+-- The dashboard only had running totals (owner_dashboard_stats). This RPC returns one row
+-- per day, week or month so the app can draw trends without exporting data: the owner's
+-- listings summed (listing_id NULL), or a single listing when target_listing is given.
+-- Either way there is one row per bucket, which keeps long ranges under PostgREST's max-rows
+-- limit (1000 by default) no matter how many listings the owner has.
+-- Bookings and revenue are bucketed by created_at (revenue counts completed bookings, as the
+-- totals do); occupancy is the share of room-nights in the bucket covered by confirmed,
+-- active or completed stays.
+
+-- Bucketing scans the owner's bookings in created_at order
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_created
+    ON public.bookings (owner_id, created_at);
+
+-- Covered by the index above
+DROP INDEX IF EXISTS public.idx_bookings_owner;
+
+-- Occupancy looks for stays overlapping the requested range
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_start
+    ON public.bookings (owner_id, start_date);
+
+-- bucket: 'day', 'week' or 'month'. target_listing limits the result to one listing.
+-- Occupancy of the summed rows is recomputed from the summed nights, so large listings
+-- weigh more than small ones.
+-- Stays without an end_date are counted as one month, the usual boarding house term.
+CREATE OR REPLACE FUNCTION public.owner_booking_timeseries(
+    bucket TEXT DEFAULT 'day',
+    range_start TIMESTAMPTZ DEFAULT now() - INTERVAL '90 days',
+    range_end TIMESTAMPTZ DEFAULT now(),
+    target_listing UUID DEFAULT NULL
+)
+RETURNS TABLE (
+    bucket_start DATE,
+    listing_id UUID,
+    bookings INTEGER,
+    revenue NUMERIC,
+    booked_nights INTEGER,
+    room_nights INTEGER,
+    occupancy NUMERIC
+) AS $$
+DECLARE
+    step INTERVAL;
+    first_bucket TIMESTAMPTZ;
+BEGIN
+    IF bucket NOT IN ('day', 'week', 'month') THEN
+        RAISE EXCEPTION 'bucket must be day, week or month (got %)', bucket;
+    END IF;
+    IF range_end <= range_start THEN
+        RETURN;
+    END IF;
+
+    step := ('1 ' || bucket)::INTERVAL;
+    first_bucket := date_trunc(bucket, range_start);
+
+    RETURN QUERY
+    WITH listings AS (
+        SELECT bh.id, GREATEST(COALESCE(bh.total_rooms, 1), 1) AS rooms
+        FROM public.boarding_houses bh
+        WHERE bh.owner_id = auth.uid()
+          AND (target_listing IS NULL OR bh.id = target_listing)
+    ),
+    buckets AS (
+        SELECT g::DATE AS start_day, (g + step)::DATE AS end_day
+        FROM generate_series(first_bucket, range_end, step) g
+        WHERE g < range_end
+    ),
+    created AS (
+        SELECT date_trunc(bucket, bk.created_at)::DATE AS start_day,
+               bk.listing_id AS listing,
+               COUNT(*)::INTEGER AS n,
+               COALESCE(SUM(bk.total_amount) FILTER (WHERE bk.status = 'completed'), 0) AS amount
+        FROM public.bookings bk
+        JOIN listings l ON l.id = bk.listing_id
+        WHERE bk.owner_id = auth.uid()
+          AND bk.created_at >= first_bucket
+          AND bk.created_at < range_end
+        GROUP BY 1, 2
+    ),
+    stays AS (
+        SELECT bk.listing_id AS listing,
+               bk.start_date AS first_night,
+               COALESCE(bk.end_date, (bk.start_date + INTERVAL '1 month')::DATE) AS checkout
+        FROM public.bookings bk
+        JOIN listings l ON l.id = bk.listing_id
+        WHERE bk.owner_id = auth.uid()
+          AND bk.status IN ('confirmed', 'approved', 'active', 'completed')
+          AND bk.start_date < range_end::DATE
+          AND COALESCE(bk.end_date, (bk.start_date + INTERVAL '1 month')::DATE) > first_bucket::DATE
+    ),
+    nights AS (
+        SELECT b.start_day, s.listing,
+               SUM(LEAST(s.checkout, b.end_day) - GREATEST(s.first_night, b.start_day))::INTEGER AS booked
+        FROM buckets b
+        JOIN stays s ON s.first_night < b.end_day AND s.checkout > b.start_day
+        GROUP BY 1, 2
+    )
+    SELECT b.start_day,
+           CASE WHEN target_listing IS NULL THEN NULL ELSE l.id END,
+           SUM(COALESCE(c.n, 0))::INTEGER,
+           SUM(COALESCE(c.amount, 0)),
+           SUM(COALESCE(n.booked, 0))::INTEGER,
+           SUM(l.rooms * (b.end_day - b.start_day))::INTEGER,
+           ROUND(LEAST(SUM(COALESCE(n.booked, 0))::NUMERIC / SUM(l.rooms * (b.end_day - b.start_day)), 1), 4)
+    FROM buckets b
+    CROSS JOIN listings l
+    LEFT JOIN created c ON c.start_day = b.start_day AND c.listing = l.id
+    LEFT JOIN nights n ON n.start_day = b.start_day AND n.listing = l.id
+    GROUP BY 1, 2
+    ORDER BY 1;
+END;
+$$ LANGUAGE plpgsql STABLE SECURITY INVOKER;
+
+GRANT EXECUTE ON FUNCTION public.owner_booking_timeseries(TEXT, TIMESTAMPTZ, TIMESTAMPTZ, UUID) TO authenticated;
@@ -0,0 +1,203 @@
+-- Owner dashboard statistics maintained by triggers
+-- Run this in your Supabase SQL Editor (after add_payment_tracking.sql)
+--
+-- The owner dashboard used to download every booking row (status, total_amount) and sum
+-- revenue on the device, next to a separate listings count. This keeps one row per owner
+-- with listing, room and booking counters plus completed revenue, updated by triggers on
+-- boarding_houses and bookings, so the dashboard reads a single small row regardless of how
+-- many bookings the owner has.
+
+CREATE TABLE IF NOT EXISTS public.owner_stats (
+    owner_id UUID PRIMARY KEY,
+    listings_count INTEGER NOT NULL DEFAULT 0 CHECK (listings_count >= 0),
+    total_rooms INTEGER NOT NULL DEFAULT 0 CHECK (total_rooms >= 0),
+    available_rooms INTEGER NOT NULL DEFAULT 0 CHECK (available_rooms >= 0),
+    total_bookings INTEGER NOT NULL DEFAULT 0 CHECK (total_bookings >= 0),
+    pending_bookings INTEGER NOT NULL DEFAULT 0 CHECK (pending_bookings >= 0),
+    confirmed_bookings INTEGER NOT NULL DEFAULT 0 CHECK (confirmed_bookings >= 0),
+    completed_bookings INTEGER NOT NULL DEFAULT 0 CHECK (completed_bookings >= 0),
+    cancelled_bookings INTEGER NOT NULL DEFAULT 0 CHECK (cancelled_bookings >= 0),
+    total_revenue NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMPTZ DEFAULT now()
+);
+
+ALTER TABLE public.owner_stats ENABLE ROW LEVEL SECURITY;
+
+DROP POLICY IF EXISTS "Owners can view own stats" ON public.owner_stats;
+
+CREATE POLICY "Owners can view own stats"
+    ON public.owner_stats FOR SELECT
+    USING (owner_id = auth.uid());
+
+-- Only the triggers (SECURITY DEFINER) write to the stats table
+GRANT SELECT ON public.owner_stats TO authenticated;
+GRANT ALL ON public.owner_stats TO service_role;
+
+-- Add (sign = 1) or remove (sign = -1) one listing's contribution
+CREATE OR REPLACE FUNCTION public.apply_owner_listing(target_owner UUID, rooms INTEGER, available INTEGER, sign INTEGER)
+RETURNS VOID AS $$
+BEGIN
+    IF target_owner IS NULL THEN
+        RETURN;
+    END IF;
+
+    INSERT INTO public.owner_stats (owner_id) VALUES (target_owner)
+    ON CONFLICT (owner_id) DO NOTHING;
+
+    UPDATE public.owner_stats
+    SET listings_count = GREATEST(listings_count + sign, 0),
+        total_rooms = GREATEST(total_rooms + sign * GREATEST(COALESCE(rooms, 0), 0), 0),
+        available_rooms = GREATEST(available_rooms + sign * GREATEST(COALESCE(available, 0), 0), 0),
+        updated_at = now()
+    WHERE owner_id = target_owner;
+END;
+$$ LANGUAGE plpgsql SECURITY DEFINER;
+
+-- Add (sign = 1) or remove (sign = -1) one booking's contribution. Revenue counts completed
+-- bookings only, as the dashboard always has.
+CREATE OR REPLACE FUNCTION public.apply_owner_booking(target_owner UUID, booking_status TEXT, amount NUMERIC, sign INTEGER)
+RETURNS VOID AS $$
+BEGIN
+    IF target_owner IS NULL THEN
+        RETURN;
+    END IF;
+
+    INSERT INTO public.owner_stats (owner_id) VALUES (target_owner)
+    ON CONFLICT (owner_id) DO NOTHING;
+
+    UPDATE public.owner_stats
+    SET total_bookings = GREATEST(total_bookings + sign, 0),
+        pending_bookings = GREATEST(pending_bookings
+            + CASE WHEN booking_status = 'pending' THEN sign ELSE 0 END, 0),
+        confirmed_bookings = GREATEST(confirmed_bookings
+            + CASE WHEN booking_status IN ('confirmed', 'approved', 'active') THEN sign ELSE 0 END, 0),
+        completed_bookings = GREATEST(completed_bookings
+            + CASE WHEN booking_status = 'completed' THEN sign ELSE 0 END, 0),
+        cancelled_bookings = GREATEST(cancelled_bookings
+            + CASE WHEN booking_status IN ('cancelled', 'rejected') THEN sign ELSE 0 END, 0),
+        total_revenue = GREATEST(total_revenue
+            + CASE WHEN booking_status = 'completed' THEN sign * COALESCE(amount, 0) ELSE 0 END, 0),
+        updated_at = now()
+    WHERE owner_id = target_owner;
+END;
+$$ LANGUAGE plpgsql SECURITY DEFINER;
+
+-- Internal helpers: not callable through the REST API
+REVOKE EXECUTE ON FUNCTION public.apply_owner_listing(UUID, INTEGER, INTEGER, INTEGER) FROM PUBLIC, anon, authenticated;
+REVOKE EXECUTE ON FUNCTION public.apply_owner_booking(UUID, TEXT, NUMERIC, INTEGER) FROM PUBLIC, anon, authenticated;
+
+CREATE OR REPLACE FUNCTION public.maintain_owner_listing_stats()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM public.apply_owner_listing(OLD.owner_id, OLD.total_rooms, OLD.available_rooms, -1);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM public.apply_owner_listing(NEW.owner_id, NEW.total_rooms, NEW.available_rooms, 1);
+        RETURN NEW;
+    END IF;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql SECURITY DEFINER;
+
+DROP TRIGGER IF EXISTS boarding_houses_owner_stats ON public.boarding_houses;
+
+-- UPDATE only fires when a counted column changes (not e.g. for rating bumps)
+CREATE TRIGGER boarding_houses_owner_stats
+    AFTER INSERT OR DELETE OR UPDATE OF owner_id, total_rooms, available_rooms ON public.boarding_houses
+    FOR EACH ROW EXECUTE FUNCTION public.maintain_owner_listing_stats();
+
+-- bookings.owner_id is filled by the BEFORE trigger from add_payment_tracking.sql, so it is
+-- already set when this AFTER trigger runs
+CREATE OR REPLACE FUNCTION public.maintain_owner_booking_stats()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM public.apply_owner_booking(OLD.owner_id, OLD.status, OLD.total_amount, -1);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM public.apply_owner_booking(NEW.owner_id, NEW.status, NEW.total_amount, 1);
+        RETURN NEW;
+    END IF;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql SECURITY DEFINER;
+
+DROP TRIGGER IF EXISTS bookings_owner_stats ON public.bookings;
+
+CREATE TRIGGER bookings_owner_stats
+    AFTER INSERT OR DELETE OR UPDATE OF owner_id, status, total_amount ON public.bookings
+    FOR EACH ROW EXECUTE FUNCTION public.maintain_owner_booking_stats();
+
+-- Backfill from existing data
+INSERT INTO public.owner_stats (
+    owner_id, listings_count, total_rooms, available_rooms,
+    total_bookings, pending_bookings, confirmed_bookings, completed_bookings, cancelled_bookings,
+    total_revenue, updated_at)
+SELECT o.owner_id,
+       COALESCE(l.listings_count, 0), COALESCE(l.total_rooms, 0), COALESCE(l.available_rooms, 0),
+       COALESCE(b.total_bookings, 0), COALESCE(b.pending_bookings, 0), COALESCE(b.confirmed_bookings, 0),
+       COALESCE(b.completed_bookings, 0), COALESCE(b.cancelled_bookings, 0),
+       COALESCE(b.total_revenue, 0), now()
+FROM (
+    SELECT owner_id FROM public.boarding_houses WHERE owner_id IS NOT NULL
+    UNION
+    SELECT owner_id FROM public.bookings WHERE owner_id IS NOT NULL
+) o
+LEFT JOIN (
+    SELECT owner_id,
+           COUNT(*)::INTEGER AS listings_count,
+           SUM(GREATEST(COALESCE(total_rooms, 0), 0))::INTEGER AS total_rooms,
+           SUM(GREATEST(COALESCE(available_rooms, 0), 0))::INTEGER AS available_rooms
+    FROM public.boarding_houses
+    GROUP BY owner_id
+) l ON l.owner_id = o.owner_id
+LEFT JOIN (
+    SELECT owner_id,
+           COUNT(*)::INTEGER AS total_bookings,
+           COUNT(*) FILTER (WHERE status = 'pending')::INTEGER AS pending_bookings,
+           COUNT(*) FILTER (WHERE status IN ('confirmed', 'approved', 'active'))::INTEGER AS confirmed_bookings,
+           COUNT(*) FILTER (WHERE status = 'completed')::INTEGER AS completed_bookings,
+           COUNT(*) FILTER (WHERE status IN ('cancelled', 'rejected'))::INTEGER AS cancelled_bookings,
+           COALESCE(SUM(total_amount) FILTER (WHERE status = 'completed'), 0) AS total_revenue
+    FROM public.bookings
+    GROUP BY owner_id
+) b ON b.owner_id = o.owner_id
+ON CONFLICT (owner_id) DO UPDATE
+    SET listings_count = EXCLUDED.listings_count,
+        total_rooms = EXCLUDED.total_rooms,
+        available_rooms = EXCLUDED.available_rooms,
+        total_bookings = EXCLUDED.total_bookings,
+        pending_bookings = EXCLUDED.pending_bookings,
+        confirmed_bookings = EXCLUDED.confirmed_bookings,
+        completed_bookings = EXCLUDED.completed_bookings,
+        cancelled_bookings = EXCLUDED.cancelled_bookings,
+        total_revenue = EXCLUDED.total_revenue,
+        updated_at = now();
+
+-- RPC for the dashboard: the caller's row (zeros for a new owner) plus derived occupancy.
+-- Occupied rooms are the listed rooms that are no longer available.
+CREATE OR REPLACE FUNCTION public.owner_dashboard_stats()
+RETURNS JSON AS $$
+    SELECT json_build_object(
+        'properties_count', COALESCE(s.listings_count, 0),
+        'total_rooms', COALESCE(s.total_rooms, 0),
+        'occupied_rooms', GREATEST(COALESCE(s.total_rooms, 0) - COALESCE(s.available_rooms, 0), 0),
+        'occupancy_rate', CASE WHEN COALESCE(s.total_rooms, 0) > 0
+            THEN ROUND(GREATEST(s.total_rooms - s.available_rooms, 0)::NUMERIC / s.total_rooms, 4)
+            ELSE 0 END,
+        'total_bookings', COALESCE(s.total_bookings, 0),
+        'pending_bookings', COALESCE(s.pending_bookings, 0),
+        'confirmed_bookings', COALESCE(s.confirmed_bookings, 0),
+        'completed_bookings', COALESCE(s.completed_bookings, 0),
+        'cancelled_bookings', COALESCE(s.cancelled_bookings, 0),
+        'total_revenue', COALESCE(s.total_revenue, 0),
+        'updated_at', s.updated_at
+    )
+    FROM (SELECT auth.uid() AS owner_id) me
+    LEFT JOIN public.owner_stats s ON s.owner_id = me.owner_id;
+$$ LANGUAGE sql STABLE SECURITY INVOKER;
+
+GRANT EXECUTE ON FUNCTION public.owner_dashboard_stats() TO authenticated;
+
+COMMENT ON TABLE public.owner_stats IS 'Per-owner dashboard counters, maintained by the boarding_houses_owner_stats and bookings_owner_stats triggers';
@@ -0,0 +1,17 @@
+-- Keyset pagination for listing reviews
+-- Run this in your Supabase SQL Editor
+--
+-- The details screen pages reviews newest first with a (created_at, id) cursor:
+--   reviews?listing_id=eq.<id>&order=created_at.desc,id.desc&limit=N
+--          &or=(created_at.lt.<ts>,and(created_at.eq.<ts>,id.lt.<id>))
+-- This index serves every page as a range scan, however many reviews a listing has.
+
+-- A NULL created_at would sort ahead of every cursor and be skipped
+UPDATE public.reviews SET created_at = now() WHERE created_at IS NULL;
+ALTER TABLE public.reviews ALTER COLUMN created_at SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_reviews_listing_created
+    ON public.reviews (listing_id, created_at DESC, id DESC);
+
+-- Covered by the index above (same leading column)
+DROP INDEX IF EXISTS public.idx_reviews_listing;
@@ -0,0 +1,111 @@
+-- Unread notification counter maintained by triggers
+-- Run this in your Supabase SQL Editor (after create_notifications_table.sql)
+--
+-- The badge used to run COUNT(*) over the user's unread notifications on every request.
+-- This keeps one row per user with the current unread count so reading it is a
+-- primary-key lookup regardless of inbox size.
+
+CREATE TABLE IF NOT EXISTS public.notification_counters (
+    user_id UUID PRIMARY KEY REFERENCES public.users(id) ON DELETE CASCADE,
+    unread_count INTEGER NOT NULL DEFAULT 0 CHECK (unread_count >= 0),
+    updated_at TIMESTAMPTZ DEFAULT now()
+);
+
+ALTER TABLE public.notification_counters ENABLE ROW LEVEL SECURITY;
+
+DROP POLICY IF EXISTS "Users can view own notification counter" ON public.notification_counters;
+
+CREATE POLICY "Users can view own notification counter"
+    ON public.notification_counters FOR SELECT
+    USING (user_id = auth.uid());
+
+-- Only the trigger (SECURITY DEFINER) writes to the counter table
+GRANT SELECT ON public.notification_counters TO authenticated;
+GRANT ALL ON public.notification_counters TO service_role;
+
+-- Apply a delta to a user's counter, creating the row on first use
+CREATE OR REPLACE FUNCTION public.bump_unread_counter(target_user UUID, delta INTEGER)
+RETURNS VOID AS $$
+BEGIN
+    IF target_user IS NULL OR delta = 0 THEN
+        RETURN;
+    END IF;
+
+    INSERT INTO public.notification_counters (user_id, unread_count, updated_at)
+    VALUES (target_user, GREATEST(delta, 0), now())
+    ON CONFLICT (user_id) DO UPDATE
+        SET unread_count = GREATEST(public.notification_counters.unread_count + delta, 0),
+            updated_at = now();
+END;
+$$ LANGUAGE plpgsql SECURITY DEFINER;
+
+-- Internal helper: not callable through the REST API
+REVOKE EXECUTE ON FUNCTION public.bump_unread_counter(UUID, INTEGER) FROM PUBLIC, anon, authenticated;
+
+CREATE OR REPLACE FUNCTION public.maintain_unread_counter()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        IF NOT COALESCE(NEW.is_read, false) THEN
+            PERFORM public.bump_unread_counter(NEW.user_id, 1);
+        END IF;
+        RETURN NEW;
+
+    ELSIF TG_OP = 'DELETE' THEN
+        IF NOT COALESCE(OLD.is_read, false) THEN
+            PERFORM public.bump_unread_counter(OLD.user_id, -1);
+        END IF;
+        RETURN OLD;
+
+    ELSE -- UPDATE
+        IF NOT COALESCE(OLD.is_read, false) THEN
+            PERFORM public.bump_unread_counter(OLD.user_id, -1);
+        END IF;
+        IF NOT COALESCE(NEW.is_read, false) THEN
+            PERFORM public.bump_unread_counter(NEW.user_id, 1);
+        END IF;
+        RETURN NEW;
+    END IF;
+END;
+$$ LANGUAGE plpgsql SECURITY DEFINER;
+
+DROP TRIGGER IF EXISTS notifications_unread_counter ON public.notifications;
+
+-- UPDATE only fires when the read flag or owner actually changes
+CREATE TRIGGER notifications_unread_counter
+    AFTER INSERT OR DELETE OR UPDATE OF is_read, user_id ON public.notifications
+    FOR EACH ROW EXECUTE FUNCTION public.maintain_unread_counter();
+
+-- Backfill from existing data
+INSERT INTO public.notification_counters (user_id, unread_count, updated_at)
+SELECT user_id, COUNT(*)::INTEGER, now()
+FROM public.notifications
+WHERE is_read = false
+GROUP BY user_id
+ON CONFLICT (user_id) DO UPDATE
+    SET unread_count = EXCLUDED.unread_count,
+        updated_at = now();
+
+-- Tiny RPC for the app badge: constant-time lookup of the caller's counter
+CREATE OR REPLACE FUNCTION public.get_my_unread_count()
+RETURNS INTEGER AS $$
+    SELECT COALESCE(
+        (SELECT unread_count FROM public.notification_counters WHERE user_id = auth.uid()),
+        0
+    );
+$$ LANGUAGE sql STABLE SECURITY INVOKER;
+
+GRANT EXECUTE ON FUNCTION public.get_my_unread_count() TO authenticated;
+
+-- Keep the older helper consistent with the counter
+CREATE OR REPLACE FUNCTION get_unread_notifications_count(user_uuid UUID)
+RETURNS INTEGER AS $$
+BEGIN
+    RETURN COALESCE(
+        (SELECT unread_count FROM public.notification_counters WHERE user_id = user_uuid),
+        0
+    );
+END;
+$$ LANGUAGE plpgsql SECURITY DEFINER;
+
+COMMENT ON TABLE public.notification_counters IS 'Per-user unread notification count, maintained by the notifications_unread_counter trigger';
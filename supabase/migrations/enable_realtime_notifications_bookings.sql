@@ -0,0 +1,27 @@
+-- Enable Supabase Realtime (Postgres changes) for notifications and bookings
+-- Run this in your Supabase SQL Editor
+--
+-- The app keeps one websocket open while a screen that shows notifications or bookings
+-- is visible and applies INSERT/UPDATE/DELETE events in place. Events are filtered by the
+-- existing RLS SELECT policies, so users only receive their own rows.
+
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1 FROM pg_publication_tables
+        WHERE pubname = 'supabase_realtime' AND schemaname = 'public' AND tablename = 'notifications'
+    ) THEN
+        ALTER PUBLICATION supabase_realtime ADD TABLE public.notifications;
+    END IF;
+
+    IF NOT EXISTS (
+        SELECT 1 FROM pg_publication_tables
+        WHERE pubname = 'supabase_realtime' AND schemaname = 'public' AND tablename = 'bookings'
+    ) THEN
+        ALTER PUBLICATION supabase_realtime ADD TABLE public.bookings;
+    END IF;
+END $$;
+
+-- Include the previous row in UPDATE/DELETE events (DELETE otherwise only carries the key)
+ALTER TABLE public.notifications REPLICA IDENTITY FULL;
+ALTER TABLE public.bookings REPLICA IDENTITY FULL;
@@ -0,0 +1,402 @@
+package com.roominate.tools;
+
+import com.roominate.services.Gazetteer;
+import com.roominate.services.GeocodingService;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+/**
+ * Fills in latitude/longitude for boarding_houses rows that have none, so they show up on the
+ * map and in the nearby feed without waiting for their owner to edit the listing.
+ *
+ * - Pages through the rows missing coordinates in id order (keyset, {@code id=gt.<last>}).
+ * - Geocodes "address, city, province, Zambia" with the app's {@link GeocodingService}: same
+ *   gazetteer, rate limit and cache, the cache kept in a file between runs.
+ * - Writes results back in batches. A PATCH sets one value on every row it matches, so each
+ *   batch is sent as one {@code id=in.(...)} PATCH per distinct coordinate pair; listings
+ *   resolved to the same place (common for town/compound level addresses) share a request.
+ *   The PATCH re-checks that coordinates are still missing, so edits made meanwhile win.
+ * - After every batch the last written id goes to a checkpoint file. A rerun resumes after it;
+ *   a geocoder error stops the run at the failing row so nothing is skipped. Addresses that are
+ *   not found stay empty and are passed over until {@code --restart}.
+ *
+ * Usage:
+ *   SUPABASE_URL=... SUPABASE_SERVICE_ROLE_KEY=... ./gradlew :tools:geocode-backfill:run --args="--rate=1"
+ *
+ * Options ({@code --name=value}): rest-url (defaults to $SUPABASE_URL/rest/v1, point it at a
+ * bare PostgREST for local testing), api-key (defaults to $SUPABASE_SERVICE_ROLE_KEY),
+ * geocoder-url (any Nominatim-compatible /search), rate (requests per second), page-size,
+ * batch-size, checkpoint, cache; flags --dry-run, --restart, --no-gazetteer.
+ */
+public class GeocodeBackfill {
+
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+    private static final String MISSING_COORDINATES = "(latitude.is.null,longitude.is.null)";
+
+    static final class Options {
+        String restUrl;
+        String apiKey;
+        String geocoderUrl = GeocodingService.NominatimEndpoint.DEFAULT_BASE_URL;
+        double requestsPerSecond = GeocodingService.NOMINATIM_REQUESTS_PER_SECOND;
+        int pageSize = 100;
+        int batchSize = 25;
+        File checkpointFile = new File("geocode-backfill-checkpoint.json");
+        File cacheFile = new File("geocode-backfill-cache.json");
+        boolean useGazetteer = true;
+        boolean dryRun;
+        boolean restart;
+
+        static Options parse(String[] args, Map<String, String> env) {
+            Options options = new Options();
+            String supabaseUrl = env.get("SUPABASE_URL");
+            if (supabaseUrl != null && !supabaseUrl.isEmpty()) {
+                options.restUrl = supabaseUrl.replaceAll("/+$", "") + "/rest/v1";
+            }
+            options.apiKey = env.get("SUPABASE_SERVICE_ROLE_KEY");
+
+            for (String arg : args) {
+                if (!arg.startsWith("--")) throw new IllegalArgumentException("Unexpected argument: " + arg);
+                int eq = arg.indexOf('=');
+                String name = eq < 0 ? arg.substring(2) : arg.substring(2, eq);
+                String value = eq < 0 ? null : arg.substring(eq + 1);
+                switch (name) {
+                    case "rest-url": options.restUrl = value; break;
+                    case "api-key": options.apiKey = value; break;
+                    case "geocoder-url": options.geocoderUrl = value; break;
+                    case "rate": options.requestsPerSecond = Double.parseDouble(value); break;
+                    case "page-size": options.pageSize = Integer.parseInt(value); break;
+                    case "batch-size": options.batchSize = Integer.parseInt(value); break;
+                    case "checkpoint": options.checkpointFile = new File(value); break;
+                    case "cache": options.cacheFile = new File(value); break;
+                    case "no-gazetteer": options.useGazetteer = false; break;
+                    case "dry-run": options.dryRun = true; break;
+                    case "restart": options.restart = true; break;
+                    default: throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+            if (options.restUrl == null || options.restUrl.isEmpty()) {
+                throw new IllegalArgumentException("Set SUPABASE_URL or --rest-url");
+            }
+            options.restUrl = options.restUrl.replaceAll("/+$", "");
+            if (options.requestsPerSecond <= 0 || options.pageSize <= 0 || options.batchSize <= 0) {
+                throw new IllegalArgumentException("rate, page-size and batch-size must be positive");
+            }
+            return options;
+        }
+    }
+
+    /** Progress saved after every batch; counts are totals over all runs since the last restart */
+    static final class Checkpoint {
+        String lastId;
+        int scanned;
+        int updated;
+        int notFound;
+
+        static Checkpoint load(File file) throws IOException {
+            Checkpoint checkpoint = new Checkpoint();
+            if (!file.exists()) return checkpoint;
+            try {
+                JSONObject json = new JSONObject(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+                checkpoint.lastId = json.optString("last_id", null);
+                checkpoint.scanned = json.optInt("scanned");
+                checkpoint.updated = json.optInt("updated");
+                checkpoint.notFound = json.optInt("not_found");
+            } catch (JSONException e) {
+                throw new IOException("Corrupt checkpoint " + file + ": " + e.getMessage(), e);
+            }
+            return checkpoint;
+        }
+
+        void save(File file) throws IOException {
+            JSONObject json = new JSONObject();
+            try {
+                json.put("last_id", lastId != null ? lastId : JSONObject.NULL);
+                json.put("scanned", scanned);
+                json.put("updated", updated);
+                json.put("not_found", notFound);
+            } catch (JSONException e) {
+                throw new IOException(e);
+            }
+            writeAtomically(file, json.toString(2));
+        }
+    }
+
+    /** Cache snapshot in a file, so reruns don't ask the geocoder again */
+    static final class FileStore implements GeocodingService.Store {
+        private final File file;
+
+        FileStore(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public String load() {
+            try {
+                return file.exists() ? new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8) : null;
+            } catch (IOException e) {
+                System.err.println("Ignoring unreadable cache " + file + ": " + e.getMessage());
+                return null;
+            }
+        }
+
+        @Override
+        public void save(String snapshot) {
+            try {
+                if (snapshot == null) {
+                    Files.deleteIfExists(file.toPath());
+                } else {
+                    writeAtomically(file, snapshot);
+                }
+            } catch (IOException e) {
+                System.err.println("Failed to save cache " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private final Options options;
+    private final OkHttpClient client;
+    private final GeocodingService geocoder;
+
+    // Geocoded rows not yet written back: id -> {latitude, longitude}
+    private final Map<String, double[]> pending = new LinkedHashMap<>();
+    private Checkpoint checkpoint;
+    // Last row whose result is either written or not needed
+    private String processedId;
+
+    GeocodeBackfill(Options options, OkHttpClient client, GeocodingService geocoder) {
+        this.options = options;
+        this.client = client;
+        this.geocoder = geocoder;
+    }
+
+    public static void main(String[] args) {
+        Options options;
+        try {
+            options = Options.parse(args, System.getenv());
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        OkHttpClient client = new OkHttpClient.Builder()
+                .connectTimeout(30, TimeUnit.SECONDS)
+                .readTimeout(60, TimeUnit.SECONDS)
+                .build();
+        try {
+            GeocodeBackfill backfill = new GeocodeBackfill(options, client, createGeocoder(options, client));
+            Checkpoint result = backfill.run();
+            System.out.println("Done: " + result.scanned + " scanned, " + result.updated + " updated, "
+                    + result.notFound + " not found");
+        } catch (IOException e) {
+            System.err.println("Backfill stopped: " + e.getMessage() + " (rerun to resume from the checkpoint)");
+            System.exit(1);
+        } finally {
+            client.dispatcher().executorService().shutdown();
+            client.connectionPool().evictAll();
+        }
+    }
+
+    static GeocodingService createGeocoder(Options options, OkHttpClient client) throws IOException {
+        Gazetteer gazetteer = null;
+        if (options.useGazetteer) {
+            try (InputStream in = GeocodeBackfill.class.getResourceAsStream("/" + Gazetteer.ASSET_NAME)) {
+                if (in == null) throw new IOException(Gazetteer.ASSET_NAME + " missing from the classpath");
+                gazetteer = Gazetteer.read(in);
+            }
+        }
+        // Lookups run on the caller's thread (geocodeBlocking), so the service is blocking-only
+        return new GeocodingService(
+                new GeocodingService.NominatimEndpoint(client, options.geocoderUrl),
+                new FileStore(options.cacheFile),
+                null,
+                gazetteer,
+                options.requestsPerSecond);
+    }
+
+    /**
+     * Process every remaining row.
+     * @return the final checkpoint (totals)
+     * @throws IOException on database or geocoder errors; progress up to the failing row is saved
+     */
+    Checkpoint run() throws IOException {
+        checkpoint = options.restart ? new Checkpoint() : Checkpoint.load(options.checkpointFile);
+        processedId = checkpoint.lastId;
+        if (processedId != null) {
+            System.out.println("Resuming after " + processedId);
+        }
+
+        try {
+            processPages();
+        } catch (IOException e) {
+            // Keep whatever was geocoded before the failure
+            try {
+                commit();
+            } catch (IOException writeFailed) {
+                e.addSuppressed(writeFailed);
+            }
+            throw e;
+        }
+        commit();
+        return checkpoint;
+    }
+
+    private void processPages() throws IOException {
+        try {
+            String cursor = processedId;
+            while (true) {
+                JSONArray page = fetchPage(cursor);
+                for (int i = 0; i < page.length(); i++) {
+                    JSONObject row = page.getJSONObject(i);
+                    String id = row.getString("id");
+                    geocodeRow(id, fullAddress(row));
+                    processedId = id;
+                    cursor = id;
+                    if (pending.size() >= options.batchSize) commit();
+                }
+                if (page.length() < options.pageSize) break;
+            }
+        } catch (JSONException e) {
+            throw new IOException("Unexpected response: " + e.getMessage(), e);
+        }
+    }
+
+    private void geocodeRow(String id, String address) throws IOException {
+        JSONObject result;
+        try {
+            result = address.isEmpty() ? null : geocoder.geocodeBlocking(address);
+        } catch (IOException e) {
+            throw new IOException("Geocoding listing " + id + " failed: " + e.getMessage(), e);
+        }
+        checkpoint.scanned++;
+        if (result == null) {
+            checkpoint.notFound++;
+            System.out.println(id + ": not found (" + address + ")");
+            return;
+        }
+        pending.put(id, new double[] { result.optDouble("latitude"), result.optDouble("longitude") });
+    }
+
+    /** "address, city, province, Zambia", skipping empty parts; same shape the listing editor geocodes */
+    static String fullAddress(JSONObject row) {
+        StringBuilder sb = new StringBuilder();
+        for (String column : new String[] { "address", "city", "province" }) {
+            String part = row.isNull(column) ? "" : row.optString(column, "").trim();
+            if (part.isEmpty()) continue;
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(part);
+        }
+        return sb.length() == 0 ? "" : sb.append(", Zambia").toString();
+    }
+
+    private JSONArray fetchPage(String afterId) throws IOException, JSONException {
+        HttpUrl.Builder url = HttpUrl.get(options.restUrl + "/boarding_houses").newBuilder()
+                .addQueryParameter("select", "id,address,city,province")
+                .addQueryParameter("or", MISSING_COORDINATES)
+                .addQueryParameter("order", "id.asc")
+                .addQueryParameter("limit", String.valueOf(options.pageSize));
+        if (afterId != null) url.addQueryParameter("id", "gt." + afterId);
+
+        Request.Builder rb = new Request.Builder().url(url.build()).get();
+        addAuthHeaders(rb);
+        try (Response response = client.newCall(rb.build()).execute()) {
+            String body = response.body() != null ? response.body().string() : "";
+            if (!response.isSuccessful()) {
+                throw new IOException("Failed to fetch listings: " + response.code() + " - " + body);
+            }
+            return new JSONArray(body);
+        }
+    }
+
+    /** Write pending results, then move the checkpoint past everything processed so far */
+    private void commit() throws IOException {
+        if (!pending.isEmpty()) {
+            // Same coordinates -> one PATCH for all of those ids
+            Map<String, List<String>> groups = new LinkedHashMap<>();
+            Map<String, double[]> coordinates = new HashMap<>();
+            for (Map.Entry<String, double[]> e : pending.entrySet()) {
+                String key = e.getValue()[0] + "," + e.getValue()[1];
+                coordinates.put(key, e.getValue());
+                groups.computeIfAbsent(key, k -> new ArrayList<>()).add(e.getKey());
+            }
+            for (Map.Entry<String, List<String>> group : groups.entrySet()) {
+                double[] latLon = coordinates.get(group.getKey());
+                checkpoint.updated += options.dryRun
+                        ? group.getValue().size()
+                        : patch(group.getValue(), latLon[0], latLon[1]);
+                for (String id : group.getValue()) {
+                    System.out.println(id + ": " + latLon[0] + ", " + latLon[1] + (options.dryRun ? " (dry run)" : ""));
+                }
+            }
+            pending.clear();
+        }
+        checkpoint.lastId = processedId;
+        if (!options.dryRun) checkpoint.save(options.checkpointFile);
+    }
+
+    /** @return number of rows actually updated */
+    private int patch(List<String> ids, double latitude, double longitude) throws IOException {
+        HttpUrl url = HttpUrl.get(options.restUrl + "/boarding_houses").newBuilder()
+                .addQueryParameter("id", "in.(" + String.join(",", ids) + ")")
+                .addQueryParameter("or", MISSING_COORDINATES)
+                .addQueryParameter("select", "id")
+                .build();
+        JSONObject payload = new JSONObject();
+        try {
+            payload.put("latitude", latitude);
+            payload.put("longitude", longitude);
+        } catch (JSONException e) {
+            throw new IOException(e);
+        }
+
+        Request.Builder rb = new Request.Builder()
+                .url(url)
+                .patch(RequestBody.create(payload.toString(), JSON))
+                .addHeader("Content-Type", "application/json")
+                .addHeader("Prefer", "return=representation");
+        addAuthHeaders(rb);
+        try (Response response = client.newCall(rb.build()).execute()) {
+            String body = response.body() != null ? response.body().string() : "";
+            if (!response.isSuccessful()) {
+                throw new IOException("Failed to update " + ids + ": " + response.code() + " - " + body);
+            }
+            return new JSONArray(body).length();
+        } catch (JSONException e) {
+            throw new IOException("Unexpected update response: " + e.getMessage(), e);
+        }
+    }
+
+    private void addAuthHeaders(Request.Builder rb) {
+        if (options.apiKey == null || options.apiKey.isEmpty()) return;
+        rb.addHeader("apikey", options.apiKey);
+        rb.addHeader("Authorization", "Bearer " + options.apiKey);
+    }
+
+    private static void writeAtomically(File file, String content) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        Files.write(tmp.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,230 @@
+package com.roominate.tools;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs the backfill against two MockWebServers: a minimal PostgREST holding boarding_houses
+ * rows in memory, and a Nominatim stand-in.
+ */
+public class GeocodeBackfillTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private MockWebServer rest;
+    private MockWebServer geocoder;
+    private FakePostgrest table;
+    private final List<String> patches = new ArrayList<>();
+
+    /** Just enough PostgREST: the select and the PATCH the backfill sends */
+    private class FakePostgrest extends Dispatcher {
+        // id -> row
+        final Map<String, JSONObject> rows = new TreeMap<>();
+
+        void add(String id, String address, String city, String province) throws Exception {
+            rows.put(id, new JSONObject().put("id", id).put("address", address).put("city", city)
+                    .put("province", province).put("latitude", JSONObject.NULL).put("longitude", JSONObject.NULL));
+        }
+
+        @Override
+        public synchronized MockResponse dispatch(RecordedRequest request) {
+            try {
+                HttpUrl url = request.getRequestUrl();
+                assertEquals("(latitude.is.null,longitude.is.null)", url.queryParameter("or"));
+                if ("GET".equals(request.getMethod())) {
+                    String after = url.queryParameter("id");
+                    int limit = Integer.parseInt(url.queryParameter("limit"));
+                    JSONArray page = new JSONArray();
+                    for (JSONObject row : rows.values()) {
+                        if (!row.isNull("latitude")) continue;
+                        if (after != null && row.getString("id").compareTo(after.substring(3)) <= 0) continue;
+                        if (page.length() == limit) break;
+                        page.put(row);
+                    }
+                    return new MockResponse().setBody(page.toString());
+                }
+                if ("PATCH".equals(request.getMethod())) {
+                    String in = url.queryParameter("id");
+                    List<String> ids = Arrays.asList(in.substring(4, in.length() - 1).split(","));
+                    patches.add(in);
+                    JSONObject body = new JSONObject(request.getBody().readUtf8());
+                    JSONArray updated = new JSONArray();
+                    for (String id : ids) {
+                        JSONObject row = rows.get(id);
+                        if (row == null || !row.isNull("latitude")) continue;
+                        row.put("latitude", body.getDouble("latitude")).put("longitude", body.getDouble("longitude"));
+                        updated.put(new JSONObject().put("id", id));
+                    }
+                    return new MockResponse().setBody(updated.toString());
+                }
+                return new MockResponse().setResponseCode(405);
+            } catch (Exception e) {
+                return new MockResponse().setResponseCode(500).setBody(e.toString());
+            }
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        table = new FakePostgrest();
+        rest = new MockWebServer();
+        rest.setDispatcher(table);
+        rest.start();
+        geocoder = new MockWebServer();
+        geocoder.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        rest.shutdown();
+        geocoder.shutdown();
+    }
+
+    private GeocodeBackfill.Options options(String... extra) throws IOException {
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "--rest-url=" + rest.url("/").toString(),
+                "--geocoder-url=" + geocoder.url("/").toString().replaceAll("/$", ""),
+                "--rate=100",
+                "--page-size=2",
+                "--batch-size=2",
+                "--checkpoint=" + tmp.getRoot() + "/checkpoint.json",
+                "--cache=" + tmp.getRoot() + "/cache.json"));
+        args.addAll(Arrays.asList(extra));
+        return GeocodeBackfill.Options.parse(args.toArray(new String[0]), new java.util.HashMap<>());
+    }
+
+    private GeocodeBackfill.Checkpoint run(GeocodeBackfill.Options options) throws IOException {
+        OkHttpClient client = new OkHttpClient();
+        return new GeocodeBackfill(options, client, GeocodeBackfill.createGeocoder(options, client)).run();
+    }
+
+    private static String hit(double lat, double lon) {
+        return "[{\"lat\":\"" + lat + "\",\"lon\":\"" + lon + "\",\"display_name\":\"x\"}]";
+    }
+
+    @Test
+    public void fillsMissingCoordinatesAndGroupsIdenticalResults() throws Exception {
+        table.add("a", "Plot 1, Kabulonga Rd", "Lusaka", "Lusaka");
+        table.add("b", "Plot 2, Kabulonga Rd", "Lusaka", "Lusaka");
+        table.add("c", null, "Kabwata", "Lusaka");
+        table.add("d", "Nowhere St", "Atlantis", "Deep");
+        // a and b, then d and its simplified retry; c is answered by the gazetteer
+        geocoder.enqueue(new MockResponse().setBody(hit(-15.40, 28.32)));
+        geocoder.enqueue(new MockResponse().setBody(hit(-15.40, 28.32)));
+        geocoder.enqueue(new MockResponse().setBody("[]"));
+        geocoder.enqueue(new MockResponse().setBody("[]"));
+
+        GeocodeBackfill.Checkpoint result = run(options());
+
+        assertEquals(4, result.scanned);
+        assertEquals(3, result.updated);
+        assertEquals(1, result.notFound);
+        assertEquals(-15.40, table.rows.get("a").getDouble("latitude"), 1e-9);
+        assertEquals(-15.40, table.rows.get("b").getDouble("latitude"), 1e-9);
+        assertTrue(table.rows.get("d").isNull("latitude"));
+        assertEquals(4, geocoder.getRequestCount());
+        // a and b share one PATCH; c is flushed on its own at the end
+        assertEquals(Arrays.asList("in.(a,b)", "in.(c)"), patches);
+        assertEquals("d", GeocodeBackfill.Checkpoint.load(options().checkpointFile).lastId);
+    }
+
+    @Test
+    public void resumesFromTheCheckpointAfterAGeocoderFailure() throws Exception {
+        table.add("a", "Plot 1", "Lusaka", "Lusaka");
+        table.add("b", "Plot 2", "Lusaka", "Lusaka");
+        table.add("c", "Plot 3", "Lusaka", "Lusaka");
+        geocoder.enqueue(new MockResponse().setBody(hit(-15.1, 28.1)));
+        geocoder.enqueue(new MockResponse().setResponseCode(503));
+
+        try {
+            run(options("--no-gazetteer"));
+            fail("Expected the run to stop");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("listing b"));
+        }
+        // a was written before stopping; b is retried by the next run
+        assertEquals(-15.1, table.rows.get("a").getDouble("latitude"), 1e-9);
+        assertEquals("a", GeocodeBackfill.Checkpoint.load(options().checkpointFile).lastId);
+
+        geocoder.enqueue(new MockResponse().setBody(hit(-15.2, 28.2)));
+        geocoder.enqueue(new MockResponse().setBody(hit(-15.3, 28.3)));
+        GeocodeBackfill.Checkpoint result = run(options("--no-gazetteer"));
+
+        assertEquals(3, result.updated);
+        assertEquals(-15.2, table.rows.get("b").getDouble("latitude"), 1e-9);
+        assertEquals(-15.3, table.rows.get("c").getDouble("latitude"), 1e-9);
+        // a is not looked up again
+        assertEquals(4, geocoder.getRequestCount());
+    }
+
+    @Test
+    public void cachedAnswersAreNotRequestedAgain() throws Exception {
+        table.add("a", "Plot 1", "Lusaka", "Lusaka");
+        geocoder.enqueue(new MockResponse().setBody(hit(-15.1, 28.1)));
+        run(options("--no-gazetteer", "--dry-run"));
+        assertTrue(table.rows.get("a").isNull("latitude"));
+        assertTrue(patches.isEmpty());
+
+        GeocodeBackfill.Checkpoint result = run(options("--no-gazetteer"));
+        assertEquals(1, result.updated);
+        assertEquals(1, geocoder.getRequestCount());
+    }
+
+    @Test
+    public void rowsEditedMeanwhileAreLeftAlone() throws Exception {
+        table.add("a", "Plot 1", "Lusaka", "Lusaka");
+        geocoder.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                // The owner saves a pin while the lookup is in flight
+                try {
+                    table.rows.get("a").put("latitude", -1.0).put("longitude", 2.0);
+                } catch (Exception e) {
+                    throw new AssertionError(e);
+                }
+                return new MockResponse().setBody(hit(-15.1, 28.1));
+            }
+        });
+
+        GeocodeBackfill.Checkpoint result = run(options("--no-gazetteer"));
+        assertEquals(0, result.updated);
+        assertEquals(-1.0, table.rows.get("a").getDouble("latitude"), 1e-9);
+    }
+
+    @Test
+    public void fullAddressSkipsEmptyParts() throws Exception {
+        JSONObject row = new JSONObject().put("address", " ").put("city", "Ndola").put("province", JSONObject.NULL);
+        assertEquals("Ndola, Zambia", GeocodeBackfill.fullAddress(row));
+        assertEquals("", GeocodeBackfill.fullAddress(new JSONObject()));
+    }
+
+    @Test
+    public void noCheckpointStartsFromTheBeginning() throws Exception {
+        assertNull(GeocodeBackfill.Checkpoint.load(new java.io.File(tmp.getRoot(), "missing.json")).lastId);
+    }
+}